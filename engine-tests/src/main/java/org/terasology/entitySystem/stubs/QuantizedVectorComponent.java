@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.stubs;
+
+import org.terasology.entitySystem.Component;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.Quantized;
+
+/**
+ */
+public final class QuantizedVectorComponent implements Component {
+    @Quantized(step = 0.25f)
+    public Vector3f value = new Vector3f();
+
+    public QuantizedVectorComponent() {
+    }
+
+    public QuantizedVectorComponent(Vector3f value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ArchetypeComponentTableTest {
+
+    private ArchetypeComponentTable table;
+
+    @Before
+    public void setup() {
+        table = new ArchetypeComponentTable();
+    }
+
+    @Test
+    public void testComponentsSurviveArchetypeChanges() {
+        FirstComponent first = new FirstComponent();
+        SecondComponent second = new SecondComponent();
+        table.put(1, first);
+        table.put(1, second);
+        table.put(2, new FirstComponent());
+
+        assertSame(first, table.get(1, FirstComponent.class));
+        assertSame(second, table.get(1, SecondComponent.class));
+
+        assertSame(first, table.remove(1, FirstComponent.class));
+        assertNull(table.get(1, FirstComponent.class));
+        assertSame(second, table.get(1, SecondComponent.class));
+        assertEquals(1, table.getComponentCount(FirstComponent.class));
+        assertEquals(2, table.numEntities());
+    }
+
+    @Test
+    public void testPutReplacesExistingComponent() {
+        FirstComponent original = new FirstComponent();
+        FirstComponent replacement = new FirstComponent();
+        assertNull(table.put(1, original));
+        assertSame(original, table.put(1, replacement));
+        assertSame(replacement, table.get(1, FirstComponent.class));
+    }
+
+    @Test
+    public void testRemovingEntityKeepsOtherRowsIntact() {
+        for (long id = 1; id <= 40; id++) {
+            table.put(id, new FirstComponent());
+        }
+        FirstComponent last = new FirstComponent();
+        table.put(41, last);
+
+        List<Component> removed = table.removeAndReturnComponentsOf(3);
+        assertEquals(1, removed.size());
+        assertNull(table.get(3, FirstComponent.class));
+        assertSame(last, table.get(41, FirstComponent.class));
+        assertEquals(40, table.getComponentCount(FirstComponent.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testQueryReturnsOnlyEntitiesWithAllComponents() {
+        table.put(1, new FirstComponent());
+        table.put(2, new FirstComponent());
+        table.put(2, new SecondComponent());
+        table.put(3, new SecondComponent());
+        table.put(4, new SecondComponent());
+        table.put(4, new ThirdComponent());
+        table.put(4, new FirstComponent());
+
+        TLongList ids = table.getEntityIdsWith(new Class[]{FirstComponent.class, SecondComponent.class});
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains(2));
+        assertTrue(ids.contains(4));
+        assertEquals(2, table.getCountOfEntitiesWith(new Class[]{SecondComponent.class, FirstComponent.class}));
+        assertEquals(0, table.getEntityIdsWith(new Class[]{UnusedComponent.class}).size());
+    }
+
+    @Test
+    public void testComponentIteratorVisitsAllArchetypes() {
+        table.put(1, new FirstComponent());
+        table.put(2, new FirstComponent());
+        table.put(2, new SecondComponent());
+        table.put(3, new SecondComponent());
+
+        TLongObjectIterator<FirstComponent> iterator = table.componentIterator(FirstComponent.class);
+        long idSum = 0;
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            idSum += iterator.key();
+            assertSame(table.get(iterator.key(), FirstComponent.class), iterator.value());
+            count++;
+        }
+        assertEquals(2, count);
+        assertEquals(3, idSum);
+        assertNull(table.componentIterator(UnusedComponent.class));
+    }
+
+    @Test
+    public void testComponentIteratorRemoveVisitsEveryEntityOnce() {
+        for (long id = 1; id <= 40; id++) {
+            table.put(id, new FirstComponent());
+            if (id % 3 == 0) {
+                table.put(id, new SecondComponent());
+            }
+        }
+
+        TLongObjectIterator<FirstComponent> iterator = table.componentIterator(FirstComponent.class);
+        TLongSet visited = new TLongHashSet();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertTrue(visited.add(iterator.key()));
+            if (iterator.key() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(40, visited.size());
+        assertEquals(20, table.getComponentCount(FirstComponent.class));
+        assertNull(table.get(6, FirstComponent.class));
+        assertTrue(table.get(6, SecondComponent.class) != null);
+        assertTrue(table.get(9, FirstComponent.class) != null);
+        assertEquals(26, table.numEntities());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testComponentIteratorRemoveNeedsCurrentEntity() {
+        table.put(1, new FirstComponent());
+        TLongObjectIterator<FirstComponent> iterator = table.componentIterator(FirstComponent.class);
+        iterator.advance();
+        iterator.remove();
+        iterator.remove();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testComponentIteratorFailsFastOnModification() {
+        table.put(1, new FirstComponent());
+        table.put(2, new FirstComponent());
+        TLongObjectIterator<FirstComponent> iterator = table.componentIterator(FirstComponent.class);
+        iterator.advance();
+        table.put(iterator.key(), new SecondComponent());
+        iterator.hasNext();
+    }
+
+    @Test
+    public void testReplacingComponentWhileIteratingIsAllowed() {
+        table.put(1, new FirstComponent());
+        table.put(2, new FirstComponent());
+        TLongObjectIterator<FirstComponent> iterator = table.componentIterator(FirstComponent.class);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            table.put(iterator.key(), new FirstComponent());
+            count++;
+        }
+        assertEquals(2, count);
+        assertFalse(iterator.hasNext());
+    }
+
+    private static class FirstComponent implements Component {
+    }
+
+    private static class SecondComponent implements Component {
+    }
+
+    private static class ThirdComponent implements Component {
+    }
+
+    private static class UnusedComponent implements Component {
+    }
+}
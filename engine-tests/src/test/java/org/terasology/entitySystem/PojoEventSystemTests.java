@@ -16,6 +16,8 @@
 package org.terasology.entitySystem;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.context.internal.ContextImpl;
@@ -26,6 +28,7 @@
 import org.terasology.entitySystem.event.Event;
 import org.terasology.entitySystem.event.EventPriority;
 import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.event.ThreadSafeEventHandler;
 import org.terasology.entitySystem.event.internal.EventReceiver;
 import org.terasology.entitySystem.event.internal.EventSystemImpl;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
@@ -42,9 +45,13 @@
 import org.terasology.reflection.reflect.ReflectionReflectFactory;
 import org.terasology.registry.CoreRegistry;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -56,6 +63,8 @@ public class PojoEventSystemTests {
     ComponentLibrary compLibrary;
     EventSystemImpl eventSystem;
     PojoEntityManager entityManager;
+    EntitySystemLibrary entitySystemLibrary;
+    NetworkSystem networkSystem;
     EntityRef entity;
 
     @Before
@@ -66,12 +75,12 @@ public void setup() {
         CopyStrategyLibrary copyStrategies = new CopyStrategyLibrary(reflectFactory);
         TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, copyStrategies);
 
-        EntitySystemLibrary entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
+        entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
         compLibrary = entitySystemLibrary.getComponentLibrary();
         entityManager = new PojoEntityManager();
         entityManager.setComponentLibrary(entitySystemLibrary.getComponentLibrary());
         entityManager.setPrefabManager(new PojoPrefabManager(context));
-        NetworkSystem networkSystem = mock(NetworkSystem.class);
+        networkSystem = mock(NetworkSystem.class);
         when(networkSystem.getMode()).thenReturn(NetworkMode.NONE);
         eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), networkSystem);
         entityManager.setEventSystem(eventSystem);
@@ -212,6 +221,137 @@ public void testEventReceiverRegistration() {
         assertEquals(1, receiver.eventList.size());
     }
 
+    @Test
+    public void testDispatchFollowsComponentChanges() {
+        StringComponent stringComponent = entity.addComponent(new StringComponent());
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testHandlerRegistrationChangesDispatch() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        entity.send(new TestEvent());
+
+        eventSystem.registerEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testComponentParametersArePassedToHandler() {
+        StringComponent stringComponent = entity.addComponent(new StringComponent());
+        IntegerComponent intComponent = entity.addComponent(new IntegerComponent());
+        TestComponentParameterEventHandler handler = new TestComponentParameterEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(1, handler.stringComponents.size());
+        assertEquals(stringComponent, handler.stringComponents.get(0));
+        assertEquals(intComponent, handler.intComponents.get(0));
+    }
+
+    @Test
+    public void testParallelDispatchKeepsOrderPerEntity() throws Exception {
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), networkSystem, 2);
+        entityManager.setEventSystem(eventSystem);
+        List<EntityRef> entities = Lists.newArrayList();
+        for (int i = 0; i < 10; ++i) {
+            entities.add(entityManager.create(new StringComponent()));
+        }
+        TestThreadSafeEventHandler handler = new TestThreadSafeEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> {
+            for (int i = 0; i < 100; ++i) {
+                for (EntityRef target : entities) {
+                    target.send(new TestSequenceEvent(i));
+                }
+            }
+        });
+        sender.start();
+        sender.join();
+        eventSystem.process();
+
+        for (EntityRef target : entities) {
+            List<Integer> received = handler.received.get(target);
+            assertEquals(100, received.size());
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(i, (int) received.get(i));
+            }
+        }
+        assertFalse(handler.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testParallelDispatchUsesMainThreadForOtherHandlers() throws Exception {
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), networkSystem, 2);
+        entityManager.setEventSystem(eventSystem);
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> entity.send(new TestEvent()));
+        sender.start();
+        sender.join();
+        assertEquals(0, handler.receivedList.size());
+
+        eventSystem.process();
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testParallelDispatchKeepsOrderAcrossEntities() throws Exception {
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), networkSystem, 2);
+        entityManager.setEventSystem(eventSystem);
+        EntityRef first = entityManager.create(new IntegerComponent());
+        EntityRef second = entityManager.create(new IntegerComponent());
+        EntityRef firstThreadSafe = entityManager.create(new StringComponent());
+        EntityRef secondThreadSafe = entityManager.create(new StringComponent());
+        List<Integer> order = Collections.synchronizedList(Lists.newArrayList());
+        TestThreadSafeEventHandler threadSafeHandler = new TestThreadSafeEventHandler();
+        threadSafeHandler.order = order;
+        eventSystem.registerEventHandler(threadSafeHandler);
+        TestSequenceEventHandler handler = new TestSequenceEventHandler(order);
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> {
+            first.send(new TestSequenceEvent(0));
+            second.send(new TestSequenceEvent(1));
+            firstThreadSafe.send(new TestSequenceEvent(2));
+            secondThreadSafe.send(new TestSequenceEvent(3));
+            first.send(new TestSequenceEvent(4));
+            firstThreadSafe.send(new TestSequenceEvent(5));
+        });
+        sender.start();
+        sender.join();
+        eventSystem.process();
+
+        assertEquals(6, order.size());
+        assertEquals(0, (int) order.get(0));
+        assertEquals(1, (int) order.get(1));
+        assertEquals(Sets.newHashSet(2, 3), Sets.newHashSet(order.subList(2, 4)));
+        assertEquals(4, (int) order.get(4));
+        assertEquals(5, (int) order.get(5));
+        assertFalse(threadSafeHandler.threads.contains(Thread.currentThread()));
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
@@ -333,6 +473,57 @@ public Received(TestEvent event, EntityRef entity) {
         }
     }
 
+    public static class TestComponentParameterEventHandler extends BaseComponentSystem {
+
+        List<StringComponent> stringComponents = Lists.newArrayList();
+        List<IntegerComponent> intComponents = Lists.newArrayList();
+
+        @ReceiveEvent
+        public void handleEvent(TestEvent event, EntityRef entity, StringComponent stringComponent, IntegerComponent intComponent) {
+            stringComponents.add(stringComponent);
+            intComponents.add(intComponent);
+        }
+    }
+
+    public static class TestSequenceEvent implements Event {
+        private int index;
+
+        public TestSequenceEvent(int index) {
+            this.index = index;
+        }
+    }
+
+    public static class TestThreadSafeEventHandler extends BaseComponentSystem {
+
+        Map<EntityRef, List<Integer>> received = Maps.newConcurrentMap();
+        Set<Thread> threads = Sets.newConcurrentHashSet();
+        List<Integer> order;
+
+        @ThreadSafeEventHandler
+        @ReceiveEvent(components = StringComponent.class)
+        public void handleEvent(TestSequenceEvent event, EntityRef entity) {
+            received.computeIfAbsent(entity, key -> Collections.synchronizedList(Lists.newArrayList())).add(event.index);
+            threads.add(Thread.currentThread());
+            if (order != null) {
+                order.add(event.index);
+            }
+        }
+    }
+
+    public static class TestSequenceEventHandler extends BaseComponentSystem {
+
+        List<Integer> order;
+
+        public TestSequenceEventHandler(List<Integer> order) {
+            this.order = order;
+        }
+
+        @ReceiveEvent(components = IntegerComponent.class)
+        public void handleEvent(TestSequenceEvent event, EntityRef entity) {
+            order.add(event.index);
+        }
+    }
+
     public static class TestEventReceiver implements EventReceiver<TestEvent> {
         List<Event> eventList = Lists.newArrayList();
 
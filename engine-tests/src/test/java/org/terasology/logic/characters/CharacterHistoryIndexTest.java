@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.utilities.collection.CircularBuffer;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class CharacterHistoryIndexTest {
+
+    private static final int HISTORY_LENGTH = 4;
+
+    private CharacterHistoryIndex index;
+    private EntityRef near;
+    private EntityRef far;
+
+    @Before
+    public void setup() {
+        index = new CharacterHistoryIndex(HISTORY_LENGTH);
+        near = mock(EntityRef.class);
+        far = mock(EntityRef.class);
+    }
+
+    @Test
+    public void testQueryFindsCharactersNearVolume() {
+        index.add(near, new Vector3f(1, 2, 3));
+        index.add(far, new Vector3f(500, 2, 3));
+
+        assertEquals(Sets.newHashSet(near), query(new Vector3f(0, 0, 0), 5));
+        assertEquals(Sets.newHashSet(far), query(new Vector3f(500, 0, 0), 5));
+    }
+
+    @Test
+    public void testQueryFindsPastPositions() {
+        index.add(far, new Vector3f(1, 2, 3));
+        index.add(far, new Vector3f(500, 2, 3));
+
+        assertEquals(Sets.newHashSet(far), query(new Vector3f(0, 0, 0), 5));
+    }
+
+    @Test
+    public void testOldestPositionsAreForgotten() {
+        index.add(far, new Vector3f(1, 2, 3));
+        for (int i = 0; i < HISTORY_LENGTH; i++) {
+            index.add(far, new Vector3f(500, 2, 3));
+        }
+
+        assertTrue(query(new Vector3f(0, 0, 0), 5).isEmpty());
+        assertEquals(Sets.newHashSet(far), query(new Vector3f(500, 0, 0), 5));
+    }
+
+    @Test
+    public void testRemoveForgetsCharacter() {
+        index.add(near, new Vector3f(1, 2, 3));
+        index.add(near, new Vector3f(-40, 2, 3));
+        index.remove(near);
+
+        assertTrue(query(new Vector3f(0, 0, 0), 50).isEmpty());
+    }
+
+    @Test
+    public void testWasInsideChecksHistorySinceTime() {
+        CircularBuffer<CharacterStateEvent> states = CircularBuffer.create(HISTORY_LENGTH);
+        states.add(createState(100, new Vector3f(0, 0, 0)));
+        states.add(createState(200, new Vector3f(20, 0, 0)));
+        states.add(createState(300, new Vector3f(40, 0, 0)));
+        AABB volume = AABB.createCenterExtent(new Vector3f(0, 0, 0), new Vector3f(5, 5, 5));
+
+        // The state at 100 is the one the position at 150 gets interpolated from
+        assertTrue(CharacterHistoryIndex.wasInside(states, volume, 150));
+        assertFalse(CharacterHistoryIndex.wasInside(states, volume, 200));
+        assertFalse(CharacterHistoryIndex.wasInside(states, volume, 250));
+    }
+
+    private Set<EntityRef> query(Vector3f center, float extent) {
+        Set<EntityRef> result = Sets.newHashSet();
+        index.query(AABB.createCenterExtent(center, new Vector3f(extent, extent, extent)), result);
+        return result;
+    }
+
+    private static CharacterStateEvent createState(long time, Vector3f position) {
+        CharacterStateEvent state = new CharacterStateEvent();
+        state.setTime(time);
+        state.setPosition(position);
+        return state;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.ClientComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.physics.engine.CharacterCollider;
+import org.terasology.physics.engine.PhysicsEngine;
+import org.terasology.registry.InjectionHelper;
+import org.terasology.world.WorldProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ServerCharacterPredictionSystemTest {
+
+    private static final long CREATION_TIME = 1000;
+    private static final long MOVE_TIME = 1200;
+    private static final long PRESENT_TIME = 1300;
+    /**
+     * Rewinds to 1050, a quarter of the way from the creation to the move
+     */
+    private static final long ACTION_TIME = 1150;
+    private static final float ACTION_RANGE = 3;
+
+    private ServerCharacterPredictionSystem system;
+    private NetworkSystem networkSystem;
+    private SystemConfig systemConfig;
+    private EntityRef client;
+    private long gameTime = CREATION_TIME;
+
+    @Before
+    public void setup() {
+        Context context = new ContextImpl();
+        Time time = mock(Time.class);
+        when(time.getGameTimeInMs()).thenAnswer(invocation -> gameTime);
+        context.put(Time.class, time);
+        PhysicsEngine physics = mock(PhysicsEngine.class);
+        CharacterCollider collider = mock(CharacterCollider.class);
+        when(physics.getCharacterCollider(any(EntityRef.class))).thenReturn(collider);
+        context.put(PhysicsEngine.class, physics);
+        context.put(WorldProvider.class, mock(WorldProvider.class));
+        LocalPlayer localPlayer = mock(LocalPlayer.class);
+        when(localPlayer.getCharacterEntity()).thenReturn(EntityRef.NULL);
+        context.put(LocalPlayer.class, localPlayer);
+        networkSystem = mock(NetworkSystem.class);
+        when(networkSystem.getOwnerEntity(any(EntityRef.class))).thenReturn(EntityRef.NULL);
+        context.put(NetworkSystem.class, networkSystem);
+        systemConfig = new SystemConfig();
+        systemConfig.setSpatialLagCompensationEnabled(true);
+        Config config = mock(Config.class);
+        when(config.getSystem()).thenReturn(systemConfig);
+        context.put(Config.class, config);
+
+        system = new ServerCharacterPredictionSystem();
+        InjectionHelper.inject(system, context);
+        system.initialise();
+
+        client = mock(EntityRef.class);
+    }
+
+    @Test
+    public void testCharacterInRangeInAnotherIndexCellIsRewound() {
+        // The acting character and the other one are in neighbouring cells of the history index
+        EntityRef actor = createCharacter(new Vector3f(15, 0, 0), new Vector3f(15, 0, 0));
+        setClientCharacter(actor);
+        EntityRef other = createCharacter(new Vector3f(17, 0, 0), new Vector3f(18, 0, 4));
+        gameTime = PRESENT_TIME;
+
+        system.lagCompensate(client, ACTION_TIME, ACTION_RANGE);
+
+        assertEquals(new Vector3f(17.25f, 0, 1), positionOf(other));
+    }
+
+    @Test
+    public void testVolumeQueryRewindsOnlyCharactersThatWereInside() {
+        EntityRef actor = createCharacter(new Vector3f(15, 0, 0), new Vector3f(15, 0, 0));
+        setClientCharacter(actor);
+        // Both characters have positions in the index cells overlapping the volume, only one was inside the volume
+        EntityRef inside = createCharacter(new Vector3f(17, 0, 0), new Vector3f(17, 0, 4));
+        EntityRef outside = createCharacter(new Vector3f(30, 0, 0), new Vector3f(30, 0, 4));
+        gameTime = PRESENT_TIME;
+
+        system.lagCompensate(client, ACTION_TIME, AABB.createCenterExtent(new Vector3f(15, 0, 0), new Vector3f(5, 5, 5)));
+
+        assertEquals(new Vector3f(17, 0, 1), positionOf(inside));
+        assertEquals(new Vector3f(30, 0, 4), positionOf(outside));
+    }
+
+    @Test
+    public void testCharacterOutOfRangeIsUntouched() {
+        EntityRef actor = createCharacter(new Vector3f(15, 0, 0), new Vector3f(15, 0, 0));
+        setClientCharacter(actor);
+        EntityRef other = createCharacter(new Vector3f(60, 0, 0), new Vector3f(64, 0, 0));
+        gameTime = PRESENT_TIME;
+
+        system.lagCompensate(client, ACTION_TIME, ACTION_RANGE);
+        assertEquals(new Vector3f(64, 0, 0), positionOf(other));
+
+        system.restoreToPresent();
+        assertEquals(new Vector3f(64, 0, 0), positionOf(other));
+    }
+
+    @Test
+    public void testCharacterOutOfRangeIsRewoundWithoutSpatialLagCompensation() {
+        systemConfig.setSpatialLagCompensationEnabled(false);
+        EntityRef actor = createCharacter(new Vector3f(15, 0, 0), new Vector3f(15, 0, 0));
+        setClientCharacter(actor);
+        EntityRef other = createCharacter(new Vector3f(60, 0, 0), new Vector3f(64, 0, 0));
+        gameTime = PRESENT_TIME;
+
+        system.lagCompensate(client, ACTION_TIME, ACTION_RANGE);
+
+        assertEquals(new Vector3f(61, 0, 0), positionOf(other));
+    }
+
+    @Test
+    public void testRestoreToPresentRestoresTheCharactersRewoundForAllRanges() {
+        EntityRef actor = createCharacter(new Vector3f(15, 0, 0), new Vector3f(15, 0, 0));
+        setClientCharacter(actor);
+        EntityRef near = createCharacter(new Vector3f(17, 0, 0), new Vector3f(17, 0, 4));
+        EntityRef middle = createCharacter(new Vector3f(40, 0, 0), new Vector3f(44, 0, 0));
+        EntityRef far = createCharacter(new Vector3f(200, 0, 0), new Vector3f(204, 0, 0));
+        gameTime = PRESENT_TIME;
+        // Marks the far character, which must not be touched by the restore
+        setPosition(far, new Vector3f(-1, -1, -1));
+
+        // One message with events of two different ranges
+        system.lagCompensate(client, ACTION_TIME, ACTION_RANGE);
+        system.lagCompensate(client, ACTION_TIME, 30);
+        assertEquals(new Vector3f(17, 0, 1), positionOf(near));
+        assertEquals(new Vector3f(41, 0, 0), positionOf(middle));
+        assertEquals(new Vector3f(-1, -1, -1), positionOf(far));
+
+        system.restoreToPresent();
+
+        assertEquals(new Vector3f(17, 0, 4), positionOf(near));
+        assertEquals(new Vector3f(44, 0, 0), positionOf(middle));
+        assertEquals(new Vector3f(-1, -1, -1), positionOf(far));
+    }
+
+    /**
+     * Creates a character at the first position, which moves to the second position at {@link #MOVE_TIME}.
+     */
+    private EntityRef createCharacter(Vector3f position, Vector3f movedPosition) {
+        EntityRef character = mock(EntityRef.class);
+        LocationComponent location = new LocationComponent();
+        location.setWorldPosition(position);
+        when(character.getComponent(LocationComponent.class)).thenReturn(location);
+        when(character.getComponent(CharacterMovementComponent.class)).thenReturn(new CharacterMovementComponent());
+        when(character.getComponent(CharacterComponent.class)).thenReturn(new CharacterComponent());
+
+        gameTime = CREATION_TIME;
+        system.onCreate(OnActivatedComponent.newInstance(), character);
+        gameTime = MOVE_TIME;
+        system.onTeleport(new CharacterTeleportEvent(movedPosition), character);
+        return character;
+    }
+
+    private void setClientCharacter(EntityRef character) {
+        ClientComponent clientComponent = new ClientComponent();
+        clientComponent.character = character;
+        when(client.getComponent(ClientComponent.class)).thenReturn(clientComponent);
+        when(networkSystem.getOwnerEntity(character)).thenReturn(client);
+    }
+
+    private static Vector3f positionOf(EntityRef character) {
+        return character.getComponent(LocationComponent.class).getWorldPosition();
+    }
+
+    private static void setPosition(EntityRef character, Vector3f position) {
+        character.getComponent(LocationComponent.class).setWorldPosition(position);
+    }
+}
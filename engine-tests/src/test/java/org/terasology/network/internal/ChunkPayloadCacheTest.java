@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class ChunkPayloadCacheTest {
+
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+    private Block stone;
+
+    @Before
+    public void setup() {
+        blockManager = mock(BlockManager.class);
+        biomeManager = mock(BiomeManager.class);
+        stone = new Block();
+        stone.setId((short) 1);
+    }
+
+    @Test
+    public void testUnchangedChunkIsEncodedOnce() {
+        ChunkPayloadCache cache = new ChunkPayloadCache(Long.MAX_VALUE);
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, biomeManager);
+
+        EntityData.ChunkStore first = cache.getPayload(chunk);
+        assertSame(first, cache.getPayload(chunk));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testModifiedChunkIsEncodedAgain() {
+        ChunkPayloadCache cache = new ChunkPayloadCache(Long.MAX_VALUE);
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, biomeManager);
+        EntityData.ChunkStore first = cache.getPayload(chunk);
+
+        chunk.setBlock(1, 2, 3, stone);
+        EntityData.ChunkStore second = cache.getPayload(chunk);
+
+        assertNotEquals(first, second);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testReloadedChunkIsNotMistakenForTheOldOne() {
+        ChunkPayloadCache cache = new ChunkPayloadCache(Long.MAX_VALUE);
+        Chunk chunk = new ChunkImpl(0, 0, 0, blockManager, biomeManager);
+        EntityData.ChunkStore first = cache.getPayload(chunk);
+
+        Chunk reloaded = new ChunkImpl(0, 0, 0, blockManager, biomeManager);
+        assertNotSame(first, cache.getPayload(reloaded));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedChunksGetEvicted() {
+        Chunk first = new ChunkImpl(0, 0, 0, blockManager, biomeManager);
+        Chunk second = new ChunkImpl(1, 0, 0, blockManager, biomeManager);
+        int payloadSize = new ChunkPayloadCache(Long.MAX_VALUE).getPayload(first).getSerializedSize();
+        ChunkPayloadCache cache = new ChunkPayloadCache(payloadSize);
+
+        EntityData.ChunkStore firstPayload = cache.getPayload(first);
+        cache.getPayload(second);
+
+        assertEquals(payloadSize, cache.getCachedBytes());
+        assertNotSame(firstPayload, cache.getPayload(first));
+        assertEquals(3, cache.getMisses());
+    }
+}
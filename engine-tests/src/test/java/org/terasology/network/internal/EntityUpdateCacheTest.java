@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityUpdateCacheTest {
+
+    private static final int NET_ID = 7;
+    private static final Set<Class<? extends Component>> NONE = Collections.emptySet();
+
+    private NetworkEntitySerializer entitySerializer;
+    private EntityRef entity;
+    private EntityUpdateCache cache;
+
+    @Before
+    public void setup() {
+        entitySerializer = mock(NetworkEntitySerializer.class);
+        entity = mock(EntityRef.class);
+        when(entitySerializer.serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any()))
+                .thenAnswer(invocation -> EntityData.PackedEntity.newBuilder().build());
+        cache = new EntityUpdateCache();
+    }
+
+    @Test
+    public void testSameUpdateIsSerializedOnce() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(StringComponent.class);
+        EntityData.PackedEntity first = cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, false);
+        EntityData.PackedEntity second = cache.getUpdate(entitySerializer, NET_ID, entity, NONE,
+                ImmutableSet.of(StringComponent.class), NONE, false);
+
+        assertSame(first, second);
+        verify(entitySerializer, times(1)).serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any());
+        assertEquals(1, cache.getSerialized());
+        assertEquals(1, cache.getReused());
+    }
+
+    @Test
+    public void testOwnerAndOtherClientsGetSeparateUpdates() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(StringComponent.class);
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, false);
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, true);
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, true);
+
+        verify(entitySerializer, times(2)).serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any());
+    }
+
+    @Test
+    public void testDifferentComponentSetsGetSeparateUpdates() {
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, ImmutableSet.of(StringComponent.class), NONE, false);
+        cache.getUpdate(entitySerializer, NET_ID, entity, ImmutableSet.of(IntegerComponent.class),
+                ImmutableSet.of(StringComponent.class), NONE, false);
+
+        verify(entitySerializer, times(2)).serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any());
+    }
+
+    @Test
+    public void testInvalidatedUpdateIsSerializedAgain() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(StringComponent.class);
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, false);
+        cache.invalidate(NET_ID);
+        cache.getUpdate(entitySerializer, NET_ID, entity, NONE, changed, NONE, false);
+
+        verify(entitySerializer, times(2)).serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.ByteString;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.handler.codec.compression.ZlibDecoder;
+import org.jboss.netty.handler.codec.compression.ZlibEncoder;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
+import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
+import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
+import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
+import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.config.Config;
+import org.terasology.config.NetworkConfig;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.network.internal.compression.FrameCompression;
+import org.terasology.network.internal.compression.FrameCompressionDecoder;
+import org.terasology.network.internal.compression.FrameCompressionEncoder;
+import org.terasology.protobuf.NetData;
+import org.terasology.registry.CoreRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the messages around the handshake message that announces the frame compression through the compression
+ * handlers of the server and client pipelines, checking that both ends switch at the same frame.
+ */
+public class FrameCompressionSwitchTest {
+
+    private EncoderEmbedder<ChannelBuffer> server;
+    private DecoderEmbedder<NetData.NetMessage> client;
+    private ServerHandshakeHandler serverHandshakeHandler;
+    private ClientHandshakeHandler clientHandshakeHandler;
+    private JoinStatusImpl joinStatus;
+
+    @Before
+    public void setup() {
+        NetworkConfig networkConfig = new NetworkConfig();
+        networkConfig.setFrameCompressionThreshold(0);
+        Config config = mock(Config.class);
+        when(config.getNetwork()).thenReturn(networkConfig);
+        CoreRegistry.setContext(new ContextImpl());
+        CoreRegistry.put(Config.class, config);
+
+        serverHandshakeHandler = new ServerHandshakeHandler();
+        joinStatus = new JoinStatusImpl();
+        clientHandshakeHandler = new ClientHandshakeHandler(joinStatus);
+
+        ZlibEncoder zlibEncoder = new ZlibEncoder();
+        server = new EncoderEmbedder<>(new LengthFieldPrepender(3), zlibEncoder,
+                new ProtobufVarint32LengthFieldPrepender(), new ProtobufEncoder());
+        server.getPipeline().replace(zlibEncoder, FrameCompression.ENCODER_NAME, new ZlibEncoder());
+        server.getPipeline().addLast("authenticationHandler", serverHandshakeHandler);
+
+        ZlibDecoder zlibDecoder = new ZlibDecoder();
+        client = new DecoderEmbedder<>(new LengthFieldBasedFrameDecoder(8388608, 0, 3, 0, 3), zlibDecoder,
+                new ProtobufVarint32FrameDecoder(), new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()),
+                new AnnouncementHandler());
+        client.getPipeline().replace(zlibDecoder, FrameCompression.DECODER_NAME, new ZlibDecoder());
+    }
+
+    @Test
+    public void testBothEndsSwitchAfterTheAnnouncingFrame() {
+        NetData.NetMessage announcement = createAnnouncement(FrameCompression.LZ_DICTIONARY);
+        NetData.NetMessage update = createUpdate();
+
+        server.offer(announcement);
+        serverHandshakeHandler.installCompression(FrameCompression.LZ_DICTIONARY,
+                server.getPipeline().getContext(serverHandshakeHandler));
+        server.offer(update);
+        assertTrue(server.getPipeline().get(FrameCompression.ENCODER_NAME) instanceof FrameCompressionEncoder);
+
+        // Both frames arrive in the same read, so the decoder has to be replaced between decoding them
+        client.offer(ChannelBuffers.wrappedBuffer(server.poll(), server.poll()));
+
+        assertEquals(announcement, client.poll());
+        assertEquals(update, client.poll());
+        assertTrue(client.getPipeline().get(FrameCompression.DECODER_NAME) instanceof FrameCompressionDecoder);
+    }
+
+    @Test
+    public void testZlibIsKeptWithoutAnnouncedCompression() {
+        NetData.NetMessage announcement = createAnnouncement(FrameCompression.ZLIB);
+        NetData.NetMessage update = createUpdate();
+
+        server.offer(announcement);
+        serverHandshakeHandler.installCompression(FrameCompression.ZLIB,
+                server.getPipeline().getContext(serverHandshakeHandler));
+        server.offer(update);
+        assertTrue(server.getPipeline().get(FrameCompression.ENCODER_NAME) instanceof ZlibEncoder);
+
+        client.offer(ChannelBuffers.wrappedBuffer(server.poll(), server.poll()));
+
+        assertEquals(announcement, client.poll());
+        assertEquals(update, client.poll());
+        assertTrue(client.getPipeline().get(FrameCompression.DECODER_NAME) instanceof ZlibDecoder);
+    }
+
+    @Test
+    public void testClientRejectsUnknownCompression() {
+        ChannelHandlerContext ctx = client.getPipeline().getContext(FrameCompression.DECODER_NAME);
+
+        assertFalse(clientHandshakeHandler.installCompression("brotli", ctx));
+        assertNotNull(joinStatus.getErrorMessage());
+        assertTrue(client.getPipeline().get(FrameCompression.DECODER_NAME) instanceof ZlibDecoder);
+    }
+
+    private static NetData.NetMessage createAnnouncement(FrameCompression compression) {
+        NetData.HandshakeVerification.Builder verification = NetData.HandshakeVerification.newBuilder()
+                .setSignature(ByteString.copyFrom(new byte[64]));
+        if (compression != FrameCompression.ZLIB) {
+            verification.setCompression(compression.getId());
+        }
+        return NetData.NetMessage.newBuilder().setHandshakeVerification(verification).build();
+    }
+
+    private static NetData.NetMessage createUpdate() {
+        NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(1000);
+        for (int netId = 1; netId <= 50; netId++) {
+            message.addRemoveEntity(NetData.RemoveEntityMessage.newBuilder().setNetId(netId));
+        }
+        return message.build();
+    }
+
+    /**
+     * Does the part of the {@link ClientHandshakeHandler} that switches the compression when the server verification
+     * arrives.
+     */
+    private final class AnnouncementHandler extends SimpleChannelUpstreamHandler {
+        @Override
+        public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+            NetData.NetMessage message = (NetData.NetMessage) e.getMessage();
+            if (message.hasHandshakeVerification()) {
+                clientHandshakeHandler.installCompression(message.getHandshakeVerification().getCompression(), ctx);
+            }
+            super.messageReceived(ctx, e);
+        }
+    }
+}
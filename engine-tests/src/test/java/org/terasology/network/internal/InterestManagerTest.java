@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.Client;
+import org.terasology.network.NetworkComponent;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InterestManagerTest {
+
+    private static final float RELEVANCE_DISTANCE = 64;
+    private static final Vector3f VIEWER = new Vector3f(0, 0, 0);
+
+    private NetworkSystemImpl networkSystem;
+    private EntityManager entityManager;
+    private List<EntityRef> entities = Lists.newArrayList();
+    private InterestManager interestManager;
+
+    @Before
+    public void setup() {
+        networkSystem = mock(NetworkSystemImpl.class);
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getEntitiesWith(NetworkComponent.class, LocationComponent.class)).thenReturn(entities);
+        interestManager = new InterestManager(networkSystem, RELEVANCE_DISTANCE);
+    }
+
+    @Test
+    public void testEntitiesWithinRelevanceDistanceAreInRange() {
+        createEntity(1, new Vector3f(10, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(2, new Vector3f(0, 60, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(3, new Vector3f(0, 0, 70), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(4, new Vector3f(0, 0, 1), NetworkComponent.ReplicateMode.ALWAYS);
+        interestManager.update(entityManager);
+
+        TIntSet inRange = new TIntHashSet();
+        interestManager.forEachEntityInRange(VIEWER, inRange::add);
+
+        assertEquals(new TIntHashSet(new int[]{1, 2}), inRange);
+    }
+
+    @Test
+    public void testEntitiesLeaveRangeOnlyBeyondLeaveDistance() {
+        createEntity(1, new Vector3f(70, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(2, new Vector3f(90, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(3, new Vector3f(200, 0, 0), NetworkComponent.ReplicateMode.ALWAYS);
+        interestManager.update(entityManager);
+
+        assertFalse(interestManager.hasLeftRange(1, VIEWER));
+        assertTrue(interestManager.hasLeftRange(2, VIEWER));
+        assertFalse(interestManager.hasLeftRange(3, VIEWER));
+    }
+
+    @Test
+    public void testFarEntitiesGetUpdatedLessOften() {
+        createEntity(1, new Vector3f(10, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(2, new Vector3f(20, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        createEntity(3, new Vector3f(50, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        interestManager.update(entityManager);
+
+        assertEquals(1, interestManager.getUpdateInterval(1, VIEWER));
+        assertEquals(2, interestManager.getUpdateInterval(2, VIEWER));
+        assertEquals(4, interestManager.getUpdateInterval(3, VIEWER));
+
+        int dueUpdates = 0;
+        for (int tick = 0; tick < 8; tick++) {
+            if (interestManager.isUpdateDue(3, VIEWER)) {
+                dueUpdates++;
+            }
+            interestManager.update(entityManager);
+        }
+        assertEquals(2, dueUpdates);
+    }
+
+    @Test
+    public void testOwnedEntitiesAreReleased() {
+        EntityRef entity = createEntity(1, new Vector3f(200, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        interestManager.update(entityManager);
+        assertTrue(interestManager.isManaged(entity));
+
+        when(networkSystem.getOwner(entity)).thenReturn(mock(Client.class));
+        interestManager.update(entityManager);
+
+        assertFalse(interestManager.isManaged(entity));
+        assertEquals(new TIntHashSet(new int[]{1}), interestManager.getReleasedEntities());
+        assertFalse(interestManager.hasLeftRange(1, VIEWER));
+    }
+
+    @Test
+    public void testEntitiesWithoutPositionStayRelevantForEveryClient() {
+        EntityRef entity = createEntity(1, new Vector3f(10, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+        interestManager.update(entityManager);
+        assertTrue(interestManager.isManaged(entity));
+
+        entity.getComponent(LocationComponent.class).setWorldPosition(new Vector3f(Float.NaN, Float.NaN, Float.NaN));
+        interestManager.update(entityManager);
+
+        assertFalse(interestManager.isManaged(entity));
+        assertEquals(0, interestManager.getManagedEntityCount());
+        assertEquals(new TIntHashSet(new int[]{1}), interestManager.getReleasedEntities());
+    }
+
+    @Test
+    public void testDisabledInterestManagerManagesNothing() {
+        InterestManager disabled = new InterestManager(networkSystem, 0);
+        EntityRef entity = createEntity(1, new Vector3f(10, 0, 0), NetworkComponent.ReplicateMode.RELEVANT);
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.isManaged(entity));
+    }
+
+    private EntityRef createEntity(int netId, Vector3f position, NetworkComponent.ReplicateMode replicateMode) {
+        NetworkComponent networkComponent = new NetworkComponent();
+        networkComponent.setNetworkId(netId);
+        networkComponent.replicateMode = replicateMode;
+        LocationComponent location = new LocationComponent(position);
+
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getComponent(NetworkComponent.class)).thenReturn(networkComponent);
+        when(entity.getComponent(LocationComponent.class)).thenReturn(location);
+        when(entity.hasComponent(LocationComponent.class)).thenReturn(true);
+        entities.add(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.config.Config;
+import org.terasology.engine.ComponentSystemManager;
+import org.terasology.engine.EngineTime;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.metadata.EventLibrary;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.BlockEntityRegistry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelClientUpdateTest extends TerasologyTestingEnvironment {
+
+    private EngineEntityManager entityManager;
+    private EngineTime time;
+    private NetworkSystemImpl networkSystem;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+        context.put(ModuleManager.class, moduleManager);
+        context.get(Config.class).getNetwork().setClientUpdateThreads(2);
+        time = mock(EngineTime.class);
+        networkSystem = new NetworkSystemImpl(time, context);
+        networkSystem.setContext(context);
+        context.put(NetworkSystem.class, networkSystem);
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = (EngineEntityManager) context.get(EntityManager.class);
+        context.put(ComponentSystemManager.class, new ComponentSystemManager(context));
+        entityManager.clear();
+        networkSystem.mockHost();
+        networkSystem.connectToEntitySystem(entityManager, context.get(EventLibrary.class), mock(BlockEntityRegistry.class));
+        context.put(ServerConnectListManager.class, new ServerConnectListManager(context));
+    }
+
+    @After
+    public void cleanup() {
+        context.get(Config.class).getNetwork().setClientUpdateThreads(0);
+    }
+
+    @Test
+    public void testPreparedUpdatesAreSentByWorkers() {
+        NetClient client = connectClient("first");
+        NetClient.ClientUpdate update = new NetClient.ClientUpdate(0, new Vector3i());
+        when(client.prepareUpdate()).thenReturn(update);
+        AtomicReference<Thread> sendingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            sendingThread.set(Thread.currentThread());
+            return null;
+        }).when(client).sendUpdate(any());
+
+        when(time.getRealTimeInMs()).thenReturn(1000L);
+        networkSystem.update();
+
+        verify(client).sendUpdate(update);
+        verify(client).processReceivedMessages();
+        verify(client, never()).update(anyBoolean());
+        assertNotNull(sendingThread.get());
+        assertNotEquals(Thread.currentThread(), sendingThread.get());
+    }
+
+    @Test
+    public void testReceivedMessagesAreProcessedWithoutNetTick() {
+        NetClient client = connectClient("first");
+
+        networkSystem.update();
+
+        verify(client, never()).prepareUpdate();
+        verify(client, never()).sendUpdate(any());
+        verify(client).processReceivedMessages();
+    }
+
+    private NetClient connectClient(String id) {
+        NetClient client = mock(NetClient.class);
+        NetworkComponent netComp = new NetworkComponent();
+        netComp.replicateMode = NetworkComponent.ReplicateMode.OWNER;
+        EntityRef clientEntity = entityManager.create(netComp);
+        when(client.getEntity()).thenReturn(clientEntity);
+        when(client.getId()).thenReturn(id);
+        networkSystem.registerNetworkEntity(clientEntity);
+        networkSystem.addClient(client);
+        return client;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.NetData;
+import org.terasology.world.BlockChangeBatch;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PendingBlockChangesTest {
+
+    private static final Vector3i CHUNK_POS = new Vector3i(1, 0, -1);
+
+    @Test
+    public void testChangesKeepArrivalOrderAcrossMessageKinds() {
+        PendingBlockChanges pending = new PendingBlockChanges();
+        int blockIndex = BlockChangeBatch.toBlockIndex(3, 4, 5);
+        pending.add(CHUNK_POS, createBatch(CHUNK_POS, blockIndex, 7));
+        pending.add(createBlockChange(BlockChangeBatch.toWorldPos(CHUNK_POS, blockIndex), 9));
+
+        Map<Integer, Integer> blocks = new TreeMap<>();
+        List<NetData.BlockChangeBatchMessage> batches = pending.removeAll(CHUNK_POS);
+        assertEquals(2, batches.size());
+        for (NetData.BlockChangeBatchMessage batch : batches) {
+            for (int i = 0; i < batch.getBlockIndexCount(); i++) {
+                blocks.put(batch.getBlockIndex(i), batch.getNewBlock(i));
+            }
+        }
+        assertEquals(Integer.valueOf(9), blocks.get(blockIndex));
+        assertTrue(pending.removeAll(CHUNK_POS).isEmpty());
+    }
+
+    @Test
+    public void testSingleChangeIsStoredForItsChunk() {
+        PendingBlockChanges pending = new PendingBlockChanges();
+        Vector3i worldPos = BlockChangeBatch.toWorldPos(CHUNK_POS, BlockChangeBatch.toBlockIndex(31, 0, 0));
+        pending.add(createBlockChange(worldPos, 2));
+
+        List<NetData.BlockChangeBatchMessage> batches = pending.removeAll(CHUNK_POS);
+        assertEquals(1, batches.size());
+        assertEquals(CHUNK_POS, NetMessageUtil.convert(batches.get(0).getChunkPos()));
+        assertEquals(BlockChangeBatch.toBlockIndex(31, 0, 0), batches.get(0).getBlockIndex(0));
+        assertTrue(PendingBlockChanges.isValid(batches.get(0)));
+    }
+
+    @Test
+    public void testInvalidBatchesAreRecognized() {
+        assertTrue(PendingBlockChanges.isValid(createBatch(CHUNK_POS, 0, 1)));
+        int blocksPerChunk = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+        assertFalse(PendingBlockChanges.isValid(createBatch(CHUNK_POS, blocksPerChunk, 1)));
+        assertFalse(PendingBlockChanges.isValid(createBatch(CHUNK_POS, -1, 1)));
+        assertFalse(PendingBlockChanges.isValid(createBatch(CHUNK_POS, 0, 1).toBuilder().addNewBlock(2).build()));
+        assertFalse(PendingBlockChanges.isValid(NetData.BlockChangeBatchMessage.newBuilder()
+                .addBlockIndex(0).addNewBlock(1).build()));
+    }
+
+    private static NetData.BlockChangeBatchMessage createBatch(Vector3i chunkPos, int blockIndex, int newBlock) {
+        return NetData.BlockChangeBatchMessage.newBuilder()
+                .setChunkPos(NetMessageUtil.convert(chunkPos))
+                .addBlockIndex(blockIndex)
+                .addNewBlock(newBlock)
+                .build();
+    }
+
+    private static NetData.BlockChangeMessage createBlockChange(Vector3i pos, int newBlock) {
+        return NetData.BlockChangeMessage.newBuilder()
+                .setPos(NetMessageUtil.convert(pos))
+                .setNewBlock(newBlock)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+import org.terasology.protobuf.EntityData;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReplicationBaselineTest {
+
+    private static final int NET_ID = 3;
+    private static final int COMPONENT = 5;
+    private static final int OTHER_COMPONENT = 6;
+
+    @Test
+    public void testOnlyChangedFieldsAreSent() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+        baseline.reset(NET_ID, packedEntity(COMPONENT, new int[]{0, 1, 2}, value(1), value(2), value(3)));
+
+        EntityData.PackedEntity update = baseline.reduce(NET_ID,
+                packedEntity(COMPONENT, new int[]{0, 1, 2}, value(1), value(7), value(3)), false);
+
+        assertEquals(1, update.getComponentIdCount());
+        assertEquals(1L << 1, update.getComponentFieldMask(0));
+        assertEquals(1, update.getFieldValueCount());
+        assertEquals(value(7), update.getFieldValue(0));
+    }
+
+    @Test
+    public void testUnchangedEntityIsNotSent() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+        baseline.reset(NET_ID, packedEntity(COMPONENT, new int[]{0, 1}, value(1), value(2)));
+
+        assertNull(baseline.reduce(NET_ID, packedEntity(COMPONENT, new int[]{0, 1}, value(1), value(2)), false));
+    }
+
+    @Test
+    public void testAllFieldsAreSentIfRequested() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+        baseline.reset(NET_ID, packedEntity(COMPONENT, new int[]{0, 1}, value(1), value(2)));
+
+        EntityData.PackedEntity update = baseline.reduce(NET_ID,
+                packedEntity(COMPONENT, new int[]{0, 1}, value(1), value(2)), true);
+
+        assertEquals(0b11L, update.getComponentFieldMask(0));
+        assertEquals(2, update.getFieldValueCount());
+    }
+
+    @Test
+    public void testNewComponentIsSentWithoutFields() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+        baseline.reset(NET_ID, packedEntity(COMPONENT, new int[]{0}, value(1)));
+
+        EntityData.PackedEntity update = baseline.reduce(NET_ID, packedEntity(OTHER_COMPONENT, new int[0]), false);
+
+        assertEquals(OTHER_COMPONENT, update.getComponentId(0));
+        assertEquals(0L, update.getComponentFieldMask(0));
+    }
+
+    @Test
+    public void testReaddedComponentIsSentCompletely() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+        baseline.reset(NET_ID, packedEntity(COMPONENT, new int[]{0}, value(1)));
+        baseline.reduce(NET_ID, EntityData.PackedEntity.newBuilder().addRemovedComponent(COMPONENT).build(), false);
+
+        EntityData.PackedEntity update = baseline.reduce(NET_ID, packedEntity(COMPONENT, new int[]{0}, value(1)), false);
+
+        assertEquals(1, update.getFieldValueCount());
+    }
+
+    @Test
+    public void testHighFieldIdsAreSentAsFieldIds() {
+        ReplicationBaseline baseline = new ReplicationBaseline();
+
+        EntityData.PackedEntity update = baseline.reduce(NET_ID,
+                packedEntity(COMPONENT, new int[]{2, 70}, value(1), value(2)), false);
+
+        assertEquals(0, update.getComponentFieldMaskCount());
+        assertArrayEquals(new byte[]{2, 70}, update.getFieldIds().toByteArray());
+        assertArrayEquals(new byte[]{2}, update.getComponentFieldCounts().toByteArray());
+    }
+
+    private static EntityData.PackedEntity packedEntity(int componentId, int[] fieldIds, EntityData.Value... values) {
+        EntityData.PackedEntity.Builder builder = EntityData.PackedEntity.newBuilder();
+        builder.addComponentId(componentId);
+        builder.setComponentFieldCounts(ByteString.copyFrom(new byte[]{(byte) fieldIds.length}));
+        byte[] ids = new byte[fieldIds.length];
+        for (int i = 0; i < fieldIds.length; i++) {
+            ids[i] = (byte) fieldIds[i];
+        }
+        builder.setFieldIds(ByteString.copyFrom(ids));
+        for (EntityData.Value value : values) {
+            builder.addFieldValue(value);
+        }
+        return builder.build();
+    }
+
+    private static EntityData.Value value(int integer) {
+        return EntityData.Value.newBuilder().addInteger(integer).build();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3f;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SpatialEntityIndexTest {
+
+    @Test
+    public void testFindsEntitiesInRangeAcrossCells() {
+        SpatialEntityIndex index = new SpatialEntityIndex(16);
+        index.add(1, new Vector3f(0, 0, 0));
+        index.add(2, new Vector3f(-20, 5, 3));
+        index.add(3, new Vector3f(30, 0, -30));
+        index.add(4, new Vector3f(100, 0, 0));
+
+        TIntSet found = new TIntHashSet();
+        index.forEachInRange(new Vector3f(0, 0, 0), 50, found::add);
+
+        assertEquals(new TIntHashSet(new int[]{1, 2, 3}), found);
+    }
+
+    @Test
+    public void testClearRemovesAllEntities() {
+        SpatialEntityIndex index = new SpatialEntityIndex(16);
+        index.add(1, new Vector3f(1, 2, 3));
+        index.clear();
+
+        TIntSet found = new TIntHashSet();
+        index.forEachInRange(new Vector3f(1, 2, 3), 10, found::add);
+
+        assertEquals(0, found.size());
+        assertNull(index.getPosition(1));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameCompressionTest {
+
+    @Test
+    public void testSupportedPreferenceIsUsed() {
+        assertEquals(FrameCompression.LZ_DICTIONARY, FrameCompression.negotiate("lz-dictionary", FrameCompression.getSupportedIds()));
+        assertEquals(FrameCompression.LZ, FrameCompression.negotiate("lz", ImmutableList.of("zlib", "lz")));
+    }
+
+    @Test
+    public void testOldClientGetsZlib() {
+        // Clients from before the frame compression negotiation don't list any compression
+        assertEquals(FrameCompression.ZLIB, FrameCompression.negotiate("lz-dictionary", Collections.emptyList()));
+    }
+
+    @Test
+    public void testClientWithOnlyUnknownCompressionsGetsZlib() {
+        assertEquals(FrameCompression.ZLIB, FrameCompression.negotiate("lz-dictionary", ImmutableList.of("brotli", "zstd")));
+    }
+
+    @Test
+    public void testPreferenceUnsupportedByClientFallsBackToZlib() {
+        assertEquals(FrameCompression.ZLIB, FrameCompression.negotiate("lz-dictionary", ImmutableList.of("zlib", "lz")));
+    }
+
+    @Test
+    public void testUnknownPreferenceFallsBackToZlib() {
+        assertEquals(FrameCompression.ZLIB, FrameCompression.negotiate("brotli", ImmutableList.of("brotli")));
+        assertEquals(FrameCompression.ZLIB, FrameCompression.negotiate("", FrameCompression.getSupportedIds()));
+    }
+}
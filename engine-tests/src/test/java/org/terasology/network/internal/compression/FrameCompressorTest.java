@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrameCompressorTest {
+
+    @Test
+    public void testRepetitiveDataRoundTrip() throws DataFormatException {
+        byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        FrameCompressor compressor = new FrameCompressor(new byte[0], 0);
+        byte[] frame = compressor.compress(data, 0, data.length);
+        assertEquals(FrameCompressor.COMPRESSED, frame[0]);
+        assertTrue(frame.length < data.length / 10);
+        assertArrayEquals(data, new FrameCompressor(new byte[0], 0).decompress(frame, 0, frame.length));
+    }
+
+    @Test
+    public void testMixedDataRoundTrip() throws DataFormatException {
+        Random random = new Random(42);
+        FrameCompressor compressor = new FrameCompressor(new byte[0], 0);
+        FrameCompressor decompressor = new FrameCompressor(new byte[0], 0);
+        for (int length : new int[]{0, 1, 12, 13, 100, 1000, 70000}) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i / 50);
+            }
+            byte[] frame = compressor.compress(data, 0, length);
+            assertArrayEquals(data, decompressor.decompress(frame, 0, frame.length));
+        }
+    }
+
+    @Test
+    public void testIncompressibleDataIsStored() throws DataFormatException {
+        byte[] data = new byte[500];
+        new Random(1).nextBytes(data);
+        FrameCompressor compressor = new FrameCompressor(new byte[0], 0);
+        byte[] frame = compressor.compress(data, 0, data.length);
+        assertEquals(FrameCompressor.STORED, frame[0]);
+        assertEquals(data.length + 1, frame.length);
+        assertArrayEquals(data, compressor.decompress(frame, 0, frame.length));
+    }
+
+    @Test
+    public void testFramesBelowThresholdAreStored() {
+        byte[] data = new byte[100];
+        FrameCompressor compressor = new FrameCompressor(new byte[0], 101);
+        assertEquals(FrameCompressor.STORED, compressor.compress(data, 0, data.length)[0]);
+        assertEquals(FrameCompressor.COMPRESSED, compressor.compress(new byte[101], 0, 101)[0]);
+    }
+
+    @Test
+    public void testDictionaryImprovesSmallFrames() throws DataFormatException {
+        byte[] dictionary = "position rotation velocity engine:player".getBytes(StandardCharsets.UTF_8);
+        byte[] data = "engine:player rotation velocity".getBytes(StandardCharsets.UTF_8);
+        byte[] withoutDictionary = new FrameCompressor(new byte[0], 0).compress(data, 0, data.length);
+        byte[] withDictionary = new FrameCompressor(dictionary, 0).compress(data, 0, data.length);
+        assertTrue(withDictionary.length < withoutDictionary.length);
+        assertArrayEquals(data, new FrameCompressor(dictionary, 0).decompress(withDictionary, 0, withDictionary.length));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testTruncatedFrameIsRejected() throws DataFormatException {
+        byte[] data = new byte[1000];
+        FrameCompressor compressor = new FrameCompressor(new byte[0], 0);
+        byte[] frame = compressor.compress(data, 0, data.length);
+        compressor.decompress(Arrays.copyOf(frame, frame.length - 1), 0, frame.length - 1);
+    }
+}
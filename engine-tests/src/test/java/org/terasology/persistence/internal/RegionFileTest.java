@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RegionFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMissingChunkReturnsNull() throws Exception {
+        try (RegionFile region = new RegionFile(temporaryFolder.getRoot().toPath().resolve("test.region"), false)) {
+            assertNull(region.read(3, 4));
+        }
+    }
+
+    @Test
+    public void testChunksSurviveReopening() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        byte[] first = createData(100, (byte) 1);
+        byte[] second = createData(RegionFile.SECTOR_SIZE * 3 + 5, (byte) 2);
+        try (RegionFile region = new RegionFile(path, false)) {
+            region.write(0, 0, first);
+            region.write(31, 31, second);
+        }
+        try (RegionFile region = new RegionFile(path, true)) {
+            assertArrayEquals(first, region.read(0, 0));
+            assertArrayEquals(second, region.read(31, 31));
+        }
+    }
+
+    @Test
+    public void testSmallerUpdateIsWrittenInPlace() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        try (RegionFile region = new RegionFile(path, false)) {
+            region.write(1, 2, createData(RegionFile.SECTOR_SIZE * 2, (byte) 1));
+            region.write(2, 2, createData(10, (byte) 2));
+            long size = Files.size(path);
+
+            byte[] update = createData(RegionFile.SECTOR_SIZE, (byte) 3);
+            region.write(1, 2, update);
+
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(update, region.read(1, 2));
+        }
+    }
+
+    @Test
+    public void testFreedSectorsGetReused() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        try (RegionFile region = new RegionFile(path, false)) {
+            region.write(0, 0, createData(RegionFile.SECTOR_SIZE * 2, (byte) 1));
+            region.write(1, 0, createData(10, (byte) 2));
+            // Moves chunk 0,0 to the end of the file and frees its two sectors:
+            region.write(0, 0, createData(RegionFile.SECTOR_SIZE * 3, (byte) 3));
+            long size = Files.size(path);
+
+            byte[] reusing = createData(RegionFile.SECTOR_SIZE * 2, (byte) 4);
+            region.write(5, 5, reusing);
+
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(reusing, region.read(5, 5));
+            assertArrayEquals(createData(10, (byte) 2), region.read(1, 0));
+        }
+    }
+
+    private static byte[] createData(int length, byte value) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, value);
+        return data;
+    }
+}
@@ -27,6 +27,8 @@
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
 import org.terasology.engine.paths.PathManager;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -292,6 +294,64 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void testChunkSurvivesStorageInRegionFiles() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageMode(ChunkStorageMode.REGION_FILES);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, ChunkStorageMode.REGION_FILES);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(CHUNK_POS, restored.getChunkPosition());
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
+    @Test
+    public void testLegacyZipChunkLoadsReadOnlyInRegionFileMode() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageMode(ChunkStorageMode.ZIPS);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadOnlyStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, ChunkStorageMode.REGION_FILES);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(CHUNK_POS, restored.getChunkPosition());
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
     @Test
     public void testEntitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
@@ -327,6 +387,60 @@ public void testEntitySurvivesStorageInChunkStore() throws Exception {
     }
 
 
+    @Test
+    public void testIncrementalSaveKeepsTheStateOfItsStart() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        Vector3i otherChunkPos = new Vector3i(CHUNK_POS.x + 1, CHUNK_POS.y, CHUNK_POS.z);
+        Chunk otherChunk = new ChunkImpl(otherChunkPos, blockManager, biomeManager);
+        otherChunk.setBlock(0, 4, 2, testBlock2);
+        otherChunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk, otherChunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        EntityRef entity = entityManager.create();
+        long id = entity.getId();
+        LocationComponent locationComponent = new LocationComponent();
+        Vector3f positionInChunk = new Vector3f(chunk.getAABB().getMin());
+        positionInChunk.x += 1;
+        positionInChunk.y += 1;
+        positionInChunk.z += 1;
+        locationComponent.setWorldPosition(positionInChunk);
+        entity.addComponent(locationComponent);
+
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        systemConfig.setIncrementalSavingEnabled(true);
+        try {
+            esm.requestSaving();
+            esm.update();
+            // Changes of the following frames must not leak into the save that is already running
+            chunk.setBlock(0, 0, 0, testBlock2);
+            otherChunk.setBlock(0, 4, 2, testBlock);
+            entity.destroy();
+            while (esm.isSaving()) {
+                esm.update();
+            }
+        } finally {
+            systemConfig.setIncrementalSavingEnabled(false);
+        }
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, false);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        restored.restoreEntities();
+        assertTrue(newEntityManager.getEntity(id).exists());
+        ChunkStore restoredOther = newSM.loadChunkStore(otherChunkPos);
+        assertEquals(testBlock2, restoredOther.getChunk().getBlock(0, 4, 2));
+    }
+
     @Test
     public void testCanSavePlayerWithoutUnloading() throws Exception {
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.ByteString;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.terasology.assets.AssetFactory;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.assets.module.ModuleAwareAssetTypeManager;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.internal.PojoPrefab;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.QuantizedVectorComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.NetworkSystem;
+import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.testUtil.ModuleManagerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+public class NetworkEntitySerializerTest {
+
+    private static final Set<Class<? extends Component>> NONE = Collections.emptySet();
+    private static final float STEP = 0.25f;
+
+    private static Context context;
+    private EngineEntityManager entityManager;
+    private NetworkEntitySerializer entitySerializer;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        context = new ContextImpl();
+        CoreRegistry.setContext(context);
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+        context.put(ModuleManager.class, moduleManager);
+
+        ModuleAwareAssetTypeManager assetTypeManager = new ModuleAwareAssetTypeManager();
+        assetTypeManager.registerCoreAssetType(Prefab.class,
+                (AssetFactory<Prefab, PrefabData>) PojoPrefab::new, "prefabs");
+        assetTypeManager.switchEnvironment(moduleManager.getEnvironment());
+        context.put(AssetManager.class, assetTypeManager.getAssetManager());
+    }
+
+    @Before
+    public void setup() {
+        context.put(NetworkSystem.class, mock(NetworkSystem.class));
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = context.get(EngineEntityManager.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "string"), StringComponent.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "integer"), IntegerComponent.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "quantizedVector"), QuantizedVectorComponent.class);
+        entitySerializer = new NetworkEntitySerializer(entityManager, entityManager.getComponentLibrary(),
+                entityManager.getTypeSerializerLibrary());
+        entitySerializer.setIdMapping(ImmutableMap.of(
+                StringComponent.class, 1,
+                IntegerComponent.class, 2,
+                QuantizedVectorComponent.class, 3));
+    }
+
+    @Test
+    public void testExpandFieldMasks() {
+        EntityData.PackedEntity masked = EntityData.PackedEntity.newBuilder()
+                .addComponentId(1)
+                .addComponentFieldMask(0b101)
+                .addComponentId(2)
+                .addComponentFieldMask(0b10)
+                .addFieldValue(EntityData.Value.newBuilder().addInteger(10))
+                .addFieldValue(EntityData.Value.newBuilder().addInteger(12))
+                .addFieldValue(EntityData.Value.newBuilder().addInteger(21))
+                .build();
+
+        EntityData.PackedEntity expanded = NetworkEntitySerializer.expandFieldMasks(masked);
+
+        assertEquals(0, expanded.getComponentFieldMaskCount());
+        assertEquals(ByteString.copyFrom(new byte[]{0, 2, 1}), expanded.getFieldIds());
+        assertEquals(ByteString.copyFrom(new byte[]{2, 1}), expanded.getComponentFieldCounts());
+        assertEquals(masked.getFieldValueList(), expanded.getFieldValueList());
+        assertEquals(masked.getComponentIdList(), expanded.getComponentIdList());
+    }
+
+    @Test
+    public void testFieldMasksAreExpandedBackIntoTheSerializedFields() {
+        EntityRef entity = entityManager.create(new StringComponent("Test"), new IntegerComponent(7));
+        EntityData.PackedEntity update = entitySerializer.serialize(entity,
+                ImmutableSet.of(StringComponent.class, IntegerComponent.class), NONE, NONE,
+                FieldSerializeCheck.NullCheck.<Component>newInstance());
+        EntityData.PackedEntity masked = toFieldMasks(update);
+
+        assertEquals(update, NetworkEntitySerializer.expandFieldMasks(masked));
+
+        EntityBuilder target = entityManager.newBuilder();
+        entitySerializer.deserializeOnto(target, masked);
+
+        assertEquals("Test", target.getComponent(StringComponent.class).value);
+        assertEquals(7, target.getComponent(IntegerComponent.class).value);
+    }
+
+    @Test
+    public void testQuantizedFieldRoundTrip() {
+        Vector3f original = new Vector3f(1.1f, -2.3f, 1000.6f);
+        EntityData.PackedEntity update = serializeQuantizedVector(original);
+
+        assertEquals(3, update.getFieldValue(0).getIntegerCount());
+        assertEquals(0, update.getFieldValue(0).getFloatCount());
+
+        Vector3f received = deserializeQuantizedVector(update);
+        assertEquals(original.x, received.x, STEP / 2);
+        assertEquals(original.y, received.y, STEP / 2);
+        assertEquals(original.z, received.z, STEP / 2);
+    }
+
+    @Test
+    public void testQuantizedFieldOutOfIntRangeIsSentAsFloats() {
+        Vector3f original = new Vector3f(1.1f, 1.0e9f, -3.0f);
+        EntityData.PackedEntity update = serializeQuantizedVector(original);
+
+        assertEquals(0, update.getFieldValue(0).getIntegerCount());
+        assertEquals(3, update.getFieldValue(0).getFloatCount());
+        assertEquals(original, deserializeQuantizedVector(update));
+    }
+
+    private EntityData.PackedEntity serializeQuantizedVector(Vector3f value) {
+        EntityRef entity = entityManager.create(new QuantizedVectorComponent(value));
+        EntityData.PackedEntity update = entitySerializer.serialize(entity, ImmutableSet.of(QuantizedVectorComponent.class),
+                NONE, NONE, FieldSerializeCheck.NullCheck.<Component>newInstance());
+        assertNotNull(update);
+        assertEquals(1, update.getFieldValueCount());
+        return update;
+    }
+
+    private Vector3f deserializeQuantizedVector(EntityData.PackedEntity update) {
+        EntityBuilder target = entityManager.newBuilder();
+        entitySerializer.deserializeOnto(target, update);
+        return target.getComponent(QuantizedVectorComponent.class).value;
+    }
+
+    /**
+     * Lists the fields of each component as a bit mask, with the field values in the order of the mask bits.
+     */
+    private static EntityData.PackedEntity toFieldMasks(EntityData.PackedEntity update) {
+        EntityData.PackedEntity.Builder result = update.toBuilder()
+                .clearFieldIds()
+                .clearComponentFieldCounts()
+                .clearFieldValue();
+        int fieldPos = 0;
+        for (int componentIndex = 0; componentIndex < update.getComponentIdCount(); componentIndex++) {
+            SortedMap<Integer, EntityData.Value> fields = new TreeMap<>();
+            int fieldCount = UnsignedBytes.toInt(update.getComponentFieldCounts().byteAt(componentIndex));
+            for (int i = 0; i < fieldCount; i++) {
+                fields.put(UnsignedBytes.toInt(update.getFieldIds().byteAt(fieldPos)), update.getFieldValue(fieldPos));
+                fieldPos++;
+            }
+            long mask = 0;
+            for (int fieldId : fields.keySet()) {
+                mask |= 1L << fieldId;
+            }
+            result.addComponentFieldMask(mask);
+            result.addAllFieldValue(fields.values());
+        }
+        return result.build();
+    }
+}
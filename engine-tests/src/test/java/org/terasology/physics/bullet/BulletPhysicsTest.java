@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.components.RigidBodyComponent;
+import org.terasology.physics.components.shapes.BoxShapeComponent;
+import org.terasology.physics.engine.PhysicsEngine;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the freezing of rigid bodies outside of the active areas.
+ */
+public class BulletPhysicsTest {
+
+    private static final float DELTA = 0.1f;
+    private static final Vector3f NEAR_POSITION = new Vector3f(0, 100, 0);
+    private static final Vector3f FAR_POSITION = new Vector3f(1000, 100, 0);
+    private static final List<AABB> NEAR_AREA = Collections.singletonList(
+            AABB.createCenterExtent(NEAR_POSITION, new Vector3f(50, 50, 50)));
+    private static final List<AABB> FAR_AREA = Collections.singletonList(
+            AABB.createCenterExtent(FAR_POSITION, new Vector3f(50, 50, 50)));
+
+    private PhysicsEngine physics;
+    private EntityRef near;
+    private EntityRef far;
+
+    @Before
+    public void setup() {
+        // The bodies fall through empty space, so they stay active
+        WorldProvider worldProvider = mock(WorldProvider.class);
+        Block air = new Block();
+        when(worldProvider.getBlock(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        physics = new BulletPhysics(worldProvider);
+
+        near = createEntity(NEAR_POSITION);
+        far = createEntity(FAR_POSITION);
+        physics.getRigidBody(near);
+        physics.getRigidBody(far);
+        physics.update(DELTA);
+    }
+
+    @After
+    public void teardown() {
+        physics.dispose();
+    }
+
+    @Test
+    public void testBodiesOutsideActiveAreasGetFrozen() {
+        physics.updateActiveAreas(NEAR_AREA);
+        float farHeight = getPosition(far).y;
+        float nearHeight = getPosition(near).y;
+        physics.update(DELTA);
+
+        assertEquals(Lists.newArrayList(near), Lists.newArrayList(physics.physicsEntitiesIterator()));
+        assertTrue(physics.hasRigidBody(far));
+        assertEquals(farHeight, getPosition(far).y, 0);
+        assertTrue(getPosition(near).y < nearHeight);
+    }
+
+    @Test
+    public void testFrozenBodiesThawWhenAnAreaIncludesThem() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+        physics.updateActiveAreas(FAR_AREA);
+        float farHeight = getPosition(far).y;
+        physics.update(DELTA);
+
+        assertEquals(Lists.newArrayList(far), Lists.newArrayList(physics.physicsEntitiesIterator()));
+        assertTrue(getPosition(far).y < farHeight);
+    }
+
+    @Test
+    public void testBodyThawedBeforeItsRemovalStaysSimulated() {
+        // The body is only queued for removal until the next update
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.getRigidBody(far);
+        float farHeight = getPosition(far).y;
+        physics.update(DELTA);
+        physics.update(DELTA);
+
+        assertTrue(Lists.newArrayList(physics.physicsEntitiesIterator()).contains(far));
+        assertTrue(getPosition(far).y < farHeight);
+    }
+
+    @Test
+    public void testAwakenedBodiesStayActiveOutsideActiveAreas() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+        physics.awakenArea(getPosition(far), 1);
+        physics.update(DELTA);
+        physics.updateActiveAreas(NEAR_AREA);
+        float farHeight = getPosition(far).y;
+        physics.update(DELTA);
+
+        assertTrue(Lists.newArrayList(physics.physicsEntitiesIterator()).contains(far));
+        assertTrue(getPosition(far).y < farHeight);
+    }
+
+    @Test
+    public void testGetRigidBodyThawsFrozenBody() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+
+        assertNotNull(physics.getRigidBody(far));
+        assertTrue(Lists.newArrayList(physics.physicsEntitiesIterator()).contains(far));
+        float farHeight = getPosition(far).y;
+        physics.update(DELTA);
+        assertTrue(getPosition(far).y < farHeight);
+    }
+
+    @Test
+    public void testUpdateRigidBodyThawsFrozenBody() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+
+        assertTrue(physics.updateRigidBody(far));
+        assertTrue(Lists.newArrayList(physics.physicsEntitiesIterator()).contains(far));
+    }
+
+    @Test
+    public void testRemoveRigidBodyOfFrozenBody() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+
+        assertTrue(physics.removeRigidBody(far));
+        assertFalse(physics.hasRigidBody(far));
+        physics.updateActiveAreas(FAR_AREA);
+        assertFalse(physics.hasRigidBody(far));
+        assertFalse(Lists.newArrayList(physics.physicsEntitiesIterator()).contains(far));
+    }
+
+    @Test
+    public void testNoActiveAreasSimulateAllBodies() {
+        physics.updateActiveAreas(NEAR_AREA);
+        physics.update(DELTA);
+        physics.updateActiveAreas(Collections.emptyList());
+
+        assertEquals(2, Lists.newArrayList(physics.physicsEntitiesIterator()).size());
+        float farHeight = getPosition(far).y;
+        physics.update(DELTA);
+        assertTrue(getPosition(far).y < farHeight);
+    }
+
+    private static Vector3f getPosition(EntityRef entity) {
+        return entity.getComponent(LocationComponent.class).getWorldPosition();
+    }
+
+    private static EntityRef createEntity(Vector3f position) {
+        LocationComponent location = new LocationComponent(position);
+        RigidBodyComponent rigidBody = new RigidBodyComponent();
+        BoxShapeComponent box = new BoxShapeComponent();
+
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getComponent(LocationComponent.class)).thenReturn(location);
+        when(entity.getComponent(RigidBodyComponent.class)).thenReturn(rigidBody);
+        when(entity.getComponent(BoxShapeComponent.class)).thenReturn(box);
+        when(entity.hasComponent(LocationComponent.class)).thenReturn(true);
+        when(entity.hasComponent(RigidBodyComponent.class)).thenReturn(true);
+        when(entity.exists()).thenReturn(true);
+        return entity;
+    }
+}
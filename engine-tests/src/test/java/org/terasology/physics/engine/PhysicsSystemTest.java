@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkMode;
+import org.terasology.network.NetworkSystem;
+import org.terasology.physics.CollisionGroup;
+import org.terasology.physics.HitResult;
+import org.terasology.physics.components.RigidBodyComponent;
+import org.terasology.physics.events.BlockImpactEvent;
+import org.terasology.physics.events.ImpactEvent;
+import org.terasology.registry.InjectionHelper;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockComponent;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class PhysicsSystemTest {
+
+    private static final int WALL_X = 3;
+
+    private PhysicsEngine physics;
+    private WorldProvider worldProvider;
+    private ChunkProvider chunkProvider;
+    private SystemConfig systemConfig;
+    private PhysicsSystem physicsSystem;
+
+    @Before
+    public void setup() {
+        // Batches of rays go through the default implementation, which traces ray by ray
+        physics = mock(PhysicsEngine.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        when(physics.physicsEntitiesIterator()).thenReturn(Collections.emptyIterator());
+        chunkProvider = mock(ChunkProvider.class);
+        Time time = mock(Time.class);
+        when(time.getGameTimeInMs()).thenReturn(10000L);
+        when(time.getGameDelta()).thenReturn(0.1f);
+        NetworkSystem networkSystem = mock(NetworkSystem.class);
+        when(networkSystem.getMode()).thenReturn(NetworkMode.CLIENT);
+        systemConfig = new SystemConfig();
+        Config config = mock(Config.class);
+        when(config.getSystem()).thenReturn(systemConfig);
+
+        Context context = new ContextImpl();
+        context.put(PhysicsEngine.class, physics);
+        context.put(ChunkProvider.class, chunkProvider);
+        context.put(Time.class, time);
+        context.put(NetworkSystem.class, networkSystem);
+        context.put(Config.class, config);
+        worldProvider = mock(WorldProvider.class);
+        context.put(WorldProvider.class, worldProvider);
+        physicsSystem = new PhysicsSystem();
+        InjectionHelper.inject(physicsSystem, context);
+        physicsSystem.initialise();
+    }
+
+    @Test
+    public void testActiveAreasSpanTheDistanceAroundRelevanceRegions() {
+        systemConfig.setRigidBodyActiveDistance(1);
+        when(chunkProvider.getRelevanceRegionCenters()).thenReturn(Arrays.asList(new Vector3i(0, 0, 0), new Vector3i(10, 0, 0)));
+
+        physicsSystem.update(0.1f);
+
+        List<AABB> areas = captureActiveAreas();
+        assertEquals(2, areas.size());
+        assertEquals(new Vector3f(-32, -64, -32), areas.get(0).getMin());
+        assertEquals(new Vector3f(64, 128, 64), areas.get(0).getMax());
+        assertEquals(new Vector3f(288, -64, -32), areas.get(1).getMin());
+    }
+
+    @Test
+    public void testNoActiveAreasWhenDistanceIsZero() {
+        systemConfig.setRigidBodyActiveDistance(0);
+        when(chunkProvider.getRelevanceRegionCenters()).thenReturn(Collections.singletonList(new Vector3i(0, 0, 0)));
+
+        physicsSystem.update(0.1f);
+
+        assertTrue(captureActiveAreas().isEmpty());
+    }
+
+    @Test
+    public void testBatchedRayTraceReturnsHitsInRayOrder() {
+        traceWorld(new AtomicInteger());
+
+        List<HitResult> hits = physics.rayTrace(Arrays.asList(
+                new RayTraceRequest(new Vector3f(0, 0, 0), new Vector3f(1, 0, 0), 10),
+                new RayTraceRequest(new Vector3f(1, 0, 0), new Vector3f(1, 0, 0), 10),
+                new RayTraceRequest(new Vector3f(1, 0, 0), new Vector3f(1, 0, 0), 0.5f)));
+
+        assertEquals(3, hits.size());
+        assertEquals(new Vector3f(1, 0, 0), hits.get(0).getHitPoint());
+        assertEquals(new Vector3f(2, 0, 0), hits.get(1).getHitPoint());
+        assertFalse(hits.get(2).isHit());
+    }
+
+    @Test
+    public void testImpactsContinueThroughPenetrableBlocks() {
+        setupBlocks();
+        AtomicInteger rays = traceWorld(new AtomicInteger());
+        EntityRef body = createBody(new Vector3f(0, 0, 0), new Vector3f(10, 0, 0));
+        setupBodies(body);
+
+        physicsSystem.update(1);
+
+        assertEquals(WALL_X, rays.get());
+        ArgumentCaptor<ImpactEvent> impact = ArgumentCaptor.forClass(ImpactEvent.class);
+        verify(body).send(impact.capture());
+        assertTrue(impact.getValue() instanceof BlockImpactEvent);
+        assertEquals(new Vector3f(WALL_X, 0, 0), impact.getValue().getImpactPoint());
+    }
+
+    @Test
+    public void testImpactRaysPerBodyAreCapped() {
+        Block penetrable = new Block();
+        penetrable.setPenetrable(true);
+        when(worldProvider.getBlock(any(Vector3i.class))).thenReturn(penetrable);
+        AtomicInteger rays = traceWorld(new AtomicInteger());
+        EntityRef body = createBody(new Vector3f(0, 0, 0), new Vector3f(100, 0, 0));
+        setupBodies(body);
+
+        physicsSystem.update(1);
+
+        assertEquals(8, rays.get());
+        verify(body, never()).send(any(ImpactEvent.class));
+    }
+
+    @Test
+    public void testOneImpactPerBody() {
+        setupBlocks();
+        AtomicInteger rays = traceWorld(new AtomicInteger());
+        EntityRef first = createBody(new Vector3f(0, 0, 0), new Vector3f(10, 0, 0));
+        EntityRef second = createBody(new Vector3f(1, 0, 0), new Vector3f(10, 0, 0));
+        EntityRef resting = createBody(new Vector3f(0, 0, 0), new Vector3f(0, 0, 0));
+        setupBodies(first, second, resting);
+
+        physicsSystem.update(1);
+
+        assertEquals(WALL_X + WALL_X - 1, rays.get());
+        verify(first, times(1)).send(any(ImpactEvent.class));
+        verify(second, times(1)).send(any(ImpactEvent.class));
+        verify(resting, never()).send(any(ImpactEvent.class));
+    }
+
+    /**
+     * Blocks before {@link #WALL_X} are penetrable, the wall and everything behind it is solid.
+     */
+    private void setupBlocks() {
+        Block penetrable = new Block();
+        penetrable.setPenetrable(true);
+        Block solid = new Block();
+        when(worldProvider.getBlock(any(Vector3i.class))).thenAnswer(invocation ->
+                invocation.<Vector3i>getArgument(0).x < WALL_X ? penetrable : solid);
+    }
+
+    /**
+     * Lets every ray along the x axis hit the next block boundary, if it is within the distance of the ray.
+     */
+    private AtomicInteger traceWorld(AtomicInteger rays) {
+        EntityRef blockEntity = mock(EntityRef.class);
+        when(blockEntity.hasComponent(BlockComponent.class)).thenReturn(true);
+        doAnswer(invocation -> {
+            rays.incrementAndGet();
+            Vector3f from = invocation.getArgument(0);
+            float distance = invocation.getArgument(2);
+            int blockX = (int) Math.floor(from.x) + 1;
+            if (blockX - from.x > distance) {
+                return new HitResult();
+            }
+            return new HitResult(blockEntity, new Vector3f(blockX, from.y, from.z), new Vector3f(-1, 0, 0),
+                    new Vector3i(blockX, (int) from.y, (int) from.z));
+        }).when(physics).rayTrace(any(Vector3f.class), any(Vector3f.class), anyFloat(), ArgumentMatchers.<CollisionGroup>any());
+        return rays;
+    }
+
+    private void setupBodies(EntityRef... bodies) {
+        when(physics.physicsEntitiesIterator()).thenAnswer(invocation -> Arrays.asList(bodies).iterator());
+    }
+
+    private EntityRef createBody(Vector3f location, Vector3f velocity) {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getComponent(RigidBodyComponent.class)).thenReturn(new RigidBodyComponent());
+        RigidBody body = mock(RigidBody.class);
+        when(body.isActive()).thenReturn(true);
+        when(body.getLinearVelocity(any(Vector3f.class))).thenAnswer(invocation ->
+                invocation.<Vector3f>getArgument(0).set(velocity));
+        when(body.getLocation(any(Vector3f.class))).thenAnswer(invocation ->
+                invocation.<Vector3f>getArgument(0).set(location));
+        when(physics.getRigidBody(entity)).thenReturn(body);
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AABB> captureActiveAreas() {
+        ArgumentCaptor<List<AABB>> captor = ArgumentCaptor.forClass((Class) List.class);
+        verify(physics).updateActiveAreas(captor.capture());
+        return captor.getValue();
+    }
+}
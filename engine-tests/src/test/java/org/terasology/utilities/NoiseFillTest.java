@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.DiscreteWhiteNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+import org.terasology.utilities.procedural.WhiteNoise;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Tests that filling a region with {@link Noise} gives the same values as sampling it one position at a time.
+ */
+@RunWith(Parameterized.class)
+public class NoiseFillTest {
+
+    private Noise noiseGen;
+
+    public NoiseFillTest(Noise noiseGen) {
+        this.noiseGen = noiseGen;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Noise[]> data() {
+        return Arrays.asList(new Noise[][]{
+                {new WhiteNoise(0xCAFE)},
+                {new DiscreteWhiteNoise(0xCAFE)},
+                {new SimplexNoise(0xCAFE)},
+                {new PerlinNoise(0xCAFE)},
+                {new BrownianNoise(new WhiteNoise(0xCAFE), 3)},
+                {new SubSampledNoise(new PerlinNoise(0xCAFE), new Vector2f(0.1f, 0.1f), 4)},
+                {new SubSampledNoise(new PerlinNoise(0xCAFE), new Vector3f(0.1f, 0.1f, 0.1f), 4)}
+        });
+    }
+
+    @Test
+    public void testFill2DMatchesSinglePositions() {
+        assertFill2DMatchesSinglePositions(0.37f, 0.81f);
+    }
+
+    /**
+     * Block coordinates, which {@link SubSampledNoise} fills by interpolating the whole region at once.
+     */
+    @Test
+    public void testUnscaledFill2DMatchesSinglePositions() {
+        assertFill2DMatchesSinglePositions(1, 1);
+    }
+
+    @Test
+    public void testFill3DMatchesSinglePositions() {
+        assertFill3DMatchesSinglePositions(0.37f, 0.81f, 0.23f);
+    }
+
+    @Test
+    public void testUnscaledFill3DMatchesSinglePositions() {
+        assertFill3DMatchesSinglePositions(1, 1, 1);
+    }
+
+    private void assertFill2DMatchesSinglePositions(float scaleX, float scaleY) {
+        Rect2i region = Rect2i.createFromMinAndSize(-7, 3, 19, 11);
+        float[] values = new float[region.sizeX() * region.sizeY()];
+        noiseGen.fill(values, region, scaleX, scaleY);
+
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                Assert.assertEquals(noiseGen.noise(x * scaleX, y * scaleY), values[index++], 0);
+            }
+        }
+    }
+
+    private void assertFill3DMatchesSinglePositions(float scaleX, float scaleY, float scaleZ) {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-5, -2, 4), new Vector3i(9, 7, 5));
+        float[] values = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        noiseGen.fill(values, region, scaleX, scaleY, scaleZ);
+
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    Assert.assertEquals(noiseGen.noise(x * scaleX, y * scaleY, z * scaleZ), values[index++], 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WorkStealingBlockingQueueTest {
+
+    @Test
+    public void testElementsAreTakenInBucketOrder() throws InterruptedException {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(2, 10, value -> value);
+        queue.offer(5);
+        queue.offer(2);
+        queue.offer(7);
+        queue.offer(0);
+        assertEquals(4, queue.size());
+        assertEquals(0, (int) queue.take());
+        assertEquals(2, (int) queue.take());
+        assertEquals(5, (int) queue.take());
+        assertEquals(7, (int) queue.take());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testOutOfRangePrioritiesAreClamped() {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(1, 4, value -> value);
+        queue.offer(Integer.MAX_VALUE);
+        queue.offer(-1);
+        assertEquals(-1, (int) queue.poll());
+        assertEquals(Integer.MAX_VALUE, (int) queue.poll());
+    }
+
+    @Test
+    public void testInvalidatedElementsAreMovedToTheirNewBucket() {
+        Map<String, Integer> priorities = new ConcurrentHashMap<>();
+        priorities.put("a", 0);
+        priorities.put("b", 1);
+        WorkStealingBlockingQueue<String> queue = new WorkStealingBlockingQueue<>(1, 4, priorities::get);
+        queue.offer("a");
+        queue.offer("b");
+
+        priorities.put("a", 3);
+        queue.invalidatePriorities();
+
+        assertEquals("b", queue.poll());
+        assertEquals("a", queue.poll());
+    }
+
+    @Test
+    public void testInvalidatedElementsWithImprovedPriorityAreTakenEarlier() {
+        Map<String, Integer> priorities = new ConcurrentHashMap<>();
+        priorities.put("a", 0);
+        priorities.put("b", 1);
+        priorities.put("c", 3);
+        WorkStealingBlockingQueue<String> queue = new WorkStealingBlockingQueue<>(2, 4, priorities::get);
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+
+        priorities.put("a", 2);
+        priorities.put("c", 0);
+        queue.invalidatePriorities();
+
+        assertEquals("c", queue.poll());
+        assertEquals("b", queue.poll());
+        assertEquals("a", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testDiscardedElementsAreSkipped() {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(1, 1, value -> 0, value -> value < 0);
+        queue.offer(-1);
+        queue.offer(1);
+        queue.offer(-2);
+        assertEquals(1, (int) queue.poll());
+        assertNull(queue.poll());
+        assertEquals(2, queue.getDiscardedCount());
+        assertEquals(1, queue.getTakenCount());
+    }
+
+    @Test
+    public void testWorkersStealElementsOfOtherWorkers() throws InterruptedException {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(4, 1, value -> 0);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+        }
+        List<Integer> taken = Lists.newArrayList();
+        queue.drainTo(taken);
+        assertEquals(100, taken.size());
+        assertEquals(100, queue.getTakenCount());
+        assertTrue(queue.getStolenCount() > 0);
+    }
+
+    @Test
+    public void testTakeBlocksUntilElementIsOffered() throws InterruptedException {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(1, 1, value -> 0);
+        CountDownLatch taken = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            try {
+                queue.take();
+                taken.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        assertEquals(1, taken.getCount());
+        queue.offer(1);
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        worker.join();
+    }
+
+    @Test
+    public void testIteratorVisitsAllElementsInBucketOrder() {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(3, 10, value -> value);
+        for (int i = 9; i >= 0; i--) {
+            queue.offer(i);
+        }
+        assertEquals(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), Lists.newArrayList(queue));
+        assertTrue(queue.contains(4));
+        assertFalse(queue.contains(10));
+        assertEquals(10, queue.toArray().length);
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", queue.toString());
+    }
+
+    @Test
+    public void testRemoveTakesElementAndItsPermit() throws InterruptedException {
+        WorkStealingBlockingQueue<Integer> queue = new WorkStealingBlockingQueue<>(2, 4, value -> value);
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+        assertTrue(queue.remove(2));
+        assertFalse(queue.remove(2));
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(1, (int) iterator.next());
+        iterator.remove();
+        assertEquals(1, queue.size());
+        assertEquals(3, (int) queue.take());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testExecutorShutdownReturnsQueuedTasks() throws InterruptedException {
+        WorkStealingBlockingQueue<Runnable> queue = new WorkStealingBlockingQueue<>(1, 1, task -> 0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> { });
+        }
+        assertEquals(5, executor.shutdownNow().size());
+        release.countDown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+}
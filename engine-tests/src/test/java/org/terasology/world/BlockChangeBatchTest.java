@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BlockChangeBatchTest {
+
+    @Test
+    public void testBlockIndicesMapToWorldPositions() {
+        Vector3i chunkPos = new Vector3i(-2, 1, 3);
+        int x = ChunkConstants.SIZE_X - 1;
+        int y = 5;
+        int z = 0;
+        Vector3i worldPos = BlockChangeBatch.toWorldPos(chunkPos, BlockChangeBatch.toBlockIndex(x, y, z));
+        assertEquals(new Vector3i(-2 * ChunkConstants.SIZE_X + x, ChunkConstants.SIZE_Y + y, 3 * ChunkConstants.SIZE_Z + z), worldPos);
+    }
+
+    @Test
+    public void testBlockIndicesAreUniqueWithinChunk() {
+        int max = BlockChangeBatch.toBlockIndex(ChunkConstants.SIZE_X - 1, ChunkConstants.SIZE_Y - 1, ChunkConstants.SIZE_Z - 1);
+        assertEquals(ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z - 1, max);
+        assertEquals(0, BlockChangeBatch.toBlockIndex(0, 0, 0));
+    }
+
+    @Test
+    public void testBatchGrowsAndKeepsOrder() {
+        Block stone = new Block();
+        Block air = new Block();
+        BlockChangeBatch batch = new BlockChangeBatch(new Vector3i(0, 0, 0));
+        for (int i = 0; i < 100; i++) {
+            batch.add(i % ChunkConstants.SIZE_X, i / ChunkConstants.SIZE_X, 0, stone, air);
+        }
+        assertEquals(100, batch.size());
+        assertEquals(new Vector3i(99 % ChunkConstants.SIZE_X, 99 / ChunkConstants.SIZE_X, 0), batch.getPosition(99));
+        assertSame(stone, batch.getBlock(42));
+        assertSame(air, batch.getOriginalBlock(42));
+    }
+
+    @Test
+    public void testListenersGetSingleChangesByDefault() {
+        Block stone = new Block();
+        Block air = new Block();
+        BlockChangeBatch batch = new BlockChangeBatch(new Vector3i(1, 0, 0));
+        batch.add(1, 2, 3, stone, air);
+        batch.add(4, 5, 6, air, stone);
+
+        List<Vector3i> changed = new ArrayList<>();
+        WorldChangeListener listener = new WorldChangeListener() {
+            @Override
+            public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
+                changed.add(pos);
+            }
+
+            @Override
+            public void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
+            }
+        };
+        listener.onBlocksChanged(batch);
+
+        assertEquals(2, changed.size());
+        assertEquals(new Vector3i(ChunkConstants.SIZE_X + 1, 2, 3), changed.get(0));
+        assertEquals(new Vector3i(ChunkConstants.SIZE_X + 4, 5, 6), changed.get(1));
+    }
+}
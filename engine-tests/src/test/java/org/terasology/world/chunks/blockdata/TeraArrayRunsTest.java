@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TeraArrayRunsTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    @Test
+    public void testAllArrayTypesProduceTheSameRuns() {
+        TeraArray dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillTerrain(dense);
+        Runs expected = Runs.of(dense);
+        assertEquals(expected, Runs.of(new TeraPalettedArray(dense)));
+        assertEquals(expected, Runs.of(new TeraStandardDeflator().deflate(dense)));
+        TeraArray sparse = TeraArray.fromRuns16(SIZE_X, SIZE_Y, SIZE_Z, expected);
+        assertTrue(sparse instanceof TeraSparseArray16Bit);
+        assertEquals(expected, Runs.of(sparse));
+    }
+
+    @Test
+    public void testUniformRunsCreateSparseArray() {
+        Runs runs = new Runs();
+        runs.addRun(SIZE_X * SIZE_Y * SIZE_Z, 5);
+        TeraArray array = TeraArray.fromRuns16(SIZE_X, SIZE_Y, SIZE_Z, runs);
+        assertTrue(array instanceof TeraSparseArray16Bit);
+        assertEquals(5, array.get(7, 8, 9));
+    }
+
+    @Test
+    public void testRoundTrip16Bit() {
+        TeraArray dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillTerrain(dense);
+        dense.set(3, 40, 3, -7);
+        TeraArray restored = TeraArray.fromRuns16(SIZE_X, SIZE_Y, SIZE_Z, Runs.of(dense));
+        assertSameContent(dense, restored);
+        assertEquals(Runs.of(dense), Runs.of(restored));
+    }
+
+    @Test
+    public void testRoundTrip8Bit() {
+        TeraArray dense = new TeraDenseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillTerrain(dense);
+        dense.set(3, 40, 3, 100);
+        TeraArray restored = TeraArray.fromRuns8(SIZE_X, SIZE_Y, SIZE_Z, Runs.of(dense));
+        assertSameContent(dense, restored);
+    }
+
+    private static void fillTerrain(TeraArray array) {
+        for (int z = 0; z < SIZE_Z; z++) {
+            for (int x = 0; x < SIZE_X; x++) {
+                int height = 20 + (x + z) % 7;
+                for (int y = 0; y < height; y++) {
+                    array.set(x, y, z, y < height - 2 ? 1 : 2);
+                }
+            }
+        }
+    }
+
+    private static void assertSameContent(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private static final class Runs implements TeraArray.RunSink, TeraArray.RunSource {
+        private final TIntArrayList lengths = new TIntArrayList();
+        private final TIntArrayList values = new TIntArrayList();
+
+        static Runs of(TeraArray array) {
+            Runs runs = new Runs();
+            array.encodeRuns(runs);
+            return runs;
+        }
+
+        @Override
+        public void addRun(int length, int value) {
+            lengths.add(length);
+            values.add(value);
+        }
+
+        @Override
+        public int getRunCount() {
+            return lengths.size();
+        }
+
+        @Override
+        public int getRunLength(int run) {
+            return lengths.get(run);
+        }
+
+        @Override
+        public int getRunValue(int run) {
+            return values.get(run);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Runs && lengths.equals(((Runs) obj).lengths) && values.equals(((Runs) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return lengths.hashCode() * 31 + values.hashCode();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TeraPalettedArrayTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    @Test
+    public void testNewArrayIsFilledWithZero() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.get(5, 6, 7));
+        assertEquals(1, array.getBitsPerEntry());
+        assertEquals(1, array.getPaletteSize());
+    }
+
+    @Test
+    public void testBitsPerEntryGrowWithPalette() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(0, 0, 0, 7);
+        assertEquals(1, array.getBitsPerEntry());
+        array.set(1, 0, 0, 8);
+        assertEquals(2, array.getBitsPerEntry());
+        for (int i = 0; i < 20; i++) {
+            array.set(i, 1, 0, 100 + i);
+        }
+        assertEquals(8, array.getBitsPerEntry());
+        for (int i = 0; i < 300; i++) {
+            array.set(i % SIZE_X, 2 + i / SIZE_X, 0, 1000 + i);
+        }
+        assertEquals(16, array.getBitsPerEntry());
+
+        assertEquals(7, array.get(0, 0, 0));
+        assertEquals(8, array.get(1, 0, 0));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(100 + i, array.get(i, 1, 0));
+        }
+        for (int i = 0; i < 300; i++) {
+            assertEquals(1000 + i, array.get(i % SIZE_X, 2 + i / SIZE_X, 0));
+        }
+        assertEquals(0, array.get(31, 63, 31));
+    }
+
+    @Test
+    public void testSetReturnsOldValueAndHonorsExpectedValue() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.set(3, 4, 5, -2));
+        assertEquals(-2, array.get(3, 4, 5));
+        assertFalse(array.set(3, 4, 5, 9, 0));
+        assertTrue(array.set(3, 4, 5, 9, -2));
+        assertEquals(9, array.get(3, 4, 5));
+    }
+
+    @Test
+    public void testCompactRemovesUnusedPaletteEntries() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 1; i < 10; i++) {
+            array.set(i, 0, 0, i);
+        }
+        for (int i = 2; i < 10; i++) {
+            array.set(i, 0, 0, 0);
+        }
+        TeraPalettedArray compacted = array.compact();
+        assertEquals(2, compacted.getPaletteSize());
+        assertEquals(1, compacted.getBitsPerEntry());
+        assertEquals(1, compacted.get(1, 0, 0));
+        assertEquals(0, compacted.get(2, 0, 0));
+    }
+
+    @Test
+    public void testStandardDeflatorCreatesPalettedArrayForFewDistinctValues() {
+        TeraDenseArray16Bit dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    dense.set(x, y, z, (x + y + z) % 5);
+                }
+            }
+        }
+        TeraArray deflated = new TeraStandardDeflator().deflate(dense);
+        assertTrue(deflated instanceof TeraPalettedArray);
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() < dense.getEstimatedMemoryConsumptionInBytes());
+        assertEquals(3, deflated.get(1, 1, 1));
+        assertEquals(4, deflated.get(31, 63, 0));
+    }
+
+    @Test
+    public void testStandardDeflatorInflatesPalettesThatStayTooLarge() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 0; i < SIZE_X * SIZE_Y; i++) {
+            array.set(i % SIZE_X, i / SIZE_X, i % SIZE_Z, 1000 + i);
+        }
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertTrue(deflated instanceof TeraDenseArray16Bit);
+        for (int i = 0; i < SIZE_X * SIZE_Y; i++) {
+            assertEquals(1000 + i, deflated.get(i % SIZE_X, i / SIZE_X, i % SIZE_Z));
+        }
+        assertEquals(0, deflated.get(1, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndicesBeyondPaletteAreRejected() {
+        long[] data = new long[SIZE_X * SIZE_Y * SIZE_Z * 2 / 64];
+        data[10] = 3L << 6;
+        new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z, new short[]{0, 1, 2}, 3, 2, data);
+    }
+
+    @Test
+    public void testReadersSeeConsistentValuesWhileGrowing() throws Exception {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    for (int x = 0; x < SIZE_X; x++) {
+                        int value = array.get(x, 0, 0);
+                        if (value != 0 && value != 1000 + x) {
+                            throw new IllegalStateException("Read " + value + " at " + x);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 300; i++) {
+            array.set(i % SIZE_X, i / SIZE_X, 0, i < SIZE_X ? 1000 + i : 2000 + i);
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        TeraPalettedArray array = new TeraPalettedArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(1, 2, 3, 42);
+        array.set(4, 5, 6, 43);
+        array.set(7, 8, 9, 44);
+        TeraPalettedArray.SerializationHandler handler = new TeraPalettedArray.SerializationHandler();
+        ByteBuffer buffer = handler.serialize(array);
+        buffer.flip();
+        TeraPalettedArray restored = handler.deserialize(buffer);
+        assertEquals(42, restored.get(1, 2, 3));
+        assertEquals(43, restored.get(4, 5, 6));
+        assertEquals(44, restored.get(7, 8, 9));
+        assertEquals(0, restored.get(0, 0, 0));
+    }
+}
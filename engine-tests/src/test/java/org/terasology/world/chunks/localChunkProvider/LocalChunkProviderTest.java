@@ -40,6 +40,7 @@
 import org.terasology.world.chunks.event.OnChunkLoaded;
 import org.terasology.world.chunks.internal.ReadyChunkInfo;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -84,18 +85,32 @@ public void setUp(){
     public void testCompleteUpdateMarksChunkReady() throws Exception {
         final Chunk chunk = mockChunkAt(0, 0, 0);
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForNewChunk(chunk, new TShortObjectHashMap<>(), Collections.emptyList());
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
 
         chunkProvider.completeUpdate();
 
         verify(chunk).markReady();
     }
 
+    @Test
+    public void testCompleteUpdateMarksWholeFinalizedBatchReady() throws Exception {
+        final Chunk chunk = mockChunkAt(0, 0, 0);
+        final Chunk otherChunk = mockChunkAt(3, 0, 0);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Arrays.asList(
+                ReadyChunkInfo.createForNewChunk(chunk, new TShortObjectHashMap<>(), Collections.emptyList()),
+                ReadyChunkInfo.createForNewChunk(otherChunk, new TShortObjectHashMap<>(), Collections.emptyList())));
+
+        chunkProvider.completeUpdate();
+
+        verify(chunk).markReady();
+        verify(otherChunk).markReady();
+    }
+
     @Test
     public void testCompleteUpdateHandlesFinalizedChunkIfReady() throws Exception {
         final Chunk chunk = mockChunkAt(0, 0, 0);
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForNewChunk(chunk, new TShortObjectHashMap<>(), Collections.emptyList());
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
 
         chunkProvider.completeUpdate();
 
@@ -111,7 +126,7 @@ public void testCompleteUpdateGeneratesStoredEntities() throws Exception {
         final EntityStore entityStore = createEntityStoreWithComponents(testComponent);
         final List<EntityStore> entityStores = Collections.singletonList(entityStore);
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForNewChunk(chunk, new TShortObjectHashMap<>(), entityStores);
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
         final EntityRef mockEntity = mock(EntityRef.class);
         when(entityManager.create()).thenReturn(mockEntity);
 
@@ -128,7 +143,7 @@ public void testCompleteUpdateGeneratesStoredEntitiesFromPrefab() throws Excepti
         final EntityStore entityStore = createEntityStoreWithPrefabAndComponents(prefab, testComponent);
         final List<EntityStore> entityStores = Collections.singletonList(entityStore);
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForNewChunk(chunk, new TShortObjectHashMap<>(), entityStores);
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
         final EntityRef mockEntity = mock(EntityRef.class);
         when(entityManager.create(any(Prefab.class))).thenReturn(mockEntity);
 
@@ -143,7 +158,7 @@ public void testCompleteUpdateRestoresEntitiesForRestoredChunks() throws Excepti
         final Chunk chunk = mockChunkAt(0, 0, 0);
         final ChunkStore chunkStore = mock(ChunkStore.class);
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForRestoredChunk(chunk, new TShortObjectHashMap<>(), chunkStore, Collections.emptyList());
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
 
         chunkProvider.completeUpdate();
 
@@ -159,7 +174,7 @@ public void testCompleteUpdateSendsBlockAddedEvents() throws Exception {
         final TShortObjectHashMap<TIntList> blockPositionMappings = new TShortObjectHashMap<>();
         blockPositionMappings.put(blockId, withPositions(new Vector3i(1, 2, 3)));
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForRestoredChunk(chunk, blockPositionMappings, mock(ChunkStore.class), Collections.emptyList());
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
 
         chunkProvider.completeUpdate();
 
@@ -179,7 +194,7 @@ public void testCompleteUpdateSendsBlockActivatedEvents() throws Exception {
         registerBlockWithIdAndEntity(blockId, blockEntity, blockManager);
         blockPositionMappings.put(blockId, withPositions(new Vector3i(1, 2, 3)));
         final ReadyChunkInfo readyChunkInfo = ReadyChunkInfo.createForRestoredChunk(chunk, blockPositionMappings, mock(ChunkStore.class), Collections.emptyList());
-        when(chunkFinalizer.completeFinalization()).thenReturn(readyChunkInfo);
+        when(chunkFinalizer.completeFinalization()).thenReturn(Collections.singletonList(readyChunkInfo));
 
         chunkProvider.completeUpdate();
 
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FacetCacheTest {
+
+    private static final Vector3i CHUNK_SIZE = new Vector3i(32, 64, 32);
+
+    private Context context = new ContextImpl();
+
+    @Test
+    public void testColumnFacetIsReusedForStackedRegions() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        World world = createWorldBuilder(heightProvider).build();
+
+        HeightFacet bottom = world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        HeightFacet top = world.getWorldData(chunkRegion(0, 1, 0)).getFacet(HeightFacet.class);
+
+        assertSame(bottom, top);
+        assertEquals(1, heightProvider.processed);
+    }
+
+    @Test
+    public void testVolumeFacetsAreNotCached() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        DensityProvider densityProvider = new DensityProvider(true);
+        World world = createWorldBuilder(heightProvider, densityProvider).build();
+
+        DensityFacet bottom = world.getWorldData(chunkRegion(0, 0, 0)).getFacet(DensityFacet.class);
+        DensityFacet bottomAgain = world.getWorldData(chunkRegion(0, 0, 0)).getFacet(DensityFacet.class);
+
+        assertNotSame(bottom, bottomAgain);
+        assertEquals(2, densityProvider.processed);
+        assertEquals(1, heightProvider.processed);
+    }
+
+    @Test
+    public void testProvidersNeedToOptIn() {
+        HeightProvider heightProvider = new HeightProvider(false);
+        World world = createWorldBuilder(heightProvider).build();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        world.getWorldData(chunkRegion(0, 1, 0)).getFacet(HeightFacet.class);
+
+        assertEquals(2, heightProvider.processed);
+    }
+
+    @Test
+    public void testRequiredProvidersNeedToOptIn() {
+        HeightProvider heightProvider = new HeightProvider(false);
+        DensityProvider densityProvider = new DensityProvider(true);
+        World world = createWorldBuilder(heightProvider, densityProvider).build();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(DensityFacet.class);
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(DensityFacet.class);
+
+        assertEquals(2, densityProvider.processed);
+    }
+
+    @Test
+    public void testUpdatedFacetIsCachedAfterAllUpdates() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        HeightUpdater heightUpdater = new HeightUpdater();
+        World world = createWorldBuilder(heightProvider, heightUpdater).build();
+
+        HeightFacet first = world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        HeightFacet second = world.getWorldData(chunkRegion(0, 1, 0)).getFacet(HeightFacet.class);
+
+        assertSame(first, second);
+        assertEquals(1, second.updates);
+        assertEquals(1, heightProvider.processed);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesGetEvicted() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        World world = createWorldBuilder(heightProvider).setFacetCacheMaxBytes(CHUNK_SIZE.x * CHUNK_SIZE.z * 12).build();
+        FacetCache facetCache = ((WorldImpl) world).getFacetCache();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        assertEquals(1, facetCache.size());
+        world.getWorldData(chunkRegion(1, 0, 0)).getFacet(HeightFacet.class);
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+
+        assertEquals(3, heightProvider.processed);
+        assertEquals(1, facetCache.size());
+        assertTrue(facetCache.getUsedBytes() <= CHUNK_SIZE.x * CHUNK_SIZE.z * 12);
+    }
+
+    @Test
+    public void testFacetsLargerThanTheCacheAreNotCached() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        World world = createWorldBuilder(heightProvider).setFacetCacheMaxBytes(1024).build();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+
+        assertEquals(2, heightProvider.processed);
+        assertEquals(0, ((WorldImpl) world).getFacetCache().getUsedBytes());
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() {
+        HeightProvider heightProvider = new HeightProvider(true);
+        World world = createWorldBuilder(heightProvider).setFacetCacheMaxBytes(0).build();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+
+        assertEquals(2, heightProvider.processed);
+    }
+
+    private WorldBuilder createWorldBuilder(FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        return worldBuilder;
+    }
+
+    private static Region3i chunkRegion(int x, int y, int z) {
+        Vector3i min = new Vector3i(x * CHUNK_SIZE.x, y * CHUNK_SIZE.y, z * CHUNK_SIZE.z);
+        return Region3i.createFromMinAndSize(min, CHUNK_SIZE);
+    }
+
+    public static class HeightFacet extends BaseFacet2D {
+        public int updates;
+
+        public HeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public DensityFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        private final boolean cacheable;
+        private int processed;
+
+        public HeightProvider(boolean cacheable) {
+            this.cacheable = cacheable;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(HeightFacet.class, new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(HeightFacet.class))
+    public static class HeightUpdater implements FacetProvider {
+
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(HeightFacet.class).updates++;
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(value = HeightFacet.class, border = @FacetBorder(sides = 1)))
+    public static class DensityProvider implements FacetProvider {
+        private final boolean cacheable;
+        private int processed;
+
+        public DensityProvider(boolean cacheable) {
+            this.cacheable = cacheable;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(DensityFacet.class, new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class)));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.BlockChangeBatch;
+import org.terasology.world.WorldChangeListener;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorldProviderCoreImplTest {
+
+    private Block air;
+    private Block stone;
+    private Map<Vector3i, ChunkImpl> chunks = Maps.newHashMap();
+    private List<BlockChangeBatch> batches = new ArrayList<>();
+    private List<Vector3i> singleChanges = new ArrayList<>();
+    private WorldProviderCoreImpl worldProvider;
+
+    @Before
+    public void setup() {
+        air = new Block();
+        air.setId((short) 0);
+        stone = new Block();
+        stone.setId((short) 1);
+        BlockManager blockManager = mock(BlockManager.class);
+        when(blockManager.getBlock(anyShort())).thenAnswer(invocation -> {
+            short id = invocation.getArgument(0);
+            return id == 0 ? air : stone;
+        });
+        BiomeManager biomeManager = mock(BiomeManager.class);
+        for (int x = 0; x <= 1; x++) {
+            Vector3i chunkPos = new Vector3i(x, 0, 0);
+            ChunkImpl chunk = new ChunkImpl(chunkPos, blockManager, biomeManager);
+            chunk.setDirty(false);
+            chunks.put(chunkPos, chunk);
+        }
+
+        GeneratingChunkProvider chunkProvider = mock(GeneratingChunkProvider.class);
+        when(chunkProvider.getChunk(any(Vector3i.class))).thenAnswer(invocation -> chunks.get(invocation.<Vector3i>getArgument(0)));
+        worldProvider = new WorldProviderCoreImpl("test", "seed", 0, null, chunkProvider, air, new ContextImpl());
+        worldProvider.registerListener(new WorldChangeListener() {
+            @Override
+            public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
+                singleChanges.add(pos);
+            }
+
+            @Override
+            public void onBlocksChanged(BlockChangeBatch batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
+            }
+        });
+    }
+
+    @Test
+    public void testSetBlocksNotifiesOneBatchPerChunk() {
+        Map<Vector3i, Block> blocks = new LinkedHashMap<>();
+        blocks.put(new Vector3i(1, 2, 3), stone);
+        blocks.put(new Vector3i(ChunkConstants.SIZE_X + 4, 5, 6), stone);
+        blocks.put(new Vector3i(7, 8, 9), stone);
+        blocks.put(new Vector3i(10, 11, 12), air);
+
+        Map<Vector3i, Block> result = worldProvider.setBlocks(blocks);
+
+        assertEquals(4, result.size());
+        assertSame(air, result.get(new Vector3i(1, 2, 3)));
+        assertTrue(singleChanges.isEmpty());
+        // The unchanged air block is not part of any batch
+        assertEquals(2, batches.size());
+        BlockChangeBatch first = batches.get(0);
+        assertEquals(new Vector3i(0, 0, 0), first.getChunkPos());
+        assertEquals(2, first.size());
+        assertEquals(new Vector3i(1, 2, 3), first.getPosition(0));
+        assertEquals(new Vector3i(7, 8, 9), first.getPosition(1));
+        assertSame(stone, first.getBlock(0));
+        assertSame(air, first.getOriginalBlock(0));
+        BlockChangeBatch second = batches.get(1);
+        assertEquals(new Vector3i(1, 0, 0), second.getChunkPos());
+        assertEquals(new Vector3i(ChunkConstants.SIZE_X + 4, 5, 6), second.getPosition(0));
+        assertSame(stone, chunks.get(new Vector3i(1, 0, 0)).getBlock(4, 5, 6));
+    }
+
+    @Test
+    public void testSetBlocksSkipsUnloadedChunks() {
+        Map<Vector3i, Block> blocks = new LinkedHashMap<>();
+        Vector3i unloaded = new Vector3i(5 * ChunkConstants.SIZE_X, 0, 0);
+        blocks.put(unloaded, stone);
+        blocks.put(new Vector3i(1, 2, 3), stone);
+
+        Map<Vector3i, Block> result = worldProvider.setBlocks(blocks);
+
+        assertTrue(result.containsKey(unloaded));
+        assertNull(result.get(unloaded));
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testSetBlocksMarksTouchedNeighboursDirty() {
+        Map<Vector3i, Block> blocks = new LinkedHashMap<>();
+        blocks.put(new Vector3i(5, 5, 5), stone);
+        worldProvider.setBlocks(blocks);
+        assertTrue(chunks.get(new Vector3i(0, 0, 0)).isDirty());
+        assertFalse(chunks.get(new Vector3i(1, 0, 0)).isDirty());
+
+        blocks.clear();
+        blocks.put(new Vector3i(ChunkConstants.SIZE_X - 1, 5, 5), stone);
+        worldProvider.setBlocks(blocks);
+        assertTrue(chunks.get(new Vector3i(1, 0, 0)).isDirty());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PositionQueueTest {
+
+    @Test
+    public void testPackingRoundTrip() {
+        int limit = 1 << (PositionQueue.COORDINATE_BITS - 1);
+        int[] values = {0, 1, -1, 31, -32, 1000, -1000, limit - 1, -limit};
+        for (int x : values) {
+            for (int y : values) {
+                for (int z : values) {
+                    long packed = PositionQueue.pack(x, y, z);
+                    assertEquals(x, PositionQueue.unpackX(packed));
+                    assertEquals(y, PositionQueue.unpackY(packed));
+                    assertEquals(z, PositionQueue.unpackZ(packed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPollsInInsertionOrder() {
+        PositionQueue queue = new PositionQueue(2);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.add(i, -i, i * 2));
+        }
+        assertEquals(100, queue.size());
+        Vector3i position = new Vector3i();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new Vector3i(i, -i, i * 2), queue.poll(position));
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDuplicatesAreIgnored() {
+        PositionQueue queue = new PositionQueue();
+        assertTrue(queue.add(1, 2, 3));
+        assertFalse(queue.add(1, 2, 3));
+        assertEquals(1, queue.size());
+        queue.poll(new Vector3i());
+        assertTrue(queue.add(1, 2, 3));
+    }
+
+    @Test
+    public void testRemovedPositionsAreSkipped() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(1, 0, 0);
+        queue.add(2, 0, 0);
+        queue.add(3, 0, 0);
+        queue.remove(2, 0, 0);
+        assertFalse(queue.contains(2, 0, 0));
+        assertEquals(2, queue.size());
+        assertEquals(new Vector3i(1, 0, 0), queue.poll(new Vector3i()));
+        assertEquals(new Vector3i(3, 0, 0), queue.poll(new Vector3i()));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testMembershipSurvivesManyRemovals() {
+        PositionQueue queue = new PositionQueue();
+        for (int i = 0; i < 5000; i++) {
+            queue.add(i % 50, i / 50, -i);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            queue.remove(i % 50, i / 50, -i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 1, queue.contains(i % 50, i / 50, -i));
+        }
+        assertEquals(2500, queue.size());
+    }
+
+    @Test
+    public void testClear() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(4, 5, 6);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(4, 5, 6));
+        assertTrue(queue.add(4, 5, 6));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPollingEmptyQueueFails() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(0, 0, 0);
+        queue.remove(0, 0, 0);
+        queue.poll(new Vector3i());
+    }
+
+    @Test
+    public void testPositionsFarFromTheWorldOrigin() {
+        PositionQueue queue = new PositionQueue();
+        int far = Integer.MAX_VALUE - 10;
+        queue.add(far, -far, 5_000_000);
+        queue.add(far - PositionQueue.MAX_DISTANCE, -far + PositionQueue.MAX_DISTANCE, 5_000_000 + PositionQueue.MAX_DISTANCE);
+        queue.add(far + 1, -far - 1, 4_999_999);
+        assertTrue(queue.contains(far + 1, -far - 1, 4_999_999));
+        assertFalse(queue.contains(far + 1, far, 4_999_999));
+
+        assertEquals(new Vector3i(far, -far, 5_000_000), queue.poll(new Vector3i()));
+        assertEquals(new Vector3i(far - PositionQueue.MAX_DISTANCE, -far + PositionQueue.MAX_DISTANCE,
+                5_000_000 + PositionQueue.MAX_DISTANCE), queue.poll(new Vector3i()));
+        assertEquals(new Vector3i(far + 1, -far - 1, 4_999_999), queue.poll(new Vector3i()));
+    }
+
+    @Test
+    public void testPositionsDoNotAliasAcrossTheCoordinateRange() {
+        PositionQueue queue = new PositionQueue();
+        int range = 1 << PositionQueue.COORDINATE_BITS;
+        assertTrue(queue.add(0, 0, 0));
+        assertFalse(queue.contains(range, 0, 0));
+        assertFalse(queue.contains(0, -range, 0));
+        queue.remove(0, 0, range);
+        assertTrue(queue.contains(0, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPositionsTooFarFromTheQueueOriginAreRejected() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(0, 0, 0);
+        queue.add(0, PositionQueue.MAX_DISTANCE + 1, 0);
+    }
+
+    @Test
+    public void testOriginMovesWithEmptyQueue() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(0, 0, 0);
+        queue.poll(new Vector3i());
+        assertTrue(queue.add(3 * PositionQueue.MAX_DISTANCE, 0, 0));
+        assertEquals(new Vector3i(3 * PositionQueue.MAX_DISTANCE, 0, 0), queue.poll(new Vector3i()));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation.light;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LightMergerTest extends TerasologyTestingEnvironment {
+
+    private BlockManagerImpl blockManager;
+    private BiomeManager biomeManager;
+    private Block solid;
+    private Block torch;
+
+    private Map<Vector3i, Chunk> loadedChunks = Maps.newHashMap();
+    private Map<Vector3i, Chunk> readyChunks = Maps.newHashMap();
+    private List<Vector3i> mergeOrder = Collections.synchronizedList(Lists.newArrayList());
+    private LightMerger<Chunk> lightMerger;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager, true);
+        biomeManager = mock(BiomeManager.class);
+        CoreRegistry.put(BlockManager.class, blockManager);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        solid = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+
+        BlockFamilyDefinitionData torchData = new BlockFamilyDefinitionData();
+        torchData.getBaseSection().setDisplayName("Torch");
+        torchData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        torchData.getBaseSection().setLuminance(ChunkConstants.MAX_LIGHT);
+        torchData.getBaseSection().setTranslucent(true);
+        torchData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:torch"), torchData, BlockFamilyDefinition.class);
+        torch = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:torch")));
+
+        GeneratingChunkProvider chunkProvider = mock(GeneratingChunkProvider.class);
+        when(chunkProvider.getChunk(any(Vector3i.class))).thenAnswer(invocation -> readyChunks.get(invocation.getArgument(0)));
+        when(chunkProvider.getChunkUnready(any(Vector3i.class))).thenAnswer(invocation -> loadedChunks.get(invocation.getArgument(0)));
+        lightMerger = new LightMerger<>(chunkProvider, chunk -> chunk);
+    }
+
+    @After
+    public void shutdownMerger() {
+        lightMerger.shutdown();
+    }
+
+    @Test
+    public void testChunksOfOneColourNeverShareANeighbour() {
+        for (int x = -4; x <= 4; x++) {
+            for (int y = -4; y <= 4; y++) {
+                for (int z = -4; z <= 4; z++) {
+                    Vector3i chunkPos = new Vector3i(x, y, z);
+                    for (int dx = -2; dx <= 2; dx++) {
+                        for (int dy = -2; dy <= 2; dy++) {
+                            for (int dz = -2; dz <= 2; dz++) {
+                                Vector3i otherPos = new Vector3i(x + dx, y + dy, z + dz);
+                                // Chunks at most two apart along every axis have a common neighbour
+                                if (!otherPos.equals(chunkPos)) {
+                                    assertTrue(chunkPos + " and " + otherPos + " share a neighbour",
+                                            LightMerger.colourOf(chunkPos) != LightMerger.colourOf(otherPos));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testColoursAreMergedInOrder() {
+        List<Chunk> batch = Lists.newArrayList();
+        for (int x = 3; x >= -2; x--) {
+            for (int z = -2; z <= 3; z++) {
+                batch.add(createChunk(new Vector3i(x, 0, z)));
+            }
+        }
+
+        assertEquals(batch, merge(batch));
+
+        assertEquals(batch.size(), mergeOrder.size());
+        for (int i = 1; i < mergeOrder.size(); i++) {
+            assertTrue(LightMerger.colourOf(mergeOrder.get(i - 1)) <= LightMerger.colourOf(mergeOrder.get(i)));
+        }
+    }
+
+    @Test
+    public void testChunksMergedEarlierInTheBatchAreAvailable() {
+        // The torch lies in a chunk outside the batch, next to a batch chunk of a late colour. Its light reaches the
+        // early colour chunk diagonally across only by passing through the late one.
+        Chunk early = createChunk(new Vector3i(0, 0, 0));
+        Chunk late = createChunk(new Vector3i(0, 0, 1));
+        Chunk lit = createChunk(new Vector3i(1, 0, 1));
+        lit.setBlock(0, 10, 0, torch);
+        for (Chunk chunk : new Chunk[]{early, late, lit}) {
+            InternalLightProcessor.generateInternalLighting(chunk);
+        }
+        assertTrue(LightMerger.colourOf(early.getPosition()) < LightMerger.colourOf(late.getPosition()));
+
+        merge(Lists.newArrayList(late, early));
+
+        assertEquals(ChunkConstants.MAX_LIGHT - 1, late.getLight(ChunkConstants.SIZE_X - 1, 10, 0));
+        assertEquals(ChunkConstants.MAX_LIGHT - 2, early.getLight(ChunkConstants.SIZE_X - 1, 10, ChunkConstants.SIZE_Z - 1));
+    }
+
+    @Test
+    public void testBatchMatchesMergingOneChunkAtATime() {
+        List<Chunk> batch = createRandomWorld(new Random(7));
+        merge(batch);
+        List<Chunk> batchResult = Lists.newArrayList(loadedChunks.values());
+
+        loadedChunks.clear();
+        readyChunks.clear();
+        List<Chunk> single = createRandomWorld(new Random(7));
+        single.sort(Comparator.comparingInt(chunk -> LightMerger.colourOf(chunk.getPosition())));
+        for (Chunk chunk : single) {
+            merge(Collections.singletonList(chunk));
+        }
+
+        for (Chunk expected : single) {
+            Chunk actual = batchResult.stream().filter(chunk -> chunk.getPosition().equals(expected.getPosition())).findFirst().get();
+            for (Vector3i pos : ChunkConstants.CHUNK_REGION) {
+                String message = "Incorrect at position " + pos + " of chunk " + expected.getPosition();
+                assertEquals(message, expected.getLight(pos), actual.getLight(pos));
+                assertEquals(message, expected.getSunlight(pos), actual.getSunlight(pos));
+                assertEquals(message, expected.getSunlightRegen(pos), actual.getSunlightRegen(pos));
+            }
+        }
+    }
+
+    /**
+     * Merges the batch and marks its chunks as ready, like the chunk providers do.
+     */
+    private List<Chunk> merge(List<Chunk> batch) {
+        lightMerger.beginMerge(batch);
+        List<Chunk> result = lightMerger.completeMerge();
+        for (Chunk chunk : result) {
+            readyChunks.put(chunk.getPosition(), chunk);
+        }
+        return result;
+    }
+
+    private List<Chunk> createRandomWorld(Random random) {
+        List<Chunk> chunks = Lists.newArrayList();
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 2; y++) {
+                for (int z = 0; z < 3; z++) {
+                    Chunk chunk = createChunk(new Vector3i(x, y, z));
+                    for (Vector3i pos : ChunkConstants.CHUNK_REGION) {
+                        float value = random.nextFloat();
+                        if (value < 0.001f) {
+                            chunk.setBlock(pos, torch);
+                        } else if (value < 0.1f || pos.y == 20 && pos.x > 4) {
+                            chunk.setBlock(pos, solid);
+                        }
+                    }
+                    InternalLightProcessor.generateInternalLighting(chunk);
+                    chunks.add(chunk);
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private Chunk createChunk(Vector3i chunkPos) {
+        Chunk chunk = new ChunkImpl(chunkPos, blockManager, biomeManager) {
+            @Override
+            public void deflateSunlight() {
+                mergeOrder.add(getPosition());
+                super.deflateSunlight();
+            }
+        };
+        loadedChunks.put(chunkPos, chunk);
+        return chunk;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Serves a fixed set of blocks straight from an array, so block lookups in benchmarks cost what they cost in game.
+ * The blocks get the ids of their position in the array, lookups by uri and family are not supported.
+ */
+public class BenchmarkBlockManager extends BlockManager {
+    private final Block[] blocks;
+
+    public BenchmarkBlockManager(Block... blocks) {
+        this.blocks = blocks.clone();
+        for (short id = 0; id < blocks.length; id++) {
+            blocks[id].setId(id);
+        }
+    }
+
+    @Override
+    public Block getBlock(short id) {
+        return blocks[id];
+    }
+
+    @Override
+    public Collection<Block> listRegisteredBlocks() {
+        return ImmutableList.copyOf(blocks);
+    }
+
+    @Override
+    public int getBlockFamilyCount() {
+        return blocks.length;
+    }
+
+    @Override
+    public Map<String, Short> getBlockIdMap() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(String uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(BlockUri uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Block getBlock(String uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Block getBlock(BlockUri uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<BlockUri> listRegisteredBlockUris() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<BlockFamily> listRegisteredBlockFamilies() {
+        throw new UnsupportedOperationException();
+    }
+}
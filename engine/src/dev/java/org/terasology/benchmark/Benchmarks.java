@@ -75,7 +75,8 @@ public static BenchmarkResult execute(Benchmark benchmark, int benchmarkIndex, i
         for (int reps : repetitions) {
             repsTotal += reps;
         }
-        int repsPart = repsTotal / 20;
+        // Reports progress in steps of about 5%, but at least one repetition at a time
+        int repsPart = Math.max(1, repsTotal / 20);
 
         int repIndex = 0;
         boolean aborted = false;
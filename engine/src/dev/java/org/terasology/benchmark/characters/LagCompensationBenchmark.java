@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.characters;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.logic.characters.BenchmarkLagCompensation;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * LagCompensationBenchmark compares rewinding all characters with rewinding only the characters near an action.
+ */
+public final class LagCompensationBenchmark {
+
+    private LagCompensationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (int playerCount : new int[]{16, 64, 256}) {
+            benchmarks.add(new BenchmarkLagCompensation(playerCount, false));
+            benchmarks.add(new BenchmarkLagCompensation(playerCount, true));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+
+/**
+ * Measures a run length encoding round trip of a block array, as done when chunks get saved and loaded.
+ * <br><br>
+ * The legacy mode reads and writes every element through {@link TeraArray#get(int, int, int)} and
+ * {@link TeraArray#set(int, int, int, int)}, the bulk mode uses {@link TeraArray#encodeRuns(TeraArray.RunSink)} and
+ * {@link TeraArray#fromRuns16(int, int, int, TeraArray.RunSource)}.
+ */
+public class BenchmarkTeraArrayRunLengthCodec extends BenchmarkTeraArray {
+
+    private final String corpus;
+    private final boolean bulk;
+    private final TIntArrayList runLengths = new TIntArrayList();
+    private final TIntArrayList runValues = new TIntArrayList();
+
+    public BenchmarkTeraArrayRunLengthCodec(String corpus, TeraArray array, boolean bulk) {
+        super(array);
+        this.corpus = corpus;
+        this.bulk = bulk;
+    }
+
+    @Override
+    public String getTitle() {
+        return array.getClass().getSimpleName() + " (" + corpus + ") run length round trip, " + (bulk ? "bulk" : "legacy");
+    }
+
+    @Override
+    public int getWarmupRepetitions() {
+        return 200;
+    }
+
+    @Override
+    public int[] getRepetitions() {
+        return new int[]{100, 1000, 5000};
+    }
+
+    @Override
+    public void run() {
+        runLengths.resetQuick();
+        runValues.resetQuick();
+        if (bulk) {
+            array.encodeRuns((length, value) -> {
+                runLengths.add(length);
+                runValues.add(value);
+            });
+            TeraArray.fromRuns16(array.getSizeX(), array.getSizeY(), array.getSizeZ(), new TeraArray.RunSource() {
+                @Override
+                public int getRunCount() {
+                    return runLengths.size();
+                }
+
+                @Override
+                public int getRunLength(int run) {
+                    return runLengths.getQuick(run);
+                }
+
+                @Override
+                public int getRunValue(int run) {
+                    return runValues.getQuick(run);
+                }
+            });
+        } else {
+            encodeLegacy();
+            decodeLegacy();
+        }
+    }
+
+    private void encodeLegacy() {
+        int lastValue = array.get(0, 0, 0);
+        int count = 0;
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    int value = array.get(x, y, z);
+                    if (value == lastValue) {
+                        count++;
+                    } else {
+                        runLengths.add(count);
+                        runValues.add(lastValue);
+                        lastValue = value;
+                        count = 1;
+                    }
+                }
+            }
+        }
+        runLengths.add(count);
+        runValues.add(lastValue);
+    }
+
+    private void decodeLegacy() {
+        TeraArray result = new TeraDenseArray16Bit(array.getSizeX(), array.getSizeY(), array.getSizeZ());
+        int index = 0;
+        for (int run = 0; run < runLengths.size(); run++) {
+            int value = runValues.getQuick(run);
+            for (int i = 0; i < runLengths.getQuick(run); i++) {
+                int x = index % array.getSizeX();
+                int z = (index / array.getSizeX()) % array.getSizeZ();
+                int y = index / (array.getSizeX() * array.getSizeZ());
+                result.set(x, y, z, value);
+                index++;
+            }
+        }
+    }
+}
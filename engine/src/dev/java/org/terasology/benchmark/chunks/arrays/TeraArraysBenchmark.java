@@ -18,6 +18,8 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 
 import java.util.LinkedList;
@@ -58,6 +60,12 @@ public static void main(String[] args) {
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaByteArray(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaChannel(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 
+        for (boolean bulk : new boolean[]{false, true}) {
+            benchmarks.add(new BenchmarkTeraArrayRunLengthCodec("terrain", createTerrainChunk(), bulk));
+            benchmarks.add(new BenchmarkTeraArrayRunLengthCodec("air", new TeraDenseArray16Bit(32, 64, 32), bulk));
+            benchmarks.add(new BenchmarkTeraArrayRunLengthCodec("underground", createUndergroundChunk(), bulk));
+        }
+
 //        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 //
 //
@@ -75,4 +83,41 @@ public static void main(String[] args) {
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
+
+    /**
+     * A surface chunk: stone below a rolling height map, a layer of dirt and grass and air above.
+     */
+    private static TeraArray createTerrainChunk() {
+        TeraArray array = new TeraDenseArray16Bit(32, 64, 32);
+        for (int z = 0; z < array.getSizeZ(); z++) {
+            for (int x = 0; x < array.getSizeX(); x++) {
+                int height = 28 + (int) (6 * Math.sin(x * 0.3) + 4 * Math.cos(z * 0.2));
+                for (int y = 0; y < height; y++) {
+                    array.set(x, y, z, y < height - 3 ? 1 : 2);
+                }
+                array.set(x, height, z, 3);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * An underground chunk: stone with scattered ores and a few caves.
+     */
+    private static TeraArray createUndergroundChunk() {
+        TeraArray array = new TeraDenseArray16Bit(32, 64, 32);
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    int hash = (x * 73856093) ^ (y * 19349663) ^ (z * 83492791);
+                    if (Math.abs(hash % 97) == 0) {
+                        array.set(x, y, z, 4 + Math.abs(hash % 3));
+                    } else if (Math.sin(x * 0.25) * Math.cos(z * 0.25) + Math.sin(y * 0.2) < 1.2) {
+                        array.set(x, y, z, 1);
+                    }
+                }
+            }
+        }
+        return array;
+    }
 }
@@ -31,15 +31,29 @@ public class EntityCreateBenchmark extends AbstractBenchmark {
 
     private List<List<Component>> rawEntityData;
 
+    private final boolean useArchetypeStore;
+    private final int entityCount;
+
     public EntityCreateBenchmark() {
-        super("Create Entities", 10000, new int[]{10000});
+        this(false, 1000);
+    }
+
+    /**
+     * @param useArchetypeStore whether the entity manager groups entities by their component set.
+     * @param entityCount       the number of entities to create.
+     */
+    public EntityCreateBenchmark(boolean useArchetypeStore, int entityCount) {
+        super("Create Entities (" + entityCount + " entities" + (useArchetypeStore ? ", archetype store)" : ")"),
+                10000000 / entityCount, new int[]{10000000 / entityCount});
+        this.useArchetypeStore = useArchetypeStore;
+        this.entityCount = entityCount;
     }
 
     @Override
     public void setup() {
         FastRandom rand = new FastRandom(0L);
         rawEntityData = Lists.newArrayList();
-        for (int i = 0; i < 1000; ++i) {
+        for (int i = 0; i < entityCount; ++i) {
             List<Component> entityData = Lists.newArrayList();
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
@@ -56,7 +70,7 @@ public void setup() {
 
     @Override
     public void run() {
-        PojoEntityManager entityManager = new PojoEntityManager();
+        PojoEntityManager entityManager = new PojoEntityManager(useArchetypeStore);
         rawEntityData.forEach(entityManager::create);
     }
 }
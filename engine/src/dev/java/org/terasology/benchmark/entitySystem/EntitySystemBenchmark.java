@@ -40,6 +40,12 @@ public static void main(String[] args) {
         benchmarks.add(new EntityCreateBenchmark());
         benchmarks.add(new IterateSingleComponentBenchmark());
         benchmarks.add(new IterateMultipleComponentBenchmark());
+        for (int entityCount : new int[]{1000, 100000}) {
+            for (boolean useArchetypeStore : new boolean[]{false, true}) {
+                benchmarks.add(new EntityCreateBenchmark(useArchetypeStore, entityCount));
+                benchmarks.add(new IterateMultipleComponentBenchmark(useArchetypeStore, entityCount));
+            }
+        }
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
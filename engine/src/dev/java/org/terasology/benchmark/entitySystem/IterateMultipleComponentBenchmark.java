@@ -36,15 +36,29 @@ public class IterateMultipleComponentBenchmark extends AbstractBenchmark {
     private List<List<Component>> rawEntityData;
     private PojoEntityManager entityManager;
 
+    private final boolean useArchetypeStore;
+    private final int entityCount;
+
     public IterateMultipleComponentBenchmark() {
-        super("Iterate entities by multiple components", 10000, new int[]{10000});
+        this(false, 1000);
+    }
+
+    /**
+     * @param useArchetypeStore whether the entity manager groups entities by their component set.
+     * @param entityCount       the number of entities to create.
+     */
+    public IterateMultipleComponentBenchmark(boolean useArchetypeStore, int entityCount) {
+        super("Iterate entities by multiple components (" + entityCount + " entities" + (useArchetypeStore ? ", archetype store)" : ")"),
+                10000000 / entityCount, new int[]{10000000 / entityCount});
+        this.useArchetypeStore = useArchetypeStore;
+        this.entityCount = entityCount;
     }
 
     @Override
     public void setup() {
         FastRandom rand = new FastRandom(0L);
         rawEntityData = Lists.newArrayList();
-        for (int i = 0; i < 1000; ++i) {
+        for (int i = 0; i < entityCount; ++i) {
             List<Component> entityData = Lists.newArrayList();
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
@@ -58,7 +72,7 @@ public void setup() {
             rawEntityData.add(entityData);
         }
 
-        entityManager = new PojoEntityManager();
+        entityManager = new PojoEntityManager(useArchetypeStore);
         for (List<Component> rawEntity : rawEntityData) {
             entityManager.create(rawEntity);
         }
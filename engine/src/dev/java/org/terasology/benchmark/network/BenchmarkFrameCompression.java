@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import org.terasology.benchmark.AbstractBenchmark;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Base class for the benchmarks of the network frame compressions. A run either compresses or restores all frames of
+ * a stream, the compression ratio gets printed when the benchmark is finished.
+ */
+public abstract class BenchmarkFrameCompression extends AbstractBenchmark {
+
+    private final List<byte[]> frames;
+    private final boolean decompress;
+    private List<byte[]> compressedFrames;
+
+    protected BenchmarkFrameCompression(String title, List<byte[]> frames, boolean decompress) {
+        super(title + (decompress ? ", decompress" : ", compress"), 3, new int[]{5, 5, 5});
+        this.frames = frames;
+        this.decompress = decompress;
+    }
+
+    @Override
+    public void setup() {
+        compressedFrames = compress(frames);
+    }
+
+    @Override
+    public void run() {
+        if (decompress) {
+            try {
+                decompress(compressedFrames, frames);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            compress(frames);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        long totalBytes = frames.stream().mapToLong(frame -> frame.length).sum();
+        long compressedBytes = compressedFrames.stream().mapToLong(frame -> frame.length).sum();
+        System.out.println(String.format("%d frames, %d bytes, compression ratio %.3f", frames.size(), totalBytes,
+                (double) compressedBytes / totalBytes));
+        compressedFrames = null;
+    }
+
+    /**
+     * @return the compressed frames, in the order of the given frames
+     */
+    protected abstract List<byte[]> compress(List<byte[]> uncompressed);
+
+    /**
+     * @param compressed the frames returned by {@link #compress(List)}
+     * @param original   the frames before compression, for their length
+     */
+    protected abstract void decompress(List<byte[]> compressed, List<byte[]> original) throws DataFormatException;
+}
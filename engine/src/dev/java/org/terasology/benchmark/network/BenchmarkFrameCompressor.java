@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+import org.terasology.network.internal.compression.FrameCompressor;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Measures a {@link FrameCompressor}, with or without a dictionary, for the given compression threshold.
+ */
+public class BenchmarkFrameCompressor extends BenchmarkFrameCompression {
+
+    private final byte[] dictionary;
+    private final int threshold;
+
+    public BenchmarkFrameCompressor(String title, List<byte[]> frames, byte[] dictionary, int threshold, boolean decompress) {
+        super(title + ", threshold " + threshold, frames, decompress);
+        this.dictionary = dictionary;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected List<byte[]> compress(List<byte[]> uncompressed) {
+        FrameCompressor compressor = new FrameCompressor(dictionary, threshold);
+        List<byte[]> compressed = Lists.newArrayListWithCapacity(uncompressed.size());
+        for (byte[] frame : uncompressed) {
+            compressed.add(compressor.compress(frame, 0, frame.length));
+        }
+        return compressed;
+    }
+
+    @Override
+    protected void decompress(List<byte[]> compressed, List<byte[]> original) throws DataFormatException {
+        FrameCompressor decompressor = new FrameCompressor(dictionary, threshold);
+        for (byte[] frame : compressed) {
+            decompressor.decompress(frame, 0, frame.length);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Mirrors the zlib handlers: a single deflate stream per connection, flushed after every frame.
+ */
+public class BenchmarkZlibFrameCompression extends BenchmarkFrameCompression {
+
+    private final byte[] buffer = new byte[1 << 16];
+
+    public BenchmarkZlibFrameCompression(String title, List<byte[]> frames, boolean decompress) {
+        super(title, frames, decompress);
+    }
+
+    @Override
+    protected List<byte[]> compress(List<byte[]> uncompressed) {
+        Deflater deflater = new Deflater();
+        List<byte[]> compressed = Lists.newArrayListWithCapacity(uncompressed.size());
+        for (byte[] frame : uncompressed) {
+            deflater.setInput(frame);
+            byte[] output = new byte[0];
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                byte[] grown = new byte[output.length + length];
+                System.arraycopy(output, 0, grown, 0, output.length);
+                System.arraycopy(buffer, 0, grown, output.length, length);
+                output = grown;
+            } while (length == buffer.length);
+            compressed.add(output);
+        }
+        deflater.end();
+        return compressed;
+    }
+
+    @Override
+    protected void decompress(List<byte[]> compressed, List<byte[]> original) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        for (int i = 0; i < compressed.size(); i++) {
+            inflater.setInput(compressed.get(i));
+            byte[] output = new byte[original.get(i).length];
+            int restored = 0;
+            while (restored < output.length) {
+                restored += inflater.inflate(output, restored, output.length - restored);
+            }
+        }
+        inflater.end();
+    }
+}
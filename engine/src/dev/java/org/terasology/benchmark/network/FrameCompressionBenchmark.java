@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.network.internal.compression.CompressionDictionary;
+import org.terasology.network.internal.compression.FrameCompression;
+import org.terasology.protobuf.EntityData;
+import org.terasology.protobuf.NetData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * FrameCompressionBenchmark replays streams of {@link NetData.NetMessage}s through every {@link FrameCompression}.
+ * <br><br>
+ * Arguments are recorded streams: files of varint length delimited messages, as written by
+ * {@link com.google.protobuf.MessageLite#writeDelimitedTo} - the layout of the frames before they reach the
+ * compression handler. Without arguments a synthetic stream of entity updates, events and block changes is used.
+ */
+public final class FrameCompressionBenchmark {
+
+    private static final int SYNTHETIC_TICKS = 20000;
+
+    private FrameCompressionBenchmark() {
+    }
+
+    /**
+     * @param args the files containing recorded message streams
+     * @throws IOException if a recorded stream could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        if (args.length == 0) {
+            addBenchmarks(benchmarks, "synthetic", createSyntheticStream());
+        }
+        for (String arg : args) {
+            addBenchmarks(benchmarks, arg, readStream(arg));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    private static void addBenchmarks(List<Benchmark> benchmarks, String name, List<byte[]> frames) {
+        for (boolean decompress : new boolean[]{false, true}) {
+            benchmarks.add(new BenchmarkZlibFrameCompression(name + ", " + FrameCompression.ZLIB.getId(), frames, decompress));
+            for (int threshold : new int[]{0, 128}) {
+                benchmarks.add(new BenchmarkFrameCompressor(name + ", " + FrameCompression.LZ.getId(), frames,
+                        new byte[0], threshold, decompress));
+                benchmarks.add(new BenchmarkFrameCompressor(name + ", " + FrameCompression.LZ_DICTIONARY.getId(), frames,
+                        CompressionDictionary.get(), threshold, decompress));
+            }
+        }
+    }
+
+    private static List<byte[]> readStream(String path) throws IOException {
+        List<byte[]> frames = Lists.newArrayList();
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            NetData.NetMessage message;
+            while ((message = NetData.NetMessage.parseDelimitedFrom(in)) != null) {
+                frames.add(toFrame(message));
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * @return the message preceded by its varint length, like the frame encoder of the pipeline produces it
+     */
+    private static byte[] toFrame(NetData.NetMessage message) {
+        ByteString.Output out = ByteString.newOutput();
+        try {
+            message.writeDelimitedTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteString().toByteArray();
+    }
+
+    private static List<byte[]> createSyntheticStream() {
+        Random random = new Random(1);
+        List<byte[]> frames = Lists.newArrayList();
+        float[][] positions = new float[200][3];
+        for (float[] position : positions) {
+            for (int i = 0; i < 3; i++) {
+                position[i] = random.nextFloat() * 200;
+            }
+        }
+        for (int tick = 0; tick < SYNTHETIC_TICKS; tick++) {
+            NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(tick * 50L);
+            int updates = random.nextInt(8);
+            for (int i = 0; i < updates; i++) {
+                int netId = random.nextInt(positions.length);
+                float[] position = positions[netId];
+                position[random.nextInt(3)] += random.nextFloat() - 0.5f;
+                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder()
+                        .setNetId(netId + 1)
+                        .setEntity(EntityData.PackedEntity.newBuilder()
+                                .addComponentId(3)
+                                .addComponentFieldMask(3)
+                                .addFieldValue(EntityData.Value.newBuilder()
+                                        .addFloat(position[0]).addFloat(position[1]).addFloat(position[2]))
+                                .addFieldValue(EntityData.Value.newBuilder()
+                                        .addFloat(0).addFloat(random.nextFloat()).addFloat(0).addFloat(1))));
+            }
+            if (random.nextInt(10) == 0) {
+                message.addEvent(NetData.EventMessage.newBuilder()
+                        .setTargetId(random.nextInt(positions.length) + 1)
+                        .setEvent(EntityData.Event.newBuilder()
+                                .setType(random.nextInt(20))
+                                .setFieldIds(ByteString.copyFrom(new byte[]{0}))
+                                .addFieldValue(EntityData.Value.newBuilder().addInteger(random.nextInt(100)))));
+            }
+            if (random.nextInt(20) == 0) {
+                message.addBlockChange(NetData.BlockChangeMessage.newBuilder()
+                        .setPos(NetData.Vector3iData.newBuilder()
+                                .setX(random.nextInt(200)).setY(random.nextInt(64)).setZ(random.nextInt(200)))
+                        .setNewBlock(random.nextInt(50)));
+            }
+            frames.add(toFrame(message.build()));
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.utilities.procedural.Noise;
+
+/**
+ * Samples 2D noise for a chunk column with a one block border, either one position at a time or through
+ * {@link Noise#fill(float[], Rect2i, float, float)}. Every run samples the next column along the x axis.
+ */
+public class BenchmarkNoise2D extends AbstractBenchmark {
+
+    private static final Rect2i AREA = Rect2i.createFromMinAndSize(-1, -1, 34, 34);
+
+    private final Noise noise;
+    private final float scaleX;
+    private final float scaleY;
+    private final boolean fill;
+    private final float[] out = new float[AREA.sizeX() * AREA.sizeY()];
+    private int offsetX;
+
+    public BenchmarkNoise2D(String name, Noise noise, float scaleX, float scaleY, boolean fill) {
+        super(name + " 2D, " + (fill ? "fill" : "single"), 500, new int[]{2000, 2000, 2000});
+        this.noise = noise;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.fill = fill;
+    }
+
+    @Override
+    public void run() {
+        offsetX += AREA.sizeX();
+        if (fill) {
+            noise.fill(out, Rect2i.createFromMinAndSize(AREA.minX() + offsetX, AREA.minY(), AREA.sizeX(), AREA.sizeY()),
+                    scaleX, scaleY);
+        } else {
+            int index = 0;
+            for (int y = AREA.minY(); y <= AREA.maxY(); y++) {
+                for (int x = AREA.minX(); x <= AREA.maxX(); x++) {
+                    out[index++] = noise.noise((x + offsetX) * scaleX, y * scaleY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.Noise;
+
+/**
+ * Samples 3D noise for a chunk, either one position at a time or through
+ * {@link Noise#fill(float[], Region3i, float, float, float)}. Every run samples the next chunk along the x axis.
+ */
+public class BenchmarkNoise3D extends AbstractBenchmark {
+
+    private static final Region3i REGION = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(32, 64, 32));
+
+    private final Noise noise;
+    private final float scaleX;
+    private final float scaleY;
+    private final float scaleZ;
+    private final boolean fill;
+    private final float[] out = new float[REGION.volume()];
+    private int offsetX;
+
+    public BenchmarkNoise3D(String name, Noise noise, float scaleX, float scaleY, float scaleZ, boolean fill) {
+        super(name + " 3D, " + (fill ? "fill" : "single"), 20, new int[]{50, 50, 50});
+        this.noise = noise;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.scaleZ = scaleZ;
+        this.fill = fill;
+    }
+
+    @Override
+    public void run() {
+        offsetX += REGION.sizeX();
+        if (fill) {
+            Vector3i min = new Vector3i(REGION.minX() + offsetX, REGION.minY(), REGION.minZ());
+            noise.fill(out, Region3i.createFromMinAndSize(min, REGION.size()), scaleX, scaleY, scaleZ);
+        } else {
+            int index = 0;
+            for (int z = REGION.minZ(); z <= REGION.maxZ(); z++) {
+                for (int y = REGION.minY(); y <= REGION.maxY(); y++) {
+                    for (int x = REGION.minX(); x <= REGION.maxX(); x++) {
+                        out[index++] = noise.noise((x + offsetX) * scaleX, y * scaleY, z * scaleZ);
+                    }
+                }
+            }
+        }
+    }
+}
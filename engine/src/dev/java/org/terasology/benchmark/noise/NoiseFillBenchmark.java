@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * NoiseFillBenchmark compares sampling noise one position at a time with filling whole regions at once.
+ */
+public final class NoiseFillBenchmark {
+
+    private static final long SEED = 0xCAFE;
+    private static final float SCALE_X = 0.013f;
+    private static final float SCALE_Y = 0.021f;
+    private static final float SCALE_Z = 0.017f;
+
+    private NoiseFillBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        addScaled(benchmarks, "Perlin", new PerlinNoise(SEED));
+        addScaled(benchmarks, "Simplex", new SimplexNoise(SEED));
+        addScaled(benchmarks, "Brownian(Perlin, 8)", new BrownianNoise(new PerlinNoise(SEED), 8));
+        // The zoom takes the place of the scale, sub-sampling works on block coordinates
+        for (boolean fill : new boolean[]{false, true}) {
+            benchmarks.add(new BenchmarkNoise2D("SubSampled(Perlin, 4)",
+                    new SubSampledNoise(new PerlinNoise(SEED), new Vector2f(SCALE_X, SCALE_Y), 4), 1, 1, fill));
+            benchmarks.add(new BenchmarkNoise3D("SubSampled(Perlin, 4)",
+                    new SubSampledNoise(new PerlinNoise(SEED), new Vector3f(SCALE_X, SCALE_Y, SCALE_Z), 4), 1, 1, 1, fill));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    private static void addScaled(List<Benchmark> benchmarks, String name, Noise noise) {
+        for (boolean fill : new boolean[]{false, true}) {
+            benchmarks.add(new BenchmarkNoise2D(name, noise, SCALE_X, SCALE_Y, fill));
+            benchmarks.add(new BenchmarkNoise3D(name, noise, SCALE_X, SCALE_Y, SCALE_Z, fill));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.persistence.internal.BenchmarkChunkStoreWriter;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * SaveThroughputBenchmark compares writing chunks with a single thread and with the default parallelism of the
+ * chunk store writer.
+ */
+public final class SaveThroughputBenchmark {
+
+    private SaveThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (int chunkCount : new int[]{256, 1024, 4096}) {
+            benchmarks.add(new BenchmarkChunkStoreWriter(chunkCount, 1));
+            benchmarks.add(new BenchmarkChunkStoreWriter(chunkCount));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.bulletphysics.collision.broadphase.DbvtBroadphase;
+import com.bulletphysics.collision.dispatch.CollisionConfiguration;
+import com.bulletphysics.collision.dispatch.CollisionDispatcher;
+import com.bulletphysics.collision.dispatch.CollisionObject;
+import com.bulletphysics.collision.dispatch.CollisionWorld;
+import com.bulletphysics.collision.dispatch.DefaultCollisionConfiguration;
+import com.bulletphysics.collision.shapes.CapsuleShape;
+import com.bulletphysics.collision.shapes.ConvexShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelWorldShape;
+import com.bulletphysics.linearmath.Transform;
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.BenchmarkBlockManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.physics.bullet.PhysicsWorldWrapper;
+import org.terasology.physics.engine.PhysicsEngineManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures convex sweep tests against the voxel world, the way the character movement sweeps its capsule through it.
+ * The world is an area of 4x2x4 chunks with hilly stone terrain, every sweep starts a little above the ground and
+ * moves down and sideways towards it. The chunks {@link PhysicsWorldWrapper} looked up get forgotten every
+ * {@value #SWEEPS_PER_STEP} sweeps, like at the start of a simulation step.
+ */
+public class BenchmarkVoxelSweep extends AbstractBenchmark {
+
+    private static final int SWEEPS_PER_STEP = 100;
+
+    private static final int CHUNKS_X = 4;
+    private static final int CHUNKS_Y = 2;
+    private static final int CHUNKS_Z = 4;
+
+    private final ConvexShape capsule = new CapsuleShape(0.3f, 1.2f);
+    private final Transform from = new Transform();
+    private final Transform to = new Transform();
+    private Random random;
+    private PhysicsWorldWrapper wrapper;
+    private CollisionWorld collisionWorld;
+    private int sweeps;
+    private int hits;
+
+    public BenchmarkVoxelSweep() {
+        super("Capsule sweeps against the voxel world", 10000, new int[]{20000, 20000, 20000});
+        from.setIdentity();
+        to.setIdentity();
+    }
+
+    @Override
+    public void setup() {
+        random = new Random(0);
+        Block air = new Block();
+        air.setPenetrable(true);
+        Block stone = new Block();
+        stone.setCollision(new Vector3f(), PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube());
+        BenchmarkBlockManager blockManager = new BenchmarkBlockManager(air, stone);
+
+        Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+        for (int chunkY = 0; chunkY < CHUNKS_Y; chunkY++) {
+            for (int chunkZ = 0; chunkZ < CHUNKS_Z; chunkZ++) {
+                for (int chunkX = 0; chunkX < CHUNKS_X; chunkX++) {
+                    Vector3i chunkPos = new Vector3i(chunkX, chunkY, chunkZ);
+                    Chunk chunk = new ChunkImpl(chunkPos, blockManager, null);
+                    for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                        for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                                int height = terrainHeight(chunk.chunkToWorldPositionX(x), chunk.chunkToWorldPositionZ(z));
+                                chunk.setBlock(x, y, z, chunk.chunkToWorldPositionY(y) < height ? stone : air);
+                            }
+                        }
+                    }
+                    chunks.put(chunkPos, chunk);
+                }
+            }
+        }
+        // Every sweep stays within the chunks, so the world provider is never asked for a block
+        wrapper = new PhysicsWorldWrapper(null, new BenchmarkChunkProvider(chunks));
+
+        CollisionConfiguration configuration = new DefaultCollisionConfiguration();
+        collisionWorld = new CollisionWorld(new CollisionDispatcher(configuration), new DbvtBroadphase(), configuration);
+        CollisionObject voxelWorld = new CollisionObject();
+        voxelWorld.setCollisionShape(new VoxelWorldShape(wrapper));
+        Transform transform = new Transform();
+        transform.setIdentity();
+        voxelWorld.setWorldTransform(transform);
+        collisionWorld.addCollisionObject(voxelWorld);
+    }
+
+    @Override
+    public void run() {
+        if (sweeps++ % SWEEPS_PER_STEP == 0) {
+            wrapper.beginStep();
+        }
+        float x = 2 + random.nextFloat() * (CHUNKS_X * ChunkConstants.SIZE_X - 4);
+        float z = 2 + random.nextFloat() * (CHUNKS_Z * ChunkConstants.SIZE_Z - 4);
+        float y = terrainHeight((int) x, (int) z) + 1 + random.nextFloat() * 2;
+        from.origin.set(x, y, z);
+        to.origin.set(x + random.nextFloat() - 0.5f, y - 2, z + random.nextFloat() - 0.5f);
+        CollisionWorld.ClosestConvexResultCallback callback = new CollisionWorld.ClosestConvexResultCallback(from.origin, to.origin);
+        collisionWorld.convexSweepTest(capsule, from, to, callback);
+        if (callback.hasHit()) {
+            hits++;
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        System.out.println(hits + " of " + sweeps + " sweeps hit the ground");
+        wrapper.dispose();
+        collisionWorld = null;
+    }
+
+    private static int terrainHeight(int x, int z) {
+        return (int) (ChunkConstants.SIZE_Y + 8 * Math.sin(x * 0.1) + 8 * Math.cos(z * 0.13));
+    }
+
+    /**
+     * Serves the chunks of the benchmark from a map, everything else is not supported.
+     */
+    private static final class BenchmarkChunkProvider implements ChunkProvider {
+        private final Map<Vector3i, Chunk> chunks;
+
+        private BenchmarkChunkProvider(Map<Vector3i, Chunk> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public Chunk getChunk(int x, int y, int z) {
+            return chunks.get(new Vector3i(x, y, z));
+        }
+
+        @Override
+        public Chunk getChunk(Vector3i chunkPos) {
+            return chunks.get(chunkPos);
+        }
+
+        @Override
+        public boolean isChunkReady(Vector3i pos) {
+            return chunks.containsKey(pos);
+        }
+
+        @Override
+        public Collection<Chunk> getAllChunks() {
+            return chunks.values();
+        }
+
+        @Override
+        public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChunkViewCore getSubviewAroundBlock(Vector3i blockPos, int extent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setWorldEntity(EntityRef entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addRelevanceEntity(EntityRef entity, Vector3i distance) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionListener listener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeRelevanceEntity(EntityRef entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void completeUpdate() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void beginUpdate() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean reloadChunk(Vector3i pos) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void purgeWorld() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispose() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutdown() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void restart() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
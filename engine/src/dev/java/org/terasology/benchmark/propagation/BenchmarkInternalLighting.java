@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the initial lighting of a new chunk. Every run lights a new chunk made from one of the prepared terrains,
+ * so creating the chunk and its light arrays is part of the measured time, as it is for every chunk in game.
+ */
+public class BenchmarkInternalLighting extends BenchmarkLightPropagation {
+
+    private static final int TERRAIN_COUNT = 16;
+
+    private final List<TeraArray> terrains = Lists.newArrayList();
+    private final TeraArray emptyData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+    private int next;
+
+    public BenchmarkInternalLighting() {
+        super("Internal lighting of new chunks", 64, new int[]{64, 64, 64});
+    }
+
+    @Override
+    public void setup() {
+        Random random = new Random(0);
+        for (int i = 0; i < TERRAIN_COUNT; i++) {
+            terrains.add(createTerrain(new Vector3i(i, 0, 0), random));
+        }
+    }
+
+    @Override
+    public void run() {
+        int index = next++ % TERRAIN_COUNT;
+        // The liquid and biome data is never written, the chunks can share it
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(index, 0, 0), terrains.get(index).copy(), emptyData, emptyData,
+                blockManager, null);
+        InternalLightProcessor.generateInternalLighting(chunk);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        terrains.clear();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.BenchmarkBlockManager;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+
+import java.util.Random;
+
+/**
+ * Base class for the light propagation benchmarks, provides the blocks and the terrain: stone with air filled caves
+ * and scattered torches, so the light has both open space to fill and walls to stop at.
+ */
+public abstract class BenchmarkLightPropagation extends AbstractBenchmark {
+
+    protected final Block air = createBlock(true, 0);
+    protected final Block stone = createBlock(false, 0);
+    protected final Block torch = createBlock(true, ChunkConstants.MAX_LIGHT - 1);
+    protected final BenchmarkBlockManager blockManager = new BenchmarkBlockManager(air, stone, torch);
+
+    protected BenchmarkLightPropagation(String title, int warmupReps, int[] reps) {
+        super(title, warmupReps, reps);
+    }
+
+    /**
+     * @return the block ids of a chunk at the given position
+     */
+    protected TeraArray createTerrain(Vector3i chunkPos, Random random) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    double cave = Math.sin(x * 0.3 + chunkPos.x) + Math.sin(y * 0.25 + chunkPos.y) + Math.sin(z * 0.35 + chunkPos.z);
+                    if (cave > 0.5) {
+                        blocks.set(x, y, z, stone.getId());
+                    } else if (random.nextInt(512) == 0) {
+                        blocks.set(x, y, z, torch.getId());
+                    } else {
+                        blocks.set(x, y, z, air.getId());
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static Block createBlock(boolean translucent, int luminance) {
+        Block block = new Block();
+        block.setTranslucent(translucent);
+        block.setLuminance((byte) luminance);
+        for (Side side : Side.values()) {
+            block.setFullSide(side, !translucent);
+        }
+        return block;
+    }
+}
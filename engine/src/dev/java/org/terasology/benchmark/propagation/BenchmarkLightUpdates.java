@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.propagation.BatchPropagator;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.LocalChunkView;
+import org.terasology.world.propagation.PropagationRules;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+import org.terasology.world.propagation.light.LightPropagationRules;
+
+import java.util.Random;
+
+/**
+ * Measures light updates caused by placing and removing torches in the middle chunk of a 3x3x3 chunk area, the way
+ * {@link org.terasology.world.propagation.light.LightMerger} sees it. Every run is one block change.
+ */
+public class BenchmarkLightUpdates extends BenchmarkLightPropagation {
+
+    private Random random;
+    private Chunk center;
+    private BatchPropagator propagator;
+
+    public BenchmarkLightUpdates() {
+        super("Light updates in a 3x3x3 chunk area", 500, new int[]{2000, 2000, 2000});
+    }
+
+    @Override
+    public void setup() {
+        random = new Random(0);
+        Chunk[] chunks = new Chunk[27];
+        for (int i = 0; i < chunks.length; i++) {
+            Vector3i chunkPos = new Vector3i(i % 3, (i / 3) % 3, i / 9);
+            chunks[i] = new ChunkImpl(chunkPos, createTerrain(chunkPos, random),
+                    new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                    new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                    blockManager, null);
+            InternalLightProcessor.generateInternalLighting(chunks[i]);
+        }
+        PropagationRules rules = new LightPropagationRules();
+        propagator = new StandardBatchPropagator(rules, new LocalChunkView(chunks, rules));
+        center = chunks[13];
+    }
+
+    @Override
+    public void run() {
+        int x = random.nextInt(ChunkConstants.SIZE_X);
+        int y = random.nextInt(ChunkConstants.SIZE_Y);
+        int z = random.nextInt(ChunkConstants.SIZE_Z);
+        Block newBlock = center.getBlock(x, y, z) == torch ? air : torch;
+        Block oldBlock = center.setBlock(x, y, z, newBlock);
+        propagator.process(new BlockChange(center.chunkToWorldPosition(x, y, z), oldBlock, newBlock));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        center = null;
+        propagator = null;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.BaseVector3f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.utilities.collection.CircularBuffer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures the lag compensation of a server tick, either rewinding all characters for every lag compensated action or
+ * only the characters found by a {@link CharacterHistoryIndex}, the way {@link ServerCharacterPredictionSystem} does
+ * it. The players walk around randomly in an area of 256x256 blocks and send a new state every
+ * {@value #STATE_INTERVAL_MS} ms. Every tick about one in ten of them performs an action that gets compensated for a
+ * latency of up to 200 ms.
+ * <br><br>
+ * Moving a character is only simulated by interpolating its position, so the measured times leave out the collider
+ * and component updates the game does for every rewound character. The number of rewound characters per action,
+ * printed at the end, shows how many of those the game saves.
+ * <br><br>
+ * Lives in the package of {@link CharacterHistoryIndex}, as the index is internal to it.
+ */
+public class BenchmarkLagCompensation extends AbstractBenchmark {
+
+    private static final int HISTORY_LENGTH = 128;
+    private static final int STATE_INTERVAL_MS = 50;
+    private static final int MAX_LATENCY_MS = 200;
+    private static final float AREA_SIZE = 256f;
+    private static final float WALK_DISTANCE_PER_STATE = 0.5f;
+    private static final float QUERY_EXTENT = 5f + 2f;
+
+    private final int playerCount;
+    private final boolean spatial;
+    private final Random random = new Random(0);
+    private final List<EntityRef> characters = Lists.newArrayList();
+    private final Map<EntityRef, CircularBuffer<CharacterStateEvent>> characterStates = Maps.newHashMap();
+    private final Map<EntityRef, Vector3f> heading = Maps.newHashMap();
+    private final Map<EntityRef, Vector3f> colliders = Maps.newHashMap();
+    private final CharacterHistoryIndex historyIndex = new CharacterHistoryIndex(HISTORY_LENGTH);
+    private final List<EntityRef> rewound = Lists.newArrayList();
+    private final Set<EntityRef> candidates = Sets.newHashSet();
+    private long time;
+    private long actions;
+    private long rewoundCount;
+
+    public BenchmarkLagCompensation(int playerCount, boolean spatial) {
+        super("Lag compensation, " + playerCount + " players, " + (spatial ? "spatial" : "full") + " rewind",
+                100, new int[]{500, 500, 500});
+        this.playerCount = playerCount;
+        this.spatial = spatial;
+    }
+
+    @Override
+    public void setup() {
+        PojoEntityManager entityManager = new PojoEntityManager();
+        for (int i = 0; i < playerCount; i++) {
+            EntityRef character = entityManager.create();
+            characters.add(character);
+            characterStates.put(character, CircularBuffer.create(HISTORY_LENGTH));
+            heading.put(character, new Vector3f(random.nextFloat() - 0.5f, 0, random.nextFloat() - 0.5f));
+            colliders.put(character, new Vector3f());
+            addState(character, new Vector3f(random.nextFloat() * AREA_SIZE, 0, random.nextFloat() * AREA_SIZE));
+        }
+        // Fill the histories before measuring
+        for (int i = 0; i < HISTORY_LENGTH; i++) {
+            move();
+        }
+    }
+
+    @Override
+    public void run() {
+        move();
+        for (EntityRef shooter : characters) {
+            if (random.nextInt(10) != 0) {
+                continue;
+            }
+            long renderTime = time - random.nextInt(MAX_LATENCY_MS) - ServerCharacterPredictionSystem.RENDER_DELAY;
+            if (spatial) {
+                Vector3f center = characterStates.get(shooter).getLast().getPosition();
+                AABB queryVolume = AABB.createCenterExtent(center, new Vector3f(QUERY_EXTENT, QUERY_EXTENT, QUERY_EXTENT));
+                candidates.clear();
+                historyIndex.query(queryVolume, candidates);
+                for (EntityRef character : candidates) {
+                    if (CharacterHistoryIndex.wasInside(characterStates.get(character), queryVolume, renderTime)) {
+                        rewound.add(character);
+                    }
+                }
+            } else {
+                rewound.addAll(characters);
+            }
+            for (EntityRef character : rewound) {
+                setToTime(character, renderTime);
+            }
+            for (EntityRef character : rewound) {
+                setToTime(character, time - ServerCharacterPredictionSystem.RENDER_DELAY);
+            }
+            actions++;
+            rewoundCount += rewound.size();
+            rewound.clear();
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        System.out.println(String.format("%.1f characters rewound per action", (float) rewoundCount / actions));
+        characters.clear();
+        characterStates.clear();
+    }
+
+    private void move() {
+        time += STATE_INTERVAL_MS;
+        for (EntityRef character : characters) {
+            Vector3f position = new Vector3f(characterStates.get(character).getLast().getPosition());
+            Vector3f direction = heading.get(character);
+            if (random.nextInt(20) == 0) {
+                direction.set(random.nextFloat() - 0.5f, 0, random.nextFloat() - 0.5f);
+            }
+            position.x = Math.max(0, Math.min(AREA_SIZE, position.x + direction.x * WALK_DISTANCE_PER_STATE));
+            position.z = Math.max(0, Math.min(AREA_SIZE, position.z + direction.z * WALK_DISTANCE_PER_STATE));
+            addState(character, position);
+        }
+    }
+
+    private void addState(EntityRef character, Vector3f position) {
+        CharacterStateEvent state = new CharacterStateEvent();
+        state.setTime(time);
+        state.setPosition(position);
+        characterStates.get(character).add(state);
+        historyIndex.add(character, position);
+    }
+
+    /**
+     * Interpolates the position at the given time like {@link CharacterMovementSystemUtility} does for the
+     * location of a character, it goes to the collider of the character.
+     */
+    private void setToTime(EntityRef character, long renderTime) {
+        CharacterStateEvent previous = null;
+        CharacterStateEvent next = null;
+        for (CharacterStateEvent state : characterStates.get(character)) {
+            if (state.getTime() <= renderTime) {
+                previous = state;
+            } else {
+                next = state;
+                break;
+            }
+        }
+        if (previous != null) {
+            Vector3f collider = colliders.get(character);
+            if (next != null) {
+                float t = (float) (renderTime - previous.getTime()) / (next.getTime() - previous.getTime());
+                collider.set(BaseVector3f.lerp(previous.getPosition(), next.getPosition(), t));
+            } else {
+                collider.set(previous.getPosition());
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long a save transaction takes to encode, compress and write a number of chunks to region files with
+ * the given number of threads. Every measured repetition writes into an empty save directory.
+ * <br><br>
+ * Lives in the package of {@link ChunkStoreWriter}, as the writer is internal to it.
+ */
+public class BenchmarkChunkStoreWriter extends AbstractBenchmark {
+
+    private final int chunkCount;
+    private final int threads;
+    private final List<ChunkImpl> chunks = Lists.newArrayList();
+    private Path saveDirectory;
+
+    /**
+     * Writes with the default parallelism of {@link ChunkStoreWriter}.
+     */
+    public BenchmarkChunkStoreWriter(int chunkCount) {
+        this(chunkCount, ChunkStoreWriter.getDefaultParallelism());
+    }
+
+    public BenchmarkChunkStoreWriter(int chunkCount, int threads) {
+        super("Write " + chunkCount + " chunks to region files, " + threads + " thread(s)", 2, new int[]{1, 1, 1, 1, 1});
+        this.chunkCount = chunkCount;
+        this.threads = threads;
+    }
+
+    @Override
+    public void setup() {
+        Random random = new Random(chunkCount);
+        int sideLength = (int) Math.ceil(Math.sqrt(chunkCount));
+        for (int i = 0; i < chunkCount; i++) {
+            Vector3i chunkPos = new Vector3i(i % sideLength, 0, i / sideLength);
+            // The chunks only get encoded, which never looks up their blocks or biomes
+            chunks.add(new ChunkImpl(chunkPos, createTerrain(random),
+                    new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                    new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                    null, null));
+        }
+        prerun();
+    }
+
+    @Override
+    public void prerun() {
+        try {
+            deleteSaveDirectory();
+            saveDirectory = Files.createTempDirectory("saveBenchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void run() {
+        // The builders keep their result, so each run needs new ones
+        Map<Vector3i, CompressedChunkBuilder> builders = Maps.newHashMapWithExpectedSize(chunkCount);
+        for (ChunkImpl chunk : chunks) {
+            builders.put(chunk.getPosition(), new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(), chunk, false));
+        }
+        try {
+            new ChunkStoreWriter(new StoragePathProvider(saveDirectory), ChunkStorageMode.REGION_FILES, threads).write(builders);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        try {
+            deleteSaveDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunks.clear();
+    }
+
+    /**
+     * Creates hilly terrain made of a few block types with some scattered ores, so that the run length encoding
+     * and compression have a realistic amount of work to do.
+     */
+    private static TeraArray createTerrain(Random random) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        int baseHeight = ChunkConstants.SIZE_Y / 4 + random.nextInt(ChunkConstants.SIZE_Y / 2);
+        for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                int height = baseHeight + (int) (4 * Math.sin(x * 0.3) + 4 * Math.cos(z * 0.2));
+                for (int y = 0; y < height; y++) {
+                    int blockId;
+                    if (random.nextInt(64) == 0) {
+                        blockId = 4 + random.nextInt(4);
+                    } else if (y < height - 4) {
+                        blockId = 1;
+                    } else if (y < height - 1) {
+                        blockId = 2;
+                    } else {
+                        blockId = 3;
+                    }
+                    blocks.set(x, y, z, blockId);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private void deleteSaveDirectory() throws IOException {
+        if (saveDirectory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(saveDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        saveDirectory = null;
+    }
+}
@@ -49,6 +49,29 @@ public class NetworkConfig {
      */
     private String masterServer = "meta.terasology.org";
 
+    /**
+     * The distance in blocks up to which entities without owner get replicated to a client, 0 replicates them to all
+     * clients regardless of their distance
+     */
+    private float entityRelevanceDistance;
+
+    /**
+     * The compression the server uses for the frames it sends to clients that support it, zlib otherwise. Servers
+     * have to opt in to "lz" or "lz-dictionary".
+     */
+    private String frameCompression = "zlib";
+
+    /**
+     * Frames smaller than this number of bytes are sent uncompressed, unless zlib compression is used
+     */
+    private int frameCompressionThreshold = 128;
+
+    /**
+     * The number of threads that assemble and send the updates of the connected clients, 0 sends them on the main
+     * thread
+     */
+    private int clientUpdateThreads;
+
     public void clear() {
         servers.clear();
     }
@@ -96,4 +119,36 @@ public String getMasterServer() {
     public void setMasterServer(String masterServer) {
         this.masterServer = masterServer;
     }
+
+    public float getEntityRelevanceDistance() {
+        return entityRelevanceDistance;
+    }
+
+    public void setEntityRelevanceDistance(float entityRelevanceDistance) {
+        this.entityRelevanceDistance = entityRelevanceDistance;
+    }
+
+    public String getFrameCompression() {
+        return frameCompression;
+    }
+
+    public void setFrameCompression(String frameCompression) {
+        this.frameCompression = frameCompression;
+    }
+
+    public int getFrameCompressionThreshold() {
+        return frameCompressionThreshold;
+    }
+
+    public void setFrameCompressionThreshold(int frameCompressionThreshold) {
+        this.frameCompressionThreshold = frameCompressionThreshold;
+    }
+
+    public int getClientUpdateThreads() {
+        return clientUpdateThreads;
+    }
+
+    public void setClientUpdateThreads(int clientUpdateThreads) {
+        this.clientUpdateThreads = clientUpdateThreads;
+    }
 }
@@ -16,6 +16,8 @@
 
 package org.terasology.config;
 
+import org.terasology.persistence.internal.ChunkStorageMode;
+
 import java.util.Locale;
 import java.util.Locale.Category;
 
@@ -31,6 +33,12 @@ public class SystemConfig {
     private boolean debugEnabled;
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
+    private ChunkStorageMode chunkStorageMode;
+    private boolean archetypeEntityStoreEnabled;
+    private int eventDispatchThreads;
+    private boolean incrementalSavingEnabled;
+    private int rigidBodyActiveDistance;
+    private boolean spatialLagCompensationEnabled;
     private String locale;
 
     public long getDayNightLengthInMs() {
@@ -93,6 +101,73 @@ public void setWriteSaveGamesEnabled(boolean writeSaveGamesEnabled) {
         this.writeSaveGamesEnabled = writeSaveGamesEnabled;
     }
 
+    public ChunkStorageMode getChunkStorageMode() {
+        if (chunkStorageMode == null) {
+            return ChunkStorageMode.ZIPS;
+        }
+        return chunkStorageMode;
+    }
+
+    public void setChunkStorageMode(ChunkStorageMode chunkStorageMode) {
+        this.chunkStorageMode = chunkStorageMode;
+    }
+
+    public boolean isArchetypeEntityStoreEnabled() {
+        return archetypeEntityStoreEnabled;
+    }
+
+    public void setArchetypeEntityStoreEnabled(boolean archetypeEntityStoreEnabled) {
+        this.archetypeEntityStoreEnabled = archetypeEntityStoreEnabled;
+    }
+
+    /**
+     * @return the number of worker threads that dispatch events queued by other threads to thread safe handlers.
+     * Zero dispatches all of them on the main thread.
+     */
+    public int getEventDispatchThreads() {
+        return eventDispatchThreads;
+    }
+
+    public void setEventDispatchThreads(int eventDispatchThreads) {
+        this.eventDispatchThreads = eventDispatchThreads;
+    }
+
+    /**
+     * @return true if the snapshots of the loaded chunks get taken on the main thread when a save starts, so that they
+     * match the entities of the save, instead of on the saving thread while the chunks keep changing.
+     */
+    public boolean isIncrementalSavingEnabled() {
+        return incrementalSavingEnabled;
+    }
+
+    public void setIncrementalSavingEnabled(boolean incrementalSavingEnabled) {
+        this.incrementalSavingEnabled = incrementalSavingEnabled;
+    }
+
+    /**
+     * @return the distance in chunks from the center of a relevance region within which rigid bodies get simulated.
+     * Bodies further away from all relevance regions get frozen. Zero simulates all bodies.
+     */
+    public int getRigidBodyActiveDistance() {
+        return rigidBodyActiveDistance;
+    }
+
+    public void setRigidBodyActiveDistance(int rigidBodyActiveDistance) {
+        this.rigidBodyActiveDistance = rigidBodyActiveDistance;
+    }
+
+    /**
+     * @return whether lag compensation only rewinds the characters within reach of the acting character, instead of
+     * all characters.
+     */
+    public boolean isSpatialLagCompensationEnabled() {
+        return spatialLagCompensationEnabled;
+    }
+
+    public void setSpatialLagCompensationEnabled(boolean spatialLagCompensationEnabled) {
+        this.spatialLagCompensationEnabled = spatialLagCompensationEnabled;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
@@ -16,6 +16,7 @@
 
 package org.terasology.engine.bootstrap;
 
+import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.engine.module.ModuleManager;
@@ -91,7 +92,9 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        Config config = context.get(Config.class);
+        boolean useArchetypeStore = config != null && config.getSystem().isArchetypeEntityStoreEnabled();
+        PojoEntityManager entityManager = new PojoEntityManager(useArchetypeStore);
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -109,7 +112,8 @@ public static void addEntityManagementRelatedClasses(Context context) {
         entityManager.setComponentLibrary(library.getComponentLibrary());
 
         // Event System
-        EventSystem eventSystem = new EventSystemImpl(library.getEventLibrary(), networkSystem);
+        int eventDispatchThreads = config != null ? config.getSystem().getEventDispatchThreads() : 0;
+        EventSystem eventSystem = new EventSystemImpl(library.getEventLibrary(), networkSystem, eventDispatchThreads);
         entityManager.setEventSystem(eventSystem);
         context.put(EventSystem.class, eventSystem);
 
@@ -33,6 +33,7 @@
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ChunkStorageMode;
 import org.terasology.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.persistence.internal.ReadWriteStorageManager;
 import org.terasology.rendering.backdrop.BackdropProvider;
@@ -115,12 +116,15 @@ public boolean step() {
         // Init. a new world
         EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
         boolean writeSaveGamesEnabled = context.get(Config.class).getSystem().isWriteSaveGamesEnabled();
+        ChunkStorageMode chunkStorageMode = context.get(Config.class).getSystem().getChunkStorageMode();
         Path savePath = PathManager.getInstance().getSavePath(gameManifest.getTitle());
         StorageManager storageManager;
         try {
             storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager)
-                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager);
+                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager,
+                            chunkStorageMode)
+                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager,
+                            chunkStorageMode);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A component table that groups entities by their set of component classes, their archetype.
+ * <br><br>
+ * The components of all entities of an archetype are stored in dense arrays, one per component class. Queries for
+ * entities with a number of components only need to visit the archetypes that contain all of them, instead of
+ * looking up every entity. Adding or removing a component moves the entity to another archetype, so changing the
+ * component set of an entity is more expensive than with the {@link ComponentTable}.
+ * <br><br>
+ * Like the {@link ComponentTable}, this table is not thread safe. The concurrent map of the component table only
+ * guards the creation of its per class maps, the maps themselves are plain trove maps that must not be changed while
+ * another thread reads them. Both tables are only meant to be used from the main thread.
+ * <br><br>
+ * The component iterators are fail-fast: adding or removing components while iterating, other than through
+ * {@link TLongObjectIterator#remove()} of the iterator, makes the iterator throw a
+ * {@link ConcurrentModificationException}. Moving rows could otherwise make the iterator skip or repeat entities.
+ *
+ */
+public class ArchetypeComponentTable extends ComponentTable {
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<? extends Component>, List<Archetype>> archetypesByComponent = Maps.newHashMap();
+    private final TLongObjectMap<EntitySlot> entitySlots = new TLongObjectHashMap<>();
+    /**
+     * The number of changes to the component sets of the entities, to detect them during iteration.
+     */
+    private int modCount;
+
+    public ArchetypeComponentTable() {
+        // All components are kept in the archetypes, the store of the component table stays empty
+        super(Collections.emptyMap());
+    }
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        EntitySlot slot = entitySlots.get(entityId);
+        if (slot == null) {
+            return null;
+        }
+        int column = slot.archetype.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        return componentClass.cast(slot.archetype.columns[column][slot.row]);
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<? extends Component> componentClass = component.getClass();
+        EntitySlot slot = entitySlots.get(entityId);
+        if (slot == null) {
+            modCount++;
+            slot = new EntitySlot();
+            entitySlots.put(entityId, slot);
+            Archetype archetype = getArchetype(ImmutableSet.of(componentClass));
+            slot.archetype = archetype;
+            slot.row = archetype.addRow(entityId, slot);
+            archetype.columns[archetype.columnOf(componentClass)][slot.row] = component;
+            return null;
+        }
+        Archetype current = slot.archetype;
+        int column = current.columnOf(componentClass);
+        if (column >= 0) {
+            Component oldComponent = current.columns[column][slot.row];
+            current.columns[column][slot.row] = component;
+            return oldComponent;
+        }
+        modCount++;
+        Archetype target = current.withComponent.get(componentClass);
+        if (target == null) {
+            target = getArchetype(ImmutableSet.<Class<? extends Component>>builder()
+                    .addAll(current.componentClasses).add(componentClass).build());
+            current.withComponent.put(componentClass, target);
+        }
+        move(entityId, slot, target);
+        target.columns[target.columnOf(componentClass)][slot.row] = component;
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        EntitySlot slot = entitySlots.get(entityId);
+        if (slot == null) {
+            return null;
+        }
+        Archetype current = slot.archetype;
+        int column = current.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        modCount++;
+        Component oldComponent = current.columns[column][slot.row];
+        if (current.componentClasses.size() == 1) {
+            current.removeRow(slot.row);
+            entitySlots.remove(entityId);
+            return oldComponent;
+        }
+        Archetype target = current.withoutComponent.get(componentClass);
+        if (target == null) {
+            ImmutableSet.Builder<Class<? extends Component>> remaining = ImmutableSet.builder();
+            for (Class<? extends Component> type : current.componentClasses) {
+                if (type != componentClass) {
+                    remaining.add(type);
+                }
+            }
+            target = getArchetype(remaining.build());
+            current.withoutComponent.put(componentClass, target);
+        }
+        move(entityId, slot, target);
+        return oldComponent;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        EntitySlot slot = entitySlots.remove(entityId);
+        if (slot == null) {
+            return Lists.newArrayList();
+        }
+        modCount++;
+        List<Component> components = slot.archetype.getComponents(slot.row);
+        slot.archetype.removeRow(slot.row);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        EntitySlot slot = entitySlots.remove(entityId);
+        if (slot != null) {
+            modCount++;
+            slot.archetype.removeRow(slot.row);
+        }
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        archetypes.clear();
+        archetypesByComponent.clear();
+        entitySlots.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        int count = 0;
+        for (Archetype archetype : archetypesByComponent.getOrDefault(componentClass, Collections.emptyList())) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        EntitySlot slot = entitySlots.get(entityId);
+        if (slot == null) {
+            return Lists.newArrayList();
+        }
+        return slot.archetype.getComponents(slot.row);
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> matches = archetypesByComponent.get(componentClass);
+        if (matches == null) {
+            return null;
+        }
+        return new ComponentIterator<>(componentClass, matches);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongHashSet(entitySlots.keys()).iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return entitySlots.size();
+    }
+
+    /**
+     * @return the ids of all entities that have all of the given components, at the time this method got called.
+     */
+    public TLongList getEntityIdsWith(Class<? extends Component>[] componentClasses) {
+        TLongList result = new TLongArrayList();
+        for (Archetype archetype : getArchetypesWith(componentClasses)) {
+            result.add(archetype.entityIds, 0, archetype.size);
+        }
+        return result;
+    }
+
+    public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses) {
+        int count = 0;
+        for (Archetype archetype : getArchetypesWith(componentClasses)) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    private List<Archetype> getArchetypesWith(Class<? extends Component>[] componentClasses) {
+        List<Archetype> candidates = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            List<Archetype> archetypesWithComponent = archetypesByComponent.get(componentClass);
+            if (archetypesWithComponent == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || archetypesWithComponent.size() < candidates.size()) {
+                candidates = archetypesWithComponent;
+            }
+        }
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        List<Class<? extends Component>> required = Arrays.asList(componentClasses);
+        List<Archetype> result = Lists.newArrayList();
+        for (Archetype archetype : candidates) {
+            if (archetype.size > 0 && archetype.componentClasses.containsAll(required)) {
+                result.add(archetype);
+            }
+        }
+        return result;
+    }
+
+    private Archetype getArchetype(Set<Class<? extends Component>> componentClasses) {
+        Archetype archetype = archetypes.get(componentClasses);
+        if (archetype == null) {
+            archetype = new Archetype(componentClasses);
+            archetypes.put(archetype.componentClasses, archetype);
+            for (Class<? extends Component> componentClass : archetype.componentClasses) {
+                archetypesByComponent.computeIfAbsent(componentClass, key -> Lists.newArrayList()).add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * Moves the components of an entity to another archetype. Components the target archetype has no column for
+     * get dropped.
+     */
+    private void move(long entityId, EntitySlot slot, Archetype target) {
+        Archetype source = slot.archetype;
+        int sourceRow = slot.row;
+        int targetRow = target.addRow(entityId, slot);
+        for (int column = 0; column < source.componentClassList.size(); column++) {
+            int targetColumn = target.columnOf(source.componentClassList.get(column));
+            if (targetColumn >= 0) {
+                target.columns[targetColumn][targetRow] = source.columns[column][sourceRow];
+            }
+        }
+        source.removeRow(sourceRow);
+        slot.archetype = target;
+        slot.row = targetRow;
+    }
+
+    /**
+     * The position of an entity's components within the table.
+     */
+    private static final class EntitySlot {
+        private Archetype archetype;
+        private int row;
+    }
+
+    private static final class Archetype {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final Set<Class<? extends Component>> componentClasses;
+        private final List<Class<? extends Component>> componentClassList;
+        private final TObjectIntMap<Class<?>> columnIndices;
+        private final Map<Class<?>, Archetype> withComponent = Maps.newHashMap();
+        private final Map<Class<?>, Archetype> withoutComponent = Maps.newHashMap();
+
+        private Component[][] columns;
+        private long[] entityIds;
+        private EntitySlot[] slots;
+        private int size;
+
+        private Archetype(Set<Class<? extends Component>> componentClasses) {
+            this.componentClasses = ImmutableSet.copyOf(componentClasses);
+            this.componentClassList = ImmutableList.copyOf(this.componentClasses);
+            this.columnIndices = new TObjectIntHashMap<>(componentClassList.size() * 2, 0.5f, -1);
+            for (int i = 0; i < componentClassList.size(); i++) {
+                columnIndices.put(componentClassList.get(i), i);
+            }
+            columns = new Component[componentClassList.size()][INITIAL_CAPACITY];
+            entityIds = new long[INITIAL_CAPACITY];
+            slots = new EntitySlot[INITIAL_CAPACITY];
+        }
+
+        private int columnOf(Class<?> componentClass) {
+            return columnIndices.get(componentClass);
+        }
+
+        private int addRow(long entityId, EntitySlot slot) {
+            if (size == entityIds.length) {
+                int capacity = size * 2;
+                for (int column = 0; column < columns.length; column++) {
+                    columns[column] = Arrays.copyOf(columns[column], capacity);
+                }
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+            }
+            entityIds[size] = entityId;
+            slots[size] = slot;
+            return size++;
+        }
+
+        /**
+         * Removes a row by moving the last row into its place.
+         */
+        private void removeRow(int row) {
+            int last = size - 1;
+            if (row != last) {
+                entityIds[row] = entityIds[last];
+                slots[row] = slots[last];
+                slots[row].row = row;
+                for (Component[] column : columns) {
+                    column[row] = column[last];
+                }
+            }
+            slots[last] = null;
+            for (Component[] column : columns) {
+                column[last] = null;
+            }
+            size = last;
+        }
+
+        private List<Component> getComponents(int row) {
+            List<Component> components = Lists.newArrayListWithCapacity(columns.length);
+            for (Component[] column : columns) {
+                components.add(column[row]);
+            }
+            return components;
+        }
+    }
+
+    /**
+     * Iterates over the components of one class in all archetypes that contain it.
+     */
+    private final class ComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final Class<T> componentClass;
+        private final List<Archetype> archetypes;
+        private int expectedModCount = modCount;
+        private int archetypeIndex = -1;
+        private Archetype current;
+        private int column;
+        private int row;
+        private boolean removable;
+
+        private ComponentIterator(Class<T> componentClass, List<Archetype> archetypes) {
+            this.componentClass = componentClass;
+            this.archetypes = archetypes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            if (current != null && row + 1 < current.size) {
+                return true;
+            }
+            for (int i = archetypeIndex + 1; i < archetypes.size(); i++) {
+                if (archetypes.get(i).size > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void advance() {
+            checkForComodification();
+            if (current != null && row + 1 < current.size) {
+                row++;
+                removable = true;
+                return;
+            }
+            for (int i = archetypeIndex + 1; i < archetypes.size(); i++) {
+                if (archetypes.get(i).size > 0) {
+                    archetypeIndex = i;
+                    current = archetypes.get(i);
+                    column = current.columnOf(componentClass);
+                    row = 0;
+                    removable = true;
+                    return;
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public long key() {
+            return current.entityIds[row];
+        }
+
+        @Override
+        public T value() {
+            return componentClass.cast(current.columns[column][row]);
+        }
+
+        @Override
+        public T setValue(T val) {
+            T oldValue = value();
+            current.columns[column][row] = val;
+            return oldValue;
+        }
+
+        /**
+         * Removes the component of the current entity. The last entity of the archetype takes the place of the current
+         * one, so it gets visited next.
+         */
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (!removable) {
+                throw new IllegalStateException();
+            }
+            removable = false;
+            ArchetypeComponentTable.this.remove(current.entityIds[row], componentClass);
+            expectedModCount = modCount;
+            row--;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
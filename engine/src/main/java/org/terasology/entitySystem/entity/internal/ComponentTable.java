@@ -33,7 +33,19 @@
  *
  */
 public class ComponentTable {
-    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
+    private final Map<Class<?>, TLongObjectMap<Component>> store;
+
+    public ComponentTable() {
+        this(Maps.newConcurrentMap());
+    }
+
+    /**
+     * @param store the map of component class to the components of that class. Subclasses that keep their
+     *              components elsewhere and override every method pass an empty map.
+     */
+    protected ComponentTable(Map<Class<?>, TLongObjectMap<Component>> store) {
+        this.store = store;
+    }
 
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
@@ -61,7 +61,7 @@ public class PojoEntityManager implements EngineEntityManager {
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
 
-    private EngineEntityPool globalPool = new PojoEntityPool(this);
+    private EngineEntityPool globalPool;
     private PojoSectorManager sectorManager = new PojoSectorManager(this);
     private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
 
@@ -75,6 +75,18 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeSerializationLibrary typeSerializerLibrary;
 
+    public PojoEntityManager() {
+        this(false);
+    }
+
+    /**
+     * @param useArchetypeStore whether the global pool groups entities by their component set, which speeds up
+     *                          queries for multiple components. See {@link ArchetypeEntityPool}.
+     */
+    public PojoEntityManager(boolean useArchetypeStore) {
+        globalPool = useArchetypeStore ? new ArchetypeEntityPool(this) : new PojoEntityPool(this);
+    }
+
     public void setTypeSerializerLibrary(TypeSerializationLibrary serializerLibrary) {
         this.typeSerializerLibrary = serializerLibrary;
     }
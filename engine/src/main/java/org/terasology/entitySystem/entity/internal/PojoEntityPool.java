@@ -44,10 +44,15 @@ public class PojoEntityPool implements EngineEntityPool {
     private static final Logger logger = LoggerFactory.getLogger(PojoEntityPool.class);
 
     private Map<Long, BaseEntityRef> entityStore = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable componentStore = new ComponentTable();
+    private ComponentTable componentStore;
 
     public PojoEntityPool(PojoEntityManager entityManager) {
+        this(entityManager, new ComponentTable());
+    }
+
+    protected PojoEntityPool(PojoEntityManager entityManager, ComponentTable componentStore) {
         this.entityManager = entityManager;
+        this.componentStore = componentStore;
     }
 
     @Override
@@ -297,6 +302,13 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
+        return findEntitiesWith(componentClasses);
+    }
+
+    /**
+     * Finds the entities of this pool that have all of the given components.
+     */
+    protected Iterable<EntityRef> findEntitiesWith(Class<? extends Component>[] componentClasses) {
         return () -> entityStore.keySet().stream()
                 //Keep entities which have all of the required components
                 .filter(id -> Arrays.stream(componentClasses)
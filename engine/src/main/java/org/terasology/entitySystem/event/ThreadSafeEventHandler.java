@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link ReceiveEvent} method as safe to be invoked from a worker thread.
+ * <br><br>
+ * Events sent from threads other than the main thread are queued and dispatched during the next update. If
+ * parallel event dispatch is enabled, queued events whose handlers are all marked with this annotation get dispatched
+ * on worker threads. Events targeting the same entity are still delivered in the order they were sent.
+ * <br><br>
+ * Such handlers run while other entities are processed concurrently, so they may only read the components of their
+ * entity and must not add, remove or save components or create or destroy entities. Events they send are queued and
+ * dispatched in the next update.
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ThreadSafeEventHandler {
+}
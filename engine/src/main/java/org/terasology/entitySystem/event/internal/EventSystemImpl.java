@@ -27,6 +27,9 @@
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +41,7 @@
 import org.terasology.entitySystem.event.Event;
 import org.terasology.entitySystem.event.EventPriority;
 import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.event.ThreadSafeEventHandler;
 import org.terasology.entitySystem.metadata.EventLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
 import org.terasology.entitySystem.systems.ComponentSystem;
@@ -52,6 +56,11 @@
 import org.terasology.network.ServerEvent;
 import org.terasology.world.block.BlockComponent;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -63,9 +72,26 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An implementation of the EventSystem.
+ * <br><br>
+ * The handlers an event gets dispatched to only depend on the event type and on which of the components with handlers
+ * for that event type an entity has. The sorted handler list is therefore cached per event type and component
+ * signature, so that sending an event does not need to look at every registered handler. The cache gets dropped
+ * whenever handlers or events get (un)registered.
+ * <br><br>
+ * Events sent from other threads are queued and dispatched in {@link #process()}, in the order they were sent. If
+ * parallel dispatch is enabled, runs of consecutive queued events whose handlers are all marked with
+ * {@link ThreadSafeEventHandler} get dispatched on worker threads, while the main thread waits. Within such a run the
+ * events of one entity are dispatched by the same thread, in the order they were sent; all other events are
+ * dispatched on the main thread between the runs.
  *
  */
 public class EventSystemImpl implements EventSystem {
@@ -76,31 +102,158 @@ public class EventSystemImpl implements EventSystem {
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Dispatch plan caches, only accessed from the main thread
+    private Map<Class<? extends Event>, DispatchTable> dispatchTables = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, List<EventHandlerInfo>>> componentDispatchPlans = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
 
     private Thread mainThread;
     private BlockingQueue<PendingEvent> pendingEvents = Queues.newLinkedBlockingQueue();
+    private ExecutorService dispatchExecutor;
+    private int dispatchThreads;
 
     private EventLibrary eventLibrary;
     private NetworkSystem networkSystem;
 
     public EventSystemImpl(EventLibrary eventLibrary, NetworkSystem networkSystem) {
+        this(eventLibrary, networkSystem, 0);
+    }
+
+    /**
+     * @param dispatchThreads the number of worker threads used to dispatch queued events to thread safe handlers.
+     *                        Zero dispatches all queued events on the main thread.
+     */
+    public EventSystemImpl(EventLibrary eventLibrary, NetworkSystem networkSystem, int dispatchThreads) {
         this.mainThread = Thread.currentThread();
         this.eventLibrary = eventLibrary;
         this.networkSystem = networkSystem;
+        this.dispatchThreads = dispatchThreads;
+        if (dispatchThreads > 0) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 30, TimeUnit.SECONDS,
+                    Queues.newLinkedBlockingQueue(),
+                    new ThreadFactoryBuilder().setNameFormat("Event-Dispatch-%d").setDaemon(true).build());
+            // Lets the idle threads of discarded event systems terminate
+            executor.allowCoreThreadTimeOut(true);
+            dispatchExecutor = executor;
+        }
     }
 
     @Override
     public void process() {
-        for (PendingEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
+        long startTime = System.nanoTime();
+        List<PendingEvent> events = Lists.newArrayListWithCapacity(pendingEvents.size());
+        pendingEvents.drainTo(events);
+        long totalWaitNanos = 0;
+        for (PendingEvent event : events) {
+            totalWaitNanos += startTime - event.getQueuedTime();
+        }
+
+        int parallelEvents = 0;
+        if (dispatchExecutor == null) {
+            events.forEach(this::sendPendingEvent);
+        } else {
+            parallelEvents = dispatchInParallel(events);
+        }
+
+        PerformanceMonitor.setGauge("Events - Queued", events.size());
+        PerformanceMonitor.setGauge("Events - Mean Wait (ms)", events.isEmpty() ? 0 : totalWaitNanos / 1e6 / events.size());
+        PerformanceMonitor.setGauge("Events - Drain Time (ms)", (System.nanoTime() - startTime) / 1e6);
+        PerformanceMonitor.setGauge("Events - Dispatched In Parallel", parallelEvents);
+    }
+
+    private void sendPendingEvent(PendingEvent event) {
+        if (event.getComponent() != null) {
+            send(event.getEntity(), event.getEvent(), event.getComponent());
+        } else {
+            send(event.getEntity(), event.getEvent());
+        }
+    }
+
+    /**
+     * Dispatches the events in the order they were sent. Runs of consecutive events that only have thread safe
+     * handlers get dispatched on the worker threads, grouped by entity; every other event gets dispatched on the main
+     * thread once the run before it is done.
+     *
+     * @return the number of events that got dispatched on worker threads.
+     */
+    private int dispatchInParallel(List<PendingEvent> events) {
+        int parallelEvents = 0;
+        Map<EntityRef, EntityEventBatch> run = Maps.newLinkedHashMap();
+        for (PendingEvent event : events) {
+            List<EventHandlerInfo> plan;
             if (event.getComponent() != null) {
-                send(event.getEntity(), event.getEvent(), event.getComponent());
+                plan = getComponentDispatchPlan(event.getEvent().getClass(), event.getComponent().getClass());
+            } else {
+                plan = getDispatchPlan(event.getEvent().getClass(), event.getEntity());
+            }
+            if (isThreadSafe(plan)) {
+                run.computeIfAbsent(event.getEntity(), EntityEventBatch::new).add(event, plan);
             } else {
-                send(event.getEntity(), event.getEvent());
+                parallelEvents += dispatchRun(run.values());
+                run.clear();
+                sendPendingEvent(event);
+            }
+        }
+        parallelEvents += dispatchRun(run.values());
+        return parallelEvents;
+    }
+
+    private boolean isThreadSafe(List<EventHandlerInfo> plan) {
+        for (EventHandlerInfo handler : plan) {
+            if (!handler.isThreadSafe()) {
+                return false;
             }
         }
+        return true;
+    }
+
+    /**
+     * Dispatches the batches on the worker threads and waits until all of them are done.
+     *
+     * @return the number of events that got dispatched.
+     */
+    private int dispatchRun(Collection<EntityEventBatch> batches) {
+        if (batches.isEmpty()) {
+            return 0;
+        }
+
+        List<EntityEventBatch> parallelBatches = Lists.newArrayList(batches);
+        int parallelEvents = 0;
+        List<Callable<Void>> tasks = Lists.newArrayListWithCapacity(dispatchThreads);
+        for (int i = 0; i < dispatchThreads && i < parallelBatches.size(); ++i) {
+            List<EntityEventBatch> taskBatches = Lists.newArrayList();
+            for (int j = i; j < parallelBatches.size(); j += dispatchThreads) {
+                EntityEventBatch batch = parallelBatches.get(j);
+                for (PendingEvent event : batch.events) {
+                    if (event.getComponent() == null) {
+                        networkReplicate(batch.entity, event.getEvent());
+                    }
+                }
+                parallelEvents += batch.events.size();
+                taskBatches.add(batch);
+            }
+            tasks.add(() -> {
+                taskBatches.forEach(EntityEventBatch::dispatch);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : dispatchExecutor.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    logger.error("Failed to dispatch events", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while dispatching events");
+            Thread.currentThread().interrupt();
+        }
+        return parallelEvents;
     }
 
     @Override
@@ -115,6 +268,7 @@ public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         if (shouldAddToLibrary(eventType)) {
             eventLibrary.register(uri, eventType);
         }
+        invalidateDispatchPlans();
     }
 
     /**
@@ -165,8 +319,9 @@ public void registerEventHandler(ComponentSystem handler) {
                     componentParams.add((Class<? extends Component>) types[i]);
                 }
 
-                ByteCodeEventHandlerInfo handlerInfo = new ByteCodeEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
-                        receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                boolean threadSafe = method.getAnnotation(ThreadSafeEventHandler.class) != null;
+                EventHandlerInfo handlerInfo = createEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
+                        receiveEventAnnotation.activity(), threadSafe, requiredComponents, componentParams);
                 addEventHandler((Class<? extends Event>) types[0], handlerInfo, requiredComponents);
             }
         }
@@ -191,6 +346,23 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        invalidateDispatchPlans();
+    }
+
+    private EventHandlerInfo createEventHandlerInfo(ComponentSystem handler, Method method, int priority, String activity,
+                                                    boolean threadSafe,
+                                                    Collection<Class<? extends Component>> filterComponents,
+                                                    List<Class<? extends Component>> componentParams) {
+        if (componentParams.size() <= InvokerEventHandlerInfo.MAX_COMPONENT_PARAMS) {
+            try {
+                return new InvokerEventHandlerInfo(handler, method, priority, activity, threadSafe, filterComponents,
+                        componentParams);
+            } catch (Throwable e) {
+                logger.warn("Failed to create invoker for {}, falling back to reflection", method, e);
+            }
+        }
+        return new ByteCodeEventHandlerInfo(handler, method, priority, activity, threadSafe, filterComponents,
+                componentParams);
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
@@ -207,6 +379,7 @@ private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handl
                 }
             }
         }
+        invalidateDispatchPlans();
     }
 
     private void addToComponentSpecificHandlers(Class<? extends Event> type, EventHandlerInfo handlerInfo, Class<? extends Component> c) {
@@ -251,6 +424,12 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        invalidateDispatchPlans();
+    }
+
+    private void invalidateDispatchPlans() {
+        dispatchTables.clear();
+        componentDispatchPlans.clear();
     }
 
     @Override
@@ -260,9 +439,7 @@ public void send(EntityRef entity, Event event) {
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
+            List<EventHandlerInfo> selectedHandlers = getDispatchPlan(event.getClass(), entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -358,19 +535,63 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getComponentDispatchPlan(event.getClass(), component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
+    private List<EventHandlerInfo> getComponentDispatchPlan(Class<? extends Event> eventType, Class<? extends Component> componentType) {
+        Map<Class<? extends Component>, List<EventHandlerInfo>> plans = componentDispatchPlans.get(eventType);
+        if (plans == null) {
+            plans = Maps.newHashMap();
+            componentDispatchPlans.put(eventType, plans);
+        }
+        List<EventHandlerInfo> plan = plans.get(componentType);
+        if (plan == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers == null) {
+                plan = Collections.emptyList();
+            } else {
+                plan = sortByPriority(handlers.get(componentType));
+            }
+            plans.put(componentType, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * @return the handlers for the given event type that are valid for the entity, sorted by priority.
+     */
+    private List<EventHandlerInfo> getDispatchPlan(Class<? extends Event> eventType, EntityRef entity) {
+        DispatchTable table = dispatchTables.get(eventType);
+        if (table == null) {
+            table = new DispatchTable(componentSpecificHandlers.get(eventType));
+            dispatchTables.put(eventType, table);
+        }
+        if (!table.isCacheable()) {
+            return sortByPriority(selectEventHandlers(eventType, entity));
+        }
+
+        long signature = table.getSignature(entity);
+        List<EventHandlerInfo> plan = table.getPlan(signature);
+        if (plan == null) {
+            // Every filter component of a handler is one of the keys the signature is built from, so the handlers
+            // that are valid for this entity are valid for every entity with the same signature.
+            plan = sortByPriority(selectEventHandlers(eventType, entity));
+            table.putPlan(signature, plan);
+        }
+        return plan;
+    }
+
+    private List<EventHandlerInfo> sortByPriority(Collection<EventHandlerInfo> handlers) {
+        List<EventHandlerInfo> result = Lists.newArrayList(handlers);
+        Collections.sort(result, priorityComparator);
+        return ImmutableList.copyOf(result);
+    }
+
     private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
         Set<EventHandlerInfo> result = Sets.newHashSet();
         result.addAll(generalHandlers.get(eventType));
@@ -391,6 +612,77 @@ private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventTy
         return result;
     }
 
+    /**
+     * The queued events of one entity within a run of thread safe events, with the handlers they get dispatched to.
+     */
+    private final class EntityEventBatch {
+        private final EntityRef entity;
+        private final List<PendingEvent> events = Lists.newArrayList();
+        private final List<List<EventHandlerInfo>> plans = Lists.newArrayList();
+
+        EntityEventBatch(EntityRef entity) {
+            this.entity = entity;
+        }
+
+        void add(PendingEvent event, List<EventHandlerInfo> plan) {
+            events.add(event);
+            plans.add(plan);
+        }
+
+        void dispatch() {
+            for (int i = 0; i < events.size(); ++i) {
+                PendingEvent event = events.get(i);
+                if (event.getComponent() == null && event.getEvent() instanceof ConsumableEvent) {
+                    sendConsumableEvent(entity, event.getEvent(), plans.get(i));
+                } else {
+                    sendStandardEvent(entity, event.getEvent(), plans.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches the dispatch plans of one event type. The signature of an entity is a bit mask with one bit for each
+     * component class that has handlers for the event type.
+     */
+    private static final class DispatchTable {
+        private static final int MAX_COMPONENT_CLASSES = Long.SIZE;
+
+        private final Class<? extends Component>[] componentClasses;
+        private final TLongObjectMap<List<EventHandlerInfo>> plans = new TLongObjectHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        DispatchTable(SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers) {
+            if (handlers == null) {
+                componentClasses = new Class[0];
+            } else {
+                componentClasses = handlers.keySet().toArray(new Class[handlers.keySet().size()]);
+            }
+        }
+
+        boolean isCacheable() {
+            return componentClasses.length <= MAX_COMPONENT_CLASSES;
+        }
+
+        long getSignature(EntityRef entity) {
+            long signature = 0;
+            for (int i = 0; i < componentClasses.length; ++i) {
+                if (entity.hasComponent(componentClasses[i])) {
+                    signature |= 1L << i;
+                }
+            }
+            return signature;
+        }
+
+        List<EventHandlerInfo> getPlan(long signature) {
+            return plans.get(signature);
+        }
+
+        void putPlan(long signature, List<EventHandlerInfo> plan) {
+            plans.put(signature, plan);
+        }
+    }
+
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
 
         @Override
@@ -406,6 +698,11 @@ private interface EventHandlerInfo {
 
         int getPriority();
 
+        /**
+         * @return whether the handler may be invoked from a worker thread.
+         */
+        boolean isThreadSafe();
+
         Object getHandler();
     }
 
@@ -458,6 +755,11 @@ public int getPriority() {
             return priority;
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return false;
+        }
+
         @Override
         public ComponentSystem getHandler() {
             return handler;
@@ -472,17 +774,20 @@ private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
         private ImmutableList<Class<? extends Component>> filterComponents;
         private ImmutableList<Class<? extends Component>> componentParams;
         private int priority;
+        private boolean threadSafe;
 
         ByteCodeEventHandlerInfo(ComponentSystem handler,
                                         Method method,
                                         int priority,
                                         String activity,
+                                        boolean threadSafe,
                                         Collection<Class<? extends Component>> filterComponents,
                                         Collection<Class<? extends Component>> componentParams) {
 
 
             this.handler = handler;
             this.activity = activity;
+            this.threadSafe = threadSafe;
             this.methodAccess = MethodAccess.get(handler.getClass());
             methodIndex = methodAccess.getIndex(method.getName(), method.getParameterTypes());
             this.filterComponents = ImmutableList.copyOf(filterComponents);
@@ -529,12 +834,220 @@ public int getPriority() {
             return priority;
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
+        @Override
+        public ComponentSystem getHandler() {
+            return handler;
+        }
+    }
+
+    /**
+     * Invokes the handler method through a generated implementation of one of the fixed arity invoker interfaces, so
+     * that no parameter array needs to be allocated per invocation.
+     * <br><br>
+     * The invoker gets generated by the {@link LambdaMetafactory} if all classes of the method signature are visible to
+     * the engine class loader. Module classes are not, so for those the invoker calls a bound {@link MethodHandle}
+     * with {@code invokeExact} instead, which does not allocate either.
+     */
+    private static class InvokerEventHandlerInfo implements EventHandlerInfo {
+        static final int MAX_COMPONENT_PARAMS = 3;
+
+        private ComponentSystem handler;
+        private String activity;
+        private Class<? extends Component>[] filterComponents;
+        private Class<? extends Component>[] componentParams;
+        private int priority;
+        private boolean threadSafe;
+
+        private Invoker0 invoker0;
+        private Invoker1 invoker1;
+        private Invoker2 invoker2;
+        private Invoker3 invoker3;
+
+        @SuppressWarnings("unchecked")
+        InvokerEventHandlerInfo(ComponentSystem handler,
+                                Method method,
+                                int priority,
+                                String activity,
+                                boolean threadSafe,
+                                Collection<Class<? extends Component>> filterComponents,
+                                Collection<Class<? extends Component>> componentParams) throws Throwable {
+            this.handler = handler;
+            this.activity = activity;
+            this.threadSafe = threadSafe;
+            this.filterComponents = filterComponents.toArray(new Class[filterComponents.size()]);
+            this.componentParams = componentParams.toArray(new Class[componentParams.size()]);
+            this.priority = priority;
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle methodHandle = lookup.unreflect(method);
+            switch (this.componentParams.length) {
+                case 0:
+                    invoker0 = (Invoker0) createInvoker(lookup, Invoker0.class, method, methodHandle);
+                    break;
+                case 1:
+                    invoker1 = (Invoker1) createInvoker(lookup, Invoker1.class, method, methodHandle);
+                    break;
+                case 2:
+                    invoker2 = (Invoker2) createInvoker(lookup, Invoker2.class, method, methodHandle);
+                    break;
+                case 3:
+                    invoker3 = (Invoker3) createInvoker(lookup, Invoker3.class, method, methodHandle);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Too many component parameters: " + method);
+            }
+        }
+
+        private Object createInvoker(MethodHandles.Lookup lookup, Class<?> invokerType, Method method, MethodHandle methodHandle)
+                throws Throwable {
+            MethodType invokeType = MethodType.methodType(void.class, Event.class, EntityRef.class);
+            for (int i = 0; i < componentParams.length; ++i) {
+                invokeType = invokeType.appendParameterTypes(Component.class);
+            }
+            if (isVisibleToEngine(method)) {
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                        MethodType.methodType(invokerType, method.getDeclaringClass()), invokeType, methodHandle,
+                        methodHandle.type().dropParameterTypes(0, 1));
+                return callSite.getTarget().invoke(handler);
+            }
+
+            MethodHandle bound = methodHandle.bindTo(handler).asType(invokeType);
+            switch (componentParams.length) {
+                case 0:
+                    return (Invoker0) (event, entity) -> {
+                        bound.invokeExact(event, entity);
+                    };
+                case 1:
+                    return (Invoker1) (event, entity, c1) -> {
+                        bound.invokeExact(event, entity, c1);
+                    };
+                case 2:
+                    return (Invoker2) (event, entity, c1, c2) -> {
+                        bound.invokeExact(event, entity, c1, c2);
+                    };
+                default:
+                    return (Invoker3) (event, entity, c1, c2, c3) -> {
+                        bound.invokeExact(event, entity, c1, c2, c3);
+                    };
+            }
+        }
+
+        private static boolean isVisibleToEngine(Method method) {
+            ClassLoader engineClassLoader = EventSystemImpl.class.getClassLoader();
+            if (!isVisibleTo(method.getDeclaringClass(), engineClassLoader)) {
+                return false;
+            }
+            for (Class<?> type : method.getParameterTypes()) {
+                if (!isVisibleTo(type, engineClassLoader)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isVisibleTo(Class<?> type, ClassLoader classLoader) {
+            if (type.isPrimitive()) {
+                return true;
+            }
+            // The generated class lives outside of the package of the handler, so it can only use public types
+            for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+                if (!Modifier.isPublic(c.getModifiers())) {
+                    return false;
+                }
+            }
+            try {
+                return Class.forName(type.getName(), false, classLoader) == type;
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean isValidFor(EntityRef entity) {
+            for (Class<? extends Component> component : filterComponents) {
+                if (!entity.hasComponent(component)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void invoke(EntityRef entity, Event event) {
+            try {
+                if (!activity.isEmpty()) {
+                    PerformanceMonitor.startActivity(activity);
+                }
+                try {
+                    switch (componentParams.length) {
+                        case 0:
+                            invoker0.invoke(event, entity);
+                            break;
+                        case 1:
+                            invoker1.invoke(event, entity, entity.getComponent(componentParams[0]));
+                            break;
+                        case 2:
+                            invoker2.invoke(event, entity, entity.getComponent(componentParams[0]),
+                                    entity.getComponent(componentParams[1]));
+                            break;
+                        default:
+                            invoker3.invoke(event, entity, entity.getComponent(componentParams[0]),
+                                    entity.getComponent(componentParams[1]), entity.getComponent(componentParams[2]));
+                            break;
+                    }
+                } finally {
+                    if (!activity.isEmpty()) {
+                        PerformanceMonitor.endActivity();
+                    }
+                }
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable ex) {
+                logger.error("Failed to invoke event", ex);
+            }
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
         @Override
         public ComponentSystem getHandler() {
             return handler;
         }
     }
 
+    @FunctionalInterface
+    private interface Invoker0 {
+        void invoke(Event event, EntityRef entity) throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface Invoker1 {
+        void invoke(Event event, EntityRef entity, Component c1) throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface Invoker2 {
+        void invoke(Event event, EntityRef entity, Component c1, Component c2) throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface Invoker3 {
+        void invoke(Event event, EntityRef entity, Component c1, Component c2, Component c3) throws Throwable;
+    }
+
     private static class ReceiverEventHandlerInfo<T extends Event> implements EventHandlerInfo {
         private EventReceiver<T> receiver;
         private Class<? extends Component>[] components;
@@ -566,6 +1079,11 @@ public int getPriority() {
             return priority;
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return false;
+        }
+
         @Override
         public boolean equals(Object obj) {
             if (obj == this) {
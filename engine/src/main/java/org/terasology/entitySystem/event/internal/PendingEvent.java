@@ -26,6 +26,7 @@ class PendingEvent {
     private EntityRef entity;
     private Event event;
     private Component component;
+    private long queuedTime = System.nanoTime();
 
      PendingEvent(EntityRef entity, Event event) {
         this.event = event;
@@ -38,6 +39,13 @@ class PendingEvent {
         this.component = component;
     }
 
+    /**
+     * @return the value of {@link System#nanoTime()} when the event got queued.
+     */
+    public long getQueuedTime() {
+        return queuedTime;
+    }
+
     public EntityRef getEntity() {
         return entity;
     }
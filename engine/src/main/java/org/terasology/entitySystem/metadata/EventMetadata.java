@@ -39,6 +39,7 @@
 
     private NetworkEventType networkEventType = NetworkEventType.NONE;
     private boolean lagCompensated;
+    private float lagCompensationRange;
     private boolean skipInstigator;
 
     public EventMetadata(Class<T> simpleClass, CopyStrategyLibrary copyStrategies, ReflectFactory factory, SimpleUri uri) throws NoSuchMethodException {
@@ -46,6 +47,7 @@ public EventMetadata(Class<T> simpleClass, CopyStrategyLibrary copyStrategies, R
         if (simpleClass.getAnnotation(ServerEvent.class) != null) {
             networkEventType = NetworkEventType.SERVER;
             lagCompensated = simpleClass.getAnnotation(ServerEvent.class).lagCompensate();
+            lagCompensationRange = simpleClass.getAnnotation(ServerEvent.class).lagCompensationRange();
         } else if (simpleClass.getAnnotation(OwnerEvent.class) != null) {
             networkEventType = NetworkEventType.OWNER;
         } else if (simpleClass.getAnnotation(BroadcastEvent.class) != null) {
@@ -78,6 +80,14 @@ public boolean isLagCompensated() {
         return lagCompensated;
     }
 
+    /**
+     * @return The range within which lag compensation rewinds characters for this event, see
+     * {@link ServerEvent#lagCompensationRange()}.
+     */
+    public float getLagCompensationRange() {
+        return lagCompensationRange;
+    }
+
     /**
      * @return Whether this event should not be replicated to the instigator
      */
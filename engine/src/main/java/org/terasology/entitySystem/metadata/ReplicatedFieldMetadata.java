@@ -15,24 +15,36 @@
  */
 package org.terasology.entitySystem.metadata;
 
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector4f;
 import org.terasology.reflection.metadata.ClassMetadata;
 import org.terasology.reflection.metadata.FieldMetadata;
 import org.terasology.reflection.copy.CopyStrategy;
 import org.terasology.reflection.reflect.InaccessibleFieldException;
 import org.terasology.reflection.reflect.ReflectFactory;
 import org.terasology.network.NoReplicate;
+import org.terasology.network.Quantized;
 import org.terasology.network.Replicate;
 
 import java.lang.reflect.Field;
+import java.util.Set;
 
 /**
  * An extended FieldMetadata that provides information on whether a the field should be replicated, and under what conditions
  *
  */
 public class ReplicatedFieldMetadata<T, U> extends FieldMetadata<T, U> {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicatedFieldMetadata.class);
+    private static final Set<Class<?>> QUANTIZABLE_TYPES = ImmutableSet.of(Vector2f.class, Vector3f.class, Vector4f.class, Quat4f.class);
 
     private boolean replicated;
     private Replicate replicationInfo;
+    private Quantized quantization;
 
     public ReplicatedFieldMetadata(ClassMetadata<T, ?> owner, Field field, CopyStrategy<U> copyStrategy, ReflectFactory factory, boolean replicatedByDefault)
             throws InaccessibleFieldException {
@@ -45,6 +57,15 @@ public ReplicatedFieldMetadata(ClassMetadata<T, ?> owner, Field field, CopyStrat
             replicated = true;
         }
         this.replicationInfo = field.getAnnotation(Replicate.class);
+        Quantized quantized = field.getAnnotation(Quantized.class);
+        if (quantized != null) {
+            if (QUANTIZABLE_TYPES.contains(field.getType())) {
+                this.quantization = quantized;
+            } else {
+                logger.warn("Ignoring Quantized annotation of field {} of {}, only float vectors and quaternions can be quantized",
+                        field.getName(), owner.getType());
+            }
+        }
     }
 
     /**
@@ -60,4 +81,11 @@ public boolean isReplicated() {
     public Replicate getReplicationInfo() {
         return replicationInfo;
     }
+
+    /**
+     * @return The precision with which this field gets replicated, or null if it isn't marked with the Quantized annotation
+     */
+    public Quantized getQuantization() {
+        return quantization;
+    }
 }
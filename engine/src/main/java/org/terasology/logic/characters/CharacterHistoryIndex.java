@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.AABB;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.collection.CircularBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * A grid over the positions in the state histories of the characters, used to find the characters that were near a
+ * place at some point of their history without looking at every character.
+ * <br><br>
+ * The index keeps the grid cells of the last {@code historyLength} positions of each character, matching a
+ * {@link CircularBuffer} of the same capacity that drops its oldest state on every addition once it is full.
+ */
+final class CharacterHistoryIndex {
+    private static final int CELL_SIZE = 16;
+
+    private final int historyLength;
+    private final Map<Vector3i, Multiset<EntityRef>> cells = Maps.newHashMap();
+    private final Map<EntityRef, Deque<Vector3i>> characterCells = Maps.newHashMap();
+
+    CharacterHistoryIndex(int historyLength) {
+        this.historyLength = historyLength;
+    }
+
+    /**
+     * Records the next position in the history of a character, forgetting its oldest position once the history is full.
+     */
+    void add(EntityRef character, Vector3f position) {
+        Deque<Vector3i> history = characterCells.computeIfAbsent(character, k -> new ArrayDeque<>(historyLength));
+        if (history.size() == historyLength) {
+            removeFromCell(character, history.pollFirst());
+        }
+        Vector3i cell = new Vector3i(toCell(position.x), toCell(position.y), toCell(position.z));
+        history.addLast(cell);
+        cells.computeIfAbsent(cell, k -> HashMultiset.create()).add(character);
+    }
+
+    /**
+     * Forgets the whole history of a character.
+     */
+    void remove(EntityRef character) {
+        Deque<Vector3i> history = characterCells.remove(character);
+        if (history != null) {
+            for (Vector3i cell : history) {
+                removeFromCell(character, cell);
+            }
+        }
+    }
+
+    /**
+     * Adds the characters that have a position in a grid cell overlapping the volume to the output. The characters
+     * are candidates only, their positions themselves can still be outside of the volume.
+     *
+     * @param volume the volume to look for characters in
+     * @param out    the collection to add the characters to
+     */
+    void query(AABB volume, Collection<EntityRef> out) {
+        Vector3f min = volume.getMin();
+        Vector3f max = volume.getMax();
+        int minX = toCell(min.x);
+        int minY = toCell(min.y);
+        int minZ = toCell(min.z);
+        int maxX = toCell(max.x);
+        int maxY = toCell(max.y);
+        int maxZ = toCell(max.z);
+        Vector3i cell = new Vector3i();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    cell.set(x, y, z);
+                    Multiset<EntityRef> characters = cells.get(cell);
+                    if (characters != null) {
+                        out.addAll(characters.elementSet());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a character was inside the volume at some point since the given time. The last state before that
+     * time is included, as the position at the time itself is interpolated from it.
+     *
+     * @param states    the state history of the character, oldest first
+     * @param volume    the volume to check
+     * @param sinceTime the game time in ms from which on to check the history
+     * @return whether any of the checked positions is inside the volume
+     */
+    static boolean wasInside(CircularBuffer<CharacterStateEvent> states, AABB volume, long sinceTime) {
+        for (int i = states.size() - 1; i >= 0; i--) {
+            CharacterStateEvent state = states.get(i);
+            if (volume.contains(state.getPosition())) {
+                return true;
+            }
+            if (state.getTime() <= sinceTime) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void removeFromCell(EntityRef character, Vector3i cell) {
+        Multiset<EntityRef> characters = cells.get(cell);
+        if (characters != null) {
+            characters.remove(character);
+            if (characters.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    private static int toCell(float coordinate) {
+        return TeraMath.floorToInt(coordinate / CELL_SIZE);
+    }
+}
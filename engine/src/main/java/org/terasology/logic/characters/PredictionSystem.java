@@ -31,5 +31,16 @@ public interface PredictionSystem {
      */
     void lagCompensate(EntityRef client, long timeMs);
 
+    /**
+     * Rewinds time for the specified client, but only for the characters that can be affected by the action of the
+     * client.
+     *
+     * @param client The client entity to rewind for
+     * @param timeMs The time to rewind to
+     * @param range  The reach of the action, as declared by {@link org.terasology.network.ServerEvent#lagCompensationRange()}.
+     *               0 rewinds all characters.
+     */
+    void lagCompensate(EntityRef client, long timeMs, float range);
+
     void restoreToPresent();
 }
@@ -17,8 +17,10 @@
 package org.terasology.logic.characters;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
@@ -31,8 +33,12 @@
 import org.terasology.logic.characters.events.SetMovementModeEvent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.AABB;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.network.ClientComponent;
 import org.terasology.network.NetworkSystem;
+import org.terasology.network.ServerEvent;
 import org.terasology.physics.engine.CharacterCollider;
 import org.terasology.physics.engine.PhysicsEngine;
 import org.terasology.registry.In;
@@ -41,6 +47,7 @@
 import org.terasology.world.WorldProvider;
 
 import java.util.Map;
+import java.util.Set;
 
 @RegisterSystem(RegisterMode.AUTHORITY)
 @Share(PredictionSystem.class)
@@ -53,6 +60,11 @@ public class ServerCharacterPredictionSystem extends BaseComponentSystem impleme
 
     private static final int BUFFER_SIZE = 128;
     private static final int TIME_BETWEEN_STATE_REPLICATE = 50;
+    /**
+     * Added to the interaction range of the acting character, covering the size of the other characters and how far
+     * they move between two of their states.
+     */
+    private static final float LAG_COMPENSATION_MARGIN = 2f;
 
     @In
     private Time time;
@@ -69,9 +81,19 @@ public class ServerCharacterPredictionSystem extends BaseComponentSystem impleme
     @In
     private NetworkSystem networkSystem;
 
+    @In
+    private Config config;
+
     private CharacterMover characterMover;
     private Map<EntityRef, CircularBuffer<CharacterStateEvent>> characterStates = Maps.newHashMap();
     private Map<EntityRef, CharacterMoveInputEvent> lastInputEvent = Maps.newHashMap();
+    private final CharacterHistoryIndex historyIndex = new CharacterHistoryIndex(BUFFER_SIZE);
+    private final Set<EntityRef> compensationCandidates = Sets.newHashSet();
+    /**
+     * The characters rewound since the last restore, a message with several lag compensated events can rewind a
+     * character more than once
+     */
+    private final Set<EntityRef> rewoundCharacters = Sets.newLinkedHashSet();
     private long nextSendState;
     private CharacterMovementSystemUtility characterMovementSystemUtility;
 
@@ -86,7 +108,7 @@ public void initialise() {
     public void onCreate(final OnActivatedComponent event, final EntityRef entity) {
         physics.getCharacterCollider(entity);
         CircularBuffer<CharacterStateEvent> stateBuffer = CircularBuffer.create(BUFFER_SIZE);
-        stateBuffer.add(createInitialState(entity));
+        addState(entity, stateBuffer, createInitialState(entity));
         characterStates.put(entity, stateBuffer);
     }
 
@@ -94,6 +116,7 @@ public void onCreate(final OnActivatedComponent event, final EntityRef entity) {
     public void onDestroy(final BeforeDeactivateComponent event, final EntityRef entity) {
         physics.removeCharacterCollider(entity);
         characterStates.remove(entity);
+        historyIndex.remove(entity);
         lastInputEvent.remove(entity);
     }
 
@@ -108,7 +131,7 @@ public void onSetMovementModeEvent(SetMovementModeEvent event, EntityRef charact
         } else {
             newState.setMode(MovementMode.WALKING);
         }
-        stateBuffer.add(newState);
+        addState(character, stateBuffer, newState);
         characterMovementSystemUtility.setToState(character, newState);
     }
 
@@ -125,7 +148,7 @@ public void onPlayerInput(CharacterMoveInputEvent input, EntityRef entity) {
         float delta = input.getDelta() + lastState.getTime() - (time.getGameTimeInMs() + MAX_INPUT_OVERFLOW);
         if (delta < 0) {
             CharacterStateEvent newState = stepState(input, lastState, entity);
-            stateBuffer.add(newState);
+            addState(entity, stateBuffer, newState);
 
             characterMovementSystemUtility.setToState(entity, newState);
             lastInputEvent.put(entity, input);
@@ -141,7 +164,7 @@ public void onTeleport(CharacterTeleportEvent event, EntityRef entity) {
         CharacterStateEvent newState = new CharacterStateEvent(lastState);
         newState.setPosition(new Vector3f(event.getTargetPosition()));
         newState.setTime(time.getGameTimeInMs());
-        stateBuffer.add(newState);
+        addState(entity, stateBuffer, newState);
         characterMovementSystemUtility.setToState(entity, newState);
 
     }
@@ -156,10 +179,15 @@ public void onImpulse(CharacterImpulseEvent event, EntityRef entity) {
         newState.setVelocity(impulse.add(newState.getVelocity()));
         newState.setTime(time.getGameTimeInMs());
         newState.setGrounded(false);
-        stateBuffer.add(newState);
+        addState(entity, stateBuffer, newState);
         characterMovementSystemUtility.setToState(entity, newState);
     }
 
+    private void addState(EntityRef entity, CircularBuffer<CharacterStateEvent> stateBuffer, CharacterStateEvent state) {
+        stateBuffer.add(state);
+        historyIndex.add(entity, state.getPosition());
+    }
+
     private CharacterStateEvent createInitialState(EntityRef entity) {
         LocationComponent location = entity.getComponent(LocationComponent.class);
         return new CharacterStateEvent(time.getGameTimeInMs(), 0, location.getWorldPosition(), location.getWorldRotation(), new Vector3f(), 0, 0, MovementMode.WALKING, false);
@@ -221,22 +249,103 @@ private void setToTime(long renderTime, EntityRef entity, CircularBuffer<Charact
         }
     }
 
+    /**
+     * Rewinds all characters for an action of the given client.
+     */
     @Override
     public void lagCompensate(EntityRef client, long timeMs) {
-        for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
-            if (networkSystem.getOwnerEntity(entry.getKey()).equals(client)) {
-                characterMovementSystemUtility.setToState(entry.getKey(), entry.getValue().getLast());
-            } else {
-                setToTime(timeMs - RENDER_DELAY, entry.getKey(), entry.getValue());
+        lagCompensate(client, timeMs, 0);
+    }
+
+    /**
+     * Rewinds the characters for an action of the given client. If the action declares its reach and spatial lag
+     * compensation is enabled, only the characters that were within that reach of the acting character since the
+     * rewind time get rewound, as the action can't affect any other character. Otherwise all characters get rewound.
+     */
+    @Override
+    public void lagCompensate(EntityRef client, long timeMs, float range) {
+        AABB queryVolume = null;
+        if (range != 0 && config.getSystem().isSpatialLagCompensationEnabled()) {
+            queryVolume = createQueryVolume(client, range);
+        }
+        if (queryVolume != null) {
+            lagCompensate(client, timeMs, queryVolume);
+        } else {
+            rewoundCharacters.addAll(characterStates.keySet());
+            for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
+                rewind(client, timeMs, entry.getKey(), entry.getValue());
             }
         }
+        PerformanceMonitor.setGauge("Network - Lag Compensated Characters", rewoundCharacters.size());
     }
 
+    /**
+     * Rewinds the characters that were inside the query volume at some point since the rewind time, the characters of
+     * the client get set to their latest state. All other characters stay where they are.
+     *
+     * @param client      the client to rewind for
+     * @param timeMs      the time to rewind to
+     * @param queryVolume the volume the action of the client can affect
+     */
+    public void lagCompensate(EntityRef client, long timeMs, AABB queryVolume) {
+        long renderTime = timeMs - RENDER_DELAY;
+        compensationCandidates.clear();
+        historyIndex.query(queryVolume, compensationCandidates);
+        for (EntityRef character : compensationCandidates) {
+            CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(character);
+            if (stateBuffer != null && (CharacterHistoryIndex.wasInside(stateBuffer, queryVolume, renderTime)
+                    || networkSystem.getOwnerEntity(character).equals(client))) {
+                rewoundCharacters.add(character);
+                rewind(client, timeMs, character, stateBuffer);
+            }
+        }
+    }
+
+    private void rewind(EntityRef client, long timeMs, EntityRef character, CircularBuffer<CharacterStateEvent> stateBuffer) {
+        if (networkSystem.getOwnerEntity(character).equals(client)) {
+            characterMovementSystemUtility.setToState(character, stateBuffer.getLast());
+        } else {
+            setToTime(timeMs - RENDER_DELAY, character, stateBuffer);
+        }
+    }
+
+    /**
+     * @param range the reach of the action, or {@link ServerEvent#INTERACTION_RANGE} for the interaction range of the
+     *              character of the client
+     * @return the volume within the range around the latest position of the character of the client, or null if the
+     * client has no character with a known position.
+     */
+    private AABB createQueryVolume(EntityRef client, float range) {
+        ClientComponent clientComponent = client.getComponent(ClientComponent.class);
+        if (clientComponent == null) {
+            return null;
+        }
+        EntityRef character = clientComponent.character;
+        CharacterComponent characterComponent = character.getComponent(CharacterComponent.class);
+        CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(character);
+        if (characterComponent == null || stateBuffer == null || stateBuffer.isEmpty()) {
+            return null;
+        }
+        float reach = range == ServerEvent.INTERACTION_RANGE ? characterComponent.interactionRange : range;
+        if (!(reach > 0)) {
+            return null;
+        }
+        float extent = reach + LAG_COMPENSATION_MARGIN;
+        return AABB.createCenterExtent(stateBuffer.getLast().getPosition(), new Vector3f(extent, extent, extent));
+    }
+
+    /**
+     * Restores the characters rewound by the last lag compensation.
+     */
     @Override
     public void restoreToPresent() {
         long renderTime = time.getGameTimeInMs() - RENDER_DELAY;
-        for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
-            setToTime(renderTime, entry.getKey(), entry.getValue());
+        for (EntityRef character : rewoundCharacters) {
+            CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(character);
+            if (stateBuffer != null) {
+                setToTime(renderTime, character, stateBuffer);
+            }
         }
+        rewoundCharacters.clear();
     }
 }
@@ -23,7 +23,7 @@
 
 /**
  */
-@ServerEvent(lagCompensate = true)
+@ServerEvent(lagCompensate = true, lagCompensationRange = ServerEvent.INTERACTION_RANGE)
 public class ActivationRequest extends NetworkEvent {
     /**
      * The field is used to preserve the fact that an item got used, even when the item is no more at the target server.
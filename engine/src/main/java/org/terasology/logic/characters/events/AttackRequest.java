@@ -22,7 +22,7 @@
 
 /**
  */
-@ServerEvent(lagCompensate = true)
+@ServerEvent(lagCompensate = true, lagCompensationRange = ServerEvent.INTERACTION_RANGE)
 public class AttackRequest extends NetworkEvent {
 
     private EntityRef item = EntityRef.NULL;
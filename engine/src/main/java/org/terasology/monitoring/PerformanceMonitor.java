@@ -140,6 +140,27 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Sets the current value of a gauge, e.g. the length of a queue. Unlike activities, gauges are not averaged:
+     * the last value set is reported until it gets replaced.
+     * <br><br>
+     * Like activities, gauges can only be set by the main thread. Values collected on other threads need to be
+     * handed over to the main thread first.
+     *
+     * @param gauge the name of the gauge.
+     * @param value the current value of the gauge.
+     */
+    public static void setGauge(String gauge, double value) {
+        instance.setGauge(gauge, value);
+    }
+
+    /**
+     * @return a mapping from gauge name to the last value set for it.
+     */
+    public static TObjectDoubleMap<String> getGauges() {
+        return instance.getGauges();
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
@@ -25,12 +25,16 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public final class ChunkMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
 
+    private static long lightMergedChunks;
+    private static long lightMergeNanos;
+
     private ChunkMonitor() {
     }
 
@@ -61,6 +65,10 @@ public static void fireChunkProviderInitialized(ChunkProvider provider) {
 
     public static void fireChunkProviderDisposed(ChunkProvider provider) {
         CHUNKS.clear();
+        synchronized (ChunkMonitor.class) {
+            lightMergedChunks = 0;
+            lightMergeNanos = 0;
+        }
         post(new ChunkMonitorEvent.ChunkProviderDisposed(provider));
     }
 
@@ -92,6 +100,30 @@ public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh mesh) {
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
     }
 
+    /**
+     * Records a finished batch of light merges.
+     *
+     * @param chunkCount    the number of chunks merged in the batch
+     * @param durationNanos how long the batch took from start to end
+     */
+    public static void fireLightMerged(int chunkCount, long durationNanos) {
+        synchronized (ChunkMonitor.class) {
+            lightMergedChunks += chunkCount;
+            lightMergeNanos += durationNanos;
+        }
+        post(new ChunkMonitorEvent.LightMerged(chunkCount, durationNanos));
+    }
+
+    /**
+     * @return the number of chunks the light stage merged per second of merging, averaged over all batches so far.
+     */
+    public static synchronized double getLightMergeRate() {
+        if (lightMergeNanos == 0) {
+            return 0;
+        }
+        return lightMergedChunks / (lightMergeNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
     public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
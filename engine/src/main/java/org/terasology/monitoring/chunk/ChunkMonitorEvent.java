@@ -103,4 +103,15 @@ public Tessellated(Vector3i position, ChunkMesh mesh) {
             this.meshInfo = new ChunkMeshInfo(mesh);
         }
     }
+
+    public static class LightMerged extends ChunkMonitorEvent {
+
+        public final int chunkCount;
+        public final long durationNanos;
+
+        public LightMerged(int chunkCount, long durationNanos) {
+            this.chunkCount = chunkCount;
+            this.durationNanos = durationNanos;
+        }
+    }
 }
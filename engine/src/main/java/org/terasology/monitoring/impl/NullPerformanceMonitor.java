@@ -53,4 +53,13 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public void setGauge(String gauge, double value) {
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getGauges() {
+        return metrics;
+    }
+
 }
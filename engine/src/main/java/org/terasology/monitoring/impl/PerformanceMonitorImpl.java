@@ -57,6 +57,7 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private final TObjectLongMap<String> runningExecutionTotals;
     private final TObjectLongMap<String> runningAllocationTotals;
     private final TObjectDoubleMap<String> spikeData;
+    private final TObjectDoubleMap<String> gauges;
 
     private final TObjectDoubleProcedure<String> decayLargestExecutionTime;
     private final TObjectLongProcedure<String> updateExecutionTimeTotalAndSpikeData;
@@ -79,6 +80,7 @@ public PerformanceMonitorImpl() {
         runningExecutionTotals = new TObjectLongHashMap<>();
         runningAllocationTotals = new TObjectLongHashMap<>();
         spikeData = new TObjectDoubleHashMap<>();
+        gauges = new TObjectDoubleHashMap<>();
 
         decayLargestExecutionTime  = new DecayerOfActivityLargestExecutionTime();
         updateExecutionTimeTotalAndSpikeData = new UpdaterOfActivityExecutionTimeTotalAndSpikeData();
@@ -184,6 +186,19 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return activityToMeanMap;
     }
 
+    @Override
+    public void setGauge(String gauge, double value) {
+        if (Thread.currentThread() != mainThread) {
+            return;
+        }
+        gauges.put(gauge, value);
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getGauges() {
+        return gauges;
+    }
+
     private class ActivityInfo {
         public String name;
         public long startTime;
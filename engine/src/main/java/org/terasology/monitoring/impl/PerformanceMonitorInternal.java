@@ -34,4 +34,8 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    void setGauge(String gauge, double value);
+
+    TObjectDoubleMap<String> getGauges();
 }
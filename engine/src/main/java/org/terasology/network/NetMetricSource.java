@@ -42,4 +42,14 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The amount of entity updates sent since last time this method was called
+     */
+    int getSentEntityUpdatesSinceLastCall();
+
+    /**
+     * @return The amount of entities that are currently replicated over the connection
+     */
+    int getRelevantEntityCount();
 }
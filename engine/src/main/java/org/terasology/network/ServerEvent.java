@@ -29,9 +29,22 @@
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface ServerEvent {
+    /**
+     * Value of {@link #lagCompensationRange()} for events that reach as far as the interaction range of the sender's
+     * character.
+     */
+    float INTERACTION_RANGE = -1;
+
     /**
      * @return Whether the event should be compensated for lag - if true then the location and rotation of all characters
      *         is rewound to simulate the condition on the client before processing the event.
      */
     boolean lagCompensate() default false;
+
+    /**
+     * @return The distance in blocks from the sender's character within which the event can affect other characters,
+     *         or {@link #INTERACTION_RANGE}. If set, lag compensation only rewinds the characters that were within this
+     *         distance. The default of 0 rewinds all characters.
+     */
+    float lagCompensationRange() default 0;
 }
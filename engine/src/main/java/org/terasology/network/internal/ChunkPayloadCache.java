@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the encoded form of recently sent chunks, so that a chunk that gets sent to several clients is only run length
+ * encoded and converted into a protobuf message once.
+ * <br><br>
+ * Entries are keyed by chunk position and are only reused while the chunk still has the modification version it had
+ * when it got encoded. The least recently used entries get evicted once the serialized size of all entries exceeds the
+ * configured limit.
+ * <br><br>
+ * The payloads still get compressed by the zlib stream of each connection, as that stream keeps its state between
+ * messages and can't be shared between clients.
+ *
+ */
+class ChunkPayloadCache {
+
+    private final long maxBytes;
+    private final Map<Vector3i, Payload> payloads = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxBytes the maximum serialized size of all cached chunks together.
+     */
+    ChunkPayloadCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the encoded chunk, either from the cache or freshly encoded if the chunk changed since it was cached.
+     */
+    public EntityData.ChunkStore getPayload(Chunk chunk) {
+        Vector3i pos = chunk.getPosition();
+        long version = chunk.getModificationVersion();
+        synchronized (this) {
+            Payload payload = payloads.get(pos);
+            if (payload != null && payload.version == version) {
+                hits++;
+                return payload.chunkStore;
+            }
+            misses++;
+        }
+
+        // Encode outside of the lock so that clients asking for other chunks don't have to wait
+        EntityData.ChunkStore chunkStore = chunk.encode().build();
+        Payload payload = new Payload(version, chunkStore);
+        synchronized (this) {
+            Payload previous = payloads.put(new Vector3i(pos), payload);
+            if (previous != null) {
+                cachedBytes -= previous.size;
+            }
+            cachedBytes += payload.size;
+            evictExcess();
+        }
+        return chunkStore;
+    }
+
+    /**
+     * Removes all cached chunks, e.g. when the server stops.
+     */
+    public synchronized void clear() {
+        payloads.clear();
+        cachedBytes = 0;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private void evictExcess() {
+        Iterator<Payload> iterator = payloads.values().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private static final class Payload {
+        private final long version;
+        private final EntityData.ChunkStore chunkStore;
+        private final int size;
+
+        Payload(long version, EntityData.ChunkStore chunkStore) {
+            this.version = version;
+            this.chunkStore = chunkStore;
+            this.size = chunkStore.getSerializedSize();
+        }
+    }
+}
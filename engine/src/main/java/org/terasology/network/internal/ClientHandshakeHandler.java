@@ -32,6 +32,7 @@
 import org.terasology.identity.IdentityConstants;
 import org.terasology.identity.PrivateIdentityCertificate;
 import org.terasology.identity.PublicIdentityCertificate;
+import org.terasology.network.internal.compression.FrameCompression;
 import org.terasology.protobuf.NetData;
 
 import javax.crypto.BadPaddingException;
@@ -108,6 +109,10 @@ private void processHandshakeVerification(NetData.HandshakeVerification handshak
             return;
         }
 
+        if (!installCompression(handshakeVerification.getCompression(), ctx)) {
+            return;
+        }
+
         // And we're authenticated.
         ctx.getPipeline().remove(this);
         channelAuthenticated(ctx);
@@ -127,6 +132,10 @@ private void processNewIdentity(NetData.ProvisionIdentity provisionIdentity, Cha
             return;
         }
 
+        if (!installCompression(provisionIdentity.getCompression(), ctx)) {
+            return;
+        }
+
         try {
             byte[] decryptedCert = null;
             try {
@@ -177,6 +186,29 @@ private void processNewIdentity(NetData.ProvisionIdentity provisionIdentity, Cha
         }
     }
 
+    /**
+     * Switches to the frame compression picked by the server. This happens before any other processing, as the
+     * server compresses all messages after this one with the new method.
+     * @param compressionId The id of the compression, or empty if the server keeps using zlib.
+     * @param ctx Channel Handler Context.
+     * @return Whether the compression is known, otherwise the connection gets closed.
+     */
+    boolean installCompression(String compressionId, ChannelHandlerContext ctx) {
+        if (compressionId.isEmpty()) {
+            return true;
+        }
+        FrameCompression compression = FrameCompression.forId(compressionId);
+        if (compression == null) {
+            logger.error("Server uses unsupported frame compression {}: cancelling authentication", compressionId);
+            joinStatus.setErrorMessage(AUTHENTICATION_FAILURE);
+            ctx.getChannel().close();
+            return false;
+        }
+        logger.info("Using {} frame compression", compressionId);
+        compression.installDecoder(ctx.getPipeline());
+        return true;
+    }
+
     /**
      * Creates a new builder on the channel and sets join status.
      * @param ctx Channel Handler Context.
@@ -237,6 +269,7 @@ private void sendCertificate(NetData.HandshakeHello helloMessage, ChannelHandler
                 .setRandom(ByteString.copyFrom(clientRandom))
                 .setCertificate(NetMessageUtil.convert(pubClientCert))
                 .setTimestamp(System.currentTimeMillis())
+                .addAllSupportedCompression(FrameCompression.getSupportedIds())
                 .build();
 
         byte[] dataToSign = Bytes.concat(helloMessage.toByteArray(), clientHello.toByteArray());
@@ -265,7 +298,8 @@ private void requestIdentity(ChannelHandlerContext ctx) {
         ctx.getChannel().write(NetData.NetMessage.newBuilder()
                 .setNewIdentityRequest(NetData.NewIdentityRequest.newBuilder()
                         .setPreMasterSecret(ByteString.copyFrom(encryptedPreMasterSecret))
-                        .setRandom(ByteString.copyFrom(clientRandom)))
+                        .setRandom(ByteString.copyFrom(clientRandom))
+                        .addAllSupportedCompression(FrameCompression.getSupportedIds()))
                 .build());
         requestedCertificate = true;
     }
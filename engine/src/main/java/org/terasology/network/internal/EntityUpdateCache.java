@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.network.serialization.ServerComponentFieldCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shares the serialized updates of dirty entities between all clients of a network tick.
+ * <br><br>
+ * Clients that have the same components of an entity marked as added, changed and removed and that are either all
+ * owners or all non-owners of the entity get sent the same {@link EntityData.PackedEntity}, so it only gets serialized
+ * once per variant. The cached updates of an entity are discarded as soon as one of its components changes, and the
+ * whole cache is cleared after each network tick.
+ *
+ */
+class EntityUpdateCache {
+
+    private final TIntObjectMap<List<Variant>> variantsByNetId = new TIntObjectHashMap<>();
+    private int serialized;
+    private int reused;
+
+    /**
+     * @return the serialized update of the entity, or null if nothing needs to be sent.
+     */
+    public EntityData.PackedEntity getUpdate(NetworkEntitySerializer entitySerializer, int netId, EntityRef entity,
+                                             Set<Class<? extends Component>> added,
+                                             Set<Class<? extends Component>> changed,
+                                             Set<Class<? extends Component>> removed, boolean isOwner) {
+        synchronized (this) {
+            List<Variant> variants = variantsByNetId.get(netId);
+            if (variants != null) {
+                for (Variant variant : variants) {
+                    if (variant.matches(added, changed, removed, isOwner)) {
+                        reused++;
+                        return variant.packedEntity;
+                    }
+                }
+            }
+            serialized++;
+        }
+
+        EntityData.PackedEntity packedEntity = entitySerializer.serialize(entity, added, changed, removed,
+                new ServerComponentFieldCheck(isOwner, false));
+        Variant variant = new Variant(added, changed, removed, isOwner, packedEntity);
+        synchronized (this) {
+            List<Variant> variants = variantsByNetId.get(netId);
+            if (variants == null) {
+                variants = Lists.newArrayListWithCapacity(2);
+                variantsByNetId.put(netId, variants);
+            }
+            variants.add(variant);
+        }
+        return packedEntity;
+    }
+
+    /**
+     * Discards the cached updates of an entity whose components changed since they were serialized.
+     */
+    public synchronized void invalidate(int netId) {
+        variantsByNetId.remove(netId);
+    }
+
+    public synchronized void clear() {
+        variantsByNetId.clear();
+        serialized = 0;
+        reused = 0;
+    }
+
+    /**
+     * @return the number of entity updates that got serialized since the last {@link #clear()}.
+     */
+    public synchronized int getSerialized() {
+        return serialized;
+    }
+
+    /**
+     * @return the number of entity updates that were shared with another client since the last {@link #clear()}.
+     */
+    public synchronized int getReused() {
+        return reused;
+    }
+
+    private static final class Variant {
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+        private final boolean isOwner;
+        private final EntityData.PackedEntity packedEntity;
+
+        Variant(Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                Set<Class<? extends Component>> removed, boolean isOwner, EntityData.PackedEntity packedEntity) {
+            this.added = ImmutableSet.copyOf(added);
+            this.changed = ImmutableSet.copyOf(changed);
+            this.removed = ImmutableSet.copyOf(removed);
+            this.isOwner = isOwner;
+            this.packedEntity = packedEntity;
+        }
+
+        boolean matches(Set<Class<? extends Component>> otherAdded, Set<Class<? extends Component>> otherChanged,
+                        Set<Class<? extends Component>> otherRemoved, boolean otherIsOwner) {
+            return isOwner == otherIsOwner && added.equals(otherAdded) && changed.equals(otherChanged)
+                    && removed.equals(otherRemoved);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.NetworkComponent;
+
+/**
+ * Decides which network entities are relevant for a client based on their distance to the client's character, and
+ * how often updates of these entities get sent.
+ * <br><br>
+ * Only entities with {@link NetworkComponent.ReplicateMode#RELEVANT} that have a location and are not owned by a
+ * client are managed. They become relevant for a client when they get within the relevance distance of its character
+ * and get removed from the client when they are more than {@link #LEAVE_DISTANCE_FACTOR} times that distance away.
+ * Updates of entities within a quarter of the relevance distance get sent every network tick, within half of it every
+ * second tick and further away every fourth tick. All other entities are relevant for every client and get updated
+ * every tick, as before.
+ * <br><br>
+ * The positions of the managed entities are collected into a {@link SpatialEntityIndex} once per network tick.
+ *
+ */
+class InterestManager {
+    static final float LEAVE_DISTANCE_FACTOR = 1.25f;
+    private static final int NEAR_UPDATE_INTERVAL = 1;
+    private static final int MEDIUM_UPDATE_INTERVAL = 2;
+    private static final int FAR_UPDATE_INTERVAL = 4;
+    private static final float MIN_CELL_SIZE = 16;
+
+    private final NetworkSystemImpl networkSystem;
+    private final float relevanceDistance;
+    private final SpatialEntityIndex index;
+    private TIntSet managedEntities = new TIntHashSet();
+    private final TIntSet releasedEntities = new TIntHashSet();
+    private long tick;
+
+    /**
+     * @param relevanceDistance the distance in blocks up to which managed entities are relevant for a client, or 0 to
+     *                          make all entities relevant for every client.
+     */
+    InterestManager(NetworkSystemImpl networkSystem, float relevanceDistance) {
+        this.networkSystem = networkSystem;
+        this.relevanceDistance = relevanceDistance;
+        this.index = new SpatialEntityIndex(Math.max(MIN_CELL_SIZE, relevanceDistance / 2));
+    }
+
+    public boolean isEnabled() {
+        return relevanceDistance > 0;
+    }
+
+    /**
+     * @return true if the relevance of the entity for clients depends on its distance to them. Entities without a
+     * finite world position, e.g. items stored in an inventory, can't be located and stay relevant for every client.
+     */
+    public boolean isManaged(EntityRef entity) {
+        return isManageable(entity) && isLocated(entity, new Vector3f());
+    }
+
+    private boolean isManageable(EntityRef entity) {
+        if (!isEnabled()) {
+            return false;
+        }
+        NetworkComponent networkComponent = entity.getComponent(NetworkComponent.class);
+        return networkComponent != null && networkComponent.replicateMode == NetworkComponent.ReplicateMode.RELEVANT
+                && entity.hasComponent(LocationComponent.class) && networkSystem.getOwner(entity) == null;
+    }
+
+    private static boolean isLocated(EntityRef entity, Vector3f position) {
+        entity.getComponent(LocationComponent.class).getWorldPosition(position);
+        return Float.isFinite(position.x) && Float.isFinite(position.y) && Float.isFinite(position.z);
+    }
+
+    /**
+     * Collects the current positions of all managed entities. Called once per network tick before the clients update
+     * their relevant entities.
+     */
+    public void update(EntityManager entityManager) {
+        tick++;
+        index.clear();
+        TIntSet previouslyManaged = managedEntities;
+        managedEntities = new TIntHashSet(previouslyManaged.size());
+        Vector3f position = new Vector3f();
+        for (EntityRef entity : entityManager.getEntitiesWith(NetworkComponent.class, LocationComponent.class)) {
+            int netId = entity.getComponent(NetworkComponent.class).getNetworkId();
+            if (netId != 0 && isManageable(entity) && isLocated(entity, position)) {
+                managedEntities.add(netId);
+                index.add(netId, position);
+            }
+        }
+        releasedEntities.clear();
+        previouslyManaged.forEach(netId -> {
+            if (!managedEntities.contains(netId)) {
+                releasedEntities.add(netId);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Calls the procedure for every managed entity that is within the relevance distance of the given position.
+     */
+    public void forEachEntityInRange(Vector3f position, TIntProcedure procedure) {
+        index.forEachInRange(position, relevanceDistance, procedure);
+    }
+
+    /**
+     * @return true if the entity is managed and too far away from the given position to stay relevant.
+     */
+    public boolean hasLeftRange(int netId, Vector3f position) {
+        if (!managedEntities.contains(netId)) {
+            return false;
+        }
+        Vector3f entityPosition = index.getPosition(netId);
+        float leaveDistance = relevanceDistance * LEAVE_DISTANCE_FACTOR;
+        return entityPosition == null
+                || SpatialEntityIndex.distanceSquared(entityPosition, position) > leaveDistance * leaveDistance;
+    }
+
+    /**
+     * @return the entities that were managed during the previous network tick but are now relevant for every client,
+     * e.g. because a client became their owner or they lost their world position.
+     */
+    public TIntSet getReleasedEntities() {
+        return releasedEntities;
+    }
+
+    /**
+     * @return the number of network ticks between updates of the entity for a client at the given position.
+     */
+    public int getUpdateInterval(int netId, Vector3f position) {
+        Vector3f entityPosition = index.getPosition(netId);
+        if (entityPosition == null) {
+            return NEAR_UPDATE_INTERVAL;
+        }
+        float distanceSquared = SpatialEntityIndex.distanceSquared(entityPosition, position);
+        float nearDistance = relevanceDistance / 4;
+        float mediumDistance = relevanceDistance / 2;
+        if (distanceSquared <= nearDistance * nearDistance) {
+            return NEAR_UPDATE_INTERVAL;
+        } else if (distanceSquared <= mediumDistance * mediumDistance) {
+            return MEDIUM_UPDATE_INTERVAL;
+        }
+        return FAR_UPDATE_INTERVAL;
+    }
+
+    /**
+     * @return true if an update of the entity should be sent to a client at the given position during this tick.
+     * The network id staggers the updates of far entities over several ticks.
+     */
+    public boolean isUpdateDue(int netId, Vector3f position) {
+        int interval = getUpdateInterval(netId, position);
+        return interval == NEAR_UPDATE_INTERVAL || (tick + netId) % interval == 0;
+    }
+
+    public int getManagedEntityCount() {
+        return managedEntities.size();
+    }
+}
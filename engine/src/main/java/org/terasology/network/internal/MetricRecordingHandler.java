@@ -36,6 +36,8 @@ public class MetricRecordingHandler extends SimpleChannelHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicInteger sentEntityUpdates = new AtomicInteger();
+    private volatile int relevantEntities;
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
@@ -72,4 +74,22 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    public void recordSentEntityUpdates(int count) {
+        sentEntityUpdates.addAndGet(count);
+    }
+
+    @Override
+    public int getSentEntityUpdatesSinceLastCall() {
+        return sentEntityUpdates.getAndSet(0);
+    }
+
+    public void setRelevantEntityCount(int count) {
+        relevantEntities = count;
+    }
+
+    @Override
+    public int getRelevantEntityCount() {
+        return relevantEntities;
+    }
 }
@@ -25,7 +25,11 @@
 import com.google.common.collect.Sets;
 
 import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.TFloatSet;
 import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TFloatHashSet;
 import gnu.trove.set.hash.TIntHashSet;
 
 import org.jboss.netty.channel.Channel;
@@ -44,6 +48,7 @@
 import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
@@ -60,6 +65,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.world.BlockChangeBatch;
 import org.terasology.world.WorldChangeListener;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.biomes.Biome;
@@ -92,7 +98,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private NetworkEntitySerializer entitySerializer;
     private EventSerializer eventSerializer;
     private EventLibrary eventLibrary;
-    private NetMetricSource metricSource;
+    private MetricRecordingHandler metricSource;
     private BiomeManager biomeManager;
 
     // Relevance
@@ -106,6 +112,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private SetMultimap<Integer, Class<? extends Component>> dirtyComponents = LinkedHashMultimap.create();
     private SetMultimap<Integer, Class<? extends Component>> addedComponents = LinkedHashMultimap.create();
     private SetMultimap<Integer, Class<? extends Component>> removedComponents = LinkedHashMultimap.create();
+    private ReplicationBaseline replicationBaseline = new ReplicationBaseline();
 
     private String preferredName = "Player";
     private long lastReceivedTime;
@@ -118,6 +125,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
 
     // Outgoing messages
     private BlockingQueue<NetData.BlockChangeMessage> queuedOutgoingBlockChanges = Queues.newLinkedBlockingQueue();
+    private BlockingQueue<NetData.BlockChangeBatchMessage> queuedOutgoingBlockChangeBatches = Queues.newLinkedBlockingQueue();
     private BlockingQueue<NetData.BiomeChangeMessage> queuedOutgoingBiomeChanges = Queues.newLinkedBlockingQueue();
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
@@ -144,7 +152,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
      */
     public NetClient(Channel channel, NetworkSystemImpl networkSystem, PublicIdentityCertificate identity) {
         this.channel = channel;
-        metricSource = (NetMetricSource) channel.getPipeline().get(MetricRecordingHandler.NAME);
+        metricSource = (MetricRecordingHandler) channel.getPipeline().get(MetricRecordingHandler.NAME);
         this.networkSystem = networkSystem;
         this.time = CoreRegistry.get(Time.class);
         this.identity = identity;
@@ -222,20 +230,49 @@ public void disconnect() {
     @Override
     public void update(boolean netTick) {
         if (netTick) {
-            NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
-            message.setTime(time.getGameTimeInMs());
-            sendRegisteredBlocks(message);
-            sendChunkInvalidations(message);
-            sendNewChunks(message);
-            sendRemovedEntities(message);
-            sendInitialEntities(message);
-            sendDirtyEntities(message);
-            sendEvents(message);
-            send(message.build());
+            sendUpdate(prepareUpdate());
         }
         processReceivedMessages();
     }
 
+    /**
+     * Gathers everything of the next update that requires the entity system. Has to be called on the main thread.
+     *
+     * @return the input for {@link #sendUpdate(ClientUpdate)}
+     */
+    ClientUpdate prepareUpdate() {
+        Vector3f position = getCharacterPosition();
+        Vector3i characterChunkPos = new Vector3i();
+        if (position != null) {
+            characterChunkPos.set(ChunkMath.calcChunkPos(new Vector3i(position, RoundingMode.HALF_UP)));
+        }
+        ClientUpdate update = new ClientUpdate(time.getGameTimeInMs(), characterChunkPos);
+        prepareRemovedEntities(update);
+        prepareInitialEntities(update);
+        prepareDirtyEntities(update, position);
+        return update;
+    }
+
+    /**
+     * Assembles, serializes and sends the message of an update. Does not access the entity system, so it may run on
+     * another thread, as long as the main thread does not modify this client in the meantime.
+     */
+    void sendUpdate(ClientUpdate update) {
+        NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
+        message.setTime(update.time);
+        sendRegisteredBlocks(message);
+        sendChunkInvalidations(message);
+        sendNewChunks(message, update.characterChunkPos);
+        sendRemovedEntities(message, update);
+        sendInitialEntities(message, update);
+        sendDirtyEntities(message, update);
+        sendEvents(message);
+        send(message.build());
+        if (metricSource != null) {
+            metricSource.setRelevantEntityCount(netRelevant.size());
+        }
+    }
+
     private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
         synchronized (newlyRegisteredFamilies) {
             for (BlockFamily family : newlyRegisteredFamilies) {
@@ -250,16 +287,11 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
         }
     }
 
-    private void sendNewChunks(NetData.NetMessage.Builder message) {
+    private void sendNewChunks(NetData.NetMessage.Builder message, Vector3i center) {
         if (!readyChunks.isEmpty()) {
             chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
             if (chunkSendCounter > 1.0f) {
                 chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
-                }
                 Vector3i pos = null;
                 int distance = Integer.MAX_VALUE;
                 for (Vector3i chunkPos : readyChunks.keySet()) {
@@ -271,7 +303,7 @@ private void sendNewChunks(NetData.NetMessage.Builder message) {
                 }
                 Chunk chunk = readyChunks.remove(pos);
                 relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
+                message.addChunkInfo(networkSystem.getChunkPayloadCache().getPayload(chunk));
             }
         } else {
             chunkSendCounter = 1.0f;
@@ -294,9 +326,10 @@ public void setNetInitial(int netId) {
     }
 
     public void setNetRemoved(int netId) {
-        if (!netInitial.remove(netId)) {
+        if (!netInitial.remove(netId) && netRelevant.contains(netId)) {
             netRemoved.add(netId);
         }
+        replicationBaseline.remove(netId);
         dirtyComponents.keySet().remove(netId);
         addedComponents.keySet().remove(netId);
         removedComponents.keySet().remove(netId);
@@ -400,10 +433,34 @@ public void onChunkIrrelevant(Vector3i pos) {
     public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
         if (relevantChunks.contains(chunkPos)) {
-            queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
-                    .setPos(NetMessageUtil.convert(pos))
-                    .setNewBlock(newBlock.getId())
-                    .build());
+            if (queuedOutgoingBlockChangeBatches.isEmpty()) {
+                queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
+                        .setPos(NetMessageUtil.convert(pos))
+                        .setNewBlock(newBlock.getId())
+                        .build());
+            } else {
+                // Batches get applied after the single changes, so keep the order by queuing a batch as well
+                Vector3i blockPos = ChunkMath.calcBlockPos(pos);
+                queuedOutgoingBlockChangeBatches.add(NetData.BlockChangeBatchMessage.newBuilder()
+                        .setChunkPos(NetMessageUtil.convert(chunkPos))
+                        .addBlockIndex(BlockChangeBatch.toBlockIndex(blockPos.x, blockPos.y, blockPos.z))
+                        .addNewBlock(newBlock.getId())
+                        .build());
+            }
+        }
+    }
+
+    @Override
+    public void onBlocksChanged(BlockChangeBatch batch) {
+        Vector3i chunkPos = batch.getChunkPos();
+        if (relevantChunks.contains(chunkPos)) {
+            NetData.BlockChangeBatchMessage.Builder message = NetData.BlockChangeBatchMessage.newBuilder()
+                    .setChunkPos(NetMessageUtil.convert(chunkPos));
+            for (int i = 0; i < batch.size(); i++) {
+                message.addBlockIndex(batch.getBlockIndex(i));
+                message.addNewBlock(batch.getBlock(i).getId());
+            }
+            queuedOutgoingBlockChangeBatches.add(message.build());
         }
     }
 
@@ -418,7 +475,10 @@ public void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
         }
     }
 
-    private void processReceivedMessages() {
+    /**
+     * Applies the messages received from the client to the entity system. Has to be called on the main thread.
+     */
+    void processReceivedMessages() {
         List<NetData.NetMessage> messages = Lists.newArrayListWithExpectedSize(queuedIncomingMessage.size());
         queuedIncomingMessage.drainTo(messages);
         for (NetData.NetMessage message : messages) {
@@ -436,6 +496,10 @@ private void sendEvents(NetData.NetMessage.Builder message) {
         queuedOutgoingBlockChanges.drainTo(blockChanges);
         message.addAllBlockChange(blockChanges);
 
+        List<NetData.BlockChangeBatchMessage> blockChangeBatches = Lists.newArrayListWithExpectedSize(queuedOutgoingBlockChangeBatches.size());
+        queuedOutgoingBlockChangeBatches.drainTo(blockChangeBatches);
+        message.addAllBlockChangeBatch(blockChangeBatches);
+
         List<NetData.BiomeChangeMessage> biomeChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBiomeChanges.size());
         queuedOutgoingBiomeChanges.drainTo(biomeChanges);
         message.addAllBiomeChange(biomeChanges);
@@ -454,36 +518,112 @@ private void processEntityUpdates(NetData.NetMessage message) {
         }
     }
 
-    private void sendDirtyEntities(NetData.NetMessage.Builder message) {
+    /**
+     * Makes the entities managed by the interest manager relevant or irrelevant for this client, depending on their
+     * distance to the client's character.
+     */
+    void updateRelevantEntities(InterestManager interestManager) {
+        Vector3f position = getCharacterPosition();
+        if (position != null) {
+            interestManager.forEachEntityInRange(position, netId -> {
+                if (!netRelevant.contains(netId) && !netInitial.contains(netId)) {
+                    setNetInitial(netId);
+                }
+                return true;
+            });
+            TIntList leftRange = new TIntArrayList();
+            netRelevant.forEach(netId -> {
+                if (interestManager.hasLeftRange(netId, position)) {
+                    leftRange.add(netId);
+                }
+                return true;
+            });
+            leftRange.forEach(netId -> {
+                setNetRemoved(netId);
+                return true;
+            });
+        }
+        interestManager.getReleasedEntities().forEach(netId -> {
+            if (!netRelevant.contains(netId) && !netInitial.contains(netId) && networkSystem.getEntity(netId).exists()) {
+                setNetInitial(netId);
+            }
+            return true;
+        });
+    }
+
+    private Vector3f getCharacterPosition() {
+        ClientComponent clientComponent = getEntity().getComponent(ClientComponent.class);
+        if (clientComponent == null) {
+            return null;
+        }
+        LocationComponent location = clientComponent.character.getComponent(LocationComponent.class);
+        if (location == null) {
+            return null;
+        }
+        return location.getWorldPosition();
+    }
+
+    private void prepareDirtyEntities(ClientUpdate update, Vector3f characterPosition) {
+        InterestManager interestManager = networkSystem.getInterestManager();
+        Vector3f position = interestManager.isEnabled() ? characterPosition : null;
         TIntIterator dirtyIterator = netDirty.iterator();
         while (dirtyIterator.hasNext()) {
             int netId = dirtyIterator.next();
+            if (position != null && !interestManager.isUpdateDue(netId, position)) {
+                // Far away entities keep collecting their changes until their next update is due
+                continue;
+            }
             EntityRef entity = networkSystem.getEntity(netId);
             if (!entity.exists()) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            EntityData.PackedEntity entityData = networkSystem.getEntityUpdateCache().getUpdate(entitySerializer, netId, entity,
+                    addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId), isOwner);
             if (entityData != null) {
-                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
+                update.entityUpdates.add(new EntityUpdate(netId, entityData, isOwner));
             }
+            dirtyIterator.remove();
+            addedComponents.removeAll(netId);
+            removedComponents.removeAll(netId);
+            dirtyComponents.removeAll(netId);
+        }
+        if (netDirty.isEmpty()) {
+            addedComponents.clear();
+            removedComponents.clear();
+            dirtyComponents.clear();
         }
-        netDirty.clear();
-        addedComponents.clear();
-        removedComponents.clear();
-        dirtyComponents.clear();
     }
 
-    private void sendRemovedEntities(NetData.NetMessage.Builder message) {
-        TIntIterator initialIterator = netRemoved.iterator();
-        while (initialIterator.hasNext()) {
-            message.addRemoveEntity(NetData.RemoveEntityMessage.newBuilder().setNetId(initialIterator.next()));
+    private void sendDirtyEntities(NetData.NetMessage.Builder message, ClientUpdate update) {
+        int sentUpdates = 0;
+        for (EntityUpdate entityUpdate : update.entityUpdates) {
+            // The owner may have changed fields locally, so it gets all fields of changed components
+            EntityData.PackedEntity entityData = replicationBaseline.reduce(entityUpdate.netId, entityUpdate.entityData,
+                    entityUpdate.isOwner);
+            if (entityData != null) {
+                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(entityUpdate.netId));
+                sentUpdates++;
+            }
         }
+        if (metricSource != null) {
+            metricSource.recordSentEntityUpdates(sentUpdates);
+        }
+    }
+
+    private void prepareRemovedEntities(ClientUpdate update) {
+        update.removedEntities.addAll(netRemoved);
         netRemoved.clear();
     }
 
-    private void sendInitialEntities(NetData.NetMessage.Builder message) {
+    private void sendRemovedEntities(NetData.NetMessage.Builder message, ClientUpdate update) {
+        TIntIterator removedIterator = update.removedEntities.iterator();
+        while (removedIterator.hasNext()) {
+            message.addRemoveEntity(NetData.RemoveEntityMessage.newBuilder().setNetId(removedIterator.next()));
+        }
+    }
+
+    private void prepareInitialEntities(ClientUpdate update) {
         int[] initial = netInitial.toArray();
         netInitial.clear();
         Arrays.sort(initial);
@@ -497,18 +637,25 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
             // Note: Send owner->server fields on initial create
             Client owner = networkSystem.getOwner(entity);
             EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            replicationBaseline.reset(netId, entityData);
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
                 createMessage.setBlockPos(NetMessageUtil.convert(blockComponent.getPosition()));
             }
-            message.addCreateEntity(createMessage);
+            update.createdEntities.add(createMessage.build());
         }
 
     }
 
+    private void sendInitialEntities(NetData.NetMessage.Builder message, ClientUpdate update) {
+        message.addAllCreateEntity(update.createdEntities);
+    }
+
     private void processEvents(NetData.NetMessage message) {
         boolean lagCompensated = false;
+        // Ranges the characters are already rewound for; rewinding for another range only adds characters
+        TFloatSet compensatedRanges = new TFloatHashSet();
         PredictionSystem predictionSystem = CoreRegistry.get(PredictionSystem.class);
         for (NetData.EventMessage eventMessage : message.getEventList()) {
             try {
@@ -518,9 +665,10 @@ private void processEvents(NetData.NetMessage message) {
                     logger.warn("Received non-server event '{}' from client '{}'", metadata, getName());
                     continue;
                 }
-                if (!lagCompensated && metadata.isLagCompensated()) {
+                if (metadata.isLagCompensated() && !compensatedRanges.contains(0)
+                        && compensatedRanges.add(metadata.getLagCompensationRange())) {
                     if (predictionSystem != null) {
-                        predictionSystem.lagCompensate(getEntity(), lastReceivedTime);
+                        predictionSystem.lagCompensate(getEntity(), lastReceivedTime, metadata.getLagCompensationRange());
                     }
                     lagCompensated = true;
                 }
@@ -567,4 +715,32 @@ public void blockFamilyRegistered(BlockFamily family) {
             newlyRegisteredFamilies.add(family);
         }
     }
+
+    /**
+     * The part of an update that had to be gathered on the main thread, see {@link #prepareUpdate()}.
+     */
+    static final class ClientUpdate {
+        private final long time;
+        private final Vector3i characterChunkPos;
+        private final TIntList removedEntities = new TIntArrayList();
+        private final List<NetData.CreateEntityMessage> createdEntities = Lists.newArrayList();
+        private final List<EntityUpdate> entityUpdates = Lists.newArrayList();
+
+        ClientUpdate(long time, Vector3i characterChunkPos) {
+            this.time = time;
+            this.characterChunkPos = characterChunkPos;
+        }
+    }
+
+    private static final class EntityUpdate {
+        private final int netId;
+        private final EntityData.PackedEntity entityData;
+        private final boolean isOwner;
+
+        private EntityUpdate(int netId, EntityData.PackedEntity entityData, boolean isOwner) {
+            this.netId = netId;
+            this.entityData = entityData;
+            this.isOwner = isOwner;
+        }
+    }
 }
@@ -105,7 +105,12 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementation of the Network System using Netty and TCP/IP
@@ -116,6 +121,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private static final int OWNER_DEPTH_LIMIT = 50;
     private static final int NET_TICK_RATE = 50;
     private static final int NULL_NET_ID = 0;
+    private static final long CHUNK_PAYLOAD_CACHE_BYTES = 64 * 1024 * 1024;
 
     // Shared
     private Context context;
@@ -150,6 +156,14 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
     private StorageManager storageManager;
+    private final ChunkPayloadCache chunkPayloadCache = new ChunkPayloadCache(CHUNK_PAYLOAD_CACHE_BYTES);
+    private final EntityUpdateCache entityUpdateCache = new EntityUpdateCache();
+    private InterestManager interestManager = new InterestManager(this, 0);
+    /**
+     * Runs the send phase of the client updates if parallel client updates are enabled, null otherwise
+     */
+    private ForkJoinPool clientUpdatePool;
+    private final AtomicLong clientSendNanos = new AtomicLong();
 
     // Client only
     private ServerImpl server;
@@ -168,6 +182,8 @@ public void host(int port, boolean dedicatedServer) throws HostingFailedExceptio
                     hibernationSettings.get().setHibernationAllowed(false);
                 }
                 mode = dedicatedServer ? NetworkMode.DEDICATED_SERVER : NetworkMode.LISTEN_SERVER;
+                interestManager = new InterestManager(this, config.getEntityRelevanceDistance());
+                startClientUpdatePool();
                 for (EntityRef entity : entityManager.getEntitiesWith(NetworkComponent.class)) {
                     registerNetworkEntity(entity);
                 }
@@ -290,6 +306,12 @@ public void shutdown() {
         ownedLookup.clear();
         ownershipHelper = null;
         storageManager = null;
+        chunkPayloadCache.clear();
+        entityUpdateCache.clear();
+        if (clientUpdatePool != null) {
+            clientUpdatePool.shutdown();
+            clientUpdatePool = null;
+        }
         logger.info("Network shutdown");
     }
 
@@ -314,11 +336,33 @@ public void update() {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
                 }
+                if (netTick && mode.isServer() && interestManager.isEnabled()) {
+                    PerformanceMonitor.startActivity("Interest Management");
+                    interestManager.update(entityManager);
+                    for (NetClient client : netClientList) {
+                        client.updateRelevantEntities(interestManager);
+                    }
+                    PerformanceMonitor.setGauge("Network - Distance Managed Entities", interestManager.getManagedEntityCount());
+                    PerformanceMonitor.endActivity();
+                }
                 PerformanceMonitor.startActivity("Client update");
-                for (Client client : clientList) {
-                    client.update(netTick);
+                if (clientUpdatePool != null) {
+                    updateClientsInParallel(netTick);
+                } else {
+                    for (Client client : clientList) {
+                        client.update(netTick);
+                    }
                 }
                 PerformanceMonitor.endActivity();
+                if (mode.isServer()) {
+                    PerformanceMonitor.setGauge("Network - Chunk Payloads Encoded", chunkPayloadCache.getMisses());
+                    PerformanceMonitor.setGauge("Network - Chunk Payloads Reused", chunkPayloadCache.getHits());
+                    if (netTick) {
+                        PerformanceMonitor.setGauge("Network - Entity Updates Serialized", entityUpdateCache.getSerialized());
+                        PerformanceMonitor.setGauge("Network - Entity Updates Reused", entityUpdateCache.getReused());
+                        entityUpdateCache.clear();
+                    }
+                }
                 if (server != null) {
                     server.update(netTick);
                 }
@@ -326,6 +370,67 @@ public void update() {
         }
     }
 
+    /**
+     * Updates the clients in three phases: the parts of the net clients' updates that need the entity system are
+     * gathered on the main thread, then the messages get assembled, serialized and sent by the worker pool, and
+     * finally the messages received from the clients are applied on the main thread again.
+     */
+    private void updateClientsInParallel(boolean netTick) {
+        List<Callable<Void>> sendTasks = Lists.newArrayListWithCapacity(netClientList.size());
+        PerformanceMonitor.startActivity("Client update - Snapshot");
+        for (Client client : clientList) {
+            if (client instanceof NetClient) {
+                if (netTick) {
+                    NetClient netClient = (NetClient) client;
+                    NetClient.ClientUpdate update = netClient.prepareUpdate();
+                    sendTasks.add(() -> {
+                        long start = System.nanoTime();
+                        netClient.sendUpdate(update);
+                        clientSendNanos.addAndGet(System.nanoTime() - start);
+                        return null;
+                    });
+                }
+            } else {
+                client.update(netTick);
+            }
+        }
+        PerformanceMonitor.endActivity();
+
+        if (!sendTasks.isEmpty()) {
+            PerformanceMonitor.startActivity("Client update - Send");
+            try {
+                for (Future<Void> result : clientUpdatePool.invokeAll(sendTasks)) {
+                    try {
+                        result.get();
+                    } catch (ExecutionException e) {
+                        logger.error("Failed to send update to client", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                PerformanceMonitor.endActivity();
+            }
+            // The summed up time of all workers, compared to the activity it shows how well the sending scales
+            PerformanceMonitor.setGauge("Network - Client Send Time", clientSendNanos.getAndSet(0) / 1000000.0);
+        }
+
+        PerformanceMonitor.startActivity("Client update - Merge");
+        for (Client client : clientList) {
+            if (client instanceof NetClient) {
+                ((NetClient) client).processReceivedMessages();
+            }
+        }
+        PerformanceMonitor.endActivity();
+    }
+
+    private void startClientUpdatePool() {
+        if (config.getClientUpdateThreads() > 0) {
+            clientUpdatePool = new ForkJoinPool(config.getClientUpdateThreads());
+            logger.info("Sending client updates with {} threads", config.getClientUpdateThreads());
+        }
+    }
+
     private void processPendingDisconnects() {
         if (!disconnectedClients.isEmpty()) {
             List<NetClient> removedPlayers = Lists.newArrayListWithExpectedSize(disconnectedClients.size());
@@ -371,6 +476,27 @@ NetClient getNetOwner(EntityRef entity) {
         return null;
     }
 
+    /**
+     * @return the cache of encoded chunks that is shared between all clients of this server.
+     */
+    ChunkPayloadCache getChunkPayloadCache() {
+        return chunkPayloadCache;
+    }
+
+    /**
+     * @return the cache of entity updates that is shared between all clients during a network tick.
+     */
+    EntityUpdateCache getEntityUpdateCache() {
+        return entityUpdateCache;
+    }
+
+    /**
+     * @return the interest manager that decides which entities are relevant for the clients of this server.
+     */
+    InterestManager getInterestManager() {
+        return interestManager;
+    }
+
     public int getBandwidthPerClient() {
         if (netClientList.size() > 0) {
             return config.getUpstreamBandwidth() / netClientList.size();
@@ -426,8 +552,11 @@ public void registerNetworkEntity(EntityRef entity) {
                     }
                     break;
                 default:
+                    if (interestManager.isManaged(entity)) {
+                        // Becomes relevant once the interest manager finds it near a client
+                        break;
+                    }
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
                         client.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
@@ -564,6 +693,7 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
@@ -581,6 +711,7 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
@@ -612,6 +743,7 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
                     if (metadata.isReplicated()) {
+                        entityUpdateCache.invalidate(netComp.getNetworkId());
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
@@ -831,8 +963,9 @@ private void processNewClient(NetClient client) {
                         }
                         break;
                     default:
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComp.getNetworkId());
+                        if (!interestManager.isManaged(netEntity)) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
                         break;
                 }
             }
@@ -995,6 +1128,7 @@ private <T> Map<Class<? extends T>, Integer> applySerializationInfo(List<NetData
      */
     void mockHost() {
         mode = NetworkMode.DEDICATED_SERVER;
+        startClientUpdatePool();
     }
 
     @Override
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.NetData;
+import org.terasology.world.BlockChangeBatch;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.List;
+
+/**
+ * Block changes received for chunks that are not ready yet, in the order they arrived per chunk. Single block changes
+ * are kept as batches of one block, so they get applied in order with the batches around them.
+ */
+final class PendingBlockChanges {
+    private static final int BLOCKS_PER_CHUNK = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+
+    private final ListMultimap<Vector3i, NetData.BlockChangeBatchMessage> changes = ArrayListMultimap.create();
+
+    void add(NetData.BlockChangeMessage change) {
+        Vector3i pos = NetMessageUtil.convert(change.getPos());
+        Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
+        int blockIndex = BlockChangeBatch.toBlockIndex(ChunkMath.calcBlockPosX(pos.x), ChunkMath.calcBlockPosY(pos.y),
+                ChunkMath.calcBlockPosZ(pos.z));
+        changes.put(chunkPos, NetData.BlockChangeBatchMessage.newBuilder()
+                .setChunkPos(NetMessageUtil.convert(chunkPos))
+                .addBlockIndex(blockIndex)
+                .addNewBlock(change.getNewBlock())
+                .build());
+    }
+
+    void add(Vector3i chunkPos, NetData.BlockChangeBatchMessage batch) {
+        changes.put(chunkPos, batch);
+    }
+
+    /**
+     * @return the changes of the chunk in the order they arrived, which are no longer pending afterwards.
+     */
+    List<NetData.BlockChangeBatchMessage> removeAll(Vector3i chunkPos) {
+        return changes.removeAll(chunkPos);
+    }
+
+    /**
+     * @return whether the batch has a chunk position, a new block for every block index and only indices within a chunk.
+     */
+    static boolean isValid(NetData.BlockChangeBatchMessage batch) {
+        if (!batch.hasChunkPos() || batch.getBlockIndexCount() != batch.getNewBlockCount()) {
+            return false;
+        }
+        for (int i = 0; i < batch.getBlockIndexCount(); i++) {
+            int blockIndex = batch.getBlockIndex(i);
+            if (blockIndex < 0 || blockIndex >= BLOCKS_PER_CHUNK) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
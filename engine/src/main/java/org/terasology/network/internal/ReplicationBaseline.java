@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.ByteString;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.terasology.protobuf.EntityData;
+
+/**
+ * Remembers the field values of the entities that got sent to a client, so that entity updates only need to contain
+ * the fields whose values differ from what the client already received.
+ * <br><br>
+ * As the connection delivers all messages reliably and in order, the last sent value of a field is also the value the
+ * client has. Fields the client has never received, e.g. because they matched the prefab when the entity got created,
+ * are always sent. Components that are new to the client are always sent completely.
+ * <br><br>
+ * The reduced updates list the sent fields of each component as a bit mask if all field ids are below 64, which is more
+ * compact than the list of field ids.
+ *
+ */
+class ReplicationBaseline {
+    private static final int MAX_MASKED_FIELD_ID = Long.SIZE - 1;
+
+    private final TIntObjectMap<EntityBaseline> entities = new TIntObjectHashMap<>();
+
+    /**
+     * Replaces the known state of the entity with the state sent to create it on the client.
+     */
+    public void reset(int netId, EntityData.PackedEntity entityData) {
+        EntityBaseline baseline = new EntityBaseline();
+        entities.put(netId, baseline);
+        int fieldPos = 0;
+        for (int componentIndex = 0; componentIndex < entityData.getComponentIdCount(); componentIndex++) {
+            int componentId = entityData.getComponentId(componentIndex);
+            baseline.components.add(componentId);
+            int fieldCount = UnsignedBytes.toInt(entityData.getComponentFieldCounts().byteAt(componentIndex));
+            for (int i = 0; i < fieldCount; i++) {
+                int fieldId = UnsignedBytes.toInt(entityData.getFieldIds().byteAt(fieldPos));
+                baseline.fields.put(fieldKey(componentId, fieldId), entityData.getFieldValue(fieldPos));
+                fieldPos++;
+            }
+        }
+    }
+
+    /**
+     * Forgets the entity, e.g. because it is no longer relevant for the client.
+     */
+    public void remove(int netId) {
+        entities.remove(netId);
+    }
+
+    /**
+     * Records the fields of the update as sent and removes all fields from it that the client already has.
+     *
+     * @param update              an update as created by the entity serializer, listing the field ids of each component.
+     * @param sendUnchangedFields if true all fields of the update get sent, e.g. because the client may have changed
+     *                            them locally.
+     * @return the update to send, or null if the client is already up to date.
+     */
+    public EntityData.PackedEntity reduce(int netId, EntityData.PackedEntity update, boolean sendUnchangedFields) {
+        EntityBaseline baseline = entities.get(netId);
+        if (baseline == null) {
+            baseline = new EntityBaseline();
+            entities.put(netId, baseline);
+        }
+        for (int removedComponent : update.getRemovedComponentList()) {
+            baseline.removeComponent(removedComponent);
+        }
+
+        EntityData.PackedEntity.Builder result = update.toBuilder()
+                .clearComponentId()
+                .clearComponentFieldCounts()
+                .clearFieldIds()
+                .clearFieldValue();
+        boolean maskable = true;
+        for (int i = 0; i < update.getFieldIds().size(); i++) {
+            maskable &= UnsignedBytes.toInt(update.getFieldIds().byteAt(i)) <= MAX_MASKED_FIELD_ID;
+        }
+        ByteString.Output fieldIds = ByteString.newOutput();
+        ByteString.Output componentFieldCounts = ByteString.newOutput();
+        EntityData.Value[] sentValues = new EntityData.Value[Long.SIZE];
+
+        int fieldPos = 0;
+        for (int componentIndex = 0; componentIndex < update.getComponentIdCount(); componentIndex++) {
+            int componentId = update.getComponentId(componentIndex);
+            boolean newComponent = baseline.components.add(componentId);
+            int fieldCount = UnsignedBytes.toInt(update.getComponentFieldCounts().byteAt(componentIndex));
+            long mask = 0;
+            int sentFieldCount = 0;
+            for (int i = 0; i < fieldCount; i++) {
+                int fieldId = UnsignedBytes.toInt(update.getFieldIds().byteAt(fieldPos));
+                EntityData.Value value = update.getFieldValue(fieldPos);
+                EntityData.Value knownValue = baseline.fields.put(fieldKey(componentId, fieldId), value);
+                if (sendUnchangedFields || !value.equals(knownValue)) {
+                    if (maskable) {
+                        mask |= 1L << fieldId;
+                        sentValues[fieldId] = value;
+                    } else {
+                        fieldIds.write(fieldId);
+                        result.addFieldValue(value);
+                    }
+                    sentFieldCount++;
+                }
+                fieldPos++;
+            }
+            if (newComponent || sendUnchangedFields || sentFieldCount > 0) {
+                result.addComponentId(componentId);
+                if (maskable) {
+                    // The field values have to be in the order of the bits of the mask
+                    long remainingFields = mask;
+                    while (remainingFields != 0) {
+                        result.addFieldValue(sentValues[Long.numberOfTrailingZeros(remainingFields)]);
+                        remainingFields &= remainingFields - 1;
+                    }
+                    result.addComponentFieldMask(mask);
+                } else {
+                    componentFieldCounts.write(sentFieldCount);
+                }
+            }
+        }
+
+        if (result.getComponentIdCount() == 0 && result.getRemovedComponentCount() == 0) {
+            return null;
+        }
+        if (!maskable) {
+            result.setFieldIds(fieldIds.toByteString());
+            result.setComponentFieldCounts(componentFieldCounts.toByteString());
+        }
+        return result.build();
+    }
+
+    private static int fieldKey(int componentId, int fieldId) {
+        return (componentId << Byte.SIZE) | fieldId;
+    }
+
+    /**
+     * The components and field values of an entity that the client has received.
+     */
+    private static final class EntityBaseline {
+        private final TIntSet components = new TIntHashSet();
+        private final TIntObjectMap<EntityData.Value> fields = new TIntObjectHashMap<>();
+
+        void removeComponent(int componentId) {
+            components.remove(componentId);
+            fields.retainEntries((key, value) -> (key >>> Byte.SIZE) != componentId);
+        }
+    }
+}
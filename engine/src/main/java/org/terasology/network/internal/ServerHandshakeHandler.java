@@ -29,6 +29,7 @@
 import org.terasology.identity.CertificatePair;
 import org.terasology.identity.IdentityConstants;
 import org.terasology.identity.PublicIdentityCertificate;
+import org.terasology.network.internal.compression.FrameCompression;
 import org.terasology.protobuf.NetData;
 
 import javax.crypto.BadPaddingException;
@@ -39,6 +40,7 @@
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.List;
 
 /**
  * Authentication handler for the server end of the handshake
@@ -105,9 +107,15 @@ private void processClientHandshake(NetData.HandshakeHello clientHello, NetData.
 
         logger.info("Sending server verification");
         byte[] serverSignature = config.getSecurity().getServerPrivateCertificate().sign(signatureData);
+        FrameCompression compression = negotiateCompression(clientHello.getSupportedCompressionList());
+        NetData.HandshakeVerification.Builder verification = NetData.HandshakeVerification.newBuilder()
+                .setSignature(ByteString.copyFrom(serverSignature));
+        if (compression != FrameCompression.ZLIB) {
+            verification.setCompression(compression.getId());
+        }
         ctx.getChannel().write(NetData.NetMessage.newBuilder()
-                .setHandshakeVerification(NetData.HandshakeVerification.newBuilder()
-                        .setSignature(ByteString.copyFrom(serverSignature))).build());
+                .setHandshakeVerification(verification).build());
+        installCompression(compression, ctx);
 
         // Identity has been established, inform the server handler and withdraw from the pipeline
         ctx.getPipeline().remove(this);
@@ -140,10 +148,16 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
                 return;
             }
 
+            FrameCompression compression = negotiateCompression(newIdentityRequest.getSupportedCompressionList());
+            NetData.ProvisionIdentity.Builder provisionIdentity = NetData.ProvisionIdentity.newBuilder()
+                    .setEncryptedCertificates(ByteString.copyFrom(encryptedCert));
+            if (compression != FrameCompression.ZLIB) {
+                provisionIdentity.setCompression(compression.getId());
+            }
             ctx.getChannel().write(NetData.NetMessage.newBuilder()
-                    .setProvisionIdentity(NetData.ProvisionIdentity.newBuilder()
-                            .setEncryptedCertificates(ByteString.copyFrom(encryptedCert)))
+                    .setProvisionIdentity(provisionIdentity)
                     .build());
+            installCompression(compression, ctx);
 
             // Identity has been established, inform the server handler and withdraw from the pipeline
             ctx.getPipeline().remove(this);
@@ -153,4 +167,17 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
             ctx.getChannel().close();
         }
     }
+
+    private FrameCompression negotiateCompression(List<String> supportedCompression) {
+        return FrameCompression.negotiate(config.getNetwork().getFrameCompression(), supportedCompression);
+    }
+
+    /**
+     * Switches to the negotiated compression. Everything written up to now, including the message announcing the
+     * compression, has already passed the old handler.
+     */
+    void installCompression(FrameCompression compression, ChannelHandlerContext ctx) {
+        logger.info("Using {} frame compression", compression.getId());
+        compression.installEncoder(ctx.getPipeline(), config.getNetwork().getFrameCompressionThreshold());
+    }
 }
@@ -49,6 +49,7 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.protobuf.NetData;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.world.BlockChangeBatch;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.biomes.Biome;
@@ -98,7 +99,7 @@ public class ServerImpl implements Server {
     private BlockingQueue<Chunk> chunkQueue = Queues.newLinkedBlockingQueue();
     private TIntSet netDirty = new TIntHashSet();
     private SetMultimap<Integer, Class<? extends Component>> changedComponents = HashMultimap.create();
-    private ListMultimap<Vector3i, NetData.BlockChangeMessage> awaitingChunkReadyBlockUpdates = ArrayListMultimap.create();
+    private PendingBlockChanges awaitingChunkReadyBlockUpdates = new PendingBlockChanges();
     private ListMultimap<Vector3i, NetData.BiomeChangeMessage> awaitingChunkReadyBiomeUpdates = ArrayListMultimap.create();
 
     private EngineTime time;
@@ -267,6 +268,7 @@ private void processMessages() {
             processReceivedChunks(message);
             processInvalidatedChunks(message);
             processBlockChanges(message);
+            processBlockChangeBatches(message);
             processBiomeChanges(message);
             processRemoveEntities(message);
             message.getCreateEntityList().forEach(this::createEntityMessage);
@@ -303,11 +305,37 @@ private void processBlockChanges(NetData.NetMessage message) {
             if (worldProvider.isBlockRelevant(pos)) {
                 worldProvider.setBlock(pos, newBlock);
             } else {
-                awaitingChunkReadyBlockUpdates.put(ChunkMath.calcChunkPos(pos), blockChange);
+                awaitingChunkReadyBlockUpdates.add(blockChange);
             }
         }
     }
 
+    private void processBlockChangeBatches(NetData.NetMessage message) {
+        WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
+        for (NetData.BlockChangeBatchMessage batch : message.getBlockChangeBatchList()) {
+            if (!PendingBlockChanges.isValid(batch)) {
+                logger.warn("Received invalid block change batch with {} indices and {} blocks", batch.getBlockIndexCount(),
+                        batch.getNewBlockCount());
+                continue;
+            }
+            Vector3i chunkPos = NetMessageUtil.convert(batch.getChunkPos());
+            if (worldProvider.isBlockRelevant(BlockChangeBatch.toWorldPos(chunkPos, 0))) {
+                applyBlockChangeBatch(worldProvider, chunkPos, batch);
+            } else {
+                awaitingChunkReadyBlockUpdates.add(chunkPos, batch);
+            }
+        }
+    }
+
+    private void applyBlockChangeBatch(WorldProvider worldProvider, Vector3i chunkPos, NetData.BlockChangeBatchMessage batch) {
+        Map<Vector3i, Block> blocks = Maps.newHashMapWithExpectedSize(batch.getBlockIndexCount());
+        for (int i = 0; i < batch.getBlockIndexCount(); i++) {
+            Block newBlock = blockManager.getBlock((short) batch.getNewBlock(i));
+            blocks.put(BlockChangeBatch.toWorldPos(chunkPos, batch.getBlockIndex(i)), newBlock);
+        }
+        worldProvider.setBlocks(blocks);
+    }
+
     private void processBiomeChanges(NetData.NetMessage message) {
         for (NetData.BiomeChangeMessage biomeChange : message.getBiomeChangeList()) {
             logger.debug("Received block change to {}", blockManager.getBlock((short) biomeChange.getNewBiome()));
@@ -411,11 +439,8 @@ public NetMetricSource getMetrics() {
     public void onChunkReady(Vector3i chunkPos) {
         WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
 
-        List<NetData.BlockChangeMessage> updateBlockMessages = awaitingChunkReadyBlockUpdates.removeAll(chunkPos);
-        for (NetData.BlockChangeMessage message : updateBlockMessages) {
-            Vector3i pos = NetMessageUtil.convert(message.getPos());
-            Block newBlock = blockManager.getBlock((short) message.getNewBlock());
-            worldProvider.setBlock(pos, newBlock);
+        for (NetData.BlockChangeBatchMessage batch : awaitingChunkReadyBlockUpdates.removeAll(chunkPos)) {
+            applyBlockChangeBatch(worldProvider, chunkPos, batch);
         }
 
         List<NetData.BiomeChangeMessage> updateBiomeMessages = awaitingChunkReadyBiomeUpdates.removeAll(chunkPos);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.procedure.TIntProcedure;
+import org.terasology.math.geom.Vector3f;
+
+/**
+ * A uniform grid of network entity positions that allows to find all entities near a point without looking at every
+ * entity.
+ *
+ */
+class SpatialEntityIndex {
+    private static final int CELL_COORDINATE_BITS = 21;
+    private static final long CELL_COORDINATE_MASK = (1L << CELL_COORDINATE_BITS) - 1;
+
+    private final float cellSize;
+    private final TLongObjectMap<TIntList> cells = new TLongObjectHashMap<>();
+    private final TIntObjectMap<Vector3f> positions = new TIntObjectHashMap<>();
+
+    /**
+     * @param cellSize the edge length of the grid cells in blocks.
+     */
+    SpatialEntityIndex(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void add(int netId, Vector3f position) {
+        long cell = cellKey(cellCoordinate(position.x), cellCoordinate(position.y), cellCoordinate(position.z));
+        TIntList entities = cells.get(cell);
+        if (entities == null) {
+            entities = new TIntArrayList();
+            cells.put(cell, entities);
+        }
+        entities.add(netId);
+        positions.put(netId, new Vector3f(position));
+    }
+
+    public void clear() {
+        cells.clear();
+        positions.clear();
+    }
+
+    /**
+     * @return the position of the entity, or null if it is not part of the index.
+     */
+    public Vector3f getPosition(int netId) {
+        return positions.get(netId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Calls the procedure for the network id of every entity within the given distance of the center.
+     */
+    public void forEachInRange(Vector3f center, float distance, TIntProcedure procedure) {
+        float distanceSquared = distance * distance;
+        int minX = cellCoordinate(center.x - distance);
+        int maxX = cellCoordinate(center.x + distance);
+        int minY = cellCoordinate(center.y - distance);
+        int maxY = cellCoordinate(center.y + distance);
+        int minZ = cellCoordinate(center.z - distance);
+        int maxZ = cellCoordinate(center.z + distance);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    TIntList entities = cells.get(cellKey(x, y, z));
+                    if (entities == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < entities.size(); i++) {
+                        int netId = entities.get(i);
+                        if (distanceSquared(positions.get(netId), center) <= distanceSquared) {
+                            procedure.execute(netId);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static float distanceSquared(Vector3f a, Vector3f b) {
+        float dx = a.x - b.x;
+        float dy = a.y - b.y;
+        float dz = a.z - b.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private int cellCoordinate(float value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static long cellKey(int x, int y, int z) {
+        return ((x & CELL_COORDINATE_MASK) << (2 * CELL_COORDINATE_BITS))
+                | ((y & CELL_COORDINATE_MASK) << CELL_COORDINATE_BITS)
+                | (z & CELL_COORDINATE_MASK);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import com.google.protobuf.ByteString;
+import org.terasology.protobuf.EntityData;
+import org.terasology.protobuf.NetData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The preset dictionary of the {@link FrameCompression#LZ_DICTIONARY} compression.
+ * <br><br>
+ * It consists of typical messages the server sends every tick, serialized the same way they appear on the wire. Small
+ * frames such as single entity updates have too little content to find matches within themselves, but the tags and
+ * field layouts they share with these samples can still be compressed.
+ * <br><br>
+ * The dictionary is part of the network protocol: changing it requires a new compression id.
+ *
+ */
+public final class CompressionDictionary {
+
+    private static final byte[] DICTIONARY = create();
+
+    private CompressionDictionary() {
+    }
+
+    /**
+     * @return a copy of the dictionary
+     */
+    public static byte[] get() {
+        return DICTIONARY.clone();
+    }
+
+    private static byte[] create() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            createBlockChanges().writeDelimitedTo(out);
+            createEvent().writeDelimitedTo(out);
+            createEntityCreation().writeDelimitedTo(out);
+            NetData.NetMessage.newBuilder()
+                    .setTime(1000)
+                    .addRemoveEntity(NetData.RemoveEntityMessage.newBuilder().setNetId(10))
+                    .build().writeDelimitedTo(out);
+            // Entity updates are the most frequent messages, so they come last and take precedence in the hash table
+            createEntityUpdates().writeDelimitedTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static NetData.NetMessage createBlockChanges() {
+        NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(1000);
+        for (int i = 0; i < 2; i++) {
+            message.addBlockChange(NetData.BlockChangeMessage.newBuilder()
+                    .setPos(NetData.Vector3iData.newBuilder().setX(i).setY(i + 1).setZ(-i))
+                    .setNewBlock(i));
+        }
+        message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder()
+                .setPos(NetData.Vector3iData.newBuilder().setX(1).setY(0).setZ(-1)));
+        return message.build();
+    }
+
+    private static NetData.NetMessage createEvent() {
+        return NetData.NetMessage.newBuilder()
+                .setTime(1000)
+                .addEvent(NetData.EventMessage.newBuilder()
+                        .setTargetId(10)
+                        .setEvent(EntityData.Event.newBuilder()
+                                .setType(1)
+                                .setFieldIds(ByteString.copyFrom(new byte[]{0, 1}))
+                                .addFieldValue(vector(0.5f, 1.0f, 0.5f))
+                                .addFieldValue(EntityData.Value.newBuilder().addInteger(1))))
+                .build();
+    }
+
+    private static NetData.NetMessage createEntityCreation() {
+        return NetData.NetMessage.newBuilder()
+                .setTime(1000)
+                .addCreateEntity(NetData.CreateEntityMessage.newBuilder()
+                        .setEntity(EntityData.PackedEntity.newBuilder()
+                                .setId(10)
+                                .setParentPrefabUri("engine:player")
+                                .addComponentId(1)
+                                .addComponentId(2)
+                                .setComponentFieldCounts(ByteString.copyFrom(new byte[]{2, 1}))
+                                .setFieldIds(ByteString.copyFrom(new byte[]{0, 1, 0}))
+                                .addFieldValue(vector(0, 1, 0))
+                                .addFieldValue(rotation())
+                                .addFieldValue(EntityData.Value.newBuilder().addBoolean(true))))
+                .build();
+    }
+
+    private static NetData.NetMessage createEntityUpdates() {
+        NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(1000);
+        for (int i = 0; i < 2; i++) {
+            message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder()
+                    .setNetId(10 + i)
+                    .setEntity(EntityData.PackedEntity.newBuilder()
+                            .addComponentId(1)
+                            .addComponentFieldMask(3)
+                            .addFieldValue(vector(i, 1, 0))
+                            .addFieldValue(rotation())));
+        }
+        message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder()
+                .setNetId(12)
+                .setEntity(EntityData.PackedEntity.newBuilder()
+                        .addComponentId(1)
+                        .setComponentFieldCounts(ByteString.copyFrom(new byte[]{1}))
+                        .setFieldIds(ByteString.copyFrom(new byte[]{0}))
+                        .addFieldValue(EntityData.Value.newBuilder().addInteger(1))));
+        return message.build();
+    }
+
+    private static EntityData.Value vector(float x, float y, float z) {
+        return EntityData.Value.newBuilder().addFloat(x).addFloat(y).addFloat(z).build();
+    }
+
+    private static EntityData.Value rotation() {
+        return EntityData.Value.newBuilder().addFloat(0).addFloat(0).addFloat(0).addFloat(1).build();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import com.google.common.collect.Lists;
+import org.jboss.netty.channel.ChannelHandler;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.handler.codec.compression.ZlibDecoder;
+import org.jboss.netty.handler.codec.compression.ZlibEncoder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compression methods for frames sent by the server.
+ * <br><br>
+ * Connections start with {@link #ZLIB}, which every client understands. The client lists the methods it supports in
+ * the handshake and the server replies with the one it picked, after which both ends replace their compression
+ * handler.
+ *
+ */
+public enum FrameCompression {
+    /**
+     * A deflate stream spanning the whole connection
+     */
+    ZLIB("zlib"),
+    /**
+     * {@link LZCodec} compression of single frames
+     */
+    LZ("lz"),
+    /**
+     * {@link LZCodec} compression of single frames, using the {@link CompressionDictionary}
+     */
+    LZ_DICTIONARY("lz-dictionary");
+
+    /**
+     * The name of the compression handler in the server pipeline
+     */
+    public static final String ENCODER_NAME = "compressionEncoder";
+    /**
+     * The name of the compression handler in the client pipeline
+     */
+    public static final String DECODER_NAME = "compressionDecoder";
+
+    private final String id;
+
+    FrameCompression(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the name of the compression used in the handshake
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the compression with the given id, or null if it is unknown
+     */
+    public static FrameCompression forId(String id) {
+        for (FrameCompression compression : values()) {
+            if (compression.id.equals(id)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the ids of all compressions this version can decode
+     */
+    public static List<String> getSupportedIds() {
+        List<String> result = Lists.newArrayList();
+        for (FrameCompression compression : values()) {
+            result.add(compression.id);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @param preferred the id of the compression the server would like to use
+     * @param supported the ids of the compressions the client supports
+     * @return the preferred compression if both ends support it, otherwise {@link #ZLIB}
+     */
+    public static FrameCompression negotiate(String preferred, Collection<String> supported) {
+        FrameCompression compression = forId(preferred);
+        if (compression != null && supported.contains(preferred)) {
+            return compression;
+        }
+        return ZLIB;
+    }
+
+    /**
+     * @param threshold frames smaller than this number of bytes are sent uncompressed, ignored by {@link #ZLIB}
+     */
+    public ChannelHandler createEncoder(int threshold) {
+        switch (this) {
+            case LZ:
+                return new FrameCompressionEncoder(new FrameCompressor(new byte[0], threshold));
+            case LZ_DICTIONARY:
+                return new FrameCompressionEncoder(new FrameCompressor(CompressionDictionary.get(), threshold));
+            default:
+                return new ZlibEncoder();
+        }
+    }
+
+    public ChannelHandler createDecoder() {
+        switch (this) {
+            case LZ:
+                return new FrameCompressionDecoder(new FrameCompressor(new byte[0], 0));
+            case LZ_DICTIONARY:
+                return new FrameCompressionDecoder(new FrameCompressor(CompressionDictionary.get(), 0));
+            default:
+                return new ZlibDecoder();
+        }
+    }
+
+    /**
+     * Replaces the compression handler of a server pipeline. Has to be called from the thread that writes to the
+     * channel, right after the message announcing the compression has been written.
+     */
+    public void installEncoder(ChannelPipeline pipeline, int threshold) {
+        if (this != ZLIB) {
+            pipeline.replace(ENCODER_NAME, ENCODER_NAME, createEncoder(threshold));
+        }
+    }
+
+    /**
+     * Replaces the compression handler of a client pipeline. Has to be called while the message announcing the
+     * compression is processed, so the following frames already reach the new handler.
+     */
+    public void installDecoder(ChannelPipeline pipeline) {
+        if (this != ZLIB) {
+            pipeline.replace(DECODER_NAME, DECODER_NAME, createDecoder());
+        }
+    }
+}
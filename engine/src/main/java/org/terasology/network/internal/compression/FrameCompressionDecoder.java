@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.compression.CompressionException;
+import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * Restores each incoming frame compressed by a {@link FrameCompressionEncoder}.
+ *
+ */
+public class FrameCompressionDecoder extends OneToOneDecoder {
+
+    private final FrameCompressor compressor;
+
+    public FrameCompressionDecoder(FrameCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        ChannelBuffer buffer = (ChannelBuffer) msg;
+        int length = buffer.readableBytes();
+        try {
+            if (buffer.hasArray()) {
+                return ChannelBuffers.wrappedBuffer(
+                        compressor.decompress(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length));
+            }
+            byte[] data = new byte[length];
+            buffer.getBytes(buffer.readerIndex(), data);
+            return ChannelBuffers.wrappedBuffer(compressor.decompress(data, 0, length));
+        } catch (DataFormatException e) {
+            throw new CompressionException("Received corrupt frame", e);
+        }
+    }
+}
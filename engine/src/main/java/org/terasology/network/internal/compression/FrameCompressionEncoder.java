@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+
+/**
+ * Compresses each outgoing frame with a {@link FrameCompressor}.
+ *
+ */
+public class FrameCompressionEncoder extends OneToOneEncoder {
+
+    private final FrameCompressor compressor;
+
+    public FrameCompressionEncoder(FrameCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    @Override
+    protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        ChannelBuffer buffer = (ChannelBuffer) msg;
+        int length = buffer.readableBytes();
+        byte[] frame;
+        if (buffer.hasArray()) {
+            frame = compressor.compress(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+        } else {
+            byte[] data = new byte[length];
+            buffer.getBytes(buffer.readerIndex(), data);
+            frame = compressor.compress(data, 0, length);
+        }
+        return ChannelBuffers.wrappedBuffer(frame);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * Compresses single network frames with an {@link LZCodec}.
+ * <br><br>
+ * Every frame starts with a header byte stating whether it is stored or compressed. Compressed frames continue with
+ * the varint encoded original length, followed by the compressed data. Frames smaller than the threshold, as well as
+ * frames that do not get smaller, are stored, as compressing them costs more time than the saved bytes are worth.
+ * <br><br>
+ * Like the codec, instances are not thread safe.
+ *
+ */
+public final class FrameCompressor {
+
+    static final byte STORED = 0;
+    static final byte COMPRESSED = 1;
+
+    private static final int MAX_VARINT_LENGTH = 5;
+    /**
+     * Upper bound of the ratio between original and compressed length, used to reject corrupt lengths before
+     * allocating the output
+     */
+    private static final int MAX_EXPANSION_FACTOR = 255;
+
+    private final LZCodec codec;
+    private final int threshold;
+    private byte[] buffer = new byte[0];
+
+    /**
+     * @param dictionary the preset dictionary, both ends need to use the same one
+     * @param threshold  frames smaller than this number of bytes are sent uncompressed
+     */
+    public FrameCompressor(byte[] dictionary, int threshold) {
+        this.codec = new LZCodec(dictionary);
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return the frame with header, either compressed or stored
+     */
+    public byte[] compress(byte[] data, int offset, int length) {
+        if (length >= threshold) {
+            int maxLength = 1 + MAX_VARINT_LENGTH + LZCodec.maxCompressedLength(length);
+            if (buffer.length < maxLength) {
+                buffer = new byte[maxLength];
+            }
+            buffer[0] = COMPRESSED;
+            int headerLength = 1 + writeVarint(length, buffer, 1);
+            int compressedLength = codec.compress(data, offset, length, buffer, headerLength);
+            if (headerLength + compressedLength < 1 + length) {
+                byte[] result = new byte[headerLength + compressedLength];
+                System.arraycopy(buffer, 0, result, 0, result.length);
+                return result;
+            }
+        }
+        byte[] result = new byte[1 + length];
+        result[0] = STORED;
+        System.arraycopy(data, offset, result, 1, length);
+        return result;
+    }
+
+    /**
+     * @return the original content of a frame produced by {@link #compress}
+     * @throws DataFormatException if the frame is corrupt
+     */
+    public byte[] decompress(byte[] frame, int offset, int length) throws DataFormatException {
+        if (length < 1) {
+            throw new DataFormatException("Empty frame");
+        }
+        int end = offset + length;
+        switch (frame[offset]) {
+            case STORED: {
+                byte[] result = new byte[length - 1];
+                System.arraycopy(frame, offset + 1, result, 0, result.length);
+                return result;
+            }
+            case COMPRESSED: {
+                int pos = offset + 1;
+                int originalLength = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (pos >= end || shift >= 7 * MAX_VARINT_LENGTH) {
+                        throw new DataFormatException("Invalid frame length");
+                    }
+                    b = frame[pos++];
+                    originalLength |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if (originalLength < 0 || originalLength > (long) (end - pos) * MAX_EXPANSION_FACTOR) {
+                    throw new DataFormatException("Invalid frame length " + originalLength);
+                }
+                byte[] result = new byte[originalLength];
+                codec.decompress(frame, pos, end - pos, result, 0, originalLength);
+                return result;
+            }
+            default:
+                throw new DataFormatException("Unknown frame type " + frame[offset]);
+        }
+    }
+
+    private static int writeVarint(int value, byte[] dest, int offset) {
+        int pos = offset;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            dest[pos++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        dest[pos++] = (byte) remaining;
+        return pos - offset;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * A fast LZ77 block compressor in pure Java, using the block format of LZ4.
+ * <br><br>
+ * A sequence consists of a token byte holding the literal length in the upper and the match length minus four in the
+ * lower four bits, the literals, a two byte little endian match offset and the remaining lengths as runs of 255.
+ * The last sequence only contains literals. Matches may reference an optional preset dictionary, which has to be the
+ * same on both ends.
+ * <br><br>
+ * Instances keep scratch buffers between calls and are therefore not thread safe.
+ *
+ */
+public final class LZCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int RUN_MASK = 15;
+    private static final int HASH_LOG = 12;
+    private static final int SKIP_TRIGGER = 6;
+
+    private final int dictionaryLength;
+    private final int[] dictionaryHashTable = new int[1 << HASH_LOG];
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * The dictionary followed by the data that is currently compressed or decompressed
+     */
+    private byte[] window;
+
+    public LZCodec() {
+        this(new byte[0]);
+    }
+
+    /**
+     * @param dictionary data that matches may reference, only the last 64 KB are used.
+     */
+    public LZCodec(byte[] dictionary) {
+        int start = Math.max(0, dictionary.length - MAX_OFFSET);
+        this.dictionaryLength = dictionary.length - start;
+        this.window = Arrays.copyOfRange(dictionary, start, dictionary.length);
+        Arrays.fill(dictionaryHashTable, -1);
+        for (int i = 0; i + MIN_MATCH <= dictionaryLength; i++) {
+            dictionaryHashTable[hash(readInt(window, i))] = i;
+        }
+    }
+
+    /**
+     * @return the size of the largest possible output of {@link #compress} for the given input length
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the given data.
+     *
+     * @param dest the target array, needs to have room for {@link #maxCompressedLength(int)} bytes
+     * @return the number of bytes written to dest
+     */
+    public int compress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+        byte[] data = prepareWindow(length);
+        System.arraycopy(src, srcOffset, data, dictionaryLength, length);
+        System.arraycopy(dictionaryHashTable, 0, hashTable, 0, hashTable.length);
+
+        int end = dictionaryLength + length;
+        int matchLimit = end - LAST_LITERALS;
+        int matchFindLimit = end - MATCH_FIND_LIMIT;
+        int anchor = dictionaryLength;
+        int pos = dictionaryLength;
+        int out = destOffset;
+
+        while (pos < matchFindLimit) {
+            int value = readInt(data, pos);
+            int hash = hash(value);
+            int ref = hashTable[hash];
+            hashTable[hash] = pos;
+            if (ref < 0 || pos - ref > MAX_OFFSET || readInt(data, ref) != value) {
+                pos += 1 + ((pos - anchor) >>> SKIP_TRIGGER);
+                continue;
+            }
+            while (pos > anchor && ref > 0 && data[pos - 1] == data[ref - 1]) {
+                pos--;
+                ref--;
+            }
+            int matchLength = MIN_MATCH;
+            while (pos + matchLength < matchLimit && data[ref + matchLength] == data[pos + matchLength]) {
+                matchLength++;
+            }
+            out = writeSequence(data, anchor, pos - anchor, pos - ref, matchLength, dest, out);
+            pos += matchLength;
+            anchor = pos;
+            if (pos - 2 < matchFindLimit) {
+                hashTable[hash(readInt(data, pos - 2))] = pos - 2;
+            }
+        }
+        out = writeLiterals(data, anchor, end - anchor, dest, out, 0);
+        return out - destOffset;
+    }
+
+    /**
+     * Decompresses data produced by {@link #compress} with the same dictionary.
+     *
+     * @param length         the length of the compressed data
+     * @param originalLength the length of the data before compression
+     * @throws DataFormatException if the compressed data is corrupt or does not decompress to originalLength bytes
+     */
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset, int originalLength)
+            throws DataFormatException {
+        byte[] data = prepareWindow(originalLength);
+        int in = srcOffset;
+        int srcEnd = srcOffset + length;
+        int out = dictionaryLength;
+        int outEnd = dictionaryLength + originalLength;
+
+        while (true) {
+            if (in >= srcEnd) {
+                throw new DataFormatException("Unexpected end of compressed data");
+            }
+            int token = src[in++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (in >= srcEnd) {
+                        throw new DataFormatException("Unexpected end of compressed data");
+                    }
+                    b = src[in++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > srcEnd - in || literalLength > outEnd - out) {
+                throw new DataFormatException("Literal run exceeds the data bounds");
+            }
+            System.arraycopy(src, in, data, out, literalLength);
+            in += literalLength;
+            out += literalLength;
+            if (in == srcEnd) {
+                break;
+            }
+
+            if (srcEnd - in < 2) {
+                throw new DataFormatException("Unexpected end of compressed data");
+            }
+            int offset = (src[in] & 0xFF) | (src[in + 1] & 0xFF) << 8;
+            in += 2;
+            int ref = out - offset;
+            if (offset == 0 || ref < 0) {
+                throw new DataFormatException("Invalid match offset " + offset);
+            }
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    if (in >= srcEnd) {
+                        throw new DataFormatException("Unexpected end of compressed data");
+                    }
+                    b = src[in++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > outEnd - out) {
+                throw new DataFormatException("Match exceeds the data bounds");
+            }
+            if (offset >= matchLength) {
+                System.arraycopy(data, ref, data, out, matchLength);
+                out += matchLength;
+            } else {
+                // Overlapping match, repeats the last offset bytes
+                for (int i = 0; i < matchLength; i++) {
+                    data[out++] = data[ref++];
+                }
+            }
+        }
+        if (out != outEnd) {
+            throw new DataFormatException("Decompressed " + (out - dictionaryLength) + " instead of " + originalLength + " bytes");
+        }
+        System.arraycopy(data, dictionaryLength, dest, destOffset, originalLength);
+    }
+
+    private byte[] prepareWindow(int length) {
+        if (window.length < dictionaryLength + length) {
+            window = Arrays.copyOf(window, Math.max(dictionaryLength + length, window.length * 2));
+        }
+        return window;
+    }
+
+    private static int writeSequence(byte[] data, int literalStart, int literalLength, int offset, int matchLength,
+                                     byte[] dest, int out) {
+        int matchRun = matchLength - MIN_MATCH;
+        int pos = writeLiterals(data, literalStart, literalLength, dest, out, Math.min(matchRun, RUN_MASK));
+        dest[pos++] = (byte) offset;
+        dest[pos++] = (byte) (offset >>> 8);
+        if (matchRun >= RUN_MASK) {
+            pos = writeRunLength(matchRun - RUN_MASK, dest, pos);
+        }
+        return pos;
+    }
+
+    private static int writeLiterals(byte[] data, int start, int length, byte[] dest, int out, int tokenLowBits) {
+        int pos = out;
+        if (length >= RUN_MASK) {
+            dest[pos++] = (byte) (RUN_MASK << 4 | tokenLowBits);
+            pos = writeRunLength(length - RUN_MASK, dest, pos);
+        } else {
+            dest[pos++] = (byte) (length << 4 | tokenLowBits);
+        }
+        System.arraycopy(data, start, dest, pos, length);
+        return pos + length;
+    }
+
+    private static int writeRunLength(int remaining, byte[] dest, int out) {
+        int pos = out;
+        int value = remaining;
+        while (value >= 255) {
+            dest[pos++] = (byte) 255;
+            value -= 255;
+        }
+        dest[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | data[pos + 3] << 24;
+    }
+
+    private static int hash(int value) {
+        return (value * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
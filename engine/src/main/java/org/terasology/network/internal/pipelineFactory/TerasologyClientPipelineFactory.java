@@ -30,6 +30,7 @@
 import org.terasology.network.internal.JoinStatusImpl;
 import org.terasology.network.internal.MetricRecordingHandler;
 import org.terasology.network.internal.NetworkSystemImpl;
+import org.terasology.network.internal.compression.FrameCompression;
 import org.terasology.protobuf.NetData;
 
 import static org.jboss.netty.channel.Channels.pipeline;
@@ -53,7 +54,7 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler());
 
         p.addLast("lengthFrameDecoder", new LengthFieldBasedFrameDecoder(8388608, 0, 3, 0, 3));
-        p.addLast("inflateDecoder", new ZlibDecoder());
+        p.addLast(FrameCompression.DECODER_NAME, new ZlibDecoder());
         p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
@@ -29,6 +29,7 @@
 import org.terasology.network.internal.ServerConnectionHandler;
 import org.terasology.network.internal.ServerHandler;
 import org.terasology.network.internal.ServerHandshakeHandler;
+import org.terasology.network.internal.compression.FrameCompression;
 import org.terasology.protobuf.NetData;
 
 import static org.jboss.netty.channel.Channels.pipeline;
@@ -54,7 +55,7 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
         p.addLast("frameLengthEncoder", new LengthFieldPrepender(3));
-        p.addLast("deflateEncoder", new ZlibEncoder());
+        p.addLast(FrameCompression.ENCODER_NAME, new ZlibEncoder());
         p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
         p.addLast("protobufEncoder", new ProtobufEncoder());
 
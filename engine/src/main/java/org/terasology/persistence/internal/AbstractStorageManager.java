@@ -65,19 +65,22 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final EngineEntityManager entityManager;
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
+    private final RegionFileCache regionFileCache;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageMode chunkStorageMode = ChunkStorageMode.ZIPS;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
+                                  BlockManager blockManager, BiomeManager biomeManager,
+                                  ChunkStorageMode chunkStorageMode, boolean readOnly) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.regionFileCache = new RegionFileCache(storagePathProvider, readOnly);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
     }
 
@@ -140,30 +143,59 @@ public void update() {
     }
 
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStorageMode == ChunkStorageMode.ZIPS;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        setChunkStorageMode(ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public ChunkStorageMode getChunkStorageMode() {
+        return chunkStorageMode;
+    }
+
+    /**
+     * For tests only
+     */
+    void setChunkStorageMode(ChunkStorageMode chunkStorageMode) {
+        this.chunkStorageMode = chunkStorageMode;
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
+        if (chunkStorageMode == ChunkStorageMode.ZIPS) {
             return loadChunkZip(chunkPos);
-        } else {
-            Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
-            if (Files.isRegularFile(chunkPath)) {
-                try {
-                    return Files.readAllBytes(chunkPath);
-                } catch (IOException e) {
-                    logger.error("Failed to load chunk {}", chunkPos, e);
+        } else if (chunkStorageMode == ChunkStorageMode.REGION_FILES) {
+            try {
+                byte[] chunkData = regionFileCache.readChunk(chunkPos);
+                if (chunkData != null) {
+                    return chunkData;
                 }
+            } catch (IOException e) {
+                logger.error("Failed to load chunk {} from its region file", chunkPos, e);
             }
+            // Saves that have not been migrated yet (e.g. opened read only) still keep their chunks in the old layout
+            byte[] legacyChunkData = loadChunkZip(chunkPos);
+            if (legacyChunkData != null) {
+                return legacyChunkData;
+            }
+            return loadChunkFile(chunkPos);
+        } else {
+            return loadChunkFile(chunkPos);
         }
+    }
 
+    private byte[] loadChunkFile(Vector3i chunkPos) {
+        Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
+        if (Files.isRegularFile(chunkPath)) {
+            try {
+                return Files.readAllBytes(chunkPath);
+            } catch (IOException e) {
+                logger.error("Failed to load chunk {}", chunkPos, e);
+            }
+        }
         return null;
     }
 
@@ -213,6 +245,10 @@ protected void deactivateOrDestroyEntityRecursive(EntityRef entity) {
         }
     }
 
+    protected RegionFileCache getRegionFileCache() {
+        return regionFileCache;
+    }
+
     protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
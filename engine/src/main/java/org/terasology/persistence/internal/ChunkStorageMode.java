@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+/**
+ * Describes how the chunks of a world get stored on disk.
+ *
+ */
+public enum ChunkStorageMode {
+    /**
+     * Every chunk is stored in its own file.
+     */
+    SEPARATE_FILES,
+    /**
+     * Chunks are grouped in zip files of 32x32x32 chunks. Modifying a single chunk rewrites the whole zip.
+     */
+    ZIPS,
+    /**
+     * Chunks are grouped in {@link RegionFile}s of 32x32 chunks per chunk layer, which get updated in place.
+     */
+    REGION_FILES;
+
+    public static ChunkStorageMode fromStoreChunksInZips(boolean storeChunksInZips) {
+        return storeChunksInZips ? ZIPS : SEPARATE_FILES;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Writes the chunks of a save transaction into the directory of unfinished save transaction files.
+ * <br><br>
+ * The chunks get encoded and compressed in parallel first. Afterwards every target file (region patch, chunk zip or
+ * chunk file) gets written by its own task. This method returns only after all files have been written completely, so
+ * the save transaction can still only be committed after all of its chunks reached the disk.
+ *
+ */
+class ChunkStoreWriter {
+    private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
+    private static final int MAX_THREADS = 8;
+
+    private final StoragePathProvider storagePathProvider;
+    private final ChunkStorageMode chunkStorageMode;
+    private final int parallelism;
+
+    ChunkStoreWriter(StoragePathProvider storagePathProvider, ChunkStorageMode chunkStorageMode) {
+        this(storagePathProvider, chunkStorageMode, getDefaultParallelism());
+    }
+
+    ChunkStoreWriter(StoragePathProvider storagePathProvider, ChunkStorageMode chunkStorageMode, int parallelism) {
+        this.storagePathProvider = storagePathProvider;
+        this.chunkStorageMode = chunkStorageMode;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the number of threads used to save chunks, leaving one processor for the main thread.
+     */
+    static int getDefaultParallelism() {
+        return Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @return the number of bytes of the encoded and compressed chunks.
+     */
+    public long write(Map<Vector3i, CompressedChunkBuilder> chunks) throws IOException {
+        Files.createDirectories(storagePathProvider.getWorldTempPath());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Callable<Void>> encoders = Lists.newArrayListWithCapacity(chunks.size());
+            for (CompressedChunkBuilder chunk : chunks.values()) {
+                encoders.add(() -> {
+                    chunk.buildEncodedChunk();
+                    return null;
+                });
+            }
+            invokeAll(pool, encoders);
+            long encodedBytes = 0;
+            for (CompressedChunkBuilder chunk : chunks.values()) {
+                encodedBytes += chunk.buildEncodedChunk().length;
+            }
+
+            List<Callable<Void>> writers;
+            if (chunkStorageMode == ChunkStorageMode.REGION_FILES) {
+                writers = createRegionPatchWriters(chunks);
+            } else if (chunkStorageMode == ChunkStorageMode.ZIPS) {
+                writers = createChunkZipWriters(chunks);
+            } else {
+                writers = createChunkFileWriters(chunks);
+            }
+            invokeAll(pool, writers);
+            return encodedBytes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates one writer per modified region. The region files themselves get only modified when the changes get
+     * merged, so that an interrupted save transaction leaves them untouched.
+     */
+    private List<Callable<Void>> createRegionPatchWriters(Map<Vector3i, CompressedChunkBuilder> chunks) {
+        Map<Vector3i, List<Vector3i>> chunksByRegion = Maps.newHashMap();
+        for (Vector3i chunkPos : chunks.keySet()) {
+            Vector3i regionPos = storagePathProvider.getRegionPosition(chunkPos);
+            chunksByRegion.computeIfAbsent(regionPos, k -> Lists.newArrayList()).add(chunkPos);
+        }
+        List<Callable<Void>> writers = Lists.newArrayList();
+        for (Map.Entry<Vector3i, List<Vector3i>> regionEntry : chunksByRegion.entrySet()) {
+            writers.add(() -> {
+                Path patchPath = storagePathProvider.getRegionPatchTempPath(regionEntry.getKey());
+                try (DataOutputStream out = RegionFileCache.openPatch(patchPath)) {
+                    for (Vector3i chunkPos : regionEntry.getValue()) {
+                        RegionFileCache.writePatchEntry(out, chunkPos, chunks.get(chunkPos).buildEncodedChunk());
+                    }
+                }
+                return null;
+            });
+        }
+        return writers;
+    }
+
+    private List<Callable<Void>> createChunkZipWriters(Map<Vector3i, CompressedChunkBuilder> chunks) {
+        Map<Vector3i, List<Vector3i>> chunksByZip = Maps.newHashMap();
+        for (Vector3i chunkPos : chunks.keySet()) {
+            Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
+            chunksByZip.computeIfAbsent(chunkZipPos, k -> Lists.newArrayList()).add(chunkPos);
+        }
+        List<Callable<Void>> writers = Lists.newArrayList();
+        for (Map.Entry<Vector3i, List<Vector3i>> zipEntry : chunksByZip.entrySet()) {
+            writers.add(() -> {
+                writeChunkZip(zipEntry.getKey(), zipEntry.getValue(), chunks);
+                return null;
+            });
+        }
+        return writers;
+    }
+
+    private void writeChunkZip(Vector3i chunkZipPos, List<Vector3i> chunkPositions,
+                               Map<Vector3i, CompressedChunkBuilder> chunks) throws IOException {
+        Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
+        Files.deleteIfExists(targetPath);
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS)) {
+            for (Vector3i chunkPos : chunkPositions) {
+                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
+                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                    bos.write(chunks.get(chunkPos).buildEncodedChunk());
+                }
+            }
+            // Copy existing, unmodified content into the zip
+            Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+            if (Files.isRegularFile(oldChunkZipPath)) {
+                try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
+                    for (Path root : oldZip.getRootDirectories()) {
+                        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                            @Override
+                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                                    throws IOException {
+                                if (!Files.isRegularFile(zip.getPath(file.toString()))) {
+                                    Files.copy(file, zip.getPath(file.toString()));
+                                }
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Callable<Void>> createChunkFileWriters(Map<Vector3i, CompressedChunkBuilder> chunks) {
+        List<Callable<Void>> writers = Lists.newArrayListWithCapacity(chunks.size());
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : chunks.entrySet()) {
+            writers.add(() -> {
+                Path chunkPath = storagePathProvider.getChunkTempPath(entry.getKey());
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                    out.write(entry.getValue().buildEncodedChunk());
+                }
+                return null;
+            });
+        }
+        return writers;
+    }
+
+    /**
+     * Runs all tasks and waits till every one of them finished, even if some of them failed.
+     */
+    private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws IOException {
+        for (Future<Void> result : pool.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing chunks", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Failed to write chunks", cause);
+            }
+        }
+    }
+}
@@ -72,6 +72,19 @@ public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chun
         this.viaSnapshot = viaSnapshot;
     }
 
+    /**
+     * @param entitiesToSave all persistent entities within the given chunk
+     * @param chunk          chunk for which {@link ChunkImpl#createSnapshot()} has already been called.
+     */
+    public static CompressedChunkBuilder createForSnapshot(EngineEntityManager entityManager, ChunkImpl chunk,
+                                                           Collection<EntityRef> entitiesToSave) {
+        EntityStorer storer = new EntityStorer(entityManager);
+        entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
+        CompressedChunkBuilder builder = new CompressedChunkBuilder(storer.finaliseStore(), chunk, true);
+        builder.storedEntities = storer.getStoredEntities();
+        return builder;
+    }
+
     public synchronized byte[] buildEncodedChunk() {
         if (result == null) {
 
@@ -41,12 +41,19 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, biomeManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, BiomeManager biomeManager,
+                                  ChunkStorageMode chunkStorageMode) {
+        super(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode, true);
     }
 
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        getRegionFileCache().closeAll();
     }
 
     @Override
@@ -121,14 +121,21 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
 
     public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                    BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) throws IOException {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, biomeManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, BiomeManager biomeManager,
+                                   ChunkStorageMode chunkStorageMode) throws IOException {
+        super(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode, false);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
-        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider(), getRegionFileCache());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
@@ -148,6 +155,7 @@ private static EngineEntityManager createPrivateEntityManager(ComponentLibrary c
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        getRegionFileCache().closeAll();
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -158,6 +166,8 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
                 if (t != null) {
                     throw new RuntimeException("Saving failed", t);
                 }
+                PerformanceMonitor.setGauge("Saving - Chunk Entities Serialized", saveTransaction.getSavedChunkEntities());
+                PerformanceMonitor.setGauge("Saving - Chunk Bytes Written", saveTransaction.getSavedChunkBytes());
                 saveTransaction = null;
             }
             unloadedAndSavingChunkMap.clear();
@@ -212,11 +222,18 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             unsavedEntryIterator.remove();
         }
 
+        boolean incremental = config.getSystem().isIncrementalSavingEnabled();
         chunkProvider.getAllChunks().stream().filter(ManagedChunk::isReady).forEach(chunk -> {
             // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
             unloadedAndSavingChunkMap.remove(chunk.getPosition());
             ChunkImpl chunkImpl = (ChunkImpl) chunk;  // this storage manager can only work with ChunkImpls
-            saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            if (incremental) {
+                // Taken together with the swap of the entity delta recorder, so that the save is one point in time
+                chunkImpl.createSnapshot();
+                saveTransactionBuilder.addSnapshotChunk(chunk.getPosition(), chunkImpl);
+            } else {
+                saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            }
         });
 
         for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
@@ -245,7 +262,8 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock);
+                entitySetDeltaRecorder, getChunkStorageMode(), getStoragePathProvider(), saveTransactionHelper,
+                worldDirectoryWriteLock);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -465,6 +483,11 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
         }
+        if (getChunkStorageMode() == ChunkStorageMode.REGION_FILES
+                && RegionFileMigration.isMigrationNecessary(getStoragePathProvider())) {
+            logger.info("Migrating chunks of save game into region files");
+            RegionFileMigration.migrate(getStoragePathProvider(), getRegionFileCache());
+        }
     }
 
 
@@ -475,6 +498,7 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        getRegionFileCache().closeAll();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
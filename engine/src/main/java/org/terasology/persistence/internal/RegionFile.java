@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Stores the compressed chunks of a {@link #REGION_DIM}x{@link #REGION_DIM} area of chunks in a single file.
+ * <br><br>
+ * The file is split into sectors of {@link #SECTOR_SIZE} bytes. The first sectors contain a header with one entry
+ * per chunk, consisting of the index of the first sector of the chunk and the length of the chunk data in bytes.
+ * A chunk that still fits into its previously allocated sectors gets overwritten in place, otherwise it gets moved to
+ * the first free run of sectors that is large enough. The chunk data gets written before its header entry, so an
+ * interrupted write leaves at worst the chunk being written in an undefined state.
+ * <br><br>
+ * Reads are served from a {@link MappedByteBuffer} of the whole file, which gets remapped when the file grows.
+ *
+ */
+public class RegionFile implements Closeable {
+    public static final int REGION_DIM = 32;
+    public static final int SECTOR_SIZE = 4096;
+
+    private static final int CHUNKS_PER_REGION = REGION_DIM * REGION_DIM;
+    private static final int HEADER_ENTRY_SIZE = 8;
+    private static final int HEADER_SECTORS = (CHUNKS_PER_REGION * HEADER_ENTRY_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private final int[] sectorOffsets = new int[CHUNKS_PER_REGION];
+    private final int[] lengths = new int[CHUNKS_PER_REGION];
+    private final BitSet usedSectors = new BitSet();
+    private int sectorCount;
+    private MappedByteBuffer mappedFile;
+
+    public RegionFile(Path path, boolean readOnly) throws IOException {
+        this.readOnly = readOnly;
+        if (readOnly) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE);
+        }
+        try {
+            if (channel.size() < HEADER_SECTORS * SECTOR_SIZE) {
+                if (readOnly) {
+                    throw new IOException("Region file " + path + " has no valid header");
+                }
+                channel.write(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE), 0);
+            }
+            readHeader();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(CHUNKS_PER_REGION * HEADER_ENTRY_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Unexpected end of region file header");
+            }
+        }
+        header.flip();
+        sectorCount = (int) ((channel.size() + SECTOR_SIZE - 1) / SECTOR_SIZE);
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+            int offset = header.getInt();
+            int length = header.getInt();
+            int sectors = sectorsFor(length);
+            if (length > 0 && offset >= HEADER_SECTORS && offset + sectors <= sectorCount) {
+                sectorOffsets[i] = offset;
+                lengths[i] = length;
+                usedSectors.set(offset, offset + sectors);
+            }
+        }
+    }
+
+    /**
+     * @param localX x position of the chunk within this region, in the range [0, {@link #REGION_DIM})
+     * @param localZ z position of the chunk within this region, in the range [0, {@link #REGION_DIM})
+     * @return the stored data of the chunk or null if the chunk is not stored in this region.
+     */
+    public synchronized byte[] read(int localX, int localZ) throws IOException {
+        int index = getIndex(localX, localZ);
+        int length = lengths[index];
+        if (length == 0) {
+            return null;
+        }
+        if (mappedFile == null) {
+            mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer view = mappedFile.duplicate();
+        view.position(sectorOffsets[index] * SECTOR_SIZE);
+        byte[] data = new byte[length];
+        view.get(data);
+        return data;
+    }
+
+    /**
+     * Stores the given data as the chunk at the specified position, replacing the previously stored data.
+     */
+    public synchronized void write(int localX, int localZ, byte[] data) throws IOException {
+        if (readOnly) {
+            throw new IOException("Region file has been opened read only");
+        }
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Chunk data must not be empty");
+        }
+        int index = getIndex(localX, localZ);
+        int oldOffset = sectorOffsets[index];
+        int oldSectors = sectorsFor(lengths[index]);
+        int newSectors = sectorsFor(data.length);
+
+        int offset;
+        if (oldSectors >= newSectors) {
+            offset = oldOffset;
+            usedSectors.clear(oldOffset + newSectors, oldOffset + oldSectors);
+        } else {
+            if (oldSectors > 0) {
+                usedSectors.clear(oldOffset, oldOffset + oldSectors);
+            }
+            offset = allocate(newSectors);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = (long) offset * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        if (offset + newSectors > sectorCount) {
+            sectorCount = offset + newSectors;
+            // Pad the last sector so that the file length is always a multiple of the sector size:
+            long fileEnd = (long) sectorCount * SECTOR_SIZE;
+            if (channel.size() < fileEnd) {
+                channel.write(ByteBuffer.allocate(1), fileEnd - 1);
+            }
+            mappedFile = null;
+        }
+
+        sectorOffsets[index] = offset;
+        lengths[index] = data.length;
+        ByteBuffer entry = ByteBuffer.allocate(HEADER_ENTRY_SIZE);
+        entry.putInt(offset);
+        entry.putInt(data.length);
+        entry.flip();
+        channel.write(entry, (long) index * HEADER_ENTRY_SIZE);
+    }
+
+    /**
+     * Ensures that all previous writes have reached the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        if (!readOnly) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mappedFile = null;
+        channel.close();
+    }
+
+    private int allocate(int sectors) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (start < sectorCount) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= sectors) {
+                break;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+        usedSectors.set(start, start + sectors);
+        return start;
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    private static int getIndex(int localX, int localZ) {
+        if (localX < 0 || localX >= REGION_DIM || localZ < 0 || localZ >= REGION_DIM) {
+            throw new IllegalArgumentException("Chunk position " + localX + ", " + localZ + " is outside of the region");
+        }
+        return localX + REGION_DIM * localZ;
+    }
+}
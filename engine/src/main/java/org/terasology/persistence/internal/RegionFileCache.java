@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a bounded number of {@link RegionFile}s open, so that loading and saving chunks of the same region does not
+ * need to reopen the file every time.
+ * <br><br>
+ * Save transactions do not modify region files directly. They write a region patch per modified region instead,
+ * which contains the new data of all modified chunks of that region. The patches get applied when the changes get
+ * merged into the save game. Applying a patch is idempotent, so an interrupted merge can simply be repeated.
+ *
+ */
+public class RegionFileCache {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileCache.class);
+    private static final int MAX_OPEN_REGIONS = 64;
+
+    private final StoragePathProvider storagePathProvider;
+    private final boolean readOnly;
+    private final Map<Vector3i, RegionFile> openRegions = new LinkedHashMap<Vector3i, RegionFile>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Vector3i, RegionFile> eldest) {
+            if (size() > MAX_OPEN_REGIONS) {
+                closeRegion(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public RegionFileCache(StoragePathProvider storagePathProvider, boolean readOnly) {
+        this.storagePathProvider = storagePathProvider;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @return the stored data of the chunk or null if the chunk has not been stored yet.
+     */
+    public synchronized byte[] readChunk(Vector3i chunkPos) throws IOException {
+        Vector3i regionPos = storagePathProvider.getRegionPosition(chunkPos);
+        RegionFile region = getRegion(regionPos, false);
+        if (region == null) {
+            return null;
+        }
+        return region.read(chunkPos.x - regionPos.x * RegionFile.REGION_DIM,
+                chunkPos.z - regionPos.z * RegionFile.REGION_DIM);
+    }
+
+    public synchronized void writeChunk(Vector3i chunkPos, byte[] data) throws IOException {
+        Vector3i regionPos = storagePathProvider.getRegionPosition(chunkPos);
+        RegionFile region = getRegion(regionPos, true);
+        region.write(chunkPos.x - regionPos.x * RegionFile.REGION_DIM,
+                chunkPos.z - regionPos.z * RegionFile.REGION_DIM, data);
+    }
+
+    /**
+     * Writes all chunks contained in the given region patch into their region files and makes sure they reached
+     * the disk.
+     */
+    public synchronized void applyPatch(Path patchPath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(patchPath)))) {
+            while (true) {
+                Vector3i chunkPos;
+                try {
+                    chunkPos = new Vector3i(in.readInt(), in.readInt(), in.readInt());
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                writeChunk(chunkPos, data);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Appends a chunk to a region patch, in the format read by {@link #applyPatch(Path)}.
+     */
+    public static void writePatchEntry(DataOutputStream out, Vector3i chunkPos, byte[] data) throws IOException {
+        out.writeInt(chunkPos.x);
+        out.writeInt(chunkPos.y);
+        out.writeInt(chunkPos.z);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    public static DataOutputStream openPatch(Path patchPath) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(patchPath)));
+    }
+
+    public synchronized void flush() throws IOException {
+        for (RegionFile region : openRegions.values()) {
+            region.flush();
+        }
+    }
+
+    /**
+     * Closes all open region files. Needs to be called before region files get deleted or replaced.
+     */
+    public synchronized void closeAll() {
+        openRegions.values().forEach(this::closeRegion);
+        openRegions.clear();
+    }
+
+    private RegionFile getRegion(Vector3i regionPos, boolean create) throws IOException {
+        RegionFile region = openRegions.get(regionPos);
+        if (region == null) {
+            Path path = storagePathProvider.getRegionPath(regionPos);
+            if (!create && !Files.isRegularFile(path)) {
+                return null;
+            }
+            if (create) {
+                Files.createDirectories(path.getParent());
+            }
+            region = new RegionFile(path, readOnly);
+            openRegions.put(regionPos, region);
+        }
+        return region;
+    }
+
+    private void closeRegion(RegionFile region) {
+        try {
+            region.flush();
+            region.close();
+        } catch (IOException e) {
+            logger.error("Failed to close region file", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts the chunks of a save game that got stored as separate files or in zip files into {@link RegionFile}s.
+ * <br><br>
+ * The old files get only deleted after all chunks have been written to the region files. Chunks that are already
+ * present in a region file are considered newer and do not get overwritten, so the migration can be repeated after
+ * an interruption.
+ * <br><br>
+ * Can be run standalone with the path of a save game as argument, e.g. {@code saves/MyWorld}.
+ *
+ */
+public final class RegionFileMigration {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileMigration.class);
+    private static final Pattern CHUNK_FILE_PATTERN = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunk");
+    private static final Pattern CHUNK_ZIP_PATTERN = Pattern.compile("-?\\d+\\.-?\\d+\\.-?\\d+\\.chunks\\.zip");
+
+    private RegionFileMigration() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            logger.error("Usage: RegionFileMigration <save game directory>");
+            return;
+        }
+        StoragePathProvider storagePathProvider = new StoragePathProvider(Paths.get(args[0]));
+        RegionFileCache regionFileCache = new RegionFileCache(storagePathProvider, false);
+        try {
+            int migratedChunks = migrate(storagePathProvider, regionFileCache);
+            logger.info("Migrated {} chunks into region files", migratedChunks);
+        } finally {
+            regionFileCache.closeAll();
+        }
+    }
+
+    /**
+     * @return true if the world directory contains chunks that are not stored in region files.
+     */
+    public static boolean isMigrationNecessary(StoragePathProvider storagePathProvider) throws IOException {
+        return !listLegacyChunkFiles(storagePathProvider.getWorldPath()).isEmpty();
+    }
+
+    /**
+     * Moves all separately stored or zipped chunks of the world into region files.
+     *
+     * @return the number of chunks that got written into region files.
+     */
+    public static int migrate(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache)
+            throws IOException {
+        List<Path> legacyFiles = listLegacyChunkFiles(storagePathProvider.getWorldPath());
+        int migratedChunks = 0;
+        for (Path legacyFile : legacyFiles) {
+            String filename = legacyFile.getFileName().toString();
+            if (CHUNK_ZIP_PATTERN.matcher(filename).matches()) {
+                try (FileSystem chunkZip = FileSystems.newFileSystem(legacyFile, null)) {
+                    for (Path root : chunkZip.getRootDirectories()) {
+                        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                            for (Path entry : entries) {
+                                if (migrateChunk(entry, regionFileCache)) {
+                                    migratedChunks++;
+                                }
+                            }
+                        }
+                    }
+                }
+            } else if (migrateChunk(legacyFile, regionFileCache)) {
+                migratedChunks++;
+            }
+        }
+        regionFileCache.flush();
+        for (Path legacyFile : legacyFiles) {
+            Files.delete(legacyFile);
+        }
+        logger.info("Migrated {} chunks from {} files into region files", migratedChunks, legacyFiles.size());
+        return migratedChunks;
+    }
+
+    private static boolean migrateChunk(Path chunkFile, RegionFileCache regionFileCache) throws IOException {
+        Vector3i chunkPos = parseChunkPosition(chunkFile.getFileName().toString());
+        if (chunkPos == null || regionFileCache.readChunk(chunkPos) != null) {
+            return false;
+        }
+        regionFileCache.writeChunk(chunkPos, Files.readAllBytes(chunkFile));
+        return true;
+    }
+
+    private static Vector3i parseChunkPosition(String filename) {
+        Matcher matcher = CHUNK_FILE_PATTERN.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Vector3i(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
+    }
+
+    private static List<Path> listLegacyChunkFiles(Path worldPath) throws IOException {
+        List<Path> result = Lists.newArrayList();
+        if (!Files.isDirectory(worldPath)) {
+            return result;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path path : stream) {
+                String filename = path.getFileName().toString();
+                if (Files.isRegularFile(path) && (CHUNK_FILE_PATTERN.matcher(filename).matches()
+                        || CHUNK_ZIP_PATTERN.matcher(filename).matches())) {
+                    result.add(path);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.terasology.persistence.internal;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
@@ -36,17 +35,11 @@
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.URI;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AtomicMoveNotSupportedException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -64,7 +57,6 @@
 public class SaveTransaction extends AbstractTask {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransaction.class);
 
-    private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
     private final GameManifest gameManifest;
     private final Lock worldDirectoryWriteLock;
     private final EngineEntityManager privateEntityManager;
@@ -76,6 +68,7 @@ public class SaveTransaction extends AbstractTask {
     private final Map<String, PlayerStoreBuilder> loadedPlayers;
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
     private final Map<Vector3i, ChunkImpl> loadedChunks;
+    private final Map<Vector3i, ChunkImpl> snapshotChunks;
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
@@ -83,9 +76,13 @@ public class SaveTransaction extends AbstractTask {
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
 
+    // statistics, read by the main thread once the result is available:
+    private volatile int savedChunkEntities;
+    private volatile long savedChunkBytes;
+
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
@@ -96,19 +93,22 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock) {
+                           Map<Vector3i, ChunkImpl> snapshotChunks,
+                           GameManifest gameManifest, ChunkStorageMode chunkStorageMode,
+                           StoragePathProvider storagePathProvider, SaveTransactionHelper saveTransactionHelper,
+                           Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
         this.loadedPlayers = loadedPlayers;
         this.unloadedChunks = unloadedChunks;
         this.loadedChunks = loadedChunks;
+        this.snapshotChunks = snapshotChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = saveTransactionHelper;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -180,6 +180,17 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
+        for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : snapshotChunks.entrySet()) {
+            Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
+            if (entitiesToStore == null) {
+                entitiesToStore = Collections.emptySet();
+            }
+            unsavedEntities.removeAll(entitiesToStore);
+            CompressedChunkBuilder compressedChunkBuilder = CompressedChunkBuilder.createForSnapshot(
+                    privateEntityManager, chunkEntry.getValue(), entitiesToStore);
+            unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
+            allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+        }
     }
 
     /**
@@ -346,61 +357,14 @@ private void writeGlobalStore() throws IOException {
     }
 
     private void writeChunkStores() throws IOException {
-        Path chunksPath = storagePathProvider.getWorldTempPath();
-        Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
-            Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
-                }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    bos.write(compressedChunk);
-                }
-            }
-            // Copy existing, unmodified content into the zips and close them
-            for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
-                Vector3i chunkZipPos = chunkZipEntry.getKey();
-                Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-                final FileSystem zip = chunkZipEntry.getValue();
-                if (Files.isRegularFile(oldChunkZipPath)) {
-                    try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
-                        for (Path root : oldZip.getRootDirectories()) {
-                            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-                                @Override
-                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                        throws IOException {
-                                    if (!Files.isRegularFile(zip.getPath(file.toString()))) {
-                                        Files.copy(file, zip.getPath(file.toString()));
-                                    }
-                                    return FileVisitResult.CONTINUE;
-                                }
-                            });
-                        }
-                    }
-                }
-                zip.close();
-            }
-        } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
-                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    out.write(compressedChunk);
-                }
+        int chunkEntities = 0;
+        for (CompressedChunkBuilder chunk : allChunks.values()) {
+            if (chunk.getStoredEntities() != null) {
+                chunkEntities += chunk.getStoredEntities().size();
             }
         }
+        savedChunkEntities = chunkEntities;
+        savedChunkBytes = new ChunkStoreWriter(storagePathProvider, chunkStorageMode).write(allChunks);
     }
 
     /**
@@ -411,6 +375,20 @@ public SaveTransactionResult getResult() {
         return result;
     }
 
+    /**
+     * @return the number of entities that got stored in chunks.
+     */
+    public int getSavedChunkEntities() {
+        return savedChunkEntities;
+    }
+
+    /**
+     * @return the number of bytes of the encoded and compressed chunks.
+     */
+    public long getSavedChunkBytes() {
+        return savedChunkBytes;
+    }
+
     private void saveGameManifest() {
         try {
             Path path = storagePathProvider.getGameManifestTempPath();
@@ -37,18 +37,21 @@ class SaveTransactionBuilder {
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
+    private Map<Vector3i, ChunkImpl> snapshotChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
     private final StoragePathProvider storagePathProvider;
+    private final SaveTransactionHelper saveTransactionHelper;
     private GameManifest gameManifest;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock) {
+                           ChunkStorageMode chunkStorageMode, StoragePathProvider storagePathProvider,
+                           SaveTransactionHelper saveTransactionHelper, Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.storagePathProvider = storagePathProvider;
+        this.saveTransactionHelper = saveTransactionHelper;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -73,10 +76,17 @@ public void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk)
         loadedChunks.put(chunkPosition, chunk);
     }
 
+    /**
+     * @param chunk loaded chunk for which {@link ChunkImpl#createSnapshot()} has been called when the save started.
+     */
+    public void addSnapshotChunk(final Vector3i chunkPosition, final ChunkImpl chunk) {
+        snapshotChunks.put(chunkPosition, chunk);
+    }
+
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock);
+                unloadedChunks, loadedChunks, snapshotChunks, gameManifest, chunkStorageMode,
+                storagePathProvider, saveTransactionHelper, worldDirectoryWriteLock);
 
     }
 
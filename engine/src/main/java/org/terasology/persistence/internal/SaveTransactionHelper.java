@@ -35,9 +35,15 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
 
-    public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+    /**
+     * @param regionFileCache cache used to apply region patches, should be the one used for loading chunks so that no
+     *                        outdated region data remains cached.
+     */
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -64,6 +70,8 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
      * Merges all outstanding changes into the save game. If this operation gets interrupted it can be started again
      * without any file corruption when the file system supports atomic moves.
      * <br><br>
+     * Region patches do not get moved but applied to their region files and deleted afterwards.
+     * <br><br>
      * The write lock for the save directory should be acquired before this method gets called.
      */
     public void mergeChanges() throws IOException {
@@ -84,6 +92,11 @@ public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes
 
             @Override
             public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) throws IOException {
+                if (storagePathProvider.isRegionPatch(sourcePath)) {
+                    regionFileCache.applyPatch(sourcePath);
+                    Files.delete(sourcePath);
+                    return FileVisitResult.CONTINUE;
+                }
                 Path targetPath = targetDirectory.resolve(sourceDirectory.relativize(sourcePath));
                 try {
                     // Delete file, as behavior of atomic move is undefined if target file exists:
@@ -31,6 +31,8 @@ public class StoragePathProvider {
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
     private static final int CHUNK_ZIP_DIM = 32;
+    private static final String REGION_EXTENSION = ".region";
+    private static final String REGION_PATCH_EXTENSION = ".regionpatch";
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -122,6 +124,31 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    /**
+     * @return the position of the {@link RegionFile} that contains the chunk. Regions span
+     * {@link RegionFile#REGION_DIM} chunks along the x and z axis and a single chunk along the y axis.
+     */
+    public Vector3i getRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, RegionFile.REGION_DIM), chunkPos.y,
+                Math.floorDiv(chunkPos.z, RegionFile.REGION_DIM));
+    }
+
+    public Path getRegionPath(Vector3i regionPos) {
+        return worldPath.resolve(getRegionFilename(regionPos, REGION_EXTENSION));
+    }
+
+    public Path getRegionPatchTempPath(Vector3i regionPos) {
+        return getWorldTempPath().resolve(getRegionFilename(regionPos, REGION_PATCH_EXTENSION));
+    }
+
+    public boolean isRegionPatch(Path path) {
+        return path.getFileName().toString().endsWith(REGION_PATCH_EXTENSION);
+    }
+
+    private String getRegionFilename(Vector3i pos, String extension) {
+        return String.format("%d.%d.%d%s", pos.x, pos.y, pos.z, extension);
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -34,6 +34,7 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.network.Quantized;
 import org.terasology.persistence.typeHandling.PersistedData;
 import org.terasology.persistence.typeHandling.Serializer;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
@@ -160,7 +161,7 @@ private void serializeComponentDelta(Component oldComponent, Component newCompon
                     PersistedData data = serializer.serializeValue(field, newValue, serializationContext);
                     if (!data.isNull()) {
                         entityFieldIds.write(field.getId());
-                        entityData.addFieldValue(((ProtobufPersistedData) data).getValue());
+                        entityData.addFieldValue(quantize(field, ((ProtobufPersistedData) data).getValue()));
                         fieldCount++;
                     } else {
                         logger.error("Exception serializing component type: {}, field: {} - returned null", componentMetadata, field);
@@ -191,7 +192,7 @@ private void serializeComponentFull(Component component, boolean ignoreIfNoField
                 PersistedData fieldValue = serializer.serialize(field, component, serializationContext);
                 entityFieldIds.write(field.getId());
 
-                entityData.addFieldValue(((ProtobufPersistedData) fieldValue).getValue());
+                entityData.addFieldValue(quantize(field, ((ProtobufPersistedData) fieldValue).getValue()));
                 fieldCount++;
             }
         }
@@ -207,6 +208,9 @@ public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedE
     }
 
     public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedEntity entityData, FieldSerializeCheck<Component> fieldCheck) {
+        if (entityData.getComponentFieldMaskCount() > 0) {
+            entityData = expandFieldMasks(entityData);
+        }
         int fieldPos = 0;
         for (int componentIndex = 0; componentIndex < entityData.getComponentIdCount(); ++componentIndex) {
             Integer componentId = entityData.getComponentId(componentIndex);
@@ -234,7 +238,8 @@ public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedE
                 ReplicatedFieldMetadata fieldMetadata = metadata.getField(fieldId);
                 if (fieldMetadata != null && fieldCheck.shouldDeserialize(metadata, fieldMetadata)) {
                     logger.trace("Deserializing field {} of component {} as value {}", fieldMetadata, metadata, entityData.getFieldValue(fieldPos));
-                    serializer.deserializeOnto(component, fieldMetadata, new ProtobufPersistedData(entityData.getFieldValue(fieldPos)), deserializationContext);
+                    EntityData.Value value = dequantize(fieldMetadata, entityData.getFieldValue(fieldPos));
+                    serializer.deserializeOnto(component, fieldMetadata, new ProtobufPersistedData(value), deserializationContext);
                 }
                 fieldPos++;
             }
@@ -255,6 +260,63 @@ public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedE
         }
     }
 
+    /**
+     * Converts the field masks of an entity update into the list of field ids and the field count per component.
+     */
+    static EntityData.PackedEntity expandFieldMasks(EntityData.PackedEntity entityData) {
+        ByteString.Output fieldIds = ByteString.newOutput();
+        ByteString.Output componentFieldCounts = ByteString.newOutput();
+        for (long mask : entityData.getComponentFieldMaskList()) {
+            componentFieldCounts.write(Long.bitCount(mask));
+            long remainingFields = mask;
+            while (remainingFields != 0) {
+                fieldIds.write(Long.numberOfTrailingZeros(remainingFields));
+                remainingFields &= remainingFields - 1;
+            }
+        }
+        return entityData.toBuilder()
+                .clearComponentFieldMask()
+                .setFieldIds(fieldIds.toByteString())
+                .setComponentFieldCounts(componentFieldCounts.toByteString())
+                .build();
+    }
+
+    /**
+     * Replaces the floats of a quantized field by integer multiples of its step. Values with a component that is too
+     * large for an int multiple, or that isn't finite, are left as floats, which {@link #dequantize} passes through.
+     */
+    private static EntityData.Value quantize(ReplicatedFieldMetadata<?, ?> field, EntityData.Value value) {
+        Quantized quantization = field.getQuantization();
+        if (quantization == null || value.getFloatCount() == 0) {
+            return value;
+        }
+        int[] steps = new int[value.getFloatCount()];
+        for (int i = 0; i < steps.length; i++) {
+            float steppedValue = value.getFloat(i) / quantization.step();
+            if (!(Math.abs(steppedValue) < Integer.MAX_VALUE)) {
+                return value;
+            }
+            steps[i] = Math.round(steppedValue);
+        }
+        EntityData.Value.Builder result = value.toBuilder().clearFloat();
+        for (int step : steps) {
+            result.addInteger(step);
+        }
+        return result.build();
+    }
+
+    private static EntityData.Value dequantize(ReplicatedFieldMetadata<?, ?> field, EntityData.Value value) {
+        Quantized quantization = field.getQuantization();
+        if (quantization == null || value.getIntegerCount() == 0) {
+            return value;
+        }
+        EntityData.Value.Builder result = value.toBuilder().clearInteger();
+        for (int integerValue : value.getIntegerList()) {
+            result.addFloat(integerValue * quantization.step());
+        }
+        return result.build();
+    }
+
     public EntityRef deserialize(EntityData.PackedEntity entityData) {
         EntityBuilder target;
         if (entityData.hasParentPrefabUri()) {
@@ -69,6 +69,7 @@
 import org.terasology.physics.engine.CharacterCollider;
 import org.terasology.physics.engine.PhysicsEngine;
 import org.terasology.physics.engine.PhysicsSystem;
+import org.terasology.physics.engine.RayTraceRequest;
 import org.terasology.physics.engine.RigidBody;
 import org.terasology.physics.components.shapes.BoxShapeComponent;
 import org.terasology.physics.components.shapes.CapsuleShapeComponent;
@@ -78,6 +79,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkProvider;
 
 import javax.vecmath.Matrix3f;
 import javax.vecmath.Matrix4f;
@@ -86,11 +88,16 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Physics engine implementation using TeraBullet (a customised version of JBullet).
@@ -99,6 +106,13 @@ public class BulletPhysics implements PhysicsEngine {
 
     private static final Logger logger = LoggerFactory.getLogger(BulletPhysics.class);
 
+    /**
+     * Batches with fewer rays get traced on the calling thread, handing them over would take longer than tracing them.
+     */
+    private static final int MIN_PARALLEL_RAYS = 64;
+    private static final int RAYS_PER_TASK = 32;
+    private static final int MAX_RAY_TRACE_THREADS = 4;
+
     private final Deque<RigidBodyRequest> insertionQueue = Lists.newLinkedList();
     private final Deque<BulletRigidBody> removalQueue = Lists.newLinkedList();
 
@@ -111,11 +125,26 @@ public class BulletPhysics implements PhysicsEngine {
     private final PhysicsWorldWrapper wrapper;
     private final PhysicsLiquidWrapper liquidWrapper;
     private Map<EntityRef, BulletRigidBody> entityRigidBodies = Maps.newHashMap();
+    /**
+     * Rigid bodies removed from the simulation, with the collision groups to add them back with.
+     */
+    private final Map<EntityRef, RigidBodyRequest> frozenRigidBodies = Maps.newHashMap();
     private Map<EntityRef, BulletCharacterMoverCollider> entityColliders = Maps.newHashMap();
     private Map<EntityRef, PairCachingGhostObject> entityTriggers = Maps.newHashMap();
     private List<PhysicsSystem.CollisionPair> collisions = new ArrayList<>();
+    private final ForkJoinPool rayTracePool =
+            new ForkJoinPool(Math.max(1, Math.min(MAX_RAY_TRACE_THREADS, Runtime.getRuntime().availableProcessors() - 1)));
 
     public BulletPhysics(WorldProvider world) {
+        this(world, null);
+    }
+
+    /**
+     * @param world         the world the bodies collide with
+     * @param chunkProvider the chunk provider of the world, to read the blocks colliding with bodies straight from the
+     *                      chunks. May be null.
+     */
+    public BulletPhysics(WorldProvider world, ChunkProvider chunkProvider) {
         broadphase = new DbvtBroadphase();
         broadphase.getOverlappingPairCache().setInternalGhostPairCallback(new GhostPairCallback());
         CollisionConfiguration defaultCollisionConfiguration = new DefaultCollisionConfiguration();
@@ -125,7 +154,7 @@ public BulletPhysics(WorldProvider world) {
         discreteDynamicsWorld.setGravity(new Vector3f(0f, -15f, 0f));
         blockEntityRegistry = CoreRegistry.get(BlockEntityRegistry.class);
 
-        wrapper = new PhysicsWorldWrapper(world);
+        wrapper = new PhysicsWorldWrapper(world, chunkProvider);
         VoxelWorldShape worldShape = new VoxelWorldShape(wrapper);
 
         liquidWrapper = new PhysicsLiquidWrapper(world);
@@ -158,6 +187,8 @@ public List<PhysicsSystem.CollisionPair> getCollisionPairs() {
 
     @Override
     public void dispose() {
+        rayTracePool.shutdown();
+        frozenRigidBodies.clear();
         discreteDynamicsWorld.destroy();
         wrapper.dispose();
         liquidWrapper.dispose();
@@ -213,11 +244,6 @@ public HitResult rayTrace(org.terasology.math.geom.Vector3f from1, org.terasolog
         if (excludedEntities == null) {
             return rayTrace(from1, direction, distance, collisionGroups);
         }
-        Vector3f to = new Vector3f(VecMath.to(direction));
-        Vector3f from = VecMath.to(from1);
-        to.scale(distance);
-        to.add(from);
-
         short filter = combineGroups(collisionGroups);
 
         // lookup all the collision item ids for these entities
@@ -234,12 +260,73 @@ public HitResult rayTrace(org.terasology.math.geom.Vector3f from1, org.terasolog
             }
         }
 
+        CollisionWorld.ClosestRayResultWithUserDataCallback closest = createRayCallback(from1, direction, distance, excludedCollisionIds, filter);
+        discreteDynamicsWorld.rayTest(closest.rayFromWorld, closest.rayToWorld, closest);
+        return toHitResult(closest);
+    }
+
+    /**
+     * Traces the rays on the ray trace threads if there are enough of them. Bullet only reads the bodies and the voxel
+     * world while tracing, so the rays can be traced in parallel while the calling thread waits. The hits get
+     * resolved into entities on the calling thread afterwards.
+     */
+    @Override
+    public List<HitResult> rayTrace(List<RayTraceRequest> rays, CollisionGroup... collisionGroups) {
+        short filter = combineGroups(collisionGroups);
+        List<CollisionWorld.ClosestRayResultWithUserDataCallback> callbacks = new ArrayList<>(rays.size());
+        for (RayTraceRequest ray : rays) {
+            callbacks.add(createRayCallback(ray.getFrom(), ray.getDirection(), ray.getDistance(), Collections.emptySet(), filter));
+        }
+
+        if (callbacks.size() < MIN_PARALLEL_RAYS) {
+            for (CollisionWorld.ClosestRayResultWithUserDataCallback callback : callbacks) {
+                discreteDynamicsWorld.rayTest(callback.rayFromWorld, callback.rayToWorld, callback);
+            }
+        } else {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (List<CollisionWorld.ClosestRayResultWithUserDataCallback> partition : Lists.partition(callbacks, RAYS_PER_TASK)) {
+                tasks.add(() -> {
+                    for (CollisionWorld.ClosestRayResultWithUserDataCallback callback : partition) {
+                        discreteDynamicsWorld.rayTest(callback.rayFromWorld, callback.rayToWorld, callback);
+                    }
+                    return null;
+                });
+            }
+            try {
+                for (Future<Void> result : rayTracePool.invokeAll(tasks)) {
+                    try {
+                        result.get();
+                    } catch (ExecutionException e) {
+                        logger.error("Error tracing rays.", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<HitResult> results = new ArrayList<>(callbacks.size());
+        for (CollisionWorld.ClosestRayResultWithUserDataCallback callback : callbacks) {
+            results.add(toHitResult(callback));
+        }
+        return results;
+    }
+
+    private CollisionWorld.ClosestRayResultWithUserDataCallback createRayCallback(org.terasology.math.geom.Vector3f from1, org.terasology.math.geom.Vector3f direction,
+                                                                                  float distance, Set<Integer> excludedCollisionIds, short filter) {
+        Vector3f to = new Vector3f(VecMath.to(direction));
+        Vector3f from = VecMath.to(from1);
+        to.scale(distance);
+        to.add(from);
+
         CollisionWorld.ClosestRayResultWithUserDataCallback closest =
                 new ClosestRayResultWithUserDataCallbackExcludingCollisionIds(from, to, excludedCollisionIds);
         closest.collisionFilterGroup = CollisionFilterGroups.ALL_FILTER;
         closest.collisionFilterMask = filter;
+        return closest;
+    }
 
-        discreteDynamicsWorld.rayTest(from, to, closest);
+    private HitResult toHitResult(CollisionWorld.ClosestRayResultWithUserDataCallback closest) {
         if (closest.hasHit()) {
             if (closest.userData instanceof Vector3i) { //We hit a world block
                 final EntityRef entityAt = blockEntityRegistry.getEntityAt((Vector3i) closest.userData);
@@ -264,6 +351,7 @@ public HitResult rayTrace(org.terasology.math.geom.Vector3f from1, org.terasolog
     public void update(float delta) {
         processQueuedBodies();
         applyPendingImpulsesAndForces();
+        wrapper.beginStep();
         try {
             PerformanceMonitor.startActivity("Step Simulation");
             if (discreteDynamicsWorld.stepSimulation(delta, 8) != 0) {
@@ -276,10 +364,16 @@ public void update(float delta) {
             logger.error("Error running simulation step.", e);
         }
         collisions.addAll(getNewCollisionPairs());
+        PerformanceMonitor.setGauge("Physics - Active Rigid Bodies", entityRigidBodies.size());
+        PerformanceMonitor.setGauge("Physics - Frozen Rigid Bodies", frozenRigidBodies.size());
     }
 
     @Override
     public boolean removeRigidBody(EntityRef entity) {
+        if (frozenRigidBodies.remove(entity) != null) {
+            // Already out of the simulation, nothing around it to wake up
+            return true;
+        }
         BulletRigidBody rigidBody = entityRigidBodies.remove(entity);
         if (rigidBody != null) {
             removeRigidBody(rigidBody);
@@ -298,6 +392,7 @@ public boolean removeRigidBody(EntityRef entity) {
     public boolean updateRigidBody(EntityRef entity) {
         LocationComponent location = entity.getComponent(LocationComponent.class);
         RigidBodyComponent rb = entity.getComponent(RigidBodyComponent.class);
+        thawRigidBody(entity, false);
         BulletRigidBody rigidBody = entityRigidBodies.get(entity);
 
         if (location == null) {
@@ -336,11 +431,13 @@ public boolean updateRigidBody(EntityRef entity) {
 
     @Override
     public boolean hasRigidBody(EntityRef entity) {
-        return entityRigidBodies.containsKey(entity);
+        return entityRigidBodies.containsKey(entity) || frozenRigidBodies.containsKey(entity);
     }
 
     @Override
     public RigidBody getRigidBody(EntityRef entity) {
+        // Whoever asks for a frozen body is about to push it around, so it has to be simulated
+        thawRigidBody(entity, true);
         RigidBody rb = entityRigidBodies.get(entity);
         if (rb == null) {
             rb = newRigidBody(entity);
@@ -435,6 +532,78 @@ public void awakenArea(org.terasology.math.geom.Vector3f pos, float radius) {
         Vector3f max = new Vector3f(VecMath.to(pos));
         max.add(new Vector3f(0.6f, 0.6f, 0.6f));
         discreteDynamicsWorld.awakenRigidBodiesInArea(min, max);
+
+        if (!frozenRigidBodies.isEmpty()) {
+            float extent = Math.max(radius, 0.6f);
+            AABB area = AABB.createCenterExtent(pos, new org.terasology.math.geom.Vector3f(extent, extent, extent));
+            org.terasology.math.geom.Vector3f location = new org.terasology.math.geom.Vector3f();
+            for (EntityRef entity : Lists.newArrayList(frozenRigidBodies.keySet())) {
+                if (area.contains(frozenRigidBodies.get(entity).body.getLocation(location))) {
+                    thawRigidBody(entity, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bodies woken up by {@link #awakenArea} outside of the active areas stay in the simulation until they fall asleep.
+     */
+    @Override
+    public void updateActiveAreas(List<AABB> activeAreas) {
+        org.terasology.math.geom.Vector3f location = new org.terasology.math.geom.Vector3f();
+        Iterator<Map.Entry<EntityRef, BulletRigidBody>> iterator = entityRigidBodies.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<EntityRef, BulletRigidBody> entry = iterator.next();
+            BulletRigidBody body = entry.getValue();
+            BroadphaseProxy handle = body.rb.getBroadphaseHandle();
+            // Bodies without a handle are still waiting to be added to the simulation
+            if (handle == null || isInside(activeAreas, body.getLocation(location))
+                    || body.awakened && body.rb.isActive()) {
+                continue;
+            }
+            body.awakened = false;
+            frozenRigidBodies.put(entry.getKey(), new RigidBodyRequest(body, handle.collisionFilterGroup, handle.collisionFilterMask));
+            removeRigidBody(body);
+            iterator.remove();
+        }
+
+        if (!frozenRigidBodies.isEmpty()) {
+            for (EntityRef entity : Lists.newArrayList(frozenRigidBodies.keySet())) {
+                if (isInside(activeAreas, frozenRigidBodies.get(entity).body.getLocation(location))) {
+                    thawRigidBody(entity, false);
+                }
+            }
+        }
+    }
+
+    private static boolean isInside(List<AABB> areas, org.terasology.math.geom.Vector3f location) {
+        if (areas.isEmpty()) {
+            return true;
+        }
+        for (AABB area : areas) {
+            if (area.contains(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a frozen rigid body back to the simulation, nothing happens if the body is not frozen.
+     *
+     * @param awakened whether the body got woken up outside of the active areas
+     */
+    private void thawRigidBody(EntityRef entity, boolean awakened) {
+        RigidBodyRequest request = frozenRigidBodies.remove(entity);
+        if (request != null) {
+            // A body frozen during this frame is still part of the simulation
+            if (!removalQueue.remove(request.body)) {
+                insertionQueue.add(request);
+            }
+            request.body.awakened = awakened;
+            request.body.rb.activate();
+            entityRigidBodies.put(entity, request.body);
+        }
     }
 
     @Override
@@ -528,6 +697,7 @@ private RigidBody newRigidBody(EntityRef entity) {
             collider.rb.setRestitution(rigidBody.restitution);
             collider.collidesWith = combineGroups(rigidBody.collidesWith);
             updateKinematicSettings(rigidBody, collider);
+            frozenRigidBodies.remove(entity);
             BulletRigidBody oldBody = entityRigidBodies.put(entity, collider);
             addRigidBody(collider, Lists.<CollisionGroup>newArrayList(rigidBody.collisionGroup), rigidBody.collidesWith);
             if (oldBody != null) {
@@ -782,6 +952,10 @@ private static class BulletRigidBody implements RigidBody {
 
         public final com.bulletphysics.dynamics.RigidBody rb;
         public short collidesWith;
+        /**
+         * Whether the body got woken up outside of the active areas, it stays in the simulation until it falls asleep.
+         */
+        private boolean awakened;
         private final Transform pooledTransform = new Transform();
         private final Vector3f pendingImpulse = new Vector3f();
         private final Vector3f pendingForce = new Vector3f();
@@ -16,54 +16,142 @@
 
 package org.terasology.physics.bullet;
 
+import org.terasology.math.ChunkMath;
 import org.terasology.physics.bullet.shapes.BulletCollisionShape;
 import org.terasology.physics.shapes.CollisionShape;
 import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
 import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
 import org.terasology.math.VecMath;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.Arrays;
 
 /**
  * This class links Terasology's voxel world with the physics engine, providing it with the collision information for each block location.
+ * <br><br>
+ * The collision information of a block does not depend on its position, so it is computed once per block and shared.
+ * Only colliding or blocking voxels get a small per-position wrapper, as Bullet reports their position as user data
+ * of ray and sweep hits. Blocks are read straight from the chunks, which are kept for the duration of a simulation
+ * step.
+ * <br><br>
+ * Batched ray traces query the wrapper from several threads at once while the world does not change. The threads
+ * may race on the caches, which only costs repeated lookups.
  *
  */
 public class PhysicsWorldWrapper implements VoxelPhysicsWorld {
 
+    /**
+     * The number of chunks remembered, enough for an area of 4x2x4 chunks.
+     */
+    private static final int CHUNK_CACHE_SIZE = 32;
+
     private WorldProvider world;
+    private ChunkProvider chunkProvider;
+    private final Chunk[] cachedChunks = new Chunk[CHUNK_CACHE_SIZE];
+    private TeraVoxelInfo[] voxelInfos = new TeraVoxelInfo[0];
 
     public PhysicsWorldWrapper(WorldProvider world) {
+        this(world, null);
+    }
+
+    /**
+     * @param world         the world to provide the collision information of
+     * @param chunkProvider the chunk provider of the world, used to read the blocks straight from the chunks. If null,
+     *                      every block gets read through the world provider.
+     */
+    public PhysicsWorldWrapper(WorldProvider world, ChunkProvider chunkProvider) {
         this.world = world;
+        this.chunkProvider = chunkProvider;
     }
 
     @Override
     public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new TeraVoxelInfo(block, block.isTargetable(), !block.isPenetrable(), new Vector3i(x, y, z));
+        TeraVoxelInfo info = getVoxelInfo(getBlock(x, y, z));
+        if (info.colliding || info.blocking) {
+            return new PositionedVoxelInfo(info, x, y, z);
+        }
+        return info;
+    }
+
+    /**
+     * Forgets the chunks looked up so far. Gets called at the start of each simulation step, so that the wrapper does
+     * not hold on to chunks that got unloaded in the meantime.
+     */
+    public void beginStep() {
+        Arrays.fill(cachedChunks, null);
     }
 
     public void dispose() {
+        beginStep();
         world = null;
+        chunkProvider = null;
+    }
+
+    private Block getBlock(int x, int y, int z) {
+        if (chunkProvider == null) {
+            return world.getBlock(x, y, z);
+        }
+        int chunkX = ChunkMath.calcChunkPosX(x);
+        int chunkY = ChunkMath.calcChunkPosY(y);
+        int chunkZ = ChunkMath.calcChunkPosZ(z);
+        int slot = (chunkX & 3) | (chunkY & 1) << 2 | (chunkZ & 3) << 3;
+        Chunk chunk = cachedChunks[slot];
+        if (chunk == null || chunk.isDisposed() || !isChunkAt(chunk, chunkX, chunkY, chunkZ)) {
+            chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+            if (chunk == null) {
+                // Lets the world provider decide what an unloaded block is
+                return world.getBlock(x, y, z);
+            }
+            cachedChunks[slot] = chunk;
+        }
+        return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+    }
+
+    private static boolean isChunkAt(Chunk chunk, int chunkX, int chunkY, int chunkZ) {
+        Vector3i position = chunk.getPosition();
+        return position.x == chunkX && position.y == chunkY && position.z == chunkZ;
+    }
+
+    private TeraVoxelInfo getVoxelInfo(Block block) {
+        int id = block.getId() & 0xFFFF;
+        // Reads and stores go to the same array, so a concurrent grow can't leave the index out of bounds
+        TeraVoxelInfo[] infos = voxelInfos;
+        if (id >= infos.length) {
+            infos = Arrays.copyOf(infos, Math.max(id + 1, infos.length * 2));
+            voxelInfos = infos;
+        }
+        TeraVoxelInfo info = infos[id];
+        if (info == null || info.block != block) {
+            info = new TeraVoxelInfo(block);
+            infos[id] = info;
+        }
+        return info;
     }
 
+    /**
+     * The collision information of a block, shared by all positions of the block.
+     */
     private static class TeraVoxelInfo implements VoxelInfo {
 
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
-        private float friction;
-        private float restitution;
-
-         TeraVoxelInfo(Block block, boolean colliding, boolean blocking, Vector3i position) {
-            this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
-            this.colliding = shape != null && colliding;
-            this.blocking = shape != null && blocking;
-            this.position = position;
+        private final Block block;
+        private final boolean colliding;
+        private final boolean blocking;
+        private final com.bulletphysics.collision.shapes.CollisionShape shape;
+        private final javax.vecmath.Vector3f offset;
+        private final float friction;
+        private final float restitution;
+
+        TeraVoxelInfo(Block block) {
+            CollisionShape collisionShape = block.getCollisionShape();
+            this.block = block;
+            this.shape = collisionShape != null ? ((BulletCollisionShape) collisionShape).underlyingShape : null;
+            this.offset = block.getCollisionOffset() != null ? VecMath.to(block.getCollisionOffset()) : null;
+            this.colliding = collisionShape != null && block.isTargetable();
+            this.blocking = collisionShape != null && !block.isPenetrable();
             this.friction = block.getFriction();
             this.restitution = block.getRestitution();
         }
@@ -75,17 +163,20 @@ public boolean isColliding() {
 
         @Override
         public Object getUserData() {
-            return position;
+            return null;
         }
 
         @Override
         public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
-            return ((BulletCollisionShape) shape).underlyingShape;
+            return shape;
         }
 
+        /**
+         * @return a copy of the offset, as the caller may modify the vector it gets
+         */
         @Override
         public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
+            return offset != null ? new javax.vecmath.Vector3f(offset) : null;
         }
 
         @Override
@@ -95,7 +186,7 @@ public boolean isBlocking() {
 
         @Override
         public float getFriction() {
-             return friction;
+            return friction;
         }
 
         @Override
@@ -103,4 +194,57 @@ public float getRestitution() {
             return restitution;
         }
     }
+
+    /**
+     * The collision information of a block at a given position, which is the user data of the voxel.
+     */
+    private static class PositionedVoxelInfo implements VoxelInfo {
+
+        private final TeraVoxelInfo info;
+        private final int x;
+        private final int y;
+        private final int z;
+
+        PositionedVoxelInfo(TeraVoxelInfo info, int x, int y, int z) {
+            this.info = info;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        @Override
+        public boolean isColliding() {
+            return info.colliding;
+        }
+
+        @Override
+        public Object getUserData() {
+            return new Vector3i(x, y, z);
+        }
+
+        @Override
+        public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
+            return info.shape;
+        }
+
+        @Override
+        public javax.vecmath.Vector3f getCollisionOffset() {
+            return info.getCollisionOffset();
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return info.blocking;
+        }
+
+        @Override
+        public float getFriction() {
+            return info.friction;
+        }
+
+        @Override
+        public float getRestitution() {
+            return info.restitution;
+        }
+    }
 }
@@ -17,11 +17,14 @@
 package org.terasology.physics.engine;
 
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.AABB;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.physics.CollisionGroup;
+import org.terasology.physics.HitResult;
 import org.terasology.physics.Physics;
 import org.terasology.physics.shapes.CollisionShapeFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -36,12 +39,40 @@ public interface PhysicsEngine extends Physics {
 
     /**
      * Wakes up any rigid bodies that are in a box around the given position.
+     * Frozen rigid bodies in the box get simulated again until they fall asleep.
      *
      * @param pos    The position around which to wake up objects.
      * @param radius the half-length of the sides of the square.
      */
     void awakenArea(Vector3f pos, float radius);
 
+    /**
+     * Freezes the rigid bodies outside of all the given areas. Frozen bodies are removed from the simulation and
+     * are not returned by {@link #physicsEntitiesIterator()}, until an area includes them again or
+     * {@link #awakenArea(Vector3f, float)} is called near them. Asking for the rigid body of a frozen entity also puts
+     * it back into the simulation. If no areas are given, all bodies get simulated.
+     *
+     * @param activeAreas the areas within which rigid bodies get simulated.
+     */
+    void updateActiveAreas(List<AABB> activeAreas);
+
+    /**
+     * Executes a batch of ray traces on the physics engine. Implementations may trace the rays in parallel, the
+     * bodies and the world must not change until the call returns.
+     *
+     * @param rays            the rays to trace
+     * @param collisionGroups the collision groups to collide with. Only if an
+     *                        object of any of these groups is hit it will be registered.
+     * @return one HitResult per ray, in the order of the rays.
+     */
+    default List<HitResult> rayTrace(List<RayTraceRequest> rays, CollisionGroup... collisionGroups) {
+        List<HitResult> results = new ArrayList<>(rays.size());
+        for (RayTraceRequest ray : rays) {
+            results.add(rayTrace(ray.getFrom(), ray.getDirection(), ray.getDistance(), collisionGroups));
+        }
+        return results;
+    }
+
     /**
      * Combines the flags of the given collision groups into a single flag.
      *
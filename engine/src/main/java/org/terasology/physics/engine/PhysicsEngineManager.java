@@ -22,6 +22,7 @@
 import org.terasology.physics.shapes.CollisionShape;
 import org.terasology.physics.shapes.CollisionShapeFactory;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkProvider;
 
 /**
  * Centralizes the various components of the physics engine. To change the physics engine used, this class
@@ -40,6 +41,6 @@ public final class PhysicsEngineManager {
      * @return The created {@link PhysicsEngine} instance.
      */
     public static PhysicsEngine getNewPhysicsEngine(Context context) {
-        return new BulletPhysics(context.get(WorldProvider.class));
+        return new BulletPhysics(context.get(WorldProvider.class), context.get(ChunkProvider.class));
     }
 }
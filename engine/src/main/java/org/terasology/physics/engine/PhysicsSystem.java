@@ -17,6 +17,7 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -31,8 +32,10 @@
 import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.logic.location.LocationResynchEvent;
+import org.terasology.math.AABB;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.NetworkComponent;
 import org.terasology.network.NetworkSystem;
@@ -54,6 +57,8 @@
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockComponent;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
 
 import com.google.common.collect.Lists;
 
@@ -72,8 +77,13 @@ public class PhysicsSystem extends BaseComponentSystem implements UpdateSubscrib
 
     private static final Logger logger = LoggerFactory.getLogger(PhysicsSystem.class);
     private static final long TIME_BETWEEN_NETSYNCS = 500;
+    private static final long TIME_BETWEEN_ACTIVE_AREA_UPDATES = 1000;
     private static final CollisionGroup[] DEFAULT_COLLISION_GROUP = {StandardCollisionGroup.WORLD, StandardCollisionGroup.CHARACTER, StandardCollisionGroup.DEFAULT};
     private static final float COLLISION_DAMPENING_MULTIPLIER = 0.5f;
+    /**
+     * Limits how many penetrable blocks a body can pass through in one frame.
+     */
+    private static final int MAX_IMPACT_RAYS_PER_BODY = 8;
     @In
     private Time time;
     @In
@@ -84,12 +94,18 @@ public class PhysicsSystem extends BaseComponentSystem implements UpdateSubscrib
     private PhysicsEngine physics;
     @In
     private WorldProvider worldProvider;
+    @In
+    private ChunkProvider chunkProvider;
+    @In
+    private Config config;
 
     private long lastNetsync;
+    private long lastActiveAreaUpdate;
 
     @Override
     public void initialise() {
         lastNetsync = 0;
+        lastActiveAreaUpdate = 0;
     }
 
     @ReceiveEvent(components = {RigidBodyComponent.class, LocationComponent.class}, priority = EventPriority.PRIORITY_NORMAL)
@@ -180,60 +196,18 @@ public void onItemImpact(ImpactEvent event, EntityRef entity) {
     @Override
     public void update(float delta) {
 
+        if (time.getGameTimeInMs() - TIME_BETWEEN_ACTIVE_AREA_UPDATES > lastActiveAreaUpdate) {
+            updateActiveAreas();
+            lastActiveAreaUpdate = time.getGameTimeInMs();
+        }
+
         PerformanceMonitor.startActivity("Physics Renderer");
         physics.update(time.getGameDelta());
         PerformanceMonitor.endActivity();
 
-        //Update the velocity from physics engine bodies to Components:
-        Iterator<EntityRef> iter = physics.physicsEntitiesIterator();
-        while (iter.hasNext()) {
-            EntityRef entity = iter.next();
-            RigidBodyComponent comp = entity.getComponent(RigidBodyComponent.class);
-            RigidBody body = physics.getRigidBody(entity);
-
-            if (body.isActive()) {
-                body.getLinearVelocity(comp.velocity);
-                body.getAngularVelocity(comp.angularVelocity);
-
-                Vector3f vLocation = Vector3f.zero();
-                body.getLocation(vLocation);
-
-                Vector3f vDirection = new Vector3f(comp.velocity);
-                float fDistanceThisFrame = vDirection.length();
-                vDirection.normalize();
-
-                fDistanceThisFrame = fDistanceThisFrame * delta;
-
-                while (true) {
-                    HitResult hitInfo = physics.rayTrace(vLocation, vDirection, fDistanceThisFrame + 0.5f, DEFAULT_COLLISION_GROUP);
-                    if (hitInfo.isHit()) {
-                        Block hitBlock = worldProvider.getBlock(hitInfo.getBlockPosition());
-                        if (hitBlock != null) {
-                            Vector3f vTravelledDistance = vLocation.sub(hitInfo.getHitPoint());
-                            float fTravelledDistance  = vTravelledDistance.length();
-                            if (fTravelledDistance > fDistanceThisFrame) {
-                                break;
-                            }
-                            if (hitBlock.isPenetrable()) {
-                                if (!hitInfo.getEntity().hasComponent(BlockComponent.class)) {
-                                    entity.send(new EntityImpactEvent(hitInfo.getHitPoint(), hitInfo.getHitNormal(), comp.velocity, fDistanceThisFrame, hitInfo.getEntity()));
-                                    break;
-                                }
-                                fDistanceThisFrame = fDistanceThisFrame - fTravelledDistance; // decrease the remaining distance to check if we hit a block
-                                vLocation = hitInfo.getHitPoint();
-                            } else {
-                                entity.send(new BlockImpactEvent(hitInfo.getHitPoint(), hitInfo.getHitNormal(), comp.velocity, fDistanceThisFrame, hitInfo.getEntity()));
-                                break;
-                            }
-                        } else {
-                            break;
-                        }
-                    } else  {
-                        break;
-                    }
-                }
-            }
-        }
+        PerformanceMonitor.startActivity("Physics Impacts");
+        detectImpacts(delta);
+        PerformanceMonitor.endActivity();
 
         if (networkSystem.getMode().isServer() && time.getGameTimeInMs() - TIME_BETWEEN_NETSYNCS > lastNetsync) {
             sendSyncMessages();
@@ -262,6 +236,28 @@ public void update(float delta) {
         }
     }
 
+    /**
+     * Restricts the simulation to the rigid bodies within the configured distance of the relevance regions.
+     */
+    private void updateActiveAreas() {
+        int distance = config.getSystem().getRigidBodyActiveDistance();
+        List<AABB> activeAreas = Lists.newArrayList();
+        if (distance > 0 && chunkProvider != null) {
+            for (Vector3i center : chunkProvider.getRelevanceRegionCenters()) {
+                Vector3f min = new Vector3f(
+                        (center.x - distance) * ChunkConstants.SIZE_X,
+                        (center.y - distance) * ChunkConstants.SIZE_Y,
+                        (center.z - distance) * ChunkConstants.SIZE_Z);
+                Vector3f max = new Vector3f(
+                        (center.x + distance + 1) * ChunkConstants.SIZE_X,
+                        (center.y + distance + 1) * ChunkConstants.SIZE_Y,
+                        (center.z + distance + 1) * ChunkConstants.SIZE_Z);
+                activeAreas.add(AABB.createMinMax(min, max));
+            }
+        }
+        physics.updateActiveAreas(activeAreas);
+    }
+
     private short getCollisionGroupFlag(EntityRef entity) {
         CollisionGroup collisionGroup = StandardCollisionGroup.NONE;
         if (entity.hasComponent(TriggerComponent.class)) {
@@ -292,6 +288,60 @@ private short getCollidesWithGroupFlag(EntityRef entity) {
         return flag;
     }
 
+    /**
+     * Updates the velocity of the components from the active rigid bodies and traces the way each of them travels
+     * this frame to detect impacts. The rays of all bodies get traced as one batch. Bodies passing through penetrable
+     * blocks continue with another batch from where they entered the block. The impact events get sent once all rays
+     * are traced.
+     */
+    private void detectImpacts(float delta) {
+        List<ImpactTrace> traces = Lists.newArrayList();
+        Iterator<EntityRef> iter = physics.physicsEntitiesIterator();
+        while (iter.hasNext()) {
+            EntityRef entity = iter.next();
+            RigidBodyComponent comp = entity.getComponent(RigidBodyComponent.class);
+            RigidBody body = physics.getRigidBody(entity);
+
+            if (body.isActive()) {
+                body.getLinearVelocity(comp.velocity);
+                body.getAngularVelocity(comp.angularVelocity);
+
+                float distanceThisFrame = comp.velocity.length() * delta;
+                // Bodies at rest have no direction to trace in
+                if (distanceThisFrame > 0) {
+                    traces.add(new ImpactTrace(entity, comp.velocity, body.getLocation(new Vector3f()), distanceThisFrame));
+                }
+            }
+        }
+
+        int rayCount = 0;
+        List<ImpactTrace> pending = traces;
+        for (int round = 0; round < MAX_IMPACT_RAYS_PER_BODY && !pending.isEmpty(); round++) {
+            List<RayTraceRequest> rays = Lists.newArrayListWithCapacity(pending.size());
+            for (ImpactTrace trace : pending) {
+                rays.add(new RayTraceRequest(trace.location, trace.direction, trace.remainingDistance + 0.5f));
+            }
+            List<HitResult> hits = physics.rayTrace(rays, DEFAULT_COLLISION_GROUP);
+            rayCount += rays.size();
+
+            List<ImpactTrace> continuing = Lists.newArrayList();
+            for (int i = 0; i < pending.size(); i++) {
+                ImpactTrace trace = pending.get(i);
+                if (trace.processHit(hits.get(i))) {
+                    continuing.add(trace);
+                }
+            }
+            pending = continuing;
+        }
+        PerformanceMonitor.setGauge("Physics - Impact Rays Per Step", rayCount);
+
+        for (ImpactTrace trace : traces) {
+            if (trace.impact != null) {
+                trace.entity.send(trace.impact);
+            }
+        }
+    }
+
     private void sendSyncMessages() {
         Iterator<EntityRef> iter = physics.physicsEntitiesIterator();
         while (iter.hasNext()) {
@@ -321,6 +371,54 @@ public void resynchLocation(LocationResynchEvent event, EntityRef entity) {
         body.setTransform(event.getPosition(), event.getRotation());
     }
 
+    /**
+     * The way a rigid body travels this frame, traced ray by ray until it hits something.
+     */
+    private class ImpactTrace {
+        final EntityRef entity;
+        final Vector3f velocity;
+        final Vector3f direction;
+        Vector3f location;
+        float remainingDistance;
+        ImpactEvent impact;
+
+        ImpactTrace(EntityRef entity, Vector3f velocity, Vector3f location, float distance) {
+            this.entity = entity;
+            this.velocity = velocity;
+            this.direction = new Vector3f(velocity).normalize();
+            this.location = location;
+            this.remainingDistance = distance;
+        }
+
+        /**
+         * @return true if the body passes through a penetrable block and the trace continues from there
+         */
+        boolean processHit(HitResult hitInfo) {
+            if (!hitInfo.isHit()) {
+                return false;
+            }
+            Block hitBlock = worldProvider.getBlock(hitInfo.getBlockPosition());
+            if (hitBlock == null) {
+                return false;
+            }
+            float travelledDistance = location.distance(hitInfo.getHitPoint());
+            if (travelledDistance > remainingDistance) {
+                return false;
+            }
+            if (hitBlock.isPenetrable()) {
+                if (!hitInfo.getEntity().hasComponent(BlockComponent.class)) {
+                    impact = new EntityImpactEvent(hitInfo.getHitPoint(), hitInfo.getHitNormal(), velocity, remainingDistance, hitInfo.getEntity());
+                    return false;
+                }
+                remainingDistance = remainingDistance - travelledDistance; // decrease the remaining distance to check if we hit a block
+                location = hitInfo.getHitPoint();
+                return true;
+            }
+            impact = new BlockImpactEvent(hitInfo.getHitPoint(), hitInfo.getHitNormal(), velocity, remainingDistance, hitInfo.getEntity());
+            return false;
+        }
+    }
+
     public static class CollisionPair {
 
         EntityRef a;
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.engine;
+
+import org.terasology.math.geom.Vector3f;
+
+/**
+ * A ray to trace as part of a batch, see {@link PhysicsEngine#rayTrace(java.util.List, org.terasology.physics.CollisionGroup...)}.
+ */
+public final class RayTraceRequest {
+    private final Vector3f from;
+    private final Vector3f direction;
+    private final float distance;
+
+    /**
+     * @param from      place to start tracing
+     * @param direction direction in which to trace
+     * @param distance  maximum distance to trace before giving up
+     */
+    public RayTraceRequest(Vector3f from, Vector3f direction, float distance) {
+        this.from = from;
+        this.direction = direction;
+        this.distance = distance;
+    }
+
+    public Vector3f getFrom() {
+        return from;
+    }
+
+    public Vector3f getDirection() {
+        return direction;
+    }
+
+    public float getDistance() {
+        return distance;
+    }
+}
@@ -5856,6 +5856,31 @@ org.terasology.protobuf.EntityData.ValueOrBuilder getFieldValueOrBuilder(
      */
     long getOwner();
 
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    java.util.List<java.lang.Long> getComponentFieldMaskList();
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    int getComponentFieldMaskCount();
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    long getComponentFieldMask(int index);
+
     /**
      * <code>optional string parentPrefabUri = 16;</code>
      */
@@ -5993,6 +6018,27 @@ private PackedEntity(
               owner_ = input.readInt64();
               break;
             }
+            case 64: {
+              if (!((mutable_bitField0_ & 0x00000080) == 0x00000080)) {
+                componentFieldMask_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000080;
+              }
+              componentFieldMask_.add(input.readUInt64());
+              break;
+            }
+            case 66: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000080) == 0x00000080) && input.getBytesUntilLimit() > 0) {
+                componentFieldMask_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000080;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                componentFieldMask_.add(input.readUInt64());
+              }
+              input.popLimit(limit);
+              break;
+            }
             case 130: {
               com.google.protobuf.ByteString bs = input.readBytes();
               bitField0_ |= 0x00000010;
@@ -6016,6 +6062,9 @@ private PackedEntity(
         if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
           removedComponent_ = java.util.Collections.unmodifiableList(removedComponent_);
         }
+        if (((mutable_bitField0_ & 0x00000080) == 0x00000080)) {
+          componentFieldMask_ = java.util.Collections.unmodifiableList(componentFieldMask_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -6189,6 +6238,41 @@ public long getOwner() {
       return owner_;
     }
 
+    public static final int COMPONENTFIELDMASK_FIELD_NUMBER = 8;
+    private java.util.List<java.lang.Long> componentFieldMask_;
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    public java.util.List<java.lang.Long>
+        getComponentFieldMaskList() {
+      return componentFieldMask_;
+    }
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    public int getComponentFieldMaskCount() {
+      return componentFieldMask_.size();
+    }
+    /**
+     * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+     *
+     * <pre>
+     * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+     * </pre>
+     */
+    public long getComponentFieldMask(int index) {
+      return componentFieldMask_.get(index);
+    }
+    private int componentFieldMaskMemoizedSerializedSize = -1;
+
     public static final int PARENTPREFABURI_FIELD_NUMBER = 16;
     private java.lang.Object parentPrefabUri_;
     /**
@@ -6239,6 +6323,7 @@ private void initFields() {
       fieldValue_ = java.util.Collections.emptyList();
       removedComponent_ = java.util.Collections.emptyList();
       owner_ = 0L;
+      componentFieldMask_ = java.util.Collections.emptyList();
       parentPrefabUri_ = "";
     }
     private byte memoizedIsInitialized = -1;
@@ -6296,6 +6381,13 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         output.writeInt64(7, owner_);
       }
+      if (getComponentFieldMaskList().size() > 0) {
+        output.writeRawVarint32(66);
+        output.writeRawVarint32(componentFieldMaskMemoizedSerializedSize);
+      }
+      for (int i = 0; i < componentFieldMask_.size(); i++) {
+        output.writeUInt64NoTag(componentFieldMask_.get(i));
+      }
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeBytes(16, getParentPrefabUriBytes());
       }
@@ -6357,6 +6449,20 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeInt64Size(7, owner_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < componentFieldMask_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeUInt64SizeNoTag(componentFieldMask_.get(i));
+        }
+        size += dataSize;
+        if (!getComponentFieldMaskList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        componentFieldMaskMemoizedSerializedSize = dataSize;
+      }
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(16, getParentPrefabUriBytes());
@@ -6499,8 +6605,10 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00000020);
         owner_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000040);
-        parentPrefabUri_ = "";
+        componentFieldMask_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000080);
+        parentPrefabUri_ = "";
+        bitField0_ = (bitField0_ & ~0x00000100);
         return this;
       }
 
@@ -6564,7 +6672,12 @@ public org.terasology.protobuf.EntityData.PackedEntity buildPartial() {
           to_bitField0_ |= 0x00000008;
         }
         result.owner_ = owner_;
-        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+        if (((bitField0_ & 0x00000080) == 0x00000080)) {
+          componentFieldMask_ = java.util.Collections.unmodifiableList(componentFieldMask_);
+          bitField0_ = (bitField0_ & ~0x00000080);
+        }
+        result.componentFieldMask_ = componentFieldMask_;
+        if (((from_bitField0_ & 0x00000100) == 0x00000100)) {
           to_bitField0_ |= 0x00000010;
         }
         result.parentPrefabUri_ = parentPrefabUri_;
@@ -6642,8 +6755,18 @@ public Builder mergeFrom(org.terasology.protobuf.EntityData.PackedEntity other)
         if (other.hasOwner()) {
           setOwner(other.getOwner());
         }
+        if (!other.componentFieldMask_.isEmpty()) {
+          if (componentFieldMask_.isEmpty()) {
+            componentFieldMask_ = other.componentFieldMask_;
+            bitField0_ = (bitField0_ & ~0x00000080);
+          } else {
+            ensureComponentFieldMaskIsMutable();
+            componentFieldMask_.addAll(other.componentFieldMask_);
+          }
+          onChanged();
+        }
         if (other.hasParentPrefabUri()) {
-          bitField0_ |= 0x00000080;
+          bitField0_ |= 0x00000100;
           parentPrefabUri_ = other.parentPrefabUri_;
           onChanged();
         }
@@ -7191,12 +7314,106 @@ public Builder clearOwner() {
         return this;
       }
 
+      private java.util.List<java.lang.Long> componentFieldMask_ = java.util.Collections.emptyList();
+      private void ensureComponentFieldMaskIsMutable() {
+        if (!((bitField0_ & 0x00000080) == 0x00000080)) {
+          componentFieldMask_ = new java.util.ArrayList<java.lang.Long>(componentFieldMask_);
+          bitField0_ |= 0x00000080;
+         }
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public java.util.List<java.lang.Long>
+          getComponentFieldMaskList() {
+        return java.util.Collections.unmodifiableList(componentFieldMask_);
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public int getComponentFieldMaskCount() {
+        return componentFieldMask_.size();
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public long getComponentFieldMask(int index) {
+        return componentFieldMask_.get(index);
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public Builder setComponentFieldMask(
+          int index, long value) {
+        ensureComponentFieldMaskIsMutable();
+        componentFieldMask_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public Builder addComponentFieldMask(long value) {
+        ensureComponentFieldMaskIsMutable();
+        componentFieldMask_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public Builder addAllComponentFieldMask(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureComponentFieldMaskIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, componentFieldMask_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated uint64 componentFieldMask = 8 [packed = true];</code>
+       *
+       * <pre>
+       * Replaces componentFieldCounts and fieldIds if present: bit n of a mask is set if field n of the component is sent
+       * </pre>
+       */
+      public Builder clearComponentFieldMask() {
+        componentFieldMask_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000080);
+        onChanged();
+        return this;
+      }
+
       private java.lang.Object parentPrefabUri_ = "";
       /**
        * <code>optional string parentPrefabUri = 16;</code>
        */
       public boolean hasParentPrefabUri() {
-        return ((bitField0_ & 0x00000080) == 0x00000080);
+        return ((bitField0_ & 0x00000100) == 0x00000100);
       }
       /**
        * <code>optional string parentPrefabUri = 16;</code>
@@ -7239,7 +7456,7 @@ public Builder setParentPrefabUri(
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000080;
+  bitField0_ |= 0x00000100;
         parentPrefabUri_ = value;
         onChanged();
         return this;
@@ -7248,7 +7465,7 @@ public Builder setParentPrefabUri(
        * <code>optional string parentPrefabUri = 16;</code>
        */
       public Builder clearParentPrefabUri() {
-        bitField0_ = (bitField0_ & ~0x00000080);
+        bitField0_ = (bitField0_ & ~0x00000100);
         parentPrefabUri_ = getDefaultInstance().getParentPrefabUri();
         onChanged();
         return this;
@@ -7261,7 +7478,7 @@ public Builder setParentPrefabUriBytes(
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000080;
+  bitField0_ |= 0x00000100;
         parentPrefabUri_ = value;
         onChanged();
         return this;
@@ -12030,6 +12247,31 @@ public interface ChunkStoreOrBuilder extends
      * <code>optional .RunLengthEncoding16 biome_data = 12;</code>
      */
     org.terasology.protobuf.EntityData.RunLengthEncoding16OrBuilder getBiomeDataOrBuilder();
+
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    boolean hasPalettedBlockData();
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    org.terasology.protobuf.EntityData.PalettedArray16 getPalettedBlockData();
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    org.terasology.protobuf.EntityData.PalettedArray16OrBuilder getPalettedBlockDataOrBuilder();
   }
   /**
    * Protobuf type {@code ChunkStore}
@@ -12176,6 +12418,19 @@ private ChunkStore(
               bitField0_ |= 0x00000800;
               break;
             }
+            case 106: {
+              org.terasology.protobuf.EntityData.PalettedArray16.Builder subBuilder = null;
+              if (((bitField0_ & 0x00001000) == 0x00001000)) {
+                subBuilder = palettedBlockData_.toBuilder();
+              }
+              palettedBlockData_ = input.readMessage(org.terasology.protobuf.EntityData.PalettedArray16.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(palettedBlockData_);
+                palettedBlockData_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00001000;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -12420,6 +12675,39 @@ public org.terasology.protobuf.EntityData.RunLengthEncoding16OrBuilder getBiomeD
       return biomeData_;
     }
 
+    public static final int PALETTED_BLOCK_DATA_FIELD_NUMBER = 13;
+    private org.terasology.protobuf.EntityData.PalettedArray16 palettedBlockData_;
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    public boolean hasPalettedBlockData() {
+      return ((bitField0_ & 0x00001000) == 0x00001000);
+    }
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    public org.terasology.protobuf.EntityData.PalettedArray16 getPalettedBlockData() {
+      return palettedBlockData_;
+    }
+    /**
+     * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+     *
+     * <pre>
+     * Replaces block_data if the chunk stores its blocks in a palette
+     * </pre>
+     */
+    public org.terasology.protobuf.EntityData.PalettedArray16OrBuilder getPalettedBlockDataOrBuilder() {
+      return palettedBlockData_;
+    }
+
     private void initFields() {
       store_ = org.terasology.protobuf.EntityData.EntityStore.getDefaultInstance();
       x_ = 0;
@@ -12433,6 +12721,7 @@ private void initFields() {
       blockData_ = org.terasology.protobuf.EntityData.RunLengthEncoding16.getDefaultInstance();
       liquidData_ = org.terasology.protobuf.EntityData.RunLengthEncoding8.getDefaultInstance();
       biomeData_ = org.terasology.protobuf.EntityData.RunLengthEncoding16.getDefaultInstance();
+      palettedBlockData_ = org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -12464,6 +12753,12 @@ public final boolean isInitialized() {
           return false;
         }
       }
+      if (hasPalettedBlockData()) {
+        if (!getPalettedBlockData().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       if (!extensionsAreInitialized()) {
         memoizedIsInitialized = 0;
         return false;
@@ -12514,6 +12809,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000800) == 0x00000800)) {
         output.writeMessage(12, biomeData_);
       }
+      if (((bitField0_ & 0x00001000) == 0x00001000)) {
+        output.writeMessage(13, palettedBlockData_);
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -12572,6 +12870,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(12, biomeData_);
       }
+      if (((bitField0_ & 0x00001000) == 0x00001000)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(13, palettedBlockData_);
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -12687,6 +12989,7 @@ private void maybeForceBuilderInitialization() {
           getBlockDataFieldBuilder();
           getLiquidDataFieldBuilder();
           getBiomeDataFieldBuilder();
+          getPalettedBlockDataFieldBuilder();
         }
       }
       private static Builder create() {
@@ -12735,6 +13038,12 @@ public Builder clear() {
           biomeDataBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000800);
+        if (palettedBlockDataBuilder_ == null) {
+          palettedBlockData_ = org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance();
+        } else {
+          palettedBlockDataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
         return this;
       }
 
@@ -12827,6 +13136,14 @@ public org.terasology.protobuf.EntityData.ChunkStore buildPartial() {
         } else {
           result.biomeData_ = biomeDataBuilder_.build();
         }
+        if (((from_bitField0_ & 0x00001000) == 0x00001000)) {
+          to_bitField0_ |= 0x00001000;
+        }
+        if (palettedBlockDataBuilder_ == null) {
+          result.palettedBlockData_ = palettedBlockData_;
+        } else {
+          result.palettedBlockData_ = palettedBlockDataBuilder_.build();
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -12879,6 +13196,9 @@ public Builder mergeFrom(org.terasology.protobuf.EntityData.ChunkStore other) {
         if (other.hasBiomeData()) {
           mergeBiomeData(other.getBiomeData());
         }
+        if (other.hasPalettedBlockData()) {
+          mergePalettedBlockData(other.getPalettedBlockData());
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -12909,6 +13229,12 @@ public final boolean isInitialized() {
             return false;
           }
         }
+        if (hasPalettedBlockData()) {
+          if (!getPalettedBlockData().isInitialized()) {
+            
+            return false;
+          }
+        }
         if (!extensionsAreInitialized()) {
           
           return false;
@@ -13667,58 +13993,210 @@ public org.terasology.protobuf.EntityData.RunLengthEncoding16OrBuilder getBiomeD
         return biomeDataBuilder_;
       }
 
-      // @@protoc_insertion_point(builder_scope:ChunkStore)
-    }
-
-    static {
-      defaultInstance = new ChunkStore(true);
-      defaultInstance.initFields();
-    }
-
-    // @@protoc_insertion_point(class_scope:ChunkStore)
-  }
-
-  public interface RunLengthEncoding16OrBuilder extends
-      // @@protoc_insertion_point(interface_extends:RunLengthEncoding16)
-      com.google.protobuf.GeneratedMessage.
-          ExtendableMessageOrBuilder<RunLengthEncoding16> {
-
-    /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
-     */
-    java.util.List<java.lang.Integer> getRunLengthsList();
-    /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
-     */
-    int getRunLengthsCount();
-    /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
-     */
-    int getRunLengths(int index);
-
-    /**
-     * <code>repeated sint32 values = 2 [packed = true];</code>
-     */
-    java.util.List<java.lang.Integer> getValuesList();
-    /**
-     * <code>repeated sint32 values = 2 [packed = true];</code>
-     */
-    int getValuesCount();
-    /**
-     * <code>repeated sint32 values = 2 [packed = true];</code>
-     */
-    int getValues(int index);
-  }
-  /**
-   * Protobuf type {@code RunLengthEncoding16}
-   */
-  public static final class RunLengthEncoding16 extends
-      com.google.protobuf.GeneratedMessage.ExtendableMessage<
-        RunLengthEncoding16> implements
-      // @@protoc_insertion_point(message_implements:RunLengthEncoding16)
-      RunLengthEncoding16OrBuilder {
-    // Use RunLengthEncoding16.newBuilder() to construct.
-    private RunLengthEncoding16(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.EntityData.RunLengthEncoding16, ?> builder) {
+      private org.terasology.protobuf.EntityData.PalettedArray16 palettedBlockData_ = org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.EntityData.PalettedArray16, org.terasology.protobuf.EntityData.PalettedArray16.Builder, org.terasology.protobuf.EntityData.PalettedArray16OrBuilder> palettedBlockDataBuilder_;
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public boolean hasPalettedBlockData() {
+        return ((bitField0_ & 0x00001000) == 0x00001000);
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public org.terasology.protobuf.EntityData.PalettedArray16 getPalettedBlockData() {
+        if (palettedBlockDataBuilder_ == null) {
+          return palettedBlockData_;
+        } else {
+          return palettedBlockDataBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public Builder setPalettedBlockData(org.terasology.protobuf.EntityData.PalettedArray16 value) {
+        if (palettedBlockDataBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          palettedBlockData_ = value;
+          onChanged();
+        } else {
+          palettedBlockDataBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public Builder setPalettedBlockData(
+          org.terasology.protobuf.EntityData.PalettedArray16.Builder builderForValue) {
+        if (palettedBlockDataBuilder_ == null) {
+          palettedBlockData_ = builderForValue.build();
+          onChanged();
+        } else {
+          palettedBlockDataBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public Builder mergePalettedBlockData(org.terasology.protobuf.EntityData.PalettedArray16 value) {
+        if (palettedBlockDataBuilder_ == null) {
+          if (((bitField0_ & 0x00001000) == 0x00001000) &&
+              palettedBlockData_ != org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance()) {
+            palettedBlockData_ =
+              org.terasology.protobuf.EntityData.PalettedArray16.newBuilder(palettedBlockData_).mergeFrom(value).buildPartial();
+          } else {
+            palettedBlockData_ = value;
+          }
+          onChanged();
+        } else {
+          palettedBlockDataBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public Builder clearPalettedBlockData() {
+        if (palettedBlockDataBuilder_ == null) {
+          palettedBlockData_ = org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance();
+          onChanged();
+        } else {
+          palettedBlockDataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
+        return this;
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public org.terasology.protobuf.EntityData.PalettedArray16.Builder getPalettedBlockDataBuilder() {
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return getPalettedBlockDataFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      public org.terasology.protobuf.EntityData.PalettedArray16OrBuilder getPalettedBlockDataOrBuilder() {
+        if (palettedBlockDataBuilder_ != null) {
+          return palettedBlockDataBuilder_.getMessageOrBuilder();
+        } else {
+          return palettedBlockData_;
+        }
+      }
+      /**
+       * <code>optional .PalettedArray16 paletted_block_data = 13;</code>
+       *
+       * <pre>
+       * Replaces block_data if the chunk stores its blocks in a palette
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.EntityData.PalettedArray16, org.terasology.protobuf.EntityData.PalettedArray16.Builder, org.terasology.protobuf.EntityData.PalettedArray16OrBuilder> 
+          getPalettedBlockDataFieldBuilder() {
+        if (palettedBlockDataBuilder_ == null) {
+          palettedBlockDataBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              org.terasology.protobuf.EntityData.PalettedArray16, org.terasology.protobuf.EntityData.PalettedArray16.Builder, org.terasology.protobuf.EntityData.PalettedArray16OrBuilder>(
+                  getPalettedBlockData(),
+                  getParentForChildren(),
+                  isClean());
+          palettedBlockData_ = null;
+        }
+        return palettedBlockDataBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChunkStore)
+    }
+
+    static {
+      defaultInstance = new ChunkStore(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ChunkStore)
+  }
+
+  public interface RunLengthEncoding16OrBuilder extends
+      // @@protoc_insertion_point(interface_extends:RunLengthEncoding16)
+      com.google.protobuf.GeneratedMessage.
+          ExtendableMessageOrBuilder<RunLengthEncoding16> {
+
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getRunLengthsList();
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    int getRunLengthsCount();
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    int getRunLengths(int index);
+
+    /**
+     * <code>repeated sint32 values = 2 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getValuesList();
+    /**
+     * <code>repeated sint32 values = 2 [packed = true];</code>
+     */
+    int getValuesCount();
+    /**
+     * <code>repeated sint32 values = 2 [packed = true];</code>
+     */
+    int getValues(int index);
+  }
+  /**
+   * Protobuf type {@code RunLengthEncoding16}
+   */
+  public static final class RunLengthEncoding16 extends
+      com.google.protobuf.GeneratedMessage.ExtendableMessage<
+        RunLengthEncoding16> implements
+      // @@protoc_insertion_point(message_implements:RunLengthEncoding16)
+      RunLengthEncoding16OrBuilder {
+    // Use RunLengthEncoding16.newBuilder() to construct.
+    private RunLengthEncoding16(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.EntityData.RunLengthEncoding16, ?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
@@ -14321,74 +14799,673 @@ public Builder addAllValues(
         return this;
       }
       /**
-       * <code>repeated sint32 values = 2 [packed = true];</code>
+       * <code>repeated sint32 values = 2 [packed = true];</code>
+       */
+      public Builder clearValues() {
+        values_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:RunLengthEncoding16)
+    }
+
+    static {
+      defaultInstance = new RunLengthEncoding16(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:RunLengthEncoding16)
+  }
+
+  public interface RunLengthEncoding8OrBuilder extends
+      // @@protoc_insertion_point(interface_extends:RunLengthEncoding8)
+      com.google.protobuf.GeneratedMessage.
+          ExtendableMessageOrBuilder<RunLengthEncoding8> {
+
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getRunLengthsList();
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    int getRunLengthsCount();
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    int getRunLengths(int index);
+
+    /**
+     * <code>optional bytes values = 2;</code>
+     */
+    boolean hasValues();
+    /**
+     * <code>optional bytes values = 2;</code>
+     */
+    com.google.protobuf.ByteString getValues();
+  }
+  /**
+   * Protobuf type {@code RunLengthEncoding8}
+   */
+  public static final class RunLengthEncoding8 extends
+      com.google.protobuf.GeneratedMessage.ExtendableMessage<
+        RunLengthEncoding8> implements
+      // @@protoc_insertion_point(message_implements:RunLengthEncoding8)
+      RunLengthEncoding8OrBuilder {
+    // Use RunLengthEncoding8.newBuilder() to construct.
+    private RunLengthEncoding8(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.EntityData.RunLengthEncoding8, ?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private RunLengthEncoding8(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final RunLengthEncoding8 defaultInstance;
+    public static RunLengthEncoding8 getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public RunLengthEncoding8 getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private RunLengthEncoding8(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                runLengths_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              runLengths_.add(input.readSInt32());
+              break;
+            }
+            case 10: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001) && input.getBytesUntilLimit() > 0) {
+                runLengths_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                runLengths_.add(input.readSInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000001;
+              values_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          runLengths_ = java.util.Collections.unmodifiableList(runLengths_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.terasology.protobuf.EntityData.RunLengthEncoding8.class, org.terasology.protobuf.EntityData.RunLengthEncoding8.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<RunLengthEncoding8> PARSER =
+        new com.google.protobuf.AbstractParser<RunLengthEncoding8>() {
+      public RunLengthEncoding8 parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new RunLengthEncoding8(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RunLengthEncoding8> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int RUNLENGTHS_FIELD_NUMBER = 1;
+    private java.util.List<java.lang.Integer> runLengths_;
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getRunLengthsList() {
+      return runLengths_;
+    }
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    public int getRunLengthsCount() {
+      return runLengths_.size();
+    }
+    /**
+     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     */
+    public int getRunLengths(int index) {
+      return runLengths_.get(index);
+    }
+    private int runLengthsMemoizedSerializedSize = -1;
+
+    public static final int VALUES_FIELD_NUMBER = 2;
+    private com.google.protobuf.ByteString values_;
+    /**
+     * <code>optional bytes values = 2;</code>
+     */
+    public boolean hasValues() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional bytes values = 2;</code>
+     */
+    public com.google.protobuf.ByteString getValues() {
+      return values_;
+    }
+
+    private void initFields() {
+      runLengths_ = java.util.Collections.emptyList();
+      values_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!extensionsAreInitialized()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      com.google.protobuf.GeneratedMessage
+        .ExtendableMessage<org.terasology.protobuf.EntityData.RunLengthEncoding8>.ExtensionWriter extensionWriter =
+          newExtensionWriter();
+      if (getRunLengthsList().size() > 0) {
+        output.writeRawVarint32(10);
+        output.writeRawVarint32(runLengthsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < runLengths_.size(); i++) {
+        output.writeSInt32NoTag(runLengths_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(2, values_);
+      }
+      extensionWriter.writeUntil(536870912, output);
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      {
+        int dataSize = 0;
+        for (int i = 0; i < runLengths_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeSInt32SizeNoTag(runLengths_.get(i));
+        }
+        size += dataSize;
+        if (!getRunLengthsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        runLengthsMemoizedSerializedSize = dataSize;
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, values_);
+      }
+      size += extensionsSerializedSize();
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.terasology.protobuf.EntityData.RunLengthEncoding8 prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code RunLengthEncoding8}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.ExtendableBuilder<
+          org.terasology.protobuf.EntityData.RunLengthEncoding8, Builder> implements
+        // @@protoc_insertion_point(builder_implements:RunLengthEncoding8)
+        org.terasology.protobuf.EntityData.RunLengthEncoding8OrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.terasology.protobuf.EntityData.RunLengthEncoding8.class, org.terasology.protobuf.EntityData.RunLengthEncoding8.Builder.class);
+      }
+
+      // Construct using org.terasology.protobuf.EntityData.RunLengthEncoding8.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        runLengths_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        values_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+      }
+
+      public org.terasology.protobuf.EntityData.RunLengthEncoding8 getDefaultInstanceForType() {
+        return org.terasology.protobuf.EntityData.RunLengthEncoding8.getDefaultInstance();
+      }
+
+      public org.terasology.protobuf.EntityData.RunLengthEncoding8 build() {
+        org.terasology.protobuf.EntityData.RunLengthEncoding8 result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.terasology.protobuf.EntityData.RunLengthEncoding8 buildPartial() {
+        org.terasology.protobuf.EntityData.RunLengthEncoding8 result = new org.terasology.protobuf.EntityData.RunLengthEncoding8(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          runLengths_ = java.util.Collections.unmodifiableList(runLengths_);
+          bitField0_ = (bitField0_ & ~0x00000001);
+        }
+        result.runLengths_ = runLengths_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.values_ = values_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.terasology.protobuf.EntityData.RunLengthEncoding8) {
+          return mergeFrom((org.terasology.protobuf.EntityData.RunLengthEncoding8)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.terasology.protobuf.EntityData.RunLengthEncoding8 other) {
+        if (other == org.terasology.protobuf.EntityData.RunLengthEncoding8.getDefaultInstance()) return this;
+        if (!other.runLengths_.isEmpty()) {
+          if (runLengths_.isEmpty()) {
+            runLengths_ = other.runLengths_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+          } else {
+            ensureRunLengthsIsMutable();
+            runLengths_.addAll(other.runLengths_);
+          }
+          onChanged();
+        }
+        if (other.hasValues()) {
+          setValues(other.getValues());
+        }
+        this.mergeExtensionFields(other);
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!extensionsAreInitialized()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.terasology.protobuf.EntityData.RunLengthEncoding8 parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.terasology.protobuf.EntityData.RunLengthEncoding8) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<java.lang.Integer> runLengths_ = java.util.Collections.emptyList();
+      private void ensureRunLengthsIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          runLengths_ = new java.util.ArrayList<java.lang.Integer>(runLengths_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getRunLengthsList() {
+        return java.util.Collections.unmodifiableList(runLengths_);
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public int getRunLengthsCount() {
+        return runLengths_.size();
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public int getRunLengths(int index) {
+        return runLengths_.get(index);
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public Builder setRunLengths(
+          int index, int value) {
+        ensureRunLengthsIsMutable();
+        runLengths_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public Builder addRunLengths(int value) {
+        ensureRunLengthsIsMutable();
+        runLengths_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public Builder addAllRunLengths(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureRunLengthsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, runLengths_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       */
+      public Builder clearRunLengths() {
+        runLengths_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString values_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes values = 2;</code>
+       */
+      public boolean hasValues() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional bytes values = 2;</code>
+       */
+      public com.google.protobuf.ByteString getValues() {
+        return values_;
+      }
+      /**
+       * <code>optional bytes values = 2;</code>
+       */
+      public Builder setValues(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        values_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes values = 2;</code>
        */
       public Builder clearValues() {
-        values_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000002);
+        values_ = getDefaultInstance().getValues();
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:RunLengthEncoding16)
+      // @@protoc_insertion_point(builder_scope:RunLengthEncoding8)
     }
 
     static {
-      defaultInstance = new RunLengthEncoding16(true);
+      defaultInstance = new RunLengthEncoding8(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:RunLengthEncoding16)
+    // @@protoc_insertion_point(class_scope:RunLengthEncoding8)
   }
 
-  public interface RunLengthEncoding8OrBuilder extends
-      // @@protoc_insertion_point(interface_extends:RunLengthEncoding8)
+  public interface PalettedArray16OrBuilder extends
+      // @@protoc_insertion_point(interface_extends:PalettedArray16)
       com.google.protobuf.GeneratedMessage.
-          ExtendableMessageOrBuilder<RunLengthEncoding8> {
+          ExtendableMessageOrBuilder<PalettedArray16> {
 
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
-    java.util.List<java.lang.Integer> getRunLengthsList();
+    java.util.List<java.lang.Integer> getPaletteList();
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
-    int getRunLengthsCount();
+    int getPaletteCount();
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
-    int getRunLengths(int index);
+    int getPalette(int index);
 
     /**
-     * <code>optional bytes values = 2;</code>
+     * <code>optional int32 bits_per_entry = 2;</code>
      */
-    boolean hasValues();
+    boolean hasBitsPerEntry();
     /**
-     * <code>optional bytes values = 2;</code>
+     * <code>optional int32 bits_per_entry = 2;</code>
      */
-    com.google.protobuf.ByteString getValues();
+    int getBitsPerEntry();
+
+    /**
+     * <code>optional bytes indices = 3;</code>
+     *
+     * <pre>
+     * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+     * </pre>
+     */
+    boolean hasIndices();
+    /**
+     * <code>optional bytes indices = 3;</code>
+     *
+     * <pre>
+     * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+     * </pre>
+     */
+    com.google.protobuf.ByteString getIndices();
   }
   /**
-   * Protobuf type {@code RunLengthEncoding8}
+   * Protobuf type {@code PalettedArray16}
    */
-  public static final class RunLengthEncoding8 extends
+  public static final class PalettedArray16 extends
       com.google.protobuf.GeneratedMessage.ExtendableMessage<
-        RunLengthEncoding8> implements
-      // @@protoc_insertion_point(message_implements:RunLengthEncoding8)
-      RunLengthEncoding8OrBuilder {
-    // Use RunLengthEncoding8.newBuilder() to construct.
-    private RunLengthEncoding8(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.EntityData.RunLengthEncoding8, ?> builder) {
+        PalettedArray16> implements
+      // @@protoc_insertion_point(message_implements:PalettedArray16)
+      PalettedArray16OrBuilder {
+    // Use PalettedArray16.newBuilder() to construct.
+    private PalettedArray16(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.EntityData.PalettedArray16, ?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private RunLengthEncoding8(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private PalettedArray16(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final RunLengthEncoding8 defaultInstance;
-    public static RunLengthEncoding8 getDefaultInstance() {
+    private static final PalettedArray16 defaultInstance;
+    public static PalettedArray16 getDefaultInstance() {
       return defaultInstance;
     }
 
-    public RunLengthEncoding8 getDefaultInstanceForType() {
+    public PalettedArray16 getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -14398,7 +15475,7 @@ public RunLengthEncoding8 getDefaultInstanceForType() {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private RunLengthEncoding8(
+    private PalettedArray16(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -14423,28 +15500,33 @@ private RunLengthEncoding8(
             }
             case 8: {
               if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
-                runLengths_ = new java.util.ArrayList<java.lang.Integer>();
+                palette_ = new java.util.ArrayList<java.lang.Integer>();
                 mutable_bitField0_ |= 0x00000001;
               }
-              runLengths_.add(input.readSInt32());
+              palette_.add(input.readSInt32());
               break;
             }
             case 10: {
               int length = input.readRawVarint32();
               int limit = input.pushLimit(length);
               if (!((mutable_bitField0_ & 0x00000001) == 0x00000001) && input.getBytesUntilLimit() > 0) {
-                runLengths_ = new java.util.ArrayList<java.lang.Integer>();
+                palette_ = new java.util.ArrayList<java.lang.Integer>();
                 mutable_bitField0_ |= 0x00000001;
               }
               while (input.getBytesUntilLimit() > 0) {
-                runLengths_.add(input.readSInt32());
+                palette_.add(input.readSInt32());
               }
               input.popLimit(limit);
               break;
             }
-            case 18: {
+            case 16: {
               bitField0_ |= 0x00000001;
-              values_ = input.readBytes();
+              bitsPerEntry_ = input.readInt32();
+              break;
+            }
+            case 26: {
+              bitField0_ |= 0x00000002;
+              indices_ = input.readBytes();
               break;
             }
           }
@@ -14456,7 +15538,7 @@ private RunLengthEncoding8(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
         if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
-          runLengths_ = java.util.Collections.unmodifiableList(runLengths_);
+          palette_ = java.util.Collections.unmodifiableList(palette_);
         }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
@@ -14464,73 +15546,97 @@ private RunLengthEncoding8(
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+      return org.terasology.protobuf.EntityData.internal_static_PalettedArray16_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_fieldAccessorTable
+      return org.terasology.protobuf.EntityData.internal_static_PalettedArray16_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              org.terasology.protobuf.EntityData.RunLengthEncoding8.class, org.terasology.protobuf.EntityData.RunLengthEncoding8.Builder.class);
+              org.terasology.protobuf.EntityData.PalettedArray16.class, org.terasology.protobuf.EntityData.PalettedArray16.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<RunLengthEncoding8> PARSER =
-        new com.google.protobuf.AbstractParser<RunLengthEncoding8>() {
-      public RunLengthEncoding8 parsePartialFrom(
+    public static com.google.protobuf.Parser<PalettedArray16> PARSER =
+        new com.google.protobuf.AbstractParser<PalettedArray16>() {
+      public PalettedArray16 parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new RunLengthEncoding8(input, extensionRegistry);
+        return new PalettedArray16(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<RunLengthEncoding8> getParserForType() {
+    public com.google.protobuf.Parser<PalettedArray16> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    public static final int RUNLENGTHS_FIELD_NUMBER = 1;
-    private java.util.List<java.lang.Integer> runLengths_;
+    public static final int PALETTE_FIELD_NUMBER = 1;
+    private java.util.List<java.lang.Integer> palette_;
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
     public java.util.List<java.lang.Integer>
-        getRunLengthsList() {
-      return runLengths_;
+        getPaletteList() {
+      return palette_;
     }
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
-    public int getRunLengthsCount() {
-      return runLengths_.size();
+    public int getPaletteCount() {
+      return palette_.size();
     }
     /**
-     * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+     * <code>repeated sint32 palette = 1 [packed = true];</code>
      */
-    public int getRunLengths(int index) {
-      return runLengths_.get(index);
+    public int getPalette(int index) {
+      return palette_.get(index);
     }
-    private int runLengthsMemoizedSerializedSize = -1;
+    private int paletteMemoizedSerializedSize = -1;
 
-    public static final int VALUES_FIELD_NUMBER = 2;
-    private com.google.protobuf.ByteString values_;
+    public static final int BITS_PER_ENTRY_FIELD_NUMBER = 2;
+    private int bitsPerEntry_;
     /**
-     * <code>optional bytes values = 2;</code>
+     * <code>optional int32 bits_per_entry = 2;</code>
      */
-    public boolean hasValues() {
+    public boolean hasBitsPerEntry() {
       return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>optional bytes values = 2;</code>
+     * <code>optional int32 bits_per_entry = 2;</code>
      */
-    public com.google.protobuf.ByteString getValues() {
-      return values_;
+    public int getBitsPerEntry() {
+      return bitsPerEntry_;
+    }
+
+    public static final int INDICES_FIELD_NUMBER = 3;
+    private com.google.protobuf.ByteString indices_;
+    /**
+     * <code>optional bytes indices = 3;</code>
+     *
+     * <pre>
+     * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+     * </pre>
+     */
+    public boolean hasIndices() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional bytes indices = 3;</code>
+     *
+     * <pre>
+     * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getIndices() {
+      return indices_;
     }
 
     private void initFields() {
-      runLengths_ = java.util.Collections.emptyList();
-      values_ = com.google.protobuf.ByteString.EMPTY;
+      palette_ = java.util.Collections.emptyList();
+      bitsPerEntry_ = 0;
+      indices_ = com.google.protobuf.ByteString.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -14550,17 +15656,20 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
       getSerializedSize();
       com.google.protobuf.GeneratedMessage
-        .ExtendableMessage<org.terasology.protobuf.EntityData.RunLengthEncoding8>.ExtensionWriter extensionWriter =
+        .ExtendableMessage<org.terasology.protobuf.EntityData.PalettedArray16>.ExtensionWriter extensionWriter =
           newExtensionWriter();
-      if (getRunLengthsList().size() > 0) {
+      if (getPaletteList().size() > 0) {
         output.writeRawVarint32(10);
-        output.writeRawVarint32(runLengthsMemoizedSerializedSize);
+        output.writeRawVarint32(paletteMemoizedSerializedSize);
       }
-      for (int i = 0; i < runLengths_.size(); i++) {
-        output.writeSInt32NoTag(runLengths_.get(i));
+      for (int i = 0; i < palette_.size(); i++) {
+        output.writeSInt32NoTag(palette_.get(i));
       }
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeBytes(2, values_);
+        output.writeInt32(2, bitsPerEntry_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(3, indices_);
       }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
@@ -14574,21 +15683,25 @@ public int getSerializedSize() {
       size = 0;
       {
         int dataSize = 0;
-        for (int i = 0; i < runLengths_.size(); i++) {
+        for (int i = 0; i < palette_.size(); i++) {
           dataSize += com.google.protobuf.CodedOutputStream
-            .computeSInt32SizeNoTag(runLengths_.get(i));
+            .computeSInt32SizeNoTag(palette_.get(i));
         }
         size += dataSize;
-        if (!getRunLengthsList().isEmpty()) {
+        if (!getPaletteList().isEmpty()) {
           size += 1;
           size += com.google.protobuf.CodedOutputStream
               .computeInt32SizeNoTag(dataSize);
         }
-        runLengthsMemoizedSerializedSize = dataSize;
+        paletteMemoizedSerializedSize = dataSize;
       }
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeBytesSize(2, values_);
+          .computeInt32Size(2, bitsPerEntry_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, indices_);
       }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
@@ -14603,53 +15716,53 @@ protected java.lang.Object writeReplace()
       return super.writeReplace();
     }
 
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(byte[] data)
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(java.io.InputStream input)
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseDelimitedFrom(java.io.InputStream input)
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseDelimitedFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
+    public static org.terasology.protobuf.EntityData.PalettedArray16 parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -14658,7 +15771,7 @@ public static org.terasology.protobuf.EntityData.RunLengthEncoding8 parseFrom(
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(org.terasology.protobuf.EntityData.RunLengthEncoding8 prototype) {
+    public static Builder newBuilder(org.terasology.protobuf.EntityData.PalettedArray16 prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -14670,26 +15783,26 @@ protected Builder newBuilderForType(
       return builder;
     }
     /**
-     * Protobuf type {@code RunLengthEncoding8}
+     * Protobuf type {@code PalettedArray16}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.ExtendableBuilder<
-          org.terasology.protobuf.EntityData.RunLengthEncoding8, Builder> implements
-        // @@protoc_insertion_point(builder_implements:RunLengthEncoding8)
-        org.terasology.protobuf.EntityData.RunLengthEncoding8OrBuilder {
+          org.terasology.protobuf.EntityData.PalettedArray16, Builder> implements
+        // @@protoc_insertion_point(builder_implements:PalettedArray16)
+        org.terasology.protobuf.EntityData.PalettedArray16OrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+        return org.terasology.protobuf.EntityData.internal_static_PalettedArray16_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_fieldAccessorTable
+        return org.terasology.protobuf.EntityData.internal_static_PalettedArray16_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                org.terasology.protobuf.EntityData.RunLengthEncoding8.class, org.terasology.protobuf.EntityData.RunLengthEncoding8.Builder.class);
+                org.terasology.protobuf.EntityData.PalettedArray16.class, org.terasology.protobuf.EntityData.PalettedArray16.Builder.class);
       }
 
-      // Construct using org.terasology.protobuf.EntityData.RunLengthEncoding8.newBuilder()
+      // Construct using org.terasology.protobuf.EntityData.PalettedArray16.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -14709,10 +15822,12 @@ private static Builder create() {
 
       public Builder clear() {
         super.clear();
-        runLengths_ = java.util.Collections.emptyList();
+        palette_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000001);
-        values_ = com.google.protobuf.ByteString.EMPTY;
+        bitsPerEntry_ = 0;
         bitField0_ = (bitField0_ & ~0x00000002);
+        indices_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -14722,62 +15837,69 @@ public Builder clone() {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return org.terasology.protobuf.EntityData.internal_static_RunLengthEncoding8_descriptor;
+        return org.terasology.protobuf.EntityData.internal_static_PalettedArray16_descriptor;
       }
 
-      public org.terasology.protobuf.EntityData.RunLengthEncoding8 getDefaultInstanceForType() {
-        return org.terasology.protobuf.EntityData.RunLengthEncoding8.getDefaultInstance();
+      public org.terasology.protobuf.EntityData.PalettedArray16 getDefaultInstanceForType() {
+        return org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance();
       }
 
-      public org.terasology.protobuf.EntityData.RunLengthEncoding8 build() {
-        org.terasology.protobuf.EntityData.RunLengthEncoding8 result = buildPartial();
+      public org.terasology.protobuf.EntityData.PalettedArray16 build() {
+        org.terasology.protobuf.EntityData.PalettedArray16 result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public org.terasology.protobuf.EntityData.RunLengthEncoding8 buildPartial() {
-        org.terasology.protobuf.EntityData.RunLengthEncoding8 result = new org.terasology.protobuf.EntityData.RunLengthEncoding8(this);
+      public org.terasology.protobuf.EntityData.PalettedArray16 buildPartial() {
+        org.terasology.protobuf.EntityData.PalettedArray16 result = new org.terasology.protobuf.EntityData.PalettedArray16(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((bitField0_ & 0x00000001) == 0x00000001)) {
-          runLengths_ = java.util.Collections.unmodifiableList(runLengths_);
+          palette_ = java.util.Collections.unmodifiableList(palette_);
           bitField0_ = (bitField0_ & ~0x00000001);
         }
-        result.runLengths_ = runLengths_;
+        result.palette_ = palette_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.values_ = values_;
+        result.bitsPerEntry_ = bitsPerEntry_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.indices_ = indices_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof org.terasology.protobuf.EntityData.RunLengthEncoding8) {
-          return mergeFrom((org.terasology.protobuf.EntityData.RunLengthEncoding8)other);
+        if (other instanceof org.terasology.protobuf.EntityData.PalettedArray16) {
+          return mergeFrom((org.terasology.protobuf.EntityData.PalettedArray16)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(org.terasology.protobuf.EntityData.RunLengthEncoding8 other) {
-        if (other == org.terasology.protobuf.EntityData.RunLengthEncoding8.getDefaultInstance()) return this;
-        if (!other.runLengths_.isEmpty()) {
-          if (runLengths_.isEmpty()) {
-            runLengths_ = other.runLengths_;
+      public Builder mergeFrom(org.terasology.protobuf.EntityData.PalettedArray16 other) {
+        if (other == org.terasology.protobuf.EntityData.PalettedArray16.getDefaultInstance()) return this;
+        if (!other.palette_.isEmpty()) {
+          if (palette_.isEmpty()) {
+            palette_ = other.palette_;
             bitField0_ = (bitField0_ & ~0x00000001);
           } else {
-            ensureRunLengthsIsMutable();
-            runLengths_.addAll(other.runLengths_);
+            ensurePaletteIsMutable();
+            palette_.addAll(other.palette_);
           }
           onChanged();
         }
-        if (other.hasValues()) {
-          setValues(other.getValues());
+        if (other.hasBitsPerEntry()) {
+          setBitsPerEntry(other.getBitsPerEntry());
+        }
+        if (other.hasIndices()) {
+          setIndices(other.getIndices());
         }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
@@ -14796,11 +15918,11 @@ public Builder mergeFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        org.terasology.protobuf.EntityData.RunLengthEncoding8 parsedMessage = null;
+        org.terasology.protobuf.EntityData.PalettedArray16 parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (org.terasology.protobuf.EntityData.RunLengthEncoding8) e.getUnfinishedMessage();
+          parsedMessage = (org.terasology.protobuf.EntityData.PalettedArray16) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -14811,116 +15933,164 @@ public Builder mergeFrom(
       }
       private int bitField0_;
 
-      private java.util.List<java.lang.Integer> runLengths_ = java.util.Collections.emptyList();
-      private void ensureRunLengthsIsMutable() {
+      private java.util.List<java.lang.Integer> palette_ = java.util.Collections.emptyList();
+      private void ensurePaletteIsMutable() {
         if (!((bitField0_ & 0x00000001) == 0x00000001)) {
-          runLengths_ = new java.util.ArrayList<java.lang.Integer>(runLengths_);
+          palette_ = new java.util.ArrayList<java.lang.Integer>(palette_);
           bitField0_ |= 0x00000001;
          }
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
       public java.util.List<java.lang.Integer>
-          getRunLengthsList() {
-        return java.util.Collections.unmodifiableList(runLengths_);
+          getPaletteList() {
+        return java.util.Collections.unmodifiableList(palette_);
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public int getRunLengthsCount() {
-        return runLengths_.size();
+      public int getPaletteCount() {
+        return palette_.size();
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public int getRunLengths(int index) {
-        return runLengths_.get(index);
+      public int getPalette(int index) {
+        return palette_.get(index);
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public Builder setRunLengths(
+      public Builder setPalette(
           int index, int value) {
-        ensureRunLengthsIsMutable();
-        runLengths_.set(index, value);
+        ensurePaletteIsMutable();
+        palette_.set(index, value);
         onChanged();
         return this;
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public Builder addRunLengths(int value) {
-        ensureRunLengthsIsMutable();
-        runLengths_.add(value);
+      public Builder addPalette(int value) {
+        ensurePaletteIsMutable();
+        palette_.add(value);
         onChanged();
         return this;
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public Builder addAllRunLengths(
+      public Builder addAllPalette(
           java.lang.Iterable<? extends java.lang.Integer> values) {
-        ensureRunLengthsIsMutable();
+        ensurePaletteIsMutable();
         com.google.protobuf.AbstractMessageLite.Builder.addAll(
-            values, runLengths_);
+            values, palette_);
         onChanged();
         return this;
       }
       /**
-       * <code>repeated sint32 runLengths = 1 [packed = true];</code>
+       * <code>repeated sint32 palette = 1 [packed = true];</code>
        */
-      public Builder clearRunLengths() {
-        runLengths_ = java.util.Collections.emptyList();
+      public Builder clearPalette() {
+        palette_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000001);
         onChanged();
         return this;
       }
 
-      private com.google.protobuf.ByteString values_ = com.google.protobuf.ByteString.EMPTY;
+      private int bitsPerEntry_ ;
       /**
-       * <code>optional bytes values = 2;</code>
+       * <code>optional int32 bits_per_entry = 2;</code>
        */
-      public boolean hasValues() {
+      public boolean hasBitsPerEntry() {
         return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional bytes values = 2;</code>
+       * <code>optional int32 bits_per_entry = 2;</code>
        */
-      public com.google.protobuf.ByteString getValues() {
-        return values_;
+      public int getBitsPerEntry() {
+        return bitsPerEntry_;
       }
       /**
-       * <code>optional bytes values = 2;</code>
+       * <code>optional int32 bits_per_entry = 2;</code>
        */
-      public Builder setValues(com.google.protobuf.ByteString value) {
+      public Builder setBitsPerEntry(int value) {
+        bitField0_ |= 0x00000002;
+        bitsPerEntry_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 bits_per_entry = 2;</code>
+       */
+      public Builder clearBitsPerEntry() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        bitsPerEntry_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString indices_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes indices = 3;</code>
+       *
+       * <pre>
+       * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+       * </pre>
+       */
+      public boolean hasIndices() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional bytes indices = 3;</code>
+       *
+       * <pre>
+       * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getIndices() {
+        return indices_;
+      }
+      /**
+       * <code>optional bytes indices = 3;</code>
+       *
+       * <pre>
+       * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+       * </pre>
+       */
+      public Builder setIndices(com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000002;
-        values_ = value;
+  bitField0_ |= 0x00000004;
+        indices_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional bytes values = 2;</code>
+       * <code>optional bytes indices = 3;</code>
+       *
+       * <pre>
+       * Packed palette indices as little endian 64 bit words, 64 / bits_per_entry indices per word
+       * </pre>
        */
-      public Builder clearValues() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        values_ = getDefaultInstance().getValues();
+      public Builder clearIndices() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        indices_ = getDefaultInstance().getIndices();
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:RunLengthEncoding8)
+      // @@protoc_insertion_point(builder_scope:PalettedArray16)
     }
 
     static {
-      defaultInstance = new RunLengthEncoding8(true);
+      defaultInstance = new PalettedArray16(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:RunLengthEncoding8)
+    // @@protoc_insertion_point(class_scope:PalettedArray16)
   }
 
   public interface GlobalStoreOrBuilder extends
@@ -16740,6 +17910,11 @@ public Builder addPrefabNameBytes(
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_RunLengthEncoding8_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_PalettedArray16_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_PalettedArray16_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_GlobalStore_descriptor;
   private static
@@ -16770,45 +17945,49 @@ public Builder addPrefabNameBytes(
       "\005owner\030\006 \001(\003\022\031\n\021removed_component\030\017 \003(\t\022" +
       "\034\n\005scope\030\007 \001(\0162\r.Entity.Scope\"*\n\005Scope\022\n" +
       "\n\006GLOBAL\020\000\022\n\n\006SECTOR\020\001\022\t\n\005CHUNK\020\002*\t\010\210\'\020\200" +
-      "\200\200\200\002\"\320\001\n\014PackedEntity\022\n\n\002id\030\001 \001(\003\022\027\n\013com" +
+      "\200\200\200\002\"\360\001\n\014PackedEntity\022\n\n\002id\030\001 \001(\003\022\027\n\013com" +
       "ponentId\030\002 \003(\005B\002\020\001\022\034\n\024componentFieldCoun" +
       "ts\030\003 \001(\014\022\020\n\010fieldIds\030\004 \001(\014\022\032\n\nfieldValue" +
       "\030\005 \003(\0132\006.Value\022\034\n\020removedComponent\030\006 \003(\005",
-      "B\002\020\001\022\r\n\005owner\030\007 \001(\003\022\027\n\017parentPrefabUri\030\020" +
-      " \001(\t*\t\010\210\'\020\200\200\200\200\002\"\314\001\n\006Prefab\022\022\n\nname_index" +
-      "\030\001 \001(\005\022\035\n\tcomponent\030\002 \003(\0132\n.Component\022\026\n" +
-      "\ndeprecated\030\003 \003(\005B\002\020\001\022\027\n\tpersisted\030\004 \001(\010" +
-      ":\004true\022\030\n\020removedComponent\030\005 \003(\t\022\026\n\016alwa" +
-      "ysRelevant\030\006 \001(\010\022\014\n\004name\030\017 \001(\t\022\023\n\013parent" +
-      "_name\030\020 \001(\t*\t\010\210\'\020\200\200\200\200\002\"N\n\005Event\022\014\n\004type\030" +
-      "\001 \001(\005\022\020\n\010fieldIds\030\002 \001(\014\022\032\n\nfieldValue\030\003 " +
-      "\003(\0132\006.Value*\t\010\210\'\020\200\200\200\200\002\"w\n\013EntityStore\022\027\n" +
-      "\006entity\030\001 \003(\0132\007.Entity\022\027\n\017component_clas",
-      "s\030\003 \003(\t\022\022\n\nentityName\030\002 \003(\t\022\027\n\013entityNam" +
-      "ed\030\004 \003(\003B\002\020\001*\t\010\210\'\020\200\200\200\200\002\"\220\001\n\013PlayerStore\022" +
-      "\033\n\005store\030\001 \001(\0132\014.EntityStore\022\025\n\rcharacte" +
-      "rPosX\030\017 \001(\002\022\025\n\rcharacterPosY\030\020 \001(\002\022\025\n\rch" +
-      "aracterPosZ\030\021 \001(\002\022\024\n\014hasCharacter\030\022 \001(\010*" +
-      "\t\010\210\'\020\200\200\200\200\002\"\332\002\n\nChunkStore\022\033\n\005store\030\001 \001(\013" +
-      "2\014.EntityStore\022\t\n\001x\030\002 \001(\021\022\t\n\001y\030\003 \001(\021\022\t\n\001" +
-      "z\030\004 \001(\021\022\031\n\021deprecated_data_3\030\005 \001(\005\022\031\n\021de" +
-      "precated_data_4\030\006 \001(\014\022\031\n\021deprecated_data" +
-      "_1\030\007 \001(\014\022\031\n\021deprecated_data_2\030\010 \001(\014\022\031\n\021d",
-      "eprecated_data_5\030\t \001(\014\022(\n\nblock_data\030\n \001" +
-      "(\0132\024.RunLengthEncoding16\022(\n\013liquid_data\030" +
-      "\013 \001(\0132\023.RunLengthEncoding8\022(\n\nbiome_data" +
-      "\030\014 \001(\0132\024.RunLengthEncoding16*\t\010\210\'\020\200\200\200\200\002\"" +
-      "L\n\023RunLengthEncoding16\022\026\n\nrunLengths\030\001 \003" +
-      "(\021B\002\020\001\022\022\n\006values\030\002 \003(\021B\002\020\001*\t\010\210\'\020\200\200\200\200\002\"G\n" +
-      "\022RunLengthEncoding8\022\026\n\nrunLengths\030\001 \003(\021B" +
-      "\002\020\001\022\016\n\006values\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"\260\001\n\013Globa" +
-      "lStore\022\027\n\006entity\030\001 \003(\0132\007.Entity\022\027\n\006prefa" +
-      "b\030\002 \003(\0132\007.Prefab\022\027\n\017component_class\030\003 \003(",
-      "\t\022\026\n\016next_entity_id\030\020 \001(\003\022\036\n\022deprecated_" +
-      "data_17\030\021 \003(\003B\002\020\001\022\023\n\013prefab_name\030\022 \003(\t*\t" +
-      "\010\210\'\020\200\200\200\200\002*4\n\tStoreType\022\023\n\017PlayerStoreTyp" +
-      "e\020\001\022\022\n\016ChunkStoreType\020\002B\'\n\027org.terasolog" +
-      "y.protobufB\nEntityDataH\001"
+      "B\002\020\001\022\r\n\005owner\030\007 \001(\003\022\036\n\022componentFieldMas" +
+      "k\030\010 \003(\004B\002\020\001\022\027\n\017parentPrefabUri\030\020 \001(\t*\t\010\210" +
+      "\'\020\200\200\200\200\002\"\314\001\n\006Prefab\022\022\n\nname_index\030\001 \001(\005\022\035" +
+      "\n\tcomponent\030\002 \003(\0132\n.Component\022\026\n\ndepreca" +
+      "ted\030\003 \003(\005B\002\020\001\022\027\n\tpersisted\030\004 \001(\010:\004true\022\030" +
+      "\n\020removedComponent\030\005 \003(\t\022\026\n\016alwaysReleva" +
+      "nt\030\006 \001(\010\022\014\n\004name\030\017 \001(\t\022\023\n\013parent_name\030\020 " +
+      "\001(\t*\t\010\210\'\020\200\200\200\200\002\"N\n\005Event\022\014\n\004type\030\001 \001(\005\022\020\n" +
+      "\010fieldIds\030\002 \001(\014\022\032\n\nfieldValue\030\003 \003(\0132\006.Va" +
+      "lue*\t\010\210\'\020\200\200\200\200\002\"w\n\013EntityStore\022\027\n\006entity\030",
+      "\001 \003(\0132\007.Entity\022\027\n\017component_class\030\003 \003(\t\022" +
+      "\022\n\nentityName\030\002 \003(\t\022\027\n\013entityNamed\030\004 \003(\003" +
+      "B\002\020\001*\t\010\210\'\020\200\200\200\200\002\"\220\001\n\013PlayerStore\022\033\n\005store" +
+      "\030\001 \001(\0132\014.EntityStore\022\025\n\rcharacterPosX\030\017 " +
+      "\001(\002\022\025\n\rcharacterPosY\030\020 \001(\002\022\025\n\rcharacterP" +
+      "osZ\030\021 \001(\002\022\024\n\014hasCharacter\030\022 \001(\010*\t\010\210\'\020\200\200\200" +
+      "\200\002\"\211\003\n\nChunkStore\022\033\n\005store\030\001 \001(\0132\014.Entit" +
+      "yStore\022\t\n\001x\030\002 \001(\021\022\t\n\001y\030\003 \001(\021\022\t\n\001z\030\004 \001(\021\022" +
+      "\031\n\021deprecated_data_3\030\005 \001(\005\022\031\n\021deprecated" +
+      "_data_4\030\006 \001(\014\022\031\n\021deprecated_data_1\030\007 \001(\014",
+      "\022\031\n\021deprecated_data_2\030\010 \001(\014\022\031\n\021deprecate" +
+      "d_data_5\030\t \001(\014\022(\n\nblock_data\030\n \001(\0132\024.Run" +
+      "LengthEncoding16\022(\n\013liquid_data\030\013 \001(\0132\023." +
+      "RunLengthEncoding8\022(\n\nbiome_data\030\014 \001(\0132\024" +
+      ".RunLengthEncoding16\022-\n\023paletted_block_d" +
+      "ata\030\r \001(\0132\020.PalettedArray16*\t\010\210\'\020\200\200\200\200\002\"L" +
+      "\n\023RunLengthEncoding16\022\026\n\nrunLengths\030\001 \003(" +
+      "\021B\002\020\001\022\022\n\006values\030\002 \003(\021B\002\020\001*\t\010\210\'\020\200\200\200\200\002\"G\n\022" +
+      "RunLengthEncoding8\022\026\n\nrunLengths\030\001 \003(\021B\002" +
+      "\020\001\022\016\n\006values\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"Z\n\017Palette",
+      "dArray16\022\023\n\007palette\030\001 \003(\021B\002\020\001\022\026\n\016bits_pe" +
+      "r_entry\030\002 \001(\005\022\017\n\007indices\030\003 \001(\014*\t\010\210\'\020\200\200\200\200" +
+      "\002\"\260\001\n\013GlobalStore\022\027\n\006entity\030\001 \003(\0132\007.Enti" +
+      "ty\022\027\n\006prefab\030\002 \003(\0132\007.Prefab\022\027\n\017component" +
+      "_class\030\003 \003(\t\022\026\n\016next_entity_id\030\020 \001(\003\022\036\n\022" +
+      "deprecated_data_17\030\021 \003(\003B\002\020\001\022\023\n\013prefab_n" +
+      "ame\030\022 \003(\t*\t\010\210\'\020\200\200\200\200\002*4\n\tStoreType\022\023\n\017Pla" +
+      "yerStoreType\020\001\022\022\n\016ChunkStoreType\020\002B\'\n\027or" +
+      "g.terasology.protobufB\nEntityDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -16851,7 +18030,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_PackedEntity_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_PackedEntity_descriptor,
-        new java.lang.String[] { "Id", "ComponentId", "ComponentFieldCounts", "FieldIds", "FieldValue", "RemovedComponent", "Owner", "ParentPrefabUri", });
+        new java.lang.String[] { "Id", "ComponentId", "ComponentFieldCounts", "FieldIds", "FieldValue", "RemovedComponent", "Owner", "ComponentFieldMask", "ParentPrefabUri", });
     internal_static_Prefab_descriptor =
       getDescriptor().getMessageTypes().get(5);
     internal_static_Prefab_fieldAccessorTable = new
@@ -16881,7 +18060,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_ChunkStore_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ChunkStore_descriptor,
-        new java.lang.String[] { "Store", "X", "Y", "Z", "DeprecatedData3", "DeprecatedData4", "DeprecatedData1", "DeprecatedData2", "DeprecatedData5", "BlockData", "LiquidData", "BiomeData", });
+        new java.lang.String[] { "Store", "X", "Y", "Z", "DeprecatedData3", "DeprecatedData4", "DeprecatedData1", "DeprecatedData2", "DeprecatedData5", "BlockData", "LiquidData", "BiomeData", "PalettedBlockData", });
     internal_static_RunLengthEncoding16_descriptor =
       getDescriptor().getMessageTypes().get(10);
     internal_static_RunLengthEncoding16_fieldAccessorTable = new
@@ -16894,8 +18073,14 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_RunLengthEncoding8_descriptor,
         new java.lang.String[] { "RunLengths", "Values", });
-    internal_static_GlobalStore_descriptor =
+    internal_static_PalettedArray16_descriptor =
       getDescriptor().getMessageTypes().get(12);
+    internal_static_PalettedArray16_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_PalettedArray16_descriptor,
+        new java.lang.String[] { "Palette", "BitsPerEntry", "Indices", });
+    internal_static_GlobalStore_descriptor =
+      getDescriptor().getMessageTypes().get(13);
     internal_static_GlobalStore_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_GlobalStore_descriptor,
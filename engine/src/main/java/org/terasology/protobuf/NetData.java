@@ -214,6 +214,30 @@ org.terasology.protobuf.NetData.EventMessageOrBuilder getEventOrBuilder(
     org.terasology.protobuf.NetData.BiomeChangeMessageOrBuilder getBiomeChangeOrBuilder(
         int index);
 
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage> 
+        getBlockChangeBatchList();
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    org.terasology.protobuf.NetData.BlockChangeBatchMessage getBlockChangeBatch(int index);
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    int getBlockChangeBatchCount();
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    java.util.List<? extends org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder> 
+        getBlockChangeBatchOrBuilderList();
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder getBlockChangeBatchOrBuilder(
+        int index);
+
     /**
      * <code>optional .ServerInfoRequest serverInfoRequest = 15;</code>
      */
@@ -526,6 +550,14 @@ private NetMessage(
               biomeChange_.add(input.readMessage(org.terasology.protobuf.NetData.BiomeChangeMessage.PARSER, extensionRegistry));
               break;
             }
+            case 90: {
+              if (!((mutable_bitField0_ & 0x00000200) == 0x00000200)) {
+                blockChangeBatch_ = new java.util.ArrayList<org.terasology.protobuf.NetData.BlockChangeBatchMessage>();
+                mutable_bitField0_ |= 0x00000200;
+              }
+              blockChangeBatch_.add(input.readMessage(org.terasology.protobuf.NetData.BlockChangeBatchMessage.PARSER, extensionRegistry));
+              break;
+            }
             case 122: {
               org.terasology.protobuf.NetData.ServerInfoRequest.Builder subBuilder = null;
               if (((bitField0_ & 0x00000002) == 0x00000002)) {
@@ -553,9 +585,9 @@ private NetMessage(
               break;
             }
             case 138: {
-              if (!((mutable_bitField0_ & 0x00000800) == 0x00000800)) {
+              if (!((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
                 blockFamilyRegistered_ = new java.util.ArrayList<org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage>();
-                mutable_bitField0_ |= 0x00000800;
+                mutable_bitField0_ |= 0x00001000;
               }
               blockFamilyRegistered_.add(input.readMessage(org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage.PARSER, extensionRegistry));
               break;
@@ -574,9 +606,9 @@ private NetMessage(
               break;
             }
             case 154: {
-              if (!((mutable_bitField0_ & 0x00002000) == 0x00002000)) {
+              if (!((mutable_bitField0_ & 0x00004000) == 0x00004000)) {
                 moduleRequest_ = new java.util.ArrayList<org.terasology.protobuf.NetData.ModuleRequest>();
-                mutable_bitField0_ |= 0x00002000;
+                mutable_bitField0_ |= 0x00004000;
               }
               moduleRequest_.add(input.readMessage(org.terasology.protobuf.NetData.ModuleRequest.PARSER, extensionRegistry));
               break;
@@ -704,10 +736,13 @@ private NetMessage(
         if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
           biomeChange_ = java.util.Collections.unmodifiableList(biomeChange_);
         }
-        if (((mutable_bitField0_ & 0x00000800) == 0x00000800)) {
+        if (((mutable_bitField0_ & 0x00000200) == 0x00000200)) {
+          blockChangeBatch_ = java.util.Collections.unmodifiableList(blockChangeBatch_);
+        }
+        if (((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
           blockFamilyRegistered_ = java.util.Collections.unmodifiableList(blockFamilyRegistered_);
         }
-        if (((mutable_bitField0_ & 0x00002000) == 0x00002000)) {
+        if (((mutable_bitField0_ & 0x00004000) == 0x00004000)) {
           moduleRequest_ = java.util.Collections.unmodifiableList(moduleRequest_);
         }
         this.unknownFields = unknownFields.build();
@@ -1037,6 +1072,41 @@ public org.terasology.protobuf.NetData.BiomeChangeMessageOrBuilder getBiomeChang
       return biomeChange_.get(index);
     }
 
+    public static final int BLOCKCHANGEBATCH_FIELD_NUMBER = 11;
+    private java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage> blockChangeBatch_;
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    public java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage> getBlockChangeBatchList() {
+      return blockChangeBatch_;
+    }
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    public java.util.List<? extends org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder> 
+        getBlockChangeBatchOrBuilderList() {
+      return blockChangeBatch_;
+    }
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    public int getBlockChangeBatchCount() {
+      return blockChangeBatch_.size();
+    }
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    public org.terasology.protobuf.NetData.BlockChangeBatchMessage getBlockChangeBatch(int index) {
+      return blockChangeBatch_.get(index);
+    }
+    /**
+     * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+     */
+    public org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder getBlockChangeBatchOrBuilder(
+        int index) {
+      return blockChangeBatch_.get(index);
+    }
+
     public static final int SERVERINFOREQUEST_FIELD_NUMBER = 15;
     private org.terasology.protobuf.NetData.ServerInfoRequest serverInfoRequest_;
     /**
@@ -1339,6 +1409,7 @@ private void initFields() {
       event_ = java.util.Collections.emptyList();
       time_ = 0L;
       biomeChange_ = java.util.Collections.emptyList();
+      blockChangeBatch_ = java.util.Collections.emptyList();
       serverInfoRequest_ = org.terasology.protobuf.NetData.ServerInfoRequest.getDefaultInstance();
       serverInfo_ = org.terasology.protobuf.NetData.ServerInfoMessage.getDefaultInstance();
       blockFamilyRegistered_ = java.util.Collections.emptyList();
@@ -1406,6 +1477,12 @@ public final boolean isInitialized() {
           return false;
         }
       }
+      for (int i = 0; i < getBlockChangeBatchCount(); i++) {
+        if (!getBlockChangeBatch(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       if (hasServerInfoRequest()) {
         if (!getServerInfoRequest().isInitialized()) {
           memoizedIsInitialized = 0;
@@ -1519,6 +1596,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       for (int i = 0; i < biomeChange_.size(); i++) {
         output.writeMessage(10, biomeChange_.get(i));
       }
+      for (int i = 0; i < blockChangeBatch_.size(); i++) {
+        output.writeMessage(11, blockChangeBatch_.get(i));
+      }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeMessage(15, serverInfoRequest_);
       }
@@ -1601,6 +1681,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(10, biomeChange_.get(i));
       }
+      for (int i = 0; i < blockChangeBatch_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(11, blockChangeBatch_.get(i));
+      }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(15, serverInfoRequest_);
@@ -1768,6 +1852,7 @@ private void maybeForceBuilderInitialization() {
           getUpdateEntityFieldBuilder();
           getEventFieldBuilder();
           getBiomeChangeFieldBuilder();
+          getBlockChangeBatchFieldBuilder();
           getServerInfoRequestFieldBuilder();
           getServerInfoFieldBuilder();
           getBlockFamilyRegisteredFieldBuilder();
@@ -1838,21 +1923,27 @@ public Builder clear() {
         } else {
           biomeChangeBuilder_.clear();
         }
+        if (blockChangeBatchBuilder_ == null) {
+          blockChangeBatch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000200);
+        } else {
+          blockChangeBatchBuilder_.clear();
+        }
         if (serverInfoRequestBuilder_ == null) {
           serverInfoRequest_ = org.terasology.protobuf.NetData.ServerInfoRequest.getDefaultInstance();
         } else {
           serverInfoRequestBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000200);
+        bitField0_ = (bitField0_ & ~0x00000400);
         if (serverInfoBuilder_ == null) {
           serverInfo_ = org.terasology.protobuf.NetData.ServerInfoMessage.getDefaultInstance();
         } else {
           serverInfoBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000400);
+        bitField0_ = (bitField0_ & ~0x00000800);
         if (blockFamilyRegisteredBuilder_ == null) {
           blockFamilyRegistered_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000800);
+          bitField0_ = (bitField0_ & ~0x00001000);
         } else {
           blockFamilyRegisteredBuilder_.clear();
         }
@@ -1861,10 +1952,10 @@ public Builder clear() {
         } else {
           joinBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00001000);
+        bitField0_ = (bitField0_ & ~0x00002000);
         if (moduleRequestBuilder_ == null) {
           moduleRequest_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00002000);
+          bitField0_ = (bitField0_ & ~0x00004000);
         } else {
           moduleRequestBuilder_.clear();
         }
@@ -1873,43 +1964,43 @@ public Builder clear() {
         } else {
           moduleDataHeaderBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00004000);
+        bitField0_ = (bitField0_ & ~0x00008000);
         if (moduleDataBuilder_ == null) {
           moduleData_ = org.terasology.protobuf.NetData.ModuleData.getDefaultInstance();
         } else {
           moduleDataBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00008000);
+        bitField0_ = (bitField0_ & ~0x00010000);
         if (joinCompleteBuilder_ == null) {
           joinComplete_ = org.terasology.protobuf.NetData.JoinCompleteMessage.getDefaultInstance();
         } else {
           joinCompleteBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00010000);
+        bitField0_ = (bitField0_ & ~0x00020000);
         if (handshakeHelloBuilder_ == null) {
           handshakeHello_ = org.terasology.protobuf.NetData.HandshakeHello.getDefaultInstance();
         } else {
           handshakeHelloBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00020000);
+        bitField0_ = (bitField0_ & ~0x00040000);
         if (newIdentityRequestBuilder_ == null) {
           newIdentityRequest_ = org.terasology.protobuf.NetData.NewIdentityRequest.getDefaultInstance();
         } else {
           newIdentityRequestBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00040000);
+        bitField0_ = (bitField0_ & ~0x00080000);
         if (provisionIdentityBuilder_ == null) {
           provisionIdentity_ = org.terasology.protobuf.NetData.ProvisionIdentity.getDefaultInstance();
         } else {
           provisionIdentityBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00080000);
+        bitField0_ = (bitField0_ & ~0x00100000);
         if (handshakeVerificationBuilder_ == null) {
           handshakeVerification_ = org.terasology.protobuf.NetData.HandshakeVerification.getDefaultInstance();
         } else {
           handshakeVerificationBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00100000);
+        bitField0_ = (bitField0_ & ~0x00200000);
         return this;
       }
 
@@ -2014,7 +2105,16 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.biomeChange_ = biomeChangeBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00000200) == 0x00000200)) {
+        if (blockChangeBatchBuilder_ == null) {
+          if (((bitField0_ & 0x00000200) == 0x00000200)) {
+            blockChangeBatch_ = java.util.Collections.unmodifiableList(blockChangeBatch_);
+            bitField0_ = (bitField0_ & ~0x00000200);
+          }
+          result.blockChangeBatch_ = blockChangeBatch_;
+        } else {
+          result.blockChangeBatch_ = blockChangeBatchBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000400) == 0x00000400)) {
           to_bitField0_ |= 0x00000002;
         }
         if (serverInfoRequestBuilder_ == null) {
@@ -2022,7 +2122,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.serverInfoRequest_ = serverInfoRequestBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00000400) == 0x00000400)) {
+        if (((from_bitField0_ & 0x00000800) == 0x00000800)) {
           to_bitField0_ |= 0x00000004;
         }
         if (serverInfoBuilder_ == null) {
@@ -2031,15 +2131,15 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
           result.serverInfo_ = serverInfoBuilder_.build();
         }
         if (blockFamilyRegisteredBuilder_ == null) {
-          if (((bitField0_ & 0x00000800) == 0x00000800)) {
+          if (((bitField0_ & 0x00001000) == 0x00001000)) {
             blockFamilyRegistered_ = java.util.Collections.unmodifiableList(blockFamilyRegistered_);
-            bitField0_ = (bitField0_ & ~0x00000800);
+            bitField0_ = (bitField0_ & ~0x00001000);
           }
           result.blockFamilyRegistered_ = blockFamilyRegistered_;
         } else {
           result.blockFamilyRegistered_ = blockFamilyRegisteredBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00001000) == 0x00001000)) {
+        if (((from_bitField0_ & 0x00002000) == 0x00002000)) {
           to_bitField0_ |= 0x00000008;
         }
         if (joinBuilder_ == null) {
@@ -2048,15 +2148,15 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
           result.join_ = joinBuilder_.build();
         }
         if (moduleRequestBuilder_ == null) {
-          if (((bitField0_ & 0x00002000) == 0x00002000)) {
+          if (((bitField0_ & 0x00004000) == 0x00004000)) {
             moduleRequest_ = java.util.Collections.unmodifiableList(moduleRequest_);
-            bitField0_ = (bitField0_ & ~0x00002000);
+            bitField0_ = (bitField0_ & ~0x00004000);
           }
           result.moduleRequest_ = moduleRequest_;
         } else {
           result.moduleRequest_ = moduleRequestBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00004000) == 0x00004000)) {
+        if (((from_bitField0_ & 0x00008000) == 0x00008000)) {
           to_bitField0_ |= 0x00000010;
         }
         if (moduleDataHeaderBuilder_ == null) {
@@ -2064,7 +2164,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.moduleDataHeader_ = moduleDataHeaderBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00008000) == 0x00008000)) {
+        if (((from_bitField0_ & 0x00010000) == 0x00010000)) {
           to_bitField0_ |= 0x00000020;
         }
         if (moduleDataBuilder_ == null) {
@@ -2072,7 +2172,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.moduleData_ = moduleDataBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00010000) == 0x00010000)) {
+        if (((from_bitField0_ & 0x00020000) == 0x00020000)) {
           to_bitField0_ |= 0x00000040;
         }
         if (joinCompleteBuilder_ == null) {
@@ -2080,7 +2180,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.joinComplete_ = joinCompleteBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00020000) == 0x00020000)) {
+        if (((from_bitField0_ & 0x00040000) == 0x00040000)) {
           to_bitField0_ |= 0x00000080;
         }
         if (handshakeHelloBuilder_ == null) {
@@ -2088,7 +2188,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.handshakeHello_ = handshakeHelloBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00040000) == 0x00040000)) {
+        if (((from_bitField0_ & 0x00080000) == 0x00080000)) {
           to_bitField0_ |= 0x00000100;
         }
         if (newIdentityRequestBuilder_ == null) {
@@ -2096,7 +2196,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.newIdentityRequest_ = newIdentityRequestBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00080000) == 0x00080000)) {
+        if (((from_bitField0_ & 0x00100000) == 0x00100000)) {
           to_bitField0_ |= 0x00000200;
         }
         if (provisionIdentityBuilder_ == null) {
@@ -2104,7 +2204,7 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.provisionIdentity_ = provisionIdentityBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00100000) == 0x00100000)) {
+        if (((from_bitField0_ & 0x00200000) == 0x00200000)) {
           to_bitField0_ |= 0x00000400;
         }
         if (handshakeVerificationBuilder_ == null) {
@@ -2339,6 +2439,32 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
             }
           }
         }
+        if (blockChangeBatchBuilder_ == null) {
+          if (!other.blockChangeBatch_.isEmpty()) {
+            if (blockChangeBatch_.isEmpty()) {
+              blockChangeBatch_ = other.blockChangeBatch_;
+              bitField0_ = (bitField0_ & ~0x00000200);
+            } else {
+              ensureBlockChangeBatchIsMutable();
+              blockChangeBatch_.addAll(other.blockChangeBatch_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.blockChangeBatch_.isEmpty()) {
+            if (blockChangeBatchBuilder_.isEmpty()) {
+              blockChangeBatchBuilder_.dispose();
+              blockChangeBatchBuilder_ = null;
+              blockChangeBatch_ = other.blockChangeBatch_;
+              bitField0_ = (bitField0_ & ~0x00000200);
+              blockChangeBatchBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getBlockChangeBatchFieldBuilder() : null;
+            } else {
+              blockChangeBatchBuilder_.addAllMessages(other.blockChangeBatch_);
+            }
+          }
+        }
         if (other.hasServerInfoRequest()) {
           mergeServerInfoRequest(other.getServerInfoRequest());
         }
@@ -2349,7 +2475,7 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
           if (!other.blockFamilyRegistered_.isEmpty()) {
             if (blockFamilyRegistered_.isEmpty()) {
               blockFamilyRegistered_ = other.blockFamilyRegistered_;
-              bitField0_ = (bitField0_ & ~0x00000800);
+              bitField0_ = (bitField0_ & ~0x00001000);
             } else {
               ensureBlockFamilyRegisteredIsMutable();
               blockFamilyRegistered_.addAll(other.blockFamilyRegistered_);
@@ -2362,7 +2488,7 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
               blockFamilyRegisteredBuilder_.dispose();
               blockFamilyRegisteredBuilder_ = null;
               blockFamilyRegistered_ = other.blockFamilyRegistered_;
-              bitField0_ = (bitField0_ & ~0x00000800);
+              bitField0_ = (bitField0_ & ~0x00001000);
               blockFamilyRegisteredBuilder_ = 
                 com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
                    getBlockFamilyRegisteredFieldBuilder() : null;
@@ -2378,7 +2504,7 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
           if (!other.moduleRequest_.isEmpty()) {
             if (moduleRequest_.isEmpty()) {
               moduleRequest_ = other.moduleRequest_;
-              bitField0_ = (bitField0_ & ~0x00002000);
+              bitField0_ = (bitField0_ & ~0x00004000);
             } else {
               ensureModuleRequestIsMutable();
               moduleRequest_.addAll(other.moduleRequest_);
@@ -2391,7 +2517,7 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
               moduleRequestBuilder_.dispose();
               moduleRequestBuilder_ = null;
               moduleRequest_ = other.moduleRequest_;
-              bitField0_ = (bitField0_ & ~0x00002000);
+              bitField0_ = (bitField0_ & ~0x00004000);
               moduleRequestBuilder_ = 
                 com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
                    getModuleRequestFieldBuilder() : null;
@@ -2475,6 +2601,12 @@ public final boolean isInitialized() {
             return false;
           }
         }
+        for (int i = 0; i < getBlockChangeBatchCount(); i++) {
+          if (!getBlockChangeBatch(i).isInitialized()) {
+            
+            return false;
+          }
+        }
         if (hasServerInfoRequest()) {
           if (!getServerInfoRequest().isInitialized()) {
             
@@ -4525,6 +4657,246 @@ public org.terasology.protobuf.NetData.BiomeChangeMessage.Builder addBiomeChange
         return biomeChangeBuilder_;
       }
 
+      private java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage> blockChangeBatch_ =
+        java.util.Collections.emptyList();
+      private void ensureBlockChangeBatchIsMutable() {
+        if (!((bitField0_ & 0x00000200) == 0x00000200)) {
+          blockChangeBatch_ = new java.util.ArrayList<org.terasology.protobuf.NetData.BlockChangeBatchMessage>(blockChangeBatch_);
+          bitField0_ |= 0x00000200;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.terasology.protobuf.NetData.BlockChangeBatchMessage, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder, org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder> blockChangeBatchBuilder_;
+
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage> getBlockChangeBatchList() {
+        if (blockChangeBatchBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(blockChangeBatch_);
+        } else {
+          return blockChangeBatchBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public int getBlockChangeBatchCount() {
+        if (blockChangeBatchBuilder_ == null) {
+          return blockChangeBatch_.size();
+        } else {
+          return blockChangeBatchBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage getBlockChangeBatch(int index) {
+        if (blockChangeBatchBuilder_ == null) {
+          return blockChangeBatch_.get(index);
+        } else {
+          return blockChangeBatchBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder setBlockChangeBatch(
+          int index, org.terasology.protobuf.NetData.BlockChangeBatchMessage value) {
+        if (blockChangeBatchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.set(index, value);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder setBlockChangeBatch(
+          int index, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder builderForValue) {
+        if (blockChangeBatchBuilder_ == null) {
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder addBlockChangeBatch(org.terasology.protobuf.NetData.BlockChangeBatchMessage value) {
+        if (blockChangeBatchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.add(value);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder addBlockChangeBatch(
+          int index, org.terasology.protobuf.NetData.BlockChangeBatchMessage value) {
+        if (blockChangeBatchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.add(index, value);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder addBlockChangeBatch(
+          org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder builderForValue) {
+        if (blockChangeBatchBuilder_ == null) {
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.add(builderForValue.build());
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder addBlockChangeBatch(
+          int index, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder builderForValue) {
+        if (blockChangeBatchBuilder_ == null) {
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder addAllBlockChangeBatch(
+          java.lang.Iterable<? extends org.terasology.protobuf.NetData.BlockChangeBatchMessage> values) {
+        if (blockChangeBatchBuilder_ == null) {
+          ensureBlockChangeBatchIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, blockChangeBatch_);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder clearBlockChangeBatch() {
+        if (blockChangeBatchBuilder_ == null) {
+          blockChangeBatch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000200);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public Builder removeBlockChangeBatch(int index) {
+        if (blockChangeBatchBuilder_ == null) {
+          ensureBlockChangeBatchIsMutable();
+          blockChangeBatch_.remove(index);
+          onChanged();
+        } else {
+          blockChangeBatchBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder getBlockChangeBatchBuilder(
+          int index) {
+        return getBlockChangeBatchFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder getBlockChangeBatchOrBuilder(
+          int index) {
+        if (blockChangeBatchBuilder_ == null) {
+          return blockChangeBatch_.get(index);  } else {
+          return blockChangeBatchBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public java.util.List<? extends org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder> 
+           getBlockChangeBatchOrBuilderList() {
+        if (blockChangeBatchBuilder_ != null) {
+          return blockChangeBatchBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(blockChangeBatch_);
+        }
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder addBlockChangeBatchBuilder() {
+        return getBlockChangeBatchFieldBuilder().addBuilder(
+            org.terasology.protobuf.NetData.BlockChangeBatchMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder addBlockChangeBatchBuilder(
+          int index) {
+        return getBlockChangeBatchFieldBuilder().addBuilder(
+            index, org.terasology.protobuf.NetData.BlockChangeBatchMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .BlockChangeBatchMessage blockChangeBatch = 11;</code>
+       */
+      public java.util.List<org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder> 
+           getBlockChangeBatchBuilderList() {
+        return getBlockChangeBatchFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.terasology.protobuf.NetData.BlockChangeBatchMessage, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder, org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder> 
+          getBlockChangeBatchFieldBuilder() {
+        if (blockChangeBatchBuilder_ == null) {
+          blockChangeBatchBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              org.terasology.protobuf.NetData.BlockChangeBatchMessage, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder, org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder>(
+                  blockChangeBatch_,
+                  ((bitField0_ & 0x00000200) == 0x00000200),
+                  getParentForChildren(),
+                  isClean());
+          blockChangeBatch_ = null;
+        }
+        return blockChangeBatchBuilder_;
+      }
+
       private org.terasology.protobuf.NetData.ServerInfoRequest serverInfoRequest_ = org.terasology.protobuf.NetData.ServerInfoRequest.getDefaultInstance();
       private com.google.protobuf.SingleFieldBuilder<
           org.terasology.protobuf.NetData.ServerInfoRequest, org.terasology.protobuf.NetData.ServerInfoRequest.Builder, org.terasology.protobuf.NetData.ServerInfoRequestOrBuilder> serverInfoRequestBuilder_;
@@ -4532,7 +4904,7 @@ public org.terasology.protobuf.NetData.BiomeChangeMessage.Builder addBiomeChange
        * <code>optional .ServerInfoRequest serverInfoRequest = 15;</code>
        */
       public boolean hasServerInfoRequest() {
-        return ((bitField0_ & 0x00000200) == 0x00000200);
+        return ((bitField0_ & 0x00000400) == 0x00000400);
       }
       /**
        * <code>optional .ServerInfoRequest serverInfoRequest = 15;</code>
@@ -4557,7 +4929,7 @@ public Builder setServerInfoRequest(org.terasology.protobuf.NetData.ServerInfoRe
         } else {
           serverInfoRequestBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00000200;
+        bitField0_ |= 0x00000400;
         return this;
       }
       /**
@@ -4571,7 +4943,7 @@ public Builder setServerInfoRequest(
         } else {
           serverInfoRequestBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00000200;
+        bitField0_ |= 0x00000400;
         return this;
       }
       /**
@@ -4579,7 +4951,7 @@ public Builder setServerInfoRequest(
        */
       public Builder mergeServerInfoRequest(org.terasology.protobuf.NetData.ServerInfoRequest value) {
         if (serverInfoRequestBuilder_ == null) {
-          if (((bitField0_ & 0x00000200) == 0x00000200) &&
+          if (((bitField0_ & 0x00000400) == 0x00000400) &&
               serverInfoRequest_ != org.terasology.protobuf.NetData.ServerInfoRequest.getDefaultInstance()) {
             serverInfoRequest_ =
               org.terasology.protobuf.NetData.ServerInfoRequest.newBuilder(serverInfoRequest_).mergeFrom(value).buildPartial();
@@ -4590,7 +4962,7 @@ public Builder mergeServerInfoRequest(org.terasology.protobuf.NetData.ServerInfo
         } else {
           serverInfoRequestBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00000200;
+        bitField0_ |= 0x00000400;
         return this;
       }
       /**
@@ -4603,14 +4975,14 @@ public Builder clearServerInfoRequest() {
         } else {
           serverInfoRequestBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000200);
+        bitField0_ = (bitField0_ & ~0x00000400);
         return this;
       }
       /**
        * <code>optional .ServerInfoRequest serverInfoRequest = 15;</code>
        */
       public org.terasology.protobuf.NetData.ServerInfoRequest.Builder getServerInfoRequestBuilder() {
-        bitField0_ |= 0x00000200;
+        bitField0_ |= 0x00000400;
         onChanged();
         return getServerInfoRequestFieldBuilder().getBuilder();
       }
@@ -4648,7 +5020,7 @@ public org.terasology.protobuf.NetData.ServerInfoRequestOrBuilder getServerInfoR
        * <code>optional .ServerInfoMessage serverInfo = 16;</code>
        */
       public boolean hasServerInfo() {
-        return ((bitField0_ & 0x00000400) == 0x00000400);
+        return ((bitField0_ & 0x00000800) == 0x00000800);
       }
       /**
        * <code>optional .ServerInfoMessage serverInfo = 16;</code>
@@ -4673,7 +5045,7 @@ public Builder setServerInfo(org.terasology.protobuf.NetData.ServerInfoMessage v
         } else {
           serverInfoBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00000400;
+        bitField0_ |= 0x00000800;
         return this;
       }
       /**
@@ -4687,7 +5059,7 @@ public Builder setServerInfo(
         } else {
           serverInfoBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00000400;
+        bitField0_ |= 0x00000800;
         return this;
       }
       /**
@@ -4695,7 +5067,7 @@ public Builder setServerInfo(
        */
       public Builder mergeServerInfo(org.terasology.protobuf.NetData.ServerInfoMessage value) {
         if (serverInfoBuilder_ == null) {
-          if (((bitField0_ & 0x00000400) == 0x00000400) &&
+          if (((bitField0_ & 0x00000800) == 0x00000800) &&
               serverInfo_ != org.terasology.protobuf.NetData.ServerInfoMessage.getDefaultInstance()) {
             serverInfo_ =
               org.terasology.protobuf.NetData.ServerInfoMessage.newBuilder(serverInfo_).mergeFrom(value).buildPartial();
@@ -4706,7 +5078,7 @@ public Builder mergeServerInfo(org.terasology.protobuf.NetData.ServerInfoMessage
         } else {
           serverInfoBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00000400;
+        bitField0_ |= 0x00000800;
         return this;
       }
       /**
@@ -4719,14 +5091,14 @@ public Builder clearServerInfo() {
         } else {
           serverInfoBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000400);
+        bitField0_ = (bitField0_ & ~0x00000800);
         return this;
       }
       /**
        * <code>optional .ServerInfoMessage serverInfo = 16;</code>
        */
       public org.terasology.protobuf.NetData.ServerInfoMessage.Builder getServerInfoBuilder() {
-        bitField0_ |= 0x00000400;
+        bitField0_ |= 0x00000800;
         onChanged();
         return getServerInfoFieldBuilder().getBuilder();
       }
@@ -4760,9 +5132,9 @@ public org.terasology.protobuf.NetData.ServerInfoMessageOrBuilder getServerInfoO
       private java.util.List<org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage> blockFamilyRegistered_ =
         java.util.Collections.emptyList();
       private void ensureBlockFamilyRegisteredIsMutable() {
-        if (!((bitField0_ & 0x00000800) == 0x00000800)) {
+        if (!((bitField0_ & 0x00001000) == 0x00001000)) {
           blockFamilyRegistered_ = new java.util.ArrayList<org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage>(blockFamilyRegistered_);
-          bitField0_ |= 0x00000800;
+          bitField0_ |= 0x00001000;
          }
       }
 
@@ -4912,7 +5284,7 @@ public Builder addAllBlockFamilyRegistered(
       public Builder clearBlockFamilyRegistered() {
         if (blockFamilyRegisteredBuilder_ == null) {
           blockFamilyRegistered_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000800);
+          bitField0_ = (bitField0_ & ~0x00001000);
           onChanged();
         } else {
           blockFamilyRegisteredBuilder_.clear();
@@ -4989,7 +5361,7 @@ public org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage.Builder addB
           blockFamilyRegisteredBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
               org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage, org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage.Builder, org.terasology.protobuf.NetData.BlockFamilyRegisteredMessageOrBuilder>(
                   blockFamilyRegistered_,
-                  ((bitField0_ & 0x00000800) == 0x00000800),
+                  ((bitField0_ & 0x00001000) == 0x00001000),
                   getParentForChildren(),
                   isClean());
           blockFamilyRegistered_ = null;
@@ -5004,7 +5376,7 @@ public org.terasology.protobuf.NetData.BlockFamilyRegisteredMessage.Builder addB
        * <code>optional .JoinMessage join = 18;</code>
        */
       public boolean hasJoin() {
-        return ((bitField0_ & 0x00001000) == 0x00001000);
+        return ((bitField0_ & 0x00002000) == 0x00002000);
       }
       /**
        * <code>optional .JoinMessage join = 18;</code>
@@ -5029,7 +5401,7 @@ public Builder setJoin(org.terasology.protobuf.NetData.JoinMessage value) {
         } else {
           joinBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00001000;
+        bitField0_ |= 0x00002000;
         return this;
       }
       /**
@@ -5043,7 +5415,7 @@ public Builder setJoin(
         } else {
           joinBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00001000;
+        bitField0_ |= 0x00002000;
         return this;
       }
       /**
@@ -5051,7 +5423,7 @@ public Builder setJoin(
        */
       public Builder mergeJoin(org.terasology.protobuf.NetData.JoinMessage value) {
         if (joinBuilder_ == null) {
-          if (((bitField0_ & 0x00001000) == 0x00001000) &&
+          if (((bitField0_ & 0x00002000) == 0x00002000) &&
               join_ != org.terasology.protobuf.NetData.JoinMessage.getDefaultInstance()) {
             join_ =
               org.terasology.protobuf.NetData.JoinMessage.newBuilder(join_).mergeFrom(value).buildPartial();
@@ -5062,7 +5434,7 @@ public Builder mergeJoin(org.terasology.protobuf.NetData.JoinMessage value) {
         } else {
           joinBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00001000;
+        bitField0_ |= 0x00002000;
         return this;
       }
       /**
@@ -5075,14 +5447,14 @@ public Builder clearJoin() {
         } else {
           joinBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00001000);
+        bitField0_ = (bitField0_ & ~0x00002000);
         return this;
       }
       /**
        * <code>optional .JoinMessage join = 18;</code>
        */
       public org.terasology.protobuf.NetData.JoinMessage.Builder getJoinBuilder() {
-        bitField0_ |= 0x00001000;
+        bitField0_ |= 0x00002000;
         onChanged();
         return getJoinFieldBuilder().getBuilder();
       }
@@ -5116,9 +5488,9 @@ public org.terasology.protobuf.NetData.JoinMessageOrBuilder getJoinOrBuilder() {
       private java.util.List<org.terasology.protobuf.NetData.ModuleRequest> moduleRequest_ =
         java.util.Collections.emptyList();
       private void ensureModuleRequestIsMutable() {
-        if (!((bitField0_ & 0x00002000) == 0x00002000)) {
+        if (!((bitField0_ & 0x00004000) == 0x00004000)) {
           moduleRequest_ = new java.util.ArrayList<org.terasology.protobuf.NetData.ModuleRequest>(moduleRequest_);
-          bitField0_ |= 0x00002000;
+          bitField0_ |= 0x00004000;
          }
       }
 
@@ -5268,7 +5640,7 @@ public Builder addAllModuleRequest(
       public Builder clearModuleRequest() {
         if (moduleRequestBuilder_ == null) {
           moduleRequest_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00002000);
+          bitField0_ = (bitField0_ & ~0x00004000);
           onChanged();
         } else {
           moduleRequestBuilder_.clear();
@@ -5345,7 +5717,7 @@ public org.terasology.protobuf.NetData.ModuleRequest.Builder addModuleRequestBui
           moduleRequestBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
               org.terasology.protobuf.NetData.ModuleRequest, org.terasology.protobuf.NetData.ModuleRequest.Builder, org.terasology.protobuf.NetData.ModuleRequestOrBuilder>(
                   moduleRequest_,
-                  ((bitField0_ & 0x00002000) == 0x00002000),
+                  ((bitField0_ & 0x00004000) == 0x00004000),
                   getParentForChildren(),
                   isClean());
           moduleRequest_ = null;
@@ -5360,7 +5732,7 @@ public org.terasology.protobuf.NetData.ModuleRequest.Builder addModuleRequestBui
        * <code>optional .ModuleDataHeader moduleDataHeader = 20;</code>
        */
       public boolean hasModuleDataHeader() {
-        return ((bitField0_ & 0x00004000) == 0x00004000);
+        return ((bitField0_ & 0x00008000) == 0x00008000);
       }
       /**
        * <code>optional .ModuleDataHeader moduleDataHeader = 20;</code>
@@ -5385,7 +5757,7 @@ public Builder setModuleDataHeader(org.terasology.protobuf.NetData.ModuleDataHea
         } else {
           moduleDataHeaderBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00004000;
+        bitField0_ |= 0x00008000;
         return this;
       }
       /**
@@ -5399,7 +5771,7 @@ public Builder setModuleDataHeader(
         } else {
           moduleDataHeaderBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00004000;
+        bitField0_ |= 0x00008000;
         return this;
       }
       /**
@@ -5407,7 +5779,7 @@ public Builder setModuleDataHeader(
        */
       public Builder mergeModuleDataHeader(org.terasology.protobuf.NetData.ModuleDataHeader value) {
         if (moduleDataHeaderBuilder_ == null) {
-          if (((bitField0_ & 0x00004000) == 0x00004000) &&
+          if (((bitField0_ & 0x00008000) == 0x00008000) &&
               moduleDataHeader_ != org.terasology.protobuf.NetData.ModuleDataHeader.getDefaultInstance()) {
             moduleDataHeader_ =
               org.terasology.protobuf.NetData.ModuleDataHeader.newBuilder(moduleDataHeader_).mergeFrom(value).buildPartial();
@@ -5418,7 +5790,7 @@ public Builder mergeModuleDataHeader(org.terasology.protobuf.NetData.ModuleDataH
         } else {
           moduleDataHeaderBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00004000;
+        bitField0_ |= 0x00008000;
         return this;
       }
       /**
@@ -5431,14 +5803,14 @@ public Builder clearModuleDataHeader() {
         } else {
           moduleDataHeaderBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00004000);
+        bitField0_ = (bitField0_ & ~0x00008000);
         return this;
       }
       /**
        * <code>optional .ModuleDataHeader moduleDataHeader = 20;</code>
        */
       public org.terasology.protobuf.NetData.ModuleDataHeader.Builder getModuleDataHeaderBuilder() {
-        bitField0_ |= 0x00004000;
+        bitField0_ |= 0x00008000;
         onChanged();
         return getModuleDataHeaderFieldBuilder().getBuilder();
       }
@@ -5476,7 +5848,7 @@ public org.terasology.protobuf.NetData.ModuleDataHeaderOrBuilder getModuleDataHe
        * <code>optional .ModuleData moduleData = 21;</code>
        */
       public boolean hasModuleData() {
-        return ((bitField0_ & 0x00008000) == 0x00008000);
+        return ((bitField0_ & 0x00010000) == 0x00010000);
       }
       /**
        * <code>optional .ModuleData moduleData = 21;</code>
@@ -5501,7 +5873,7 @@ public Builder setModuleData(org.terasology.protobuf.NetData.ModuleData value) {
         } else {
           moduleDataBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00008000;
+        bitField0_ |= 0x00010000;
         return this;
       }
       /**
@@ -5515,7 +5887,7 @@ public Builder setModuleData(
         } else {
           moduleDataBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00008000;
+        bitField0_ |= 0x00010000;
         return this;
       }
       /**
@@ -5523,7 +5895,7 @@ public Builder setModuleData(
        */
       public Builder mergeModuleData(org.terasology.protobuf.NetData.ModuleData value) {
         if (moduleDataBuilder_ == null) {
-          if (((bitField0_ & 0x00008000) == 0x00008000) &&
+          if (((bitField0_ & 0x00010000) == 0x00010000) &&
               moduleData_ != org.terasology.protobuf.NetData.ModuleData.getDefaultInstance()) {
             moduleData_ =
               org.terasology.protobuf.NetData.ModuleData.newBuilder(moduleData_).mergeFrom(value).buildPartial();
@@ -5534,7 +5906,7 @@ public Builder mergeModuleData(org.terasology.protobuf.NetData.ModuleData value)
         } else {
           moduleDataBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00008000;
+        bitField0_ |= 0x00010000;
         return this;
       }
       /**
@@ -5547,14 +5919,14 @@ public Builder clearModuleData() {
         } else {
           moduleDataBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00008000);
+        bitField0_ = (bitField0_ & ~0x00010000);
         return this;
       }
       /**
        * <code>optional .ModuleData moduleData = 21;</code>
        */
       public org.terasology.protobuf.NetData.ModuleData.Builder getModuleDataBuilder() {
-        bitField0_ |= 0x00008000;
+        bitField0_ |= 0x00010000;
         onChanged();
         return getModuleDataFieldBuilder().getBuilder();
       }
@@ -5592,7 +5964,7 @@ public org.terasology.protobuf.NetData.ModuleDataOrBuilder getModuleDataOrBuilde
        * <code>optional .JoinCompleteMessage joinComplete = 22;</code>
        */
       public boolean hasJoinComplete() {
-        return ((bitField0_ & 0x00010000) == 0x00010000);
+        return ((bitField0_ & 0x00020000) == 0x00020000);
       }
       /**
        * <code>optional .JoinCompleteMessage joinComplete = 22;</code>
@@ -5617,7 +5989,7 @@ public Builder setJoinComplete(org.terasology.protobuf.NetData.JoinCompleteMessa
         } else {
           joinCompleteBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00010000;
+        bitField0_ |= 0x00020000;
         return this;
       }
       /**
@@ -5631,7 +6003,7 @@ public Builder setJoinComplete(
         } else {
           joinCompleteBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00010000;
+        bitField0_ |= 0x00020000;
         return this;
       }
       /**
@@ -5639,7 +6011,7 @@ public Builder setJoinComplete(
        */
       public Builder mergeJoinComplete(org.terasology.protobuf.NetData.JoinCompleteMessage value) {
         if (joinCompleteBuilder_ == null) {
-          if (((bitField0_ & 0x00010000) == 0x00010000) &&
+          if (((bitField0_ & 0x00020000) == 0x00020000) &&
               joinComplete_ != org.terasology.protobuf.NetData.JoinCompleteMessage.getDefaultInstance()) {
             joinComplete_ =
               org.terasology.protobuf.NetData.JoinCompleteMessage.newBuilder(joinComplete_).mergeFrom(value).buildPartial();
@@ -5650,7 +6022,7 @@ public Builder mergeJoinComplete(org.terasology.protobuf.NetData.JoinCompleteMes
         } else {
           joinCompleteBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00010000;
+        bitField0_ |= 0x00020000;
         return this;
       }
       /**
@@ -5663,14 +6035,14 @@ public Builder clearJoinComplete() {
         } else {
           joinCompleteBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00010000);
+        bitField0_ = (bitField0_ & ~0x00020000);
         return this;
       }
       /**
        * <code>optional .JoinCompleteMessage joinComplete = 22;</code>
        */
       public org.terasology.protobuf.NetData.JoinCompleteMessage.Builder getJoinCompleteBuilder() {
-        bitField0_ |= 0x00010000;
+        bitField0_ |= 0x00020000;
         onChanged();
         return getJoinCompleteFieldBuilder().getBuilder();
       }
@@ -5712,7 +6084,7 @@ public org.terasology.protobuf.NetData.JoinCompleteMessageOrBuilder getJoinCompl
        * </pre>
        */
       public boolean hasHandshakeHello() {
-        return ((bitField0_ & 0x00020000) == 0x00020000);
+        return ((bitField0_ & 0x00040000) == 0x00040000);
       }
       /**
        * <code>optional .HandshakeHello handshakeHello = 100;</code>
@@ -5745,7 +6117,7 @@ public Builder setHandshakeHello(org.terasology.protobuf.NetData.HandshakeHello
         } else {
           handshakeHelloBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00020000;
+        bitField0_ |= 0x00040000;
         return this;
       }
       /**
@@ -5763,7 +6135,7 @@ public Builder setHandshakeHello(
         } else {
           handshakeHelloBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00020000;
+        bitField0_ |= 0x00040000;
         return this;
       }
       /**
@@ -5775,7 +6147,7 @@ public Builder setHandshakeHello(
        */
       public Builder mergeHandshakeHello(org.terasology.protobuf.NetData.HandshakeHello value) {
         if (handshakeHelloBuilder_ == null) {
-          if (((bitField0_ & 0x00020000) == 0x00020000) &&
+          if (((bitField0_ & 0x00040000) == 0x00040000) &&
               handshakeHello_ != org.terasology.protobuf.NetData.HandshakeHello.getDefaultInstance()) {
             handshakeHello_ =
               org.terasology.protobuf.NetData.HandshakeHello.newBuilder(handshakeHello_).mergeFrom(value).buildPartial();
@@ -5786,7 +6158,7 @@ public Builder mergeHandshakeHello(org.terasology.protobuf.NetData.HandshakeHell
         } else {
           handshakeHelloBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00020000;
+        bitField0_ |= 0x00040000;
         return this;
       }
       /**
@@ -5803,7 +6175,7 @@ public Builder clearHandshakeHello() {
         } else {
           handshakeHelloBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00020000);
+        bitField0_ = (bitField0_ & ~0x00040000);
         return this;
       }
       /**
@@ -5814,7 +6186,7 @@ public Builder clearHandshakeHello() {
        * </pre>
        */
       public org.terasology.protobuf.NetData.HandshakeHello.Builder getHandshakeHelloBuilder() {
-        bitField0_ |= 0x00020000;
+        bitField0_ |= 0x00040000;
         onChanged();
         return getHandshakeHelloFieldBuilder().getBuilder();
       }
@@ -5860,7 +6232,7 @@ public org.terasology.protobuf.NetData.HandshakeHelloOrBuilder getHandshakeHello
        * <code>optional .NewIdentityRequest newIdentityRequest = 101;</code>
        */
       public boolean hasNewIdentityRequest() {
-        return ((bitField0_ & 0x00040000) == 0x00040000);
+        return ((bitField0_ & 0x00080000) == 0x00080000);
       }
       /**
        * <code>optional .NewIdentityRequest newIdentityRequest = 101;</code>
@@ -5885,7 +6257,7 @@ public Builder setNewIdentityRequest(org.terasology.protobuf.NetData.NewIdentity
         } else {
           newIdentityRequestBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00040000;
+        bitField0_ |= 0x00080000;
         return this;
       }
       /**
@@ -5899,7 +6271,7 @@ public Builder setNewIdentityRequest(
         } else {
           newIdentityRequestBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00040000;
+        bitField0_ |= 0x00080000;
         return this;
       }
       /**
@@ -5907,7 +6279,7 @@ public Builder setNewIdentityRequest(
        */
       public Builder mergeNewIdentityRequest(org.terasology.protobuf.NetData.NewIdentityRequest value) {
         if (newIdentityRequestBuilder_ == null) {
-          if (((bitField0_ & 0x00040000) == 0x00040000) &&
+          if (((bitField0_ & 0x00080000) == 0x00080000) &&
               newIdentityRequest_ != org.terasology.protobuf.NetData.NewIdentityRequest.getDefaultInstance()) {
             newIdentityRequest_ =
               org.terasology.protobuf.NetData.NewIdentityRequest.newBuilder(newIdentityRequest_).mergeFrom(value).buildPartial();
@@ -5918,7 +6290,7 @@ public Builder mergeNewIdentityRequest(org.terasology.protobuf.NetData.NewIdenti
         } else {
           newIdentityRequestBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00040000;
+        bitField0_ |= 0x00080000;
         return this;
       }
       /**
@@ -5931,14 +6303,14 @@ public Builder clearNewIdentityRequest() {
         } else {
           newIdentityRequestBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00040000);
+        bitField0_ = (bitField0_ & ~0x00080000);
         return this;
       }
       /**
        * <code>optional .NewIdentityRequest newIdentityRequest = 101;</code>
        */
       public org.terasology.protobuf.NetData.NewIdentityRequest.Builder getNewIdentityRequestBuilder() {
-        bitField0_ |= 0x00040000;
+        bitField0_ |= 0x00080000;
         onChanged();
         return getNewIdentityRequestFieldBuilder().getBuilder();
       }
@@ -5976,7 +6348,7 @@ public org.terasology.protobuf.NetData.NewIdentityRequestOrBuilder getNewIdentit
        * <code>optional .ProvisionIdentity provisionIdentity = 102;</code>
        */
       public boolean hasProvisionIdentity() {
-        return ((bitField0_ & 0x00080000) == 0x00080000);
+        return ((bitField0_ & 0x00100000) == 0x00100000);
       }
       /**
        * <code>optional .ProvisionIdentity provisionIdentity = 102;</code>
@@ -6001,7 +6373,7 @@ public Builder setProvisionIdentity(org.terasology.protobuf.NetData.ProvisionIde
         } else {
           provisionIdentityBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00080000;
+        bitField0_ |= 0x00100000;
         return this;
       }
       /**
@@ -6015,7 +6387,7 @@ public Builder setProvisionIdentity(
         } else {
           provisionIdentityBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00080000;
+        bitField0_ |= 0x00100000;
         return this;
       }
       /**
@@ -6023,7 +6395,7 @@ public Builder setProvisionIdentity(
        */
       public Builder mergeProvisionIdentity(org.terasology.protobuf.NetData.ProvisionIdentity value) {
         if (provisionIdentityBuilder_ == null) {
-          if (((bitField0_ & 0x00080000) == 0x00080000) &&
+          if (((bitField0_ & 0x00100000) == 0x00100000) &&
               provisionIdentity_ != org.terasology.protobuf.NetData.ProvisionIdentity.getDefaultInstance()) {
             provisionIdentity_ =
               org.terasology.protobuf.NetData.ProvisionIdentity.newBuilder(provisionIdentity_).mergeFrom(value).buildPartial();
@@ -6034,7 +6406,7 @@ public Builder mergeProvisionIdentity(org.terasology.protobuf.NetData.ProvisionI
         } else {
           provisionIdentityBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00080000;
+        bitField0_ |= 0x00100000;
         return this;
       }
       /**
@@ -6047,14 +6419,14 @@ public Builder clearProvisionIdentity() {
         } else {
           provisionIdentityBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00080000);
+        bitField0_ = (bitField0_ & ~0x00100000);
         return this;
       }
       /**
        * <code>optional .ProvisionIdentity provisionIdentity = 102;</code>
        */
       public org.terasology.protobuf.NetData.ProvisionIdentity.Builder getProvisionIdentityBuilder() {
-        bitField0_ |= 0x00080000;
+        bitField0_ |= 0x00100000;
         onChanged();
         return getProvisionIdentityFieldBuilder().getBuilder();
       }
@@ -6092,7 +6464,7 @@ public org.terasology.protobuf.NetData.ProvisionIdentityOrBuilder getProvisionId
        * <code>optional .HandshakeVerification handshakeVerification = 103;</code>
        */
       public boolean hasHandshakeVerification() {
-        return ((bitField0_ & 0x00100000) == 0x00100000);
+        return ((bitField0_ & 0x00200000) == 0x00200000);
       }
       /**
        * <code>optional .HandshakeVerification handshakeVerification = 103;</code>
@@ -6117,7 +6489,7 @@ public Builder setHandshakeVerification(org.terasology.protobuf.NetData.Handshak
         } else {
           handshakeVerificationBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00100000;
+        bitField0_ |= 0x00200000;
         return this;
       }
       /**
@@ -6131,7 +6503,7 @@ public Builder setHandshakeVerification(
         } else {
           handshakeVerificationBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00100000;
+        bitField0_ |= 0x00200000;
         return this;
       }
       /**
@@ -6139,7 +6511,7 @@ public Builder setHandshakeVerification(
        */
       public Builder mergeHandshakeVerification(org.terasology.protobuf.NetData.HandshakeVerification value) {
         if (handshakeVerificationBuilder_ == null) {
-          if (((bitField0_ & 0x00100000) == 0x00100000) &&
+          if (((bitField0_ & 0x00200000) == 0x00200000) &&
               handshakeVerification_ != org.terasology.protobuf.NetData.HandshakeVerification.getDefaultInstance()) {
             handshakeVerification_ =
               org.terasology.protobuf.NetData.HandshakeVerification.newBuilder(handshakeVerification_).mergeFrom(value).buildPartial();
@@ -6150,7 +6522,7 @@ public Builder mergeHandshakeVerification(org.terasology.protobuf.NetData.Handsh
         } else {
           handshakeVerificationBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00100000;
+        bitField0_ |= 0x00200000;
         return this;
       }
       /**
@@ -6163,14 +6535,14 @@ public Builder clearHandshakeVerification() {
         } else {
           handshakeVerificationBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00100000);
+        bitField0_ = (bitField0_ & ~0x00200000);
         return this;
       }
       /**
        * <code>optional .HandshakeVerification handshakeVerification = 103;</code>
        */
       public org.terasology.protobuf.NetData.HandshakeVerification.Builder getHandshakeVerificationBuilder() {
-        bitField0_ |= 0x00100000;
+        bitField0_ |= 0x00200000;
         onChanged();
         return getHandshakeVerificationFieldBuilder().getBuilder();
       }
@@ -6247,6 +6619,41 @@ public interface HandshakeHelloOrBuilder extends
      * <code>optional sint64 timestamp = 3;</code>
      */
     long getTimestamp();
+
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    com.google.protobuf.ProtocolStringList
+        getSupportedCompressionList();
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    int getSupportedCompressionCount();
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    java.lang.String getSupportedCompression(int index);
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getSupportedCompressionBytes(int index);
   }
   /**
    * Protobuf type {@code HandshakeHello}
@@ -6324,6 +6731,15 @@ private HandshakeHello(
               timestamp_ = input.readSInt64();
               break;
             }
+            case 34: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+                supportedCompression_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000008;
+              }
+              supportedCompression_.add(bs);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -6332,6 +6748,9 @@ private HandshakeHello(
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+          supportedCompression_ = supportedCompression_.getUnmodifiableView();
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -6415,10 +6834,56 @@ public long getTimestamp() {
       return timestamp_;
     }
 
+    public static final int SUPPORTEDCOMPRESSION_FIELD_NUMBER = 4;
+    private com.google.protobuf.LazyStringList supportedCompression_;
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    public com.google.protobuf.ProtocolStringList
+        getSupportedCompressionList() {
+      return supportedCompression_;
+    }
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    public int getSupportedCompressionCount() {
+      return supportedCompression_.size();
+    }
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    public java.lang.String getSupportedCompression(int index) {
+      return supportedCompression_.get(index);
+    }
+    /**
+     * <code>repeated string supportedCompression = 4;</code>
+     *
+     * <pre>
+     * Frame compression methods the client is able to decode, the server picks one of them
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getSupportedCompressionBytes(int index) {
+      return supportedCompression_.getByteString(index);
+    }
+
     private void initFields() {
       random_ = com.google.protobuf.ByteString.EMPTY;
       certificate_ = org.terasology.protobuf.NetData.Certificate.getDefaultInstance();
       timestamp_ = 0L;
+      supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -6455,6 +6920,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeSInt64(3, timestamp_);
       }
+      for (int i = 0; i < supportedCompression_.size(); i++) {
+        output.writeBytes(4, supportedCompression_.getByteString(i));
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -6477,6 +6945,15 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeSInt64Size(3, timestamp_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < supportedCompression_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(supportedCompression_.getByteString(i));
+        }
+        size += dataSize;
+        size += 1 * getSupportedCompressionList().size();
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -6607,6 +7084,8 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00000002);
         timestamp_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000004);
+        supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -6651,6 +7130,11 @@ public org.terasology.protobuf.NetData.HandshakeHello buildPartial() {
           to_bitField0_ |= 0x00000004;
         }
         result.timestamp_ = timestamp_;
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          supportedCompression_ = supportedCompression_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000008);
+        }
+        result.supportedCompression_ = supportedCompression_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -6676,6 +7160,16 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.HandshakeHello other) {
         if (other.hasTimestamp()) {
           setTimestamp(other.getTimestamp());
         }
+        if (!other.supportedCompression_.isEmpty()) {
+          if (supportedCompression_.isEmpty()) {
+            supportedCompression_ = other.supportedCompression_;
+            bitField0_ = (bitField0_ & ~0x00000008);
+          } else {
+            ensureSupportedCompressionIsMutable();
+            supportedCompression_.addAll(other.supportedCompression_);
+          }
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -6897,6 +7391,135 @@ public Builder clearTimestamp() {
         return this;
       }
 
+      private com.google.protobuf.LazyStringList supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureSupportedCompressionIsMutable() {
+        if (!((bitField0_ & 0x00000008) == 0x00000008)) {
+          supportedCompression_ = new com.google.protobuf.LazyStringArrayList(supportedCompression_);
+          bitField0_ |= 0x00000008;
+         }
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public com.google.protobuf.ProtocolStringList
+          getSupportedCompressionList() {
+        return supportedCompression_.getUnmodifiableView();
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public int getSupportedCompressionCount() {
+        return supportedCompression_.size();
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public java.lang.String getSupportedCompression(int index) {
+        return supportedCompression_.get(index);
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getSupportedCompressionBytes(int index) {
+        return supportedCompression_.getByteString(index);
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public Builder setSupportedCompression(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public Builder addSupportedCompression(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public Builder addAllSupportedCompression(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureSupportedCompressionIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, supportedCompression_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public Builder clearSupportedCompression() {
+        supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 4;</code>
+       *
+       * <pre>
+       * Frame compression methods the client is able to decode, the server picks one of them
+       * </pre>
+       */
+      public Builder addSupportedCompressionBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.add(value);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:HandshakeHello)
     }
 
@@ -6930,15 +7553,34 @@ public interface NewIdentityRequestOrBuilder extends
      * <code>optional bytes random = 2;</code>
      */
     com.google.protobuf.ByteString getRandom();
-  }
-  /**
-   * Protobuf type {@code NewIdentityRequest}
-   */
-  public static final class NewIdentityRequest extends
-      com.google.protobuf.GeneratedMessage.ExtendableMessage<
-        NewIdentityRequest> implements
-      // @@protoc_insertion_point(message_implements:NewIdentityRequest)
-      NewIdentityRequestOrBuilder {
+
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    com.google.protobuf.ProtocolStringList
+        getSupportedCompressionList();
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    int getSupportedCompressionCount();
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    java.lang.String getSupportedCompression(int index);
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getSupportedCompressionBytes(int index);
+  }
+  /**
+   * Protobuf type {@code NewIdentityRequest}
+   */
+  public static final class NewIdentityRequest extends
+      com.google.protobuf.GeneratedMessage.ExtendableMessage<
+        NewIdentityRequest> implements
+      // @@protoc_insertion_point(message_implements:NewIdentityRequest)
+      NewIdentityRequestOrBuilder {
     // Use NewIdentityRequest.newBuilder() to construct.
     private NewIdentityRequest(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.NetData.NewIdentityRequest, ?> builder) {
       super(builder);
@@ -6994,6 +7636,15 @@ private NewIdentityRequest(
               random_ = input.readBytes();
               break;
             }
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                supportedCompression_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              supportedCompression_.add(bs);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -7002,6 +7653,9 @@ private NewIdentityRequest(
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          supportedCompression_ = supportedCompression_.getUnmodifiableView();
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -7064,9 +7718,39 @@ public com.google.protobuf.ByteString getRandom() {
       return random_;
     }
 
+    public static final int SUPPORTEDCOMPRESSION_FIELD_NUMBER = 3;
+    private com.google.protobuf.LazyStringList supportedCompression_;
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    public com.google.protobuf.ProtocolStringList
+        getSupportedCompressionList() {
+      return supportedCompression_;
+    }
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    public int getSupportedCompressionCount() {
+      return supportedCompression_.size();
+    }
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    public java.lang.String getSupportedCompression(int index) {
+      return supportedCompression_.get(index);
+    }
+    /**
+     * <code>repeated string supportedCompression = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getSupportedCompressionBytes(int index) {
+      return supportedCompression_.getByteString(index);
+    }
+
     private void initFields() {
       preMasterSecret_ = com.google.protobuf.ByteString.EMPTY;
       random_ = com.google.protobuf.ByteString.EMPTY;
+      supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -7094,6 +7778,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeBytes(2, random_);
       }
+      for (int i = 0; i < supportedCompression_.size(); i++) {
+        output.writeBytes(3, supportedCompression_.getByteString(i));
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -7112,6 +7799,15 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(2, random_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < supportedCompression_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(supportedCompression_.getByteString(i));
+        }
+        size += dataSize;
+        size += 1 * getSupportedCompressionList().size();
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -7235,6 +7931,8 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00000001);
         random_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000002);
+        supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -7271,6 +7969,11 @@ public org.terasology.protobuf.NetData.NewIdentityRequest buildPartial() {
           to_bitField0_ |= 0x00000002;
         }
         result.random_ = random_;
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          supportedCompression_ = supportedCompression_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.supportedCompression_ = supportedCompression_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -7293,6 +7996,16 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NewIdentityRequest othe
         if (other.hasRandom()) {
           setRandom(other.getRandom());
         }
+        if (!other.supportedCompression_.isEmpty()) {
+          if (supportedCompression_.isEmpty()) {
+            supportedCompression_ = other.supportedCompression_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureSupportedCompressionIsMutable();
+            supportedCompression_.addAll(other.supportedCompression_);
+          }
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -7395,6 +8108,99 @@ public Builder clearRandom() {
         return this;
       }
 
+      private com.google.protobuf.LazyStringList supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureSupportedCompressionIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          supportedCompression_ = new com.google.protobuf.LazyStringArrayList(supportedCompression_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public com.google.protobuf.ProtocolStringList
+          getSupportedCompressionList() {
+        return supportedCompression_.getUnmodifiableView();
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public int getSupportedCompressionCount() {
+        return supportedCompression_.size();
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public java.lang.String getSupportedCompression(int index) {
+        return supportedCompression_.get(index);
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getSupportedCompressionBytes(int index) {
+        return supportedCompression_.getByteString(index);
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public Builder setSupportedCompression(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public Builder addSupportedCompression(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public Builder addAllSupportedCompression(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureSupportedCompressionIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, supportedCompression_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public Builder clearSupportedCompression() {
+        supportedCompression_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string supportedCompression = 3;</code>
+       */
+      public Builder addSupportedCompressionBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureSupportedCompressionIsMutable();
+        supportedCompression_.add(value);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:NewIdentityRequest)
     }
 
@@ -7419,6 +8225,32 @@ public interface ProvisionIdentityOrBuilder extends
      * <code>optional bytes encryptedCertificates = 1;</code>
      */
     com.google.protobuf.ByteString getEncryptedCertificates();
+
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    boolean hasCompression();
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    java.lang.String getCompression();
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCompressionBytes();
   }
   /**
    * Protobuf type {@code ProvisionIdentity}
@@ -7478,6 +8310,12 @@ private ProvisionIdentity(
               encryptedCertificates_ = input.readBytes();
               break;
             }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              compression_ = bs;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -7533,8 +8371,63 @@ public com.google.protobuf.ByteString getEncryptedCertificates() {
       return encryptedCertificates_;
     }
 
+    public static final int COMPRESSION_FIELD_NUMBER = 2;
+    private java.lang.Object compression_;
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public boolean hasCompression() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public java.lang.String getCompression() {
+      java.lang.Object ref = compression_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compression_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionBytes() {
+      java.lang.Object ref = compression_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compression_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private void initFields() {
       encryptedCertificates_ = com.google.protobuf.ByteString.EMPTY;
+      compression_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -7559,6 +8452,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeBytes(1, encryptedCertificates_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getCompressionBytes());
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -7573,6 +8469,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(1, encryptedCertificates_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, getCompressionBytes());
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -7694,6 +8594,8 @@ public Builder clear() {
         super.clear();
         encryptedCertificates_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000001);
+        compression_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -7726,6 +8628,10 @@ public org.terasology.protobuf.NetData.ProvisionIdentity buildPartial() {
           to_bitField0_ |= 0x00000001;
         }
         result.encryptedCertificates_ = encryptedCertificates_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compression_ = compression_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -7745,6 +8651,11 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.ProvisionIdentity other
         if (other.hasEncryptedCertificates()) {
           setEncryptedCertificates(other.getEncryptedCertificates());
         }
+        if (other.hasCompression()) {
+          bitField0_ |= 0x00000002;
+          compression_ = other.compression_;
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -7812,25 +8723,125 @@ public Builder clearEncryptedCertificates() {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:ProvisionIdentity)
-    }
-
-    static {
-      defaultInstance = new ProvisionIdentity(true);
-      defaultInstance.initFields();
-    }
-
-    // @@protoc_insertion_point(class_scope:ProvisionIdentity)
+      private java.lang.Object compression_ = "";
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public boolean hasCompression() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public java.lang.String getCompression() {
+        java.lang.Object ref = compression_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compression_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionBytes() {
+        java.lang.Object ref = compression_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compression_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder setCompression(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
   }
-
-  public interface CertificateSetOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:CertificateSet)
-      com.google.protobuf.GeneratedMessage.
-          ExtendableMessageOrBuilder<CertificateSet> {
-
-    /**
-     * <code>optional .Certificate publicCertificate = 1;</code>
-     */
+  bitField0_ |= 0x00000002;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder clearCompression() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        compression_ = getDefaultInstance().getCompression();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder setCompressionBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ProvisionIdentity)
+    }
+
+    static {
+      defaultInstance = new ProvisionIdentity(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ProvisionIdentity)
+  }
+
+  public interface CertificateSetOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:CertificateSet)
+      com.google.protobuf.GeneratedMessage.
+          ExtendableMessageOrBuilder<CertificateSet> {
+
+    /**
+     * <code>optional .Certificate publicCertificate = 1;</code>
+     */
     boolean hasPublicCertificate();
     /**
      * <code>optional .Certificate publicCertificate = 1;</code>
@@ -8454,6 +9465,32 @@ public interface HandshakeVerificationOrBuilder extends
      * <code>optional bytes signature = 1;</code>
      */
     com.google.protobuf.ByteString getSignature();
+
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    boolean hasCompression();
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    java.lang.String getCompression();
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCompressionBytes();
   }
   /**
    * Protobuf type {@code HandshakeVerification}
@@ -8513,6 +9550,12 @@ private HandshakeVerification(
               signature_ = input.readBytes();
               break;
             }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              compression_ = bs;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -8568,8 +9611,63 @@ public com.google.protobuf.ByteString getSignature() {
       return signature_;
     }
 
+    public static final int COMPRESSION_FIELD_NUMBER = 2;
+    private java.lang.Object compression_;
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public boolean hasCompression() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public java.lang.String getCompression() {
+      java.lang.Object ref = compression_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compression_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string compression = 2;</code>
+     *
+     * <pre>
+     * The frame compression used by the server for all following messages, zlib if absent
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionBytes() {
+      java.lang.Object ref = compression_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compression_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private void initFields() {
       signature_ = com.google.protobuf.ByteString.EMPTY;
+      compression_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -8594,6 +9692,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeBytes(1, signature_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getCompressionBytes());
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -8608,6 +9709,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(1, signature_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, getCompressionBytes());
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -8729,6 +9834,8 @@ public Builder clear() {
         super.clear();
         signature_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000001);
+        compression_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -8761,6 +9868,10 @@ public org.terasology.protobuf.NetData.HandshakeVerification buildPartial() {
           to_bitField0_ |= 0x00000001;
         }
         result.signature_ = signature_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compression_ = compression_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -8780,6 +9891,11 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.HandshakeVerification o
         if (other.hasSignature()) {
           setSignature(other.getSignature());
         }
+        if (other.hasCompression()) {
+          bitField0_ |= 0x00000002;
+          compression_ = other.compression_;
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -8847,6 +9963,106 @@ public Builder clearSignature() {
         return this;
       }
 
+      private java.lang.Object compression_ = "";
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public boolean hasCompression() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public java.lang.String getCompression() {
+        java.lang.Object ref = compression_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compression_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionBytes() {
+        java.lang.Object ref = compression_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compression_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder setCompression(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder clearCompression() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        compression_ = getDefaultInstance().getCompression();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression = 2;</code>
+       *
+       * <pre>
+       * The frame compression used by the server for all following messages, zlib if absent
+       * </pre>
+       */
+      public Builder setCompressionBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:HandshakeVerification)
     }
 
@@ -11025,53 +12241,811 @@ protected java.lang.Object writeReplace()
       return super.writeReplace();
     }
 
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.terasology.protobuf.NetData.BlockChangeMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code BlockChangeMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.ExtendableBuilder<
+          org.terasology.protobuf.NetData.BlockChangeMessage, Builder> implements
+        // @@protoc_insertion_point(builder_implements:BlockChangeMessage)
+        org.terasology.protobuf.NetData.BlockChangeMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.terasology.protobuf.NetData.BlockChangeMessage.class, org.terasology.protobuf.NetData.BlockChangeMessage.Builder.class);
+      }
+
+      // Construct using org.terasology.protobuf.NetData.BlockChangeMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getPosFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (posBuilder_ == null) {
+          pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+        } else {
+          posBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        newBlock_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_descriptor;
+      }
+
+      public org.terasology.protobuf.NetData.BlockChangeMessage getDefaultInstanceForType() {
+        return org.terasology.protobuf.NetData.BlockChangeMessage.getDefaultInstance();
+      }
+
+      public org.terasology.protobuf.NetData.BlockChangeMessage build() {
+        org.terasology.protobuf.NetData.BlockChangeMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.terasology.protobuf.NetData.BlockChangeMessage buildPartial() {
+        org.terasology.protobuf.NetData.BlockChangeMessage result = new org.terasology.protobuf.NetData.BlockChangeMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        if (posBuilder_ == null) {
+          result.pos_ = pos_;
+        } else {
+          result.pos_ = posBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.newBlock_ = newBlock_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.terasology.protobuf.NetData.BlockChangeMessage) {
+          return mergeFrom((org.terasology.protobuf.NetData.BlockChangeMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.terasology.protobuf.NetData.BlockChangeMessage other) {
+        if (other == org.terasology.protobuf.NetData.BlockChangeMessage.getDefaultInstance()) return this;
+        if (other.hasPos()) {
+          mergePos(other.getPos());
+        }
+        if (other.hasNewBlock()) {
+          setNewBlock(other.getNewBlock());
+        }
+        this.mergeExtensionFields(other);
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!extensionsAreInitialized()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.terasology.protobuf.NetData.BlockChangeMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.terasology.protobuf.NetData.BlockChangeMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private org.terasology.protobuf.NetData.Vector3iData pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> posBuilder_;
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public boolean hasPos() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iData getPos() {
+        if (posBuilder_ == null) {
+          return pos_;
+        } else {
+          return posBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public Builder setPos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (posBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          pos_ = value;
+          onChanged();
+        } else {
+          posBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public Builder setPos(
+          org.terasology.protobuf.NetData.Vector3iData.Builder builderForValue) {
+        if (posBuilder_ == null) {
+          pos_ = builderForValue.build();
+          onChanged();
+        } else {
+          posBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public Builder mergePos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (posBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001) &&
+              pos_ != org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance()) {
+            pos_ =
+              org.terasology.protobuf.NetData.Vector3iData.newBuilder(pos_).mergeFrom(value).buildPartial();
+          } else {
+            pos_ = value;
+          }
+          onChanged();
+        } else {
+          posBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public Builder clearPos() {
+        if (posBuilder_ == null) {
+          pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+          onChanged();
+        } else {
+          posBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iData.Builder getPosBuilder() {
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return getPosFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getPosOrBuilder() {
+        if (posBuilder_ != null) {
+          return posBuilder_.getMessageOrBuilder();
+        } else {
+          return pos_;
+        }
+      }
+      /**
+       * <code>optional .Vector3iData pos = 1;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> 
+          getPosFieldBuilder() {
+        if (posBuilder_ == null) {
+          posBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder>(
+                  getPos(),
+                  getParentForChildren(),
+                  isClean());
+          pos_ = null;
+        }
+        return posBuilder_;
+      }
+
+      private int newBlock_ ;
+      /**
+       * <code>optional int32 newBlock = 2;</code>
+       */
+      public boolean hasNewBlock() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional int32 newBlock = 2;</code>
+       */
+      public int getNewBlock() {
+        return newBlock_;
+      }
+      /**
+       * <code>optional int32 newBlock = 2;</code>
+       */
+      public Builder setNewBlock(int value) {
+        bitField0_ |= 0x00000002;
+        newBlock_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 newBlock = 2;</code>
+       */
+      public Builder clearNewBlock() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        newBlock_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:BlockChangeMessage)
+    }
+
+    static {
+      defaultInstance = new BlockChangeMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:BlockChangeMessage)
+  }
+
+  public interface BlockChangeBatchMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:BlockChangeBatchMessage)
+      com.google.protobuf.GeneratedMessage.
+          ExtendableMessageOrBuilder<BlockChangeBatchMessage> {
+
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    boolean hasChunkPos();
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    org.terasology.protobuf.NetData.Vector3iData getChunkPos();
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder();
+
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getBlockIndexList();
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    int getBlockIndexCount();
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    int getBlockIndex(int index);
+
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getNewBlockList();
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    int getNewBlockCount();
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    int getNewBlock(int index);
+  }
+  /**
+   * Protobuf type {@code BlockChangeBatchMessage}
+   *
+   * <pre>
+   * The changed blocks of one chunk, applied after the blockChange messages of the same NetMessage
+   * </pre>
+   */
+  public static final class BlockChangeBatchMessage extends
+      com.google.protobuf.GeneratedMessage.ExtendableMessage<
+        BlockChangeBatchMessage> implements
+      // @@protoc_insertion_point(message_implements:BlockChangeBatchMessage)
+      BlockChangeBatchMessageOrBuilder {
+    // Use BlockChangeBatchMessage.newBuilder() to construct.
+    private BlockChangeBatchMessage(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.NetData.BlockChangeBatchMessage, ?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private BlockChangeBatchMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final BlockChangeBatchMessage defaultInstance;
+    public static BlockChangeBatchMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public BlockChangeBatchMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private BlockChangeBatchMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              org.terasology.protobuf.NetData.Vector3iData.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000001) == 0x00000001)) {
+                subBuilder = chunkPos_.toBuilder();
+              }
+              chunkPos_ = input.readMessage(org.terasology.protobuf.NetData.Vector3iData.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(chunkPos_);
+                chunkPos_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000001;
+              break;
+            }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                blockIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              blockIndex_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                blockIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                blockIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 24: {
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                newBlock_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              newBlock_.add(input.readInt32());
+              break;
+            }
+            case 26: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004) && input.getBytesUntilLimit() > 0) {
+                newBlock_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                newBlock_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = java.util.Collections.unmodifiableList(blockIndex_);
+        }
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = java.util.Collections.unmodifiableList(newBlock_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.terasology.protobuf.NetData.internal_static_BlockChangeBatchMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.terasology.protobuf.NetData.internal_static_BlockChangeBatchMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.terasology.protobuf.NetData.BlockChangeBatchMessage.class, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<BlockChangeBatchMessage> PARSER =
+        new com.google.protobuf.AbstractParser<BlockChangeBatchMessage>() {
+      public BlockChangeBatchMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new BlockChangeBatchMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<BlockChangeBatchMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int CHUNKPOS_FIELD_NUMBER = 1;
+    private org.terasology.protobuf.NetData.Vector3iData chunkPos_;
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public boolean hasChunkPos() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public org.terasology.protobuf.NetData.Vector3iData getChunkPos() {
+      return chunkPos_;
+    }
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder() {
+      return chunkPos_;
+    }
+
+    public static final int BLOCKINDEX_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> blockIndex_;
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getBlockIndexList() {
+      return blockIndex_;
+    }
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    public int getBlockIndexCount() {
+      return blockIndex_.size();
+    }
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Indices of the changed blocks within the chunk, see BlockChangeBatch
+     * </pre>
+     */
+    public int getBlockIndex(int index) {
+      return blockIndex_.get(index);
+    }
+    private int blockIndexMemoizedSerializedSize = -1;
+
+    public static final int NEWBLOCK_FIELD_NUMBER = 3;
+    private java.util.List<java.lang.Integer> newBlock_;
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getNewBlockList() {
+      return newBlock_;
+    }
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public int getNewBlockCount() {
+      return newBlock_.size();
+    }
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public int getNewBlock(int index) {
+      return newBlock_.get(index);
+    }
+    private int newBlockMemoizedSerializedSize = -1;
+
+    private void initFields() {
+      chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      blockIndex_ = java.util.Collections.emptyList();
+      newBlock_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!extensionsAreInitialized()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      com.google.protobuf.GeneratedMessage
+        .ExtendableMessage<org.terasology.protobuf.NetData.BlockChangeBatchMessage>.ExtensionWriter extensionWriter =
+          newExtensionWriter();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeMessage(1, chunkPos_);
+      }
+      if (getBlockIndexList().size() > 0) {
+        output.writeRawVarint32(18);
+        output.writeRawVarint32(blockIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < blockIndex_.size(); i++) {
+        output.writeInt32NoTag(blockIndex_.get(i));
+      }
+      if (getNewBlockList().size() > 0) {
+        output.writeRawVarint32(26);
+        output.writeRawVarint32(newBlockMemoizedSerializedSize);
+      }
+      for (int i = 0; i < newBlock_.size(); i++) {
+        output.writeInt32NoTag(newBlock_.get(i));
+      }
+      extensionWriter.writeUntil(536870912, output);
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, chunkPos_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < blockIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(blockIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getBlockIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        blockIndexMemoizedSerializedSize = dataSize;
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < newBlock_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(newBlock_.get(i));
+        }
+        size += dataSize;
+        if (!getNewBlockList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        newBlockMemoizedSerializedSize = dataSize;
+      }
+      size += extensionsSerializedSize();
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(byte[] data)
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(java.io.InputStream input)
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseDelimitedFrom(java.io.InputStream input)
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseDelimitedFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
+    public static org.terasology.protobuf.NetData.BlockChangeBatchMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -11080,7 +13054,7 @@ public static org.terasology.protobuf.NetData.BlockChangeMessage parseFrom(
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(org.terasology.protobuf.NetData.BlockChangeMessage prototype) {
+    public static Builder newBuilder(org.terasology.protobuf.NetData.BlockChangeBatchMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -11092,26 +13066,30 @@ protected Builder newBuilderForType(
       return builder;
     }
     /**
-     * Protobuf type {@code BlockChangeMessage}
+     * Protobuf type {@code BlockChangeBatchMessage}
+     *
+     * <pre>
+     * The changed blocks of one chunk, applied after the blockChange messages of the same NetMessage
+     * </pre>
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.ExtendableBuilder<
-          org.terasology.protobuf.NetData.BlockChangeMessage, Builder> implements
-        // @@protoc_insertion_point(builder_implements:BlockChangeMessage)
-        org.terasology.protobuf.NetData.BlockChangeMessageOrBuilder {
+          org.terasology.protobuf.NetData.BlockChangeBatchMessage, Builder> implements
+        // @@protoc_insertion_point(builder_implements:BlockChangeBatchMessage)
+        org.terasology.protobuf.NetData.BlockChangeBatchMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_descriptor;
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeBatchMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_fieldAccessorTable
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeBatchMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                org.terasology.protobuf.NetData.BlockChangeMessage.class, org.terasology.protobuf.NetData.BlockChangeMessage.Builder.class);
+                org.terasology.protobuf.NetData.BlockChangeBatchMessage.class, org.terasology.protobuf.NetData.BlockChangeBatchMessage.Builder.class);
       }
 
-      // Construct using org.terasology.protobuf.NetData.BlockChangeMessage.newBuilder()
+      // Construct using org.terasology.protobuf.NetData.BlockChangeBatchMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -11123,7 +13101,7 @@ private Builder(
       }
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getPosFieldBuilder();
+          getChunkPosFieldBuilder();
         }
       }
       private static Builder create() {
@@ -11132,14 +13110,16 @@ private static Builder create() {
 
       public Builder clear() {
         super.clear();
-        if (posBuilder_ == null) {
-          pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
         } else {
-          posBuilder_.clear();
+          chunkPosBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000001);
-        newBlock_ = 0;
+        blockIndex_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000002);
+        newBlock_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -11149,35 +13129,41 @@ public Builder clone() {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return org.terasology.protobuf.NetData.internal_static_BlockChangeMessage_descriptor;
+        return org.terasology.protobuf.NetData.internal_static_BlockChangeBatchMessage_descriptor;
       }
 
-      public org.terasology.protobuf.NetData.BlockChangeMessage getDefaultInstanceForType() {
-        return org.terasology.protobuf.NetData.BlockChangeMessage.getDefaultInstance();
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage getDefaultInstanceForType() {
+        return org.terasology.protobuf.NetData.BlockChangeBatchMessage.getDefaultInstance();
       }
 
-      public org.terasology.protobuf.NetData.BlockChangeMessage build() {
-        org.terasology.protobuf.NetData.BlockChangeMessage result = buildPartial();
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage build() {
+        org.terasology.protobuf.NetData.BlockChangeBatchMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public org.terasology.protobuf.NetData.BlockChangeMessage buildPartial() {
-        org.terasology.protobuf.NetData.BlockChangeMessage result = new org.terasology.protobuf.NetData.BlockChangeMessage(this);
+      public org.terasology.protobuf.NetData.BlockChangeBatchMessage buildPartial() {
+        org.terasology.protobuf.NetData.BlockChangeBatchMessage result = new org.terasology.protobuf.NetData.BlockChangeBatchMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        if (posBuilder_ == null) {
-          result.pos_ = pos_;
+        if (chunkPosBuilder_ == null) {
+          result.chunkPos_ = chunkPos_;
         } else {
-          result.pos_ = posBuilder_.build();
+          result.chunkPos_ = chunkPosBuilder_.build();
         }
-        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
-          to_bitField0_ |= 0x00000002;
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = java.util.Collections.unmodifiableList(blockIndex_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.blockIndex_ = blockIndex_;
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = java.util.Collections.unmodifiableList(newBlock_);
+          bitField0_ = (bitField0_ & ~0x00000004);
         }
         result.newBlock_ = newBlock_;
         result.bitField0_ = to_bitField0_;
@@ -11186,21 +13172,38 @@ public org.terasology.protobuf.NetData.BlockChangeMessage buildPartial() {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof org.terasology.protobuf.NetData.BlockChangeMessage) {
-          return mergeFrom((org.terasology.protobuf.NetData.BlockChangeMessage)other);
+        if (other instanceof org.terasology.protobuf.NetData.BlockChangeBatchMessage) {
+          return mergeFrom((org.terasology.protobuf.NetData.BlockChangeBatchMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(org.terasology.protobuf.NetData.BlockChangeMessage other) {
-        if (other == org.terasology.protobuf.NetData.BlockChangeMessage.getDefaultInstance()) return this;
-        if (other.hasPos()) {
-          mergePos(other.getPos());
+      public Builder mergeFrom(org.terasology.protobuf.NetData.BlockChangeBatchMessage other) {
+        if (other == org.terasology.protobuf.NetData.BlockChangeBatchMessage.getDefaultInstance()) return this;
+        if (other.hasChunkPos()) {
+          mergeChunkPos(other.getChunkPos());
         }
-        if (other.hasNewBlock()) {
-          setNewBlock(other.getNewBlock());
+        if (!other.blockIndex_.isEmpty()) {
+          if (blockIndex_.isEmpty()) {
+            blockIndex_ = other.blockIndex_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureBlockIndexIsMutable();
+            blockIndex_.addAll(other.blockIndex_);
+          }
+          onChanged();
+        }
+        if (!other.newBlock_.isEmpty()) {
+          if (newBlock_.isEmpty()) {
+            newBlock_ = other.newBlock_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureNewBlockIsMutable();
+            newBlock_.addAll(other.newBlock_);
+          }
+          onChanged();
         }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
@@ -11219,11 +13222,11 @@ public Builder mergeFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        org.terasology.protobuf.NetData.BlockChangeMessage parsedMessage = null;
+        org.terasology.protobuf.NetData.BlockChangeBatchMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (org.terasology.protobuf.NetData.BlockChangeMessage) e.getUnfinishedMessage();
+          parsedMessage = (org.terasology.protobuf.NetData.BlockChangeBatchMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -11234,163 +13237,291 @@ public Builder mergeFrom(
       }
       private int bitField0_;
 
-      private org.terasology.protobuf.NetData.Vector3iData pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      private org.terasology.protobuf.NetData.Vector3iData chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
       private com.google.protobuf.SingleFieldBuilder<
-          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> posBuilder_;
+          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> chunkPosBuilder_;
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public boolean hasPos() {
+      public boolean hasChunkPos() {
         return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public org.terasology.protobuf.NetData.Vector3iData getPos() {
-        if (posBuilder_ == null) {
-          return pos_;
+      public org.terasology.protobuf.NetData.Vector3iData getChunkPos() {
+        if (chunkPosBuilder_ == null) {
+          return chunkPos_;
         } else {
-          return posBuilder_.getMessage();
+          return chunkPosBuilder_.getMessage();
         }
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public Builder setPos(org.terasology.protobuf.NetData.Vector3iData value) {
-        if (posBuilder_ == null) {
+      public Builder setChunkPos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (chunkPosBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
-          pos_ = value;
+          chunkPos_ = value;
           onChanged();
         } else {
-          posBuilder_.setMessage(value);
+          chunkPosBuilder_.setMessage(value);
         }
         bitField0_ |= 0x00000001;
         return this;
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public Builder setPos(
+      public Builder setChunkPos(
           org.terasology.protobuf.NetData.Vector3iData.Builder builderForValue) {
-        if (posBuilder_ == null) {
-          pos_ = builderForValue.build();
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = builderForValue.build();
           onChanged();
         } else {
-          posBuilder_.setMessage(builderForValue.build());
+          chunkPosBuilder_.setMessage(builderForValue.build());
         }
         bitField0_ |= 0x00000001;
         return this;
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public Builder mergePos(org.terasology.protobuf.NetData.Vector3iData value) {
-        if (posBuilder_ == null) {
+      public Builder mergeChunkPos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (chunkPosBuilder_ == null) {
           if (((bitField0_ & 0x00000001) == 0x00000001) &&
-              pos_ != org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance()) {
-            pos_ =
-              org.terasology.protobuf.NetData.Vector3iData.newBuilder(pos_).mergeFrom(value).buildPartial();
+              chunkPos_ != org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance()) {
+            chunkPos_ =
+              org.terasology.protobuf.NetData.Vector3iData.newBuilder(chunkPos_).mergeFrom(value).buildPartial();
           } else {
-            pos_ = value;
+            chunkPos_ = value;
           }
           onChanged();
         } else {
-          posBuilder_.mergeFrom(value);
+          chunkPosBuilder_.mergeFrom(value);
         }
         bitField0_ |= 0x00000001;
         return this;
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public Builder clearPos() {
-        if (posBuilder_ == null) {
-          pos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      public Builder clearChunkPos() {
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
           onChanged();
         } else {
-          posBuilder_.clear();
+          chunkPosBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000001);
         return this;
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public org.terasology.protobuf.NetData.Vector3iData.Builder getPosBuilder() {
+      public org.terasology.protobuf.NetData.Vector3iData.Builder getChunkPosBuilder() {
         bitField0_ |= 0x00000001;
         onChanged();
-        return getPosFieldBuilder().getBuilder();
+        return getChunkPosFieldBuilder().getBuilder();
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
-      public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getPosOrBuilder() {
-        if (posBuilder_ != null) {
-          return posBuilder_.getMessageOrBuilder();
+      public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder() {
+        if (chunkPosBuilder_ != null) {
+          return chunkPosBuilder_.getMessageOrBuilder();
         } else {
-          return pos_;
+          return chunkPos_;
         }
       }
       /**
-       * <code>optional .Vector3iData pos = 1;</code>
+       * <code>optional .Vector3iData chunkPos = 1;</code>
        */
       private com.google.protobuf.SingleFieldBuilder<
           org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> 
-          getPosFieldBuilder() {
-        if (posBuilder_ == null) {
-          posBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+          getChunkPosFieldBuilder() {
+        if (chunkPosBuilder_ == null) {
+          chunkPosBuilder_ = new com.google.protobuf.SingleFieldBuilder<
               org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder>(
-                  getPos(),
+                  getChunkPos(),
                   getParentForChildren(),
                   isClean());
-          pos_ = null;
+          chunkPos_ = null;
         }
-        return posBuilder_;
+        return chunkPosBuilder_;
       }
 
-      private int newBlock_ ;
+      private java.util.List<java.lang.Integer> blockIndex_ = java.util.Collections.emptyList();
+      private void ensureBlockIndexIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = new java.util.ArrayList<java.lang.Integer>(blockIndex_);
+          bitField0_ |= 0x00000002;
+         }
+      }
       /**
-       * <code>optional int32 newBlock = 2;</code>
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
        */
-      public boolean hasNewBlock() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+      public java.util.List<java.lang.Integer>
+          getBlockIndexList() {
+        return java.util.Collections.unmodifiableList(blockIndex_);
       }
       /**
-       * <code>optional int32 newBlock = 2;</code>
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
        */
-      public int getNewBlock() {
-        return newBlock_;
+      public int getBlockIndexCount() {
+        return blockIndex_.size();
       }
       /**
-       * <code>optional int32 newBlock = 2;</code>
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
        */
-      public Builder setNewBlock(int value) {
-        bitField0_ |= 0x00000002;
-        newBlock_ = value;
+      public int getBlockIndex(int index) {
+        return blockIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
+       */
+      public Builder setBlockIndex(
+          int index, int value) {
+        ensureBlockIndexIsMutable();
+        blockIndex_.set(index, value);
         onChanged();
         return this;
       }
       /**
-       * <code>optional int32 newBlock = 2;</code>
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
        */
-      public Builder clearNewBlock() {
+      public Builder addBlockIndex(int value) {
+        ensureBlockIndexIsMutable();
+        blockIndex_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
+       */
+      public Builder addAllBlockIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureBlockIndexIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, blockIndex_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Indices of the changed blocks within the chunk, see BlockChangeBatch
+       * </pre>
+       */
+      public Builder clearBlockIndex() {
+        blockIndex_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000002);
-        newBlock_ = 0;
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:BlockChangeMessage)
+      private java.util.List<java.lang.Integer> newBlock_ = java.util.Collections.emptyList();
+      private void ensureNewBlockIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = new java.util.ArrayList<java.lang.Integer>(newBlock_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getNewBlockList() {
+        return java.util.Collections.unmodifiableList(newBlock_);
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public int getNewBlockCount() {
+        return newBlock_.size();
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public int getNewBlock(int index) {
+        return newBlock_.get(index);
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder setNewBlock(
+          int index, int value) {
+        ensureNewBlockIsMutable();
+        newBlock_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder addNewBlock(int value) {
+        ensureNewBlockIsMutable();
+        newBlock_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder addAllNewBlock(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureNewBlockIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, newBlock_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder clearNewBlock() {
+        newBlock_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:BlockChangeBatchMessage)
     }
 
     static {
-      defaultInstance = new BlockChangeMessage(true);
+      defaultInstance = new BlockChangeBatchMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:BlockChangeMessage)
+    // @@protoc_insertion_point(class_scope:BlockChangeBatchMessage)
   }
 
   public interface BiomeChangeMessageOrBuilder extends
@@ -25473,6 +27604,11 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_BlockChangeMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_BlockChangeBatchMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_BlockChangeBatchMessage_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_BiomeChangeMessage_descriptor;
   private static
@@ -25572,7 +27708,7 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\020NetMessage.proto\032\020EntityData.proto\"\377\006\n" +
+      "\n\020NetMessage.proto\032\020EntityData.proto\"\263\007\n" +
       "\nNetMessage\022\036\n\tchunkInfo\030\002 \003(\0132\013.ChunkSt" +
       "ore\0220\n\017invalidateChunk\030\003 \003(\0132\027.Invalidat" +
       "eChunkMessage\022(\n\013blockChange\030\004 \003(\0132\023.Blo" +
@@ -25581,79 +27717,85 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       "\0132\024.RemoveEntityMessage\022*\n\014updateEntity\030" +
       "\007 \003(\0132\024.UpdateEntityMessage\022\034\n\005event\030\010 \003" +
       "(\0132\r.EventMessage\022\014\n\004time\030\t \001(\003\022(\n\013biome" +
-      "Change\030\n \003(\0132\023.BiomeChangeMessage\022-\n\021ser",
-      "verInfoRequest\030\017 \001(\0132\022.ServerInfoRequest" +
-      "\022&\n\nserverInfo\030\020 \001(\0132\022.ServerInfoMessage" +
-      "\022<\n\025blockFamilyRegistered\030\021 \003(\0132\035.BlockF" +
-      "amilyRegisteredMessage\022\032\n\004join\030\022 \001(\0132\014.J" +
-      "oinMessage\022%\n\rmoduleRequest\030\023 \003(\0132\016.Modu" +
-      "leRequest\022+\n\020moduleDataHeader\030\024 \001(\0132\021.Mo" +
-      "duleDataHeader\022\037\n\nmoduleData\030\025 \001(\0132\013.Mod" +
-      "uleData\022*\n\014joinComplete\030\026 \001(\0132\024.JoinComp" +
-      "leteMessage\022\'\n\016handshakeHello\030d \001(\0132\017.Ha" +
-      "ndshakeHello\022/\n\022newIdentityRequest\030e \001(\013",
-      "2\023.NewIdentityRequest\022-\n\021provisionIdenti" +
-      "ty\030f \001(\0132\022.ProvisionIdentity\0225\n\025handshak" +
-      "eVerification\030g \001(\0132\026.HandshakeVerificat" +
-      "ion*\t\010\210\'\020\200\200\200\200\002\"a\n\016HandshakeHello\022\016\n\006rand" +
-      "om\030\001 \001(\014\022!\n\013certificate\030\002 \001(\0132\014.Certific" +
-      "ate\022\021\n\ttimestamp\030\003 \001(\022*\t\010\210\'\020\200\200\200\200\002\"H\n\022New" +
-      "IdentityRequest\022\027\n\017preMasterSecret\030\001 \001(\014" +
-      "\022\016\n\006random\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"=\n\021Provision" +
-      "Identity\022\035\n\025encryptedCertificates\030\001 \001(\014*" +
-      "\t\010\210\'\020\200\200\200\200\002\"]\n\016CertificateSet\022\'\n\021publicCe",
-      "rtificate\030\001 \001(\0132\014.Certificate\022\027\n\017private" +
-      "Exponent\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"5\n\025HandshakeVe" +
-      "rification\022\021\n\tsignature\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002" +
-      "\"Z\n\013Certificate\022\n\n\002id\030\001 \001(\t\022\017\n\007modulus\030\002" +
-      " \001(\014\022\020\n\010exponent\030\003 \001(\014\022\021\n\tsignature\030\004 \001(" +
-      "\014*\t\010\210\'\020\200\200\200\200\002\"L\n\034BlockFamilyRegisteredMes" +
-      "sage\022\020\n\010blockUri\030\001 \003(\t\022\017\n\007blockId\030\002 \003(\005*" +
-      "\t\010\210\'\020\200\200\200\200\002\"?\n\026InvalidateChunkMessage\022\032\n\003" +
-      "pos\030\001 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"M\n\022B" +
-      "lockChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3",
-      "iData\022\020\n\010newBlock\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"M\n\022Bi" +
-      "omeChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3i" +
-      "Data\022\020\n\010newBiome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vec" +
-      "tor3iData\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001" +
-      "(\005\"\036\n\021ServerInfoRequest*\t\010\210\'\020\200\200\200\200\002\"i\n\013Jo" +
-      "inMessage\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t" +
-      "\022\031\n\021viewDistanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001" +
-      "(\0132\006.Color*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001" +
-      " \001(\r\"2\n\023JoinCompleteMessage\022\020\n\010clientId\030" +
-      "\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\307\003\n\021ServerInfoMessage\022\033",
-      "\n\006module\030\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030\002" +
-      " \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(\t\022%\n\tcomponent" +
-      "\030\004 \003(\0132\022.SerializationInfo\022!\n\005event\030\005 \003(" +
-      "\0132\022.SerializationInfo\022\023\n\007assetId\030\006 \003(\005B\002" +
-      "\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023registerBlockFam" +
-      "ily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInfo" +
-      "\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013 " +
-      "\003(\t\022\024\n\014errorMessage\030\014 \001(\t\022\017\n\007version\030\017 \001" +
-      "(\t\022\020\n\010gameName\030\020 \001(\t\022\014\n\004time\030\021 \001(\003\022\030\n\020re" +
-      "flectionHeight\030\022 \001(\002\022\014\n\004MOTD\030\023 \001(\t\022\033\n\023on",
-      "linePlayersAmount\030\024 \001(\005*\t\010\210\'\020\200\200\200\200\002\"3\n\tWo" +
-      "rldInfo\022\r\n\005title\030\001 \001(\t\022\014\n\004time\030\002 \001(\003*\t\010\210" +
-      "\'\020\200\200\200\200\002\"]\n\021SerializationInfo\022\014\n\004name\030\001 \001" +
-      "(\t\022\n\n\002id\030\002 \001(\005\022\021\n\tfieldName\030\003 \003(\t\022\020\n\010fie" +
-      "ldIds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002\"@\n\nModuleInfo\022\020\n\010" +
-      "moduleId\030\001 \001(\t\022\025\n\rmoduleVersion\030\002 \001(\t*\t\010" +
-      "\210\'\020\200\200\200\200\002\",\n\rModuleRequest\022\020\n\010moduleId\030\001 " +
-      "\001(\t*\t\010\210\'\020\200\200\200\200\002\"W\n\020ModuleDataHeader\022\n\n\002id" +
-      "\030\001 \001(\t\022\017\n\007version\030\002 \001(\t\022\014\n\004size\030\003 \001(\003\022\r\n" +
-      "\005error\030\017 \001(\t*\t\010\210\'\020\200\200\200\200\002\"\'\n\nModuleData\022\016\n",
-      "\006module\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"-\n\017ModuleSendEr" +
-      "ror\022\017\n\007message\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"`\n\023Creat" +
-      "eEntityMessage\022\035\n\006entity\030\001 \001(\0132\r.PackedE" +
-      "ntity\022\037\n\010blockPos\030\002 \001(\0132\r.Vector3iData*\t" +
-      "\010\210\'\020\200\200\200\200\002\"N\n\023UpdateEntityMessage\022\035\n\006enti" +
-      "ty\030\001 \001(\0132\r.PackedEntity\022\r\n\005netId\030\002 \001(\005*\t" +
-      "\010\210\'\020\200\200\200\200\002\"/\n\023RemoveEntityMessage\022\r\n\005netI" +
-      "d\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n\014EventMessage\022\020\n\010ta" +
-      "rgetId\030\001 \001(\005\022\025\n\005event\030\002 \001(\0132\006.Event\022%\n\016t" +
-      "argetBlockPos\030\003 \001(\0132\r.Vector3iData*\t\010\210\'\020",
-      "\200\200\200\200\002B$\n\027org.terasology.protobufB\007NetDat" +
-      "aH\001"
+      "Change\030\n \003(\0132\023.BiomeChangeMessage\0222\n\020blo",
+      "ckChangeBatch\030\013 \003(\0132\030.BlockChangeBatchMe" +
+      "ssage\022-\n\021serverInfoRequest\030\017 \001(\0132\022.Serve" +
+      "rInfoRequest\022&\n\nserverInfo\030\020 \001(\0132\022.Serve" +
+      "rInfoMessage\022<\n\025blockFamilyRegistered\030\021 " +
+      "\003(\0132\035.BlockFamilyRegisteredMessage\022\032\n\004jo" +
+      "in\030\022 \001(\0132\014.JoinMessage\022%\n\rmoduleRequest\030" +
+      "\023 \003(\0132\016.ModuleRequest\022+\n\020moduleDataHeade" +
+      "r\030\024 \001(\0132\021.ModuleDataHeader\022\037\n\nmoduleData" +
+      "\030\025 \001(\0132\013.ModuleData\022*\n\014joinComplete\030\026 \001(" +
+      "\0132\024.JoinCompleteMessage\022\'\n\016handshakeHell",
+      "o\030d \001(\0132\017.HandshakeHello\022/\n\022newIdentityR" +
+      "equest\030e \001(\0132\023.NewIdentityRequest\022-\n\021pro" +
+      "visionIdentity\030f \001(\0132\022.ProvisionIdentity" +
+      "\0225\n\025handshakeVerification\030g \001(\0132\026.Handsh" +
+      "akeVerification*\t\010\210\'\020\200\200\200\200\002\"\177\n\016HandshakeH" +
+      "ello\022\016\n\006random\030\001 \001(\014\022!\n\013certificate\030\002 \001(" +
+      "\0132\014.Certificate\022\021\n\ttimestamp\030\003 \001(\022\022\034\n\024su" +
+      "pportedCompression\030\004 \003(\t*\t\010\210\'\020\200\200\200\200\002\"f\n\022N" +
+      "ewIdentityRequest\022\027\n\017preMasterSecret\030\001 \001" +
+      "(\014\022\016\n\006random\030\002 \001(\014\022\034\n\024supportedCompressi",
+      "on\030\003 \003(\t*\t\010\210\'\020\200\200\200\200\002\"R\n\021ProvisionIdentity" +
+      "\022\035\n\025encryptedCertificates\030\001 \001(\014\022\023\n\013compr" +
+      "ession\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\"]\n\016CertificateSe" +
+      "t\022\'\n\021publicCertificate\030\001 \001(\0132\014.Certifica" +
+      "te\022\027\n\017privateExponent\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"J" +
+      "\n\025HandshakeVerification\022\021\n\tsignature\030\001 \001" +
+      "(\014\022\023\n\013compression\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\"Z\n\013Ce" +
+      "rtificate\022\n\n\002id\030\001 \001(\t\022\017\n\007modulus\030\002 \001(\014\022\020" +
+      "\n\010exponent\030\003 \001(\014\022\021\n\tsignature\030\004 \001(\014*\t\010\210\'" +
+      "\020\200\200\200\200\002\"L\n\034BlockFamilyRegisteredMessage\022\020",
+      "\n\010blockUri\030\001 \003(\t\022\017\n\007blockId\030\002 \003(\005*\t\010\210\'\020\200" +
+      "\200\200\200\002\"?\n\026InvalidateChunkMessage\022\032\n\003pos\030\001 " +
+      "\001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"M\n\022BlockCh" +
+      "angeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3iData\022" +
+      "\020\n\010newBlock\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"s\n\027BlockCha" +
+      "ngeBatchMessage\022\037\n\010chunkPos\030\001 \001(\0132\r.Vect" +
+      "or3iData\022\026\n\nblockIndex\030\002 \003(\005B\002\020\001\022\024\n\010newB" +
+      "lock\030\003 \003(\005B\002\020\001*\t\010\210\'\020\200\200\200\200\002\"M\n\022BiomeChange" +
+      "Message\022\032\n\003pos\030\001 \001(\0132\r.Vector3iData\022\020\n\010n" +
+      "ewBiome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vector3iData",
+      "\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001(\005\"\036\n\021Ser" +
+      "verInfoRequest*\t\010\210\'\020\200\200\200\200\002\"i\n\013JoinMessage" +
+      "\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t\022\031\n\021viewD" +
+      "istanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001(\0132\006.Colo" +
+      "r*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001 \001(\r\"2\n\023J" +
+      "oinCompleteMessage\022\020\n\010clientId\030\001 \001(\005*\t\010\210" +
+      "\'\020\200\200\200\200\002\"\307\003\n\021ServerInfoMessage\022\033\n\006module\030" +
+      "\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030\002 \003(\021B\002\020\001\022" +
+      "\021\n\tblockName\030\003 \003(\t\022%\n\tcomponent\030\004 \003(\0132\022." +
+      "SerializationInfo\022!\n\005event\030\005 \003(\0132\022.Seria",
+      "lizationInfo\022\023\n\007assetId\030\006 \003(\005B\002\020\001\022\020\n\010ass" +
+      "etUri\030\007 \003(\t\022\033\n\023registerBlockFamily\030\010 \003(\t" +
+      "\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInfo\022\030\n\014biome" +
+      "ShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013 \003(\t\022\024\n\014er" +
+      "rorMessage\030\014 \001(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010gam" +
+      "eName\030\020 \001(\t\022\014\n\004time\030\021 \001(\003\022\030\n\020reflectionH" +
+      "eight\030\022 \001(\002\022\014\n\004MOTD\030\023 \001(\t\022\033\n\023onlinePlaye" +
+      "rsAmount\030\024 \001(\005*\t\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r" +
+      "\n\005title\030\001 \001(\t\022\014\n\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]" +
+      "\n\021SerializationInfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030",
+      "\002 \001(\005\022\021\n\tfieldName\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001" +
+      "(\014*\t\010\210\'\020\200\200\200\200\002\"@\n\nModuleInfo\022\020\n\010moduleId\030" +
+      "\001 \001(\t\022\025\n\rmoduleVersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\"" +
+      ",\n\rModuleRequest\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020" +
+      "\200\200\200\200\002\"W\n\020ModuleDataHeader\022\n\n\002id\030\001 \001(\t\022\017\n" +
+      "\007version\030\002 \001(\t\022\014\n\004size\030\003 \001(\003\022\r\n\005error\030\017 " +
+      "\001(\t*\t\010\210\'\020\200\200\200\200\002\"\'\n\nModuleData\022\016\n\006module\030\001" +
+      " \001(\014*\t\010\210\'\020\200\200\200\200\002\"-\n\017ModuleSendError\022\017\n\007me" +
+      "ssage\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"`\n\023CreateEntityMe" +
+      "ssage\022\035\n\006entity\030\001 \001(\0132\r.PackedEntity\022\037\n\010",
+      "blockPos\030\002 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002" +
+      "\"N\n\023UpdateEntityMessage\022\035\n\006entity\030\001 \001(\0132" +
+      "\r.PackedEntity\022\r\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002" +
+      "\"/\n\023RemoveEntityMessage\022\r\n\005netId\030\001 \001(\005*\t" +
+      "\010\210\'\020\200\200\200\200\002\"i\n\014EventMessage\022\020\n\010targetId\030\001 " +
+      "\001(\005\022\025\n\005event\030\002 \001(\0132\006.Event\022%\n\016targetBloc" +
+      "kPos\030\003 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002B$\n\027" +
+      "org.terasology.protobufB\007NetDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -25673,25 +27815,25 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_NetMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_NetMessage_descriptor,
-        new java.lang.String[] { "ChunkInfo", "InvalidateChunk", "BlockChange", "CreateEntity", "RemoveEntity", "UpdateEntity", "Event", "Time", "BiomeChange", "ServerInfoRequest", "ServerInfo", "BlockFamilyRegistered", "Join", "ModuleRequest", "ModuleDataHeader", "ModuleData", "JoinComplete", "HandshakeHello", "NewIdentityRequest", "ProvisionIdentity", "HandshakeVerification", });
+        new java.lang.String[] { "ChunkInfo", "InvalidateChunk", "BlockChange", "CreateEntity", "RemoveEntity", "UpdateEntity", "Event", "Time", "BiomeChange", "BlockChangeBatch", "ServerInfoRequest", "ServerInfo", "BlockFamilyRegistered", "Join", "ModuleRequest", "ModuleDataHeader", "ModuleData", "JoinComplete", "HandshakeHello", "NewIdentityRequest", "ProvisionIdentity", "HandshakeVerification", });
     internal_static_HandshakeHello_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_HandshakeHello_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_HandshakeHello_descriptor,
-        new java.lang.String[] { "Random", "Certificate", "Timestamp", });
+        new java.lang.String[] { "Random", "Certificate", "Timestamp", "SupportedCompression", });
     internal_static_NewIdentityRequest_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_NewIdentityRequest_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_NewIdentityRequest_descriptor,
-        new java.lang.String[] { "PreMasterSecret", "Random", });
+        new java.lang.String[] { "PreMasterSecret", "Random", "SupportedCompression", });
     internal_static_ProvisionIdentity_descriptor =
       getDescriptor().getMessageTypes().get(3);
     internal_static_ProvisionIdentity_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ProvisionIdentity_descriptor,
-        new java.lang.String[] { "EncryptedCertificates", });
+        new java.lang.String[] { "EncryptedCertificates", "Compression", });
     internal_static_CertificateSet_descriptor =
       getDescriptor().getMessageTypes().get(4);
     internal_static_CertificateSet_fieldAccessorTable = new
@@ -25703,7 +27845,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_HandshakeVerification_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_HandshakeVerification_descriptor,
-        new java.lang.String[] { "Signature", });
+        new java.lang.String[] { "Signature", "Compression", });
     internal_static_Certificate_descriptor =
       getDescriptor().getMessageTypes().get(6);
     internal_static_Certificate_fieldAccessorTable = new
@@ -25728,110 +27870,116 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_BlockChangeMessage_descriptor,
         new java.lang.String[] { "Pos", "NewBlock", });
-    internal_static_BiomeChangeMessage_descriptor =
+    internal_static_BlockChangeBatchMessage_descriptor =
       getDescriptor().getMessageTypes().get(10);
+    internal_static_BlockChangeBatchMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_BlockChangeBatchMessage_descriptor,
+        new java.lang.String[] { "ChunkPos", "BlockIndex", "NewBlock", });
+    internal_static_BiomeChangeMessage_descriptor =
+      getDescriptor().getMessageTypes().get(11);
     internal_static_BiomeChangeMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_BiomeChangeMessage_descriptor,
         new java.lang.String[] { "Pos", "NewBiome", });
     internal_static_Vector3iData_descriptor =
-      getDescriptor().getMessageTypes().get(11);
+      getDescriptor().getMessageTypes().get(12);
     internal_static_Vector3iData_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_Vector3iData_descriptor,
         new java.lang.String[] { "X", "Y", "Z", });
     internal_static_ServerInfoRequest_descriptor =
-      getDescriptor().getMessageTypes().get(12);
+      getDescriptor().getMessageTypes().get(13);
     internal_static_ServerInfoRequest_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ServerInfoRequest_descriptor,
         new java.lang.String[] { });
     internal_static_JoinMessage_descriptor =
-      getDescriptor().getMessageTypes().get(13);
+      getDescriptor().getMessageTypes().get(14);
     internal_static_JoinMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinMessage_descriptor,
         new java.lang.String[] { "Name", "Version", "ViewDistanceLevel", "Color", });
     internal_static_Color_descriptor =
-      getDescriptor().getMessageTypes().get(14);
+      getDescriptor().getMessageTypes().get(15);
     internal_static_Color_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_Color_descriptor,
         new java.lang.String[] { "Rgba", });
     internal_static_JoinCompleteMessage_descriptor =
-      getDescriptor().getMessageTypes().get(15);
+      getDescriptor().getMessageTypes().get(16);
     internal_static_JoinCompleteMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinCompleteMessage_descriptor,
         new java.lang.String[] { "ClientId", });
     internal_static_ServerInfoMessage_descriptor =
-      getDescriptor().getMessageTypes().get(16);
+      getDescriptor().getMessageTypes().get(17);
     internal_static_ServerInfoMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ServerInfoMessage_descriptor,
         new java.lang.String[] { "Module", "BlockId", "BlockName", "Component", "Event", "AssetId", "AssetUri", "RegisterBlockFamily", "WorldInfo", "BiomeShortId", "BiomeId", "ErrorMessage", "Version", "GameName", "Time", "ReflectionHeight", "MOTD", "OnlinePlayersAmount", });
     internal_static_WorldInfo_descriptor =
-      getDescriptor().getMessageTypes().get(17);
+      getDescriptor().getMessageTypes().get(18);
     internal_static_WorldInfo_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_WorldInfo_descriptor,
         new java.lang.String[] { "Title", "Time", });
     internal_static_SerializationInfo_descriptor =
-      getDescriptor().getMessageTypes().get(18);
+      getDescriptor().getMessageTypes().get(19);
     internal_static_SerializationInfo_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_SerializationInfo_descriptor,
         new java.lang.String[] { "Name", "Id", "FieldName", "FieldIds", });
     internal_static_ModuleInfo_descriptor =
-      getDescriptor().getMessageTypes().get(19);
+      getDescriptor().getMessageTypes().get(20);
     internal_static_ModuleInfo_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ModuleInfo_descriptor,
         new java.lang.String[] { "ModuleId", "ModuleVersion", });
     internal_static_ModuleRequest_descriptor =
-      getDescriptor().getMessageTypes().get(20);
+      getDescriptor().getMessageTypes().get(21);
     internal_static_ModuleRequest_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ModuleRequest_descriptor,
         new java.lang.String[] { "ModuleId", });
     internal_static_ModuleDataHeader_descriptor =
-      getDescriptor().getMessageTypes().get(21);
+      getDescriptor().getMessageTypes().get(22);
     internal_static_ModuleDataHeader_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ModuleDataHeader_descriptor,
         new java.lang.String[] { "Id", "Version", "Size", "Error", });
     internal_static_ModuleData_descriptor =
-      getDescriptor().getMessageTypes().get(22);
+      getDescriptor().getMessageTypes().get(23);
     internal_static_ModuleData_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ModuleData_descriptor,
         new java.lang.String[] { "Module", });
     internal_static_ModuleSendError_descriptor =
-      getDescriptor().getMessageTypes().get(23);
+      getDescriptor().getMessageTypes().get(24);
     internal_static_ModuleSendError_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ModuleSendError_descriptor,
         new java.lang.String[] { "Message", });
     internal_static_CreateEntityMessage_descriptor =
-      getDescriptor().getMessageTypes().get(24);
+      getDescriptor().getMessageTypes().get(25);
     internal_static_CreateEntityMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_CreateEntityMessage_descriptor,
         new java.lang.String[] { "Entity", "BlockPos", });
     internal_static_UpdateEntityMessage_descriptor =
-      getDescriptor().getMessageTypes().get(25);
+      getDescriptor().getMessageTypes().get(26);
     internal_static_UpdateEntityMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_UpdateEntityMessage_descriptor,
         new java.lang.String[] { "Entity", "NetId", });
     internal_static_RemoveEntityMessage_descriptor =
-      getDescriptor().getMessageTypes().get(26);
+      getDescriptor().getMessageTypes().get(27);
     internal_static_RemoveEntityMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_RemoveEntityMessage_descriptor,
         new java.lang.String[] { "NetId", });
     internal_static_EventMessage_descriptor =
-      getDescriptor().getMessageTypes().get(27);
+      getDescriptor().getMessageTypes().get(28);
     internal_static_EventMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_EventMessage_descriptor,
@@ -52,6 +52,7 @@ public void initialise() {
         register(new RunningMeansMode());
         register(new SpikesMode());
         register(new AllocationsMode());
+        register(new GaugesMode());
         register(new RunningThreadsMode());
         register(new WorldRendererMode());
         register(new RenderingExecTimeMeansMode("Rendering - Execution Time: Running Means - Sorted Alphabetically"));
@@ -99,6 +99,14 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
         return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<>(comparator));
     }
 
+    /**
+     * Creates a taskmaster with one thread per worker of the given queue. Tasks are taken in the order of their
+     * priority bucket, with each thread preferring the tasks it queued itself.
+     */
+    public static <T extends Task> TaskMaster<T> createWorkStealingTaskMaster(String name, WorkStealingBlockingQueue<T> queue) {
+        return new TaskMaster<>(name, queue.getWorkerCount(), queue);
+    }
+
     /**
      * Offers a task to this task master. This does not block, but may fail if the queue is full.
      *
@@ -0,0 +1,475 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A blocking queue for a fixed number of worker threads, which orders its elements by a priority bucket.
+ * <br><br>
+ * Every worker owns one lock free deque per bucket. A worker takes elements from the front of its own deques and
+ * steals from the back of the deques of the other workers when its own deque of the best bucket is empty, so workers
+ * rarely contend with each other. Taking an element only needs to look at the buckets, not at the elements.
+ * <br><br>
+ * The priority of an element is the bucket returned by the priority function; lower buckets are taken first. When the
+ * priorities change (e.g. because a player moved), {@link #invalidatePriorities()} marks all queued elements as
+ * stale. No element needs to be touched at the time of the invalidation: the first worker that takes an element
+ * afterwards recalculates the buckets of all stale elements once and moves those whose bucket changed, so elements
+ * whose priority improved get taken earlier as well. Stale elements a worker encounters in the meantime get their
+ * bucket recalculated on the spot, and are moved to a later bucket if their priority dropped.
+ * <br><br>
+ * Elements matching the optional discard predicate, e.g. cancelled tasks, are dropped when a worker encounters them
+ * instead of being returned.
+ * <br><br>
+ * Threads that take elements get assigned to a worker slot on their first take, so at most as many threads as
+ * workers should take elements from the queue at the same time.
+ * <br><br>
+ * The iterator goes through the buckets in order and is weakly consistent, like the iterators of the concurrent
+ * collections. It may miss elements that get moved to another bucket while iterating.
+ *
+ * @param <T> the type of the queued elements
+ */
+public class WorkStealingBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+    private static final int UNASSIGNED = -1;
+
+    private final int workerCount;
+    private final int bucketCount;
+    private final ToIntFunction<T> priority;
+    private final Predicate<T> discard;
+
+    private final Deque<Entry<T>>[][] deques;
+    private final AtomicInteger[] bucketSizes;
+
+    /**
+     * One permit per queued element, used for blocking workers while the queue is empty.
+     */
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicInteger epoch = new AtomicInteger();
+    private final AtomicInteger sweptEpoch = new AtomicInteger();
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger nextTarget = new AtomicInteger();
+    private final ThreadLocal<Integer> workerIndex = ThreadLocal.withInitial(() -> UNASSIGNED);
+
+    private final LongAdder takenCount = new LongAdder();
+    private final LongAdder stolenCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    /**
+     * @param workerCount the number of threads that take elements from the queue.
+     * @param bucketCount the number of priority buckets. Priorities outside of [0, bucketCount) get clamped.
+     * @param priority    calculates the bucket of an element. Has to be thread safe.
+     */
+    public WorkStealingBlockingQueue(int workerCount, int bucketCount, ToIntFunction<T> priority) {
+        this(workerCount, bucketCount, priority, element -> false);
+    }
+
+    /**
+     * @param workerCount the number of threads that take elements from the queue.
+     * @param bucketCount the number of priority buckets. Priorities outside of [0, bucketCount) get clamped.
+     * @param priority    calculates the bucket of an element. Has to be thread safe.
+     * @param discard     tells whether an element is no longer needed and should be dropped. Has to be thread safe.
+     */
+    @SuppressWarnings("unchecked")
+    public WorkStealingBlockingQueue(int workerCount, int bucketCount, ToIntFunction<T> priority, Predicate<T> discard) {
+        Preconditions.checkArgument(workerCount > 0, "Must have at least one worker.");
+        Preconditions.checkArgument(bucketCount > 0, "Must have at least one bucket.");
+        this.workerCount = workerCount;
+        this.bucketCount = bucketCount;
+        this.priority = Preconditions.checkNotNull(priority);
+        this.discard = Preconditions.checkNotNull(discard);
+        deques = new Deque[workerCount][bucketCount];
+        for (int worker = 0; worker < workerCount; worker++) {
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                deques[worker][bucket] = new ConcurrentLinkedDeque<>();
+            }
+        }
+        bucketSizes = new AtomicInteger[bucketCount];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketSizes[bucket] = new AtomicInteger();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Marks the priorities of all queued elements as outdated.
+     */
+    public void invalidatePriorities() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * @return the number of elements taken from the queue so far.
+     */
+    public long getTakenCount() {
+        return takenCount.sum();
+    }
+
+    /**
+     * @return the number of elements a worker took from the deque of another worker so far.
+     */
+    public long getStolenCount() {
+        return stolenCount.sum();
+    }
+
+    /**
+     * @return the number of elements dropped because they matched the discard predicate so far.
+     */
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    /**
+     * @return the sum of the times the taken elements spent in the queue, in nanoseconds.
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    @Override
+    public boolean offer(T t) {
+        Preconditions.checkNotNull(t);
+        int worker = workerIndex.get();
+        if (worker == UNASSIGNED) {
+            worker = Math.floorMod(nextTarget.getAndIncrement(), workerCount);
+        }
+        insert(worker, new Entry<>(t, bucketOf(t), epoch.get(), System.nanoTime()));
+        available.release();
+        return true;
+    }
+
+    @Override
+    public void put(T t) throws InterruptedException {
+        offer(t);
+    }
+
+    @Override
+    public boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(t);
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        int worker = assignedWorker();
+        T element = null;
+        while (element == null) {
+            available.acquire();
+            element = dequeue(worker);
+        }
+        return element;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        int worker = assignedWorker();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        T element = null;
+        while (element == null) {
+            if (!available.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+            element = dequeue(worker);
+        }
+        return element;
+    }
+
+    @Override
+    public T poll() {
+        int worker = Math.max(0, workerIndex.get());
+        T element = null;
+        while (element == null) {
+            if (!available.tryAcquire()) {
+                return null;
+            }
+            element = dequeue(worker);
+        }
+        return element;
+    }
+
+    @Override
+    public T peek() {
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            for (int worker = 0; worker < workerCount; worker++) {
+                Entry<T> entry = deques[worker][bucket].peekFirst();
+                if (entry != null) {
+                    return entry.element;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return available.availablePermits();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            T element = poll();
+            if (element == null) {
+                break;
+            }
+            c.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new QueueIterator();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            for (int worker = 0; worker < workerCount; worker++) {
+                for (Entry<T> entry : deques[worker][bucket]) {
+                    if (o.equals(entry.element) && removeEntry(worker, bucket, entry)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry together with its permit. Fails if a worker took the entry in the meantime, or holds the
+     * last permits to take the remaining elements.
+     */
+    private boolean removeEntry(int worker, int bucket, Entry<T> entry) {
+        if (!available.tryAcquire()) {
+            return false;
+        }
+        if (deques[worker][bucket].removeFirstOccurrence(entry)) {
+            bucketSizes[bucket].decrementAndGet();
+            return true;
+        }
+        available.release();
+        return false;
+    }
+
+    private int assignedWorker() {
+        int worker = workerIndex.get();
+        if (worker == UNASSIGNED) {
+            worker = Math.floorMod(nextWorker.getAndIncrement(), workerCount);
+            workerIndex.set(worker);
+        }
+        return worker;
+    }
+
+    private int bucketOf(T element) {
+        return Math.max(0, Math.min(bucketCount - 1, priority.applyAsInt(element)));
+    }
+
+    private void insert(int worker, Entry<T> entry) {
+        deques[worker][entry.bucket].addLast(entry);
+        bucketSizes[entry.bucket].incrementAndGet();
+    }
+
+    /**
+     * Removes the element with the best priority. Must only be called after acquiring a permit, so there is an
+     * element to remove; it may only be invisible for a moment while another worker moves it to a different bucket.
+     *
+     * @return the removed element or null if it got discarded.
+     */
+    private T dequeue(int worker) {
+        while (true) {
+            Entry<T> entry = findEntry(worker);
+            if (entry != null) {
+                if (discard.test(entry.element)) {
+                    discardedCount.increment();
+                    return null;
+                }
+                takenCount.increment();
+                totalWaitNanos.add(System.nanoTime() - entry.enqueueTime);
+                return entry.element;
+            }
+            Thread.yield();
+        }
+    }
+
+    private Entry<T> findEntry(int worker) {
+        int swept = sweptEpoch.get();
+        int latestEpoch = epoch.get();
+        if (swept != latestEpoch && sweptEpoch.compareAndSet(swept, latestEpoch)) {
+            rebucketStaleEntries(latestEpoch);
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (bucketSizes[bucket].get() == 0) {
+                continue;
+            }
+            Entry<T> entry = pollBucket(worker, bucket);
+            while (entry != null) {
+                int currentEpoch = epoch.get();
+                if (entry.epoch != currentEpoch) {
+                    entry.epoch = currentEpoch;
+                    entry.bucket = bucketOf(entry.element);
+                    if (entry.bucket > bucket) {
+                        insert(worker, entry);
+                        entry = pollBucket(worker, bucket);
+                        continue;
+                    }
+                }
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves every queued element whose bucket changed since the last invalidation to its new bucket. An element is
+     * only touched after removing it from its deque, so it can't be taken or moved by another worker at the same time.
+     */
+    private void rebucketStaleEntries(int currentEpoch) {
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (bucketSizes[bucket].get() == 0) {
+                continue;
+            }
+            for (int worker = 0; worker < workerCount; worker++) {
+                Deque<Entry<T>> deque = deques[worker][bucket];
+                for (Entry<T> entry : deque) {
+                    if (entry.epoch == currentEpoch) {
+                        continue;
+                    }
+                    int newBucket = bucketOf(entry.element);
+                    if (newBucket != bucket && deque.removeFirstOccurrence(entry)) {
+                        bucketSizes[bucket].decrementAndGet();
+                        entry.epoch = currentEpoch;
+                        entry.bucket = newBucket;
+                        insert(worker, entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private Entry<T> pollBucket(int worker, int bucket) {
+        Entry<T> entry = deques[worker][bucket].pollFirst();
+        if (entry == null) {
+            for (int i = 1; i < workerCount && entry == null; i++) {
+                entry = deques[(worker + i) % workerCount][bucket].pollLast();
+            }
+            if (entry != null) {
+                stolenCount.increment();
+            }
+        }
+        if (entry != null) {
+            bucketSizes[bucket].decrementAndGet();
+        }
+        return entry;
+    }
+
+    private final class QueueIterator implements Iterator<T> {
+        private int bucket;
+        private int worker;
+        private Iterator<Entry<T>> dequeIterator = deques[0][0].iterator();
+        private Entry<T> next;
+        private Entry<T> last;
+        private int lastWorker;
+        private int lastBucket;
+
+        private QueueIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            lastWorker = worker;
+            lastBucket = bucket;
+            advance();
+            return last.element;
+        }
+
+        @Override
+        public void remove() {
+            Preconditions.checkState(last != null, "No element to remove");
+            removeEntry(lastWorker, lastBucket, last);
+            last = null;
+        }
+
+        private void advance() {
+            next = null;
+            while (!dequeIterator.hasNext()) {
+                if (++worker == workerCount) {
+                    worker = 0;
+                    if (++bucket == bucketCount) {
+                        return;
+                    }
+                }
+                dequeIterator = deques[worker][bucket].iterator();
+            }
+            next = dequeIterator.next();
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T element;
+        private final long enqueueTime;
+        private int bucket;
+        private int epoch;
+
+        private Entry(T element, int bucket, int epoch, long enqueueTime) {
+            this.element = element;
+            this.bucket = bucket;
+            this.epoch = epoch;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +109,67 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Computes one octave after the other for the whole grid, so the wrapped noise can use its own bulk
+     * implementation. The coordinates of each octave are computed once per axis.
+     */
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys) {
+        int count = xs.length * ys.length;
+        float[] octave = new float[count];
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        Arrays.fill(out, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.fillGrid(octave, workingXs, workingYs);
+            addWeighted(out, octave, count, spectralWeights[i]);
+
+            applyLacunarity(workingXs);
+            applyLacunarity(workingYs);
+        }
+        applyScale(out, count);
+    }
+
+    /**
+     * See {@link #fillGrid(float[], float[], float[])}.
+     */
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys, float[] zs) {
+        int count = xs.length * ys.length * zs.length;
+        float[] octave = new float[count];
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        float[] workingZs = zs.clone();
+        Arrays.fill(out, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.fillGrid(octave, workingXs, workingYs, workingZs);
+            addWeighted(out, octave, count, spectralWeights[i]);
+
+            applyLacunarity(workingXs);
+            applyLacunarity(workingYs);
+            applyLacunarity(workingZs);
+        }
+        applyScale(out, count);
+    }
+
+    private static void addWeighted(float[] result, float[] octave, int count, float weight) {
+        for (int i = 0; i < count; i++) {
+            result[i] += octave[i] * weight;
+        }
+    }
+
+    private void applyLacunarity(float[] coordinates) {
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] *= getLacunarity();
+        }
+    }
+
+    private void applyScale(float[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] *= scale;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
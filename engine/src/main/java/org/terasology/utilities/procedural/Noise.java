@@ -16,6 +16,9 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
  *
@@ -59,4 +62,90 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values of all positions of a region, scaled by the given factors. The value of position
+     * (x, y) is stored at {@code out[x - region.minX() + region.sizeX() * (y - region.minY())]}, the same layout as
+     * the one of 2D field facets.
+     *
+     * @param out    the array to fill, with at least one entry per position of the region
+     * @param region the region to compute
+     * @param scaleX the factor applied to x-coordinates
+     * @param scaleY the factor applied to y-coordinates
+     */
+    default void fill(float[] out, Rect2i region, float scaleX, float scaleY) {
+        fillGrid(out, scaledCoordinates(region.minX(), region.sizeX(), scaleX),
+                scaledCoordinates(region.minY(), region.sizeY(), scaleY));
+    }
+
+    /**
+     * Computes the noise values of all positions of a region, scaled by the given factors. The value of position
+     * (x, y, z) is stored at {@code out[x' + region.sizeX() * (y' + region.sizeY() * z')]} where x', y' and z' are
+     * relative to the region's minimum, the same layout as the one of 3D field facets.
+     *
+     * @param out    the array to fill, with at least one entry per position of the region
+     * @param region the region to compute
+     * @param scaleX the factor applied to x-coordinates
+     * @param scaleY the factor applied to y-coordinates
+     * @param scaleZ the factor applied to z-coordinates
+     */
+    default void fill(float[] out, Region3i region, float scaleX, float scaleY, float scaleZ) {
+        fillGrid(out, scaledCoordinates(region.minX(), region.sizeX(), scaleX),
+                scaledCoordinates(region.minY(), region.sizeY(), scaleY),
+                scaledCoordinates(region.minZ(), region.sizeZ(), scaleZ));
+    }
+
+    /**
+     * Computes the noise values of a grid of positions, given by the coordinates along each axis.
+     * Stores {@code noise(xs[i], ys[j])} at {@code out[i + xs.length * j]}.
+     * <br><br>
+     * Implementations should override this to share work between positions, the results must be the same as the
+     * ones of {@link #noise(float, float)}.
+     *
+     * @param out the array to fill, with at least {@code xs.length * ys.length} entries
+     * @param xs  the x-coordinates of the grid
+     * @param ys  the y-coordinates of the grid
+     */
+    default void fillGrid(float[] out, float[] xs, float[] ys) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                out[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of a grid of positions, given by the coordinates along each axis.
+     * Stores {@code noise(xs[i], ys[j], zs[k])} at {@code out[i + xs.length * (j + ys.length * k)]}.
+     * <br><br>
+     * Implementations should override this to share work between positions, the results must be the same as the
+     * ones of {@link #noise(float, float, float)}.
+     *
+     * @param out the array to fill, with at least {@code xs.length * ys.length * zs.length} entries
+     * @param xs  the x-coordinates of the grid
+     * @param ys  the y-coordinates of the grid
+     * @param zs  the z-coordinates of the grid
+     */
+    default void fillGrid(float[] out, float[] xs, float[] ys, float[] zs) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    out[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the coordinates {@code (min + i) * scale} for all i in [0..size)
+     */
+    static float[] scaledCoordinates(int min, int size, float scale) {
+        float[] result = new float[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = (min + i) * scale;
+        }
+        return result;
+    }
 }
@@ -81,9 +81,56 @@ public float noise(float posX, float posY, float posZ) {
         float v = TeraMath.fadePerlin(y);
         float w = TeraMath.fadePerlin(z);
         int a = noisePermutations[xInt] + yInt;
+        int b = noisePermutations[(xInt + 1)] + yInt;
+        return noise(a, b, zInt, x, y, z, u, v, w);
+    }
+
+    /**
+     * Computes the noise of a whole grid. Everything that only depends on a single coordinate (the integer and
+     * fractional parts, the fade curve and the permutation of the x-coordinate) is computed once per column, row and
+     * slice instead of once per position.
+     */
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys, float[] zs) {
+        int sizeX = xs.length;
+        int[] permutationsA = new int[sizeX];
+        int[] permutationsB = new int[sizeX];
+        float[] fractionsX = new float[sizeX];
+        float[] fadesX = new float[sizeX];
+        for (int i = 0; i < sizeX; i++) {
+            float posX = xs[i];
+            int xInt = (int) TeraMath.fastFloor(posX) & 255;
+            fractionsX[i] = posX - TeraMath.fastFloor(posX);
+            fadesX[i] = TeraMath.fadePerlin(fractionsX[i]);
+            permutationsA[i] = noisePermutations[xInt];
+            permutationsB[i] = noisePermutations[(xInt + 1)];
+        }
+
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = (int) TeraMath.fastFloor(posZ) & 255;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (float posY : ys) {
+                int yInt = (int) TeraMath.fastFloor(posY) & 255;
+                float y = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(y);
+                for (int i = 0; i < sizeX; i++) {
+                    out[index++] = noise(permutationsA[i] + yInt, permutationsB[i] + yInt, zInt, fractionsX[i], y, z, fadesX[i], v, w);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys) {
+        // the same as noise(x, y, 0)
+        fillGrid(out, xs, ys, new float[]{0});
+    }
+
+    private float noise(int a, int b, int zInt, float x, float y, float z, float u, float v, float w) {
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
-        int b = noisePermutations[(xInt + 1)] + yInt;
         int ba = noisePermutations[b] + zInt;
         int bb = noisePermutations[(b + 1)] + zInt;
 
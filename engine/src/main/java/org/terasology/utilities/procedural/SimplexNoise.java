@@ -332,6 +332,35 @@ public float noise(float xin, float yin, float zin) {
     }
 
 
+    /**
+     * The skewed coordinates of simplex noise mix all axes, so there is nothing to share between positions. This
+     * only keeps the loop monomorphic, so the 2D noise function can be inlined.
+     */
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                out[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * See {@link #fillGrid(float[], float[], float[])}.
+     */
+    @Override
+    public void fillGrid(float[] out, float[] xs, float[] ys, float[] zs) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    out[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
      *
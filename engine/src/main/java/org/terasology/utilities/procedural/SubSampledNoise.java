@@ -66,6 +66,34 @@ public float noise(float x, float y) {
         return TeraMath.biLerp(q00, q10, q01, q11, xMod / sampleRate, yMod / sampleRate);
     }
 
+    /**
+     * Interpolates between the key values of the whole region at once, see {@link #noise(Rect2i)}, if the region is
+     * not scaled. Other scales are computed position by position.
+     */
+    @Override
+    public void fill(float[] out, Rect2i region, float scaleX, float scaleY) {
+        if (scaleX == 1 && scaleY == 1) {
+            float[] values = noise(region);
+            System.arraycopy(values, 0, out, 0, values.length);
+        } else {
+            super.fill(out, region, scaleX, scaleY);
+        }
+    }
+
+    /**
+     * Interpolates between the key values of the whole region at once, see {@link #noise(Region3i)}, if the region
+     * is not scaled. Other scales are computed position by position.
+     */
+    @Override
+    public void fill(float[] out, Region3i region, float scaleX, float scaleY, float scaleZ) {
+        if (scaleX == 1 && scaleY == 1 && scaleZ == 1) {
+            float[] values = noise(region);
+            System.arraycopy(values, 0, out, 0, values.length);
+        } else {
+            super.fill(out, region, scaleX, scaleY, scaleZ);
+        }
+    }
+
     public float[] noise(Rect2i region) {
         Rect2i fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion);
@@ -111,17 +139,21 @@ private float[] getKeyValues(Rect2i fullRegion) {
         int xDim = fullRegion.sizeX() / sampleRate + 1;
         int yDim = fullRegion.sizeY() / sampleRate + 1;
         float[] fullData = new float[xDim * yDim];
-        for (int y = 0; y < yDim; y++) {
-            for (int x = 0; x < xDim; x++) {
-                int actualX = x * sampleRate + fullRegion.minX();
-                int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * actualX, zoom.y * actualY);
-            }
-        }
-
+        source.fillGrid(fullData, sampleCoordinates(fullRegion.minX(), xDim, zoom.x), sampleCoordinates(fullRegion.minY(), yDim, zoom.y));
         return fullData;
     }
 
+    /**
+     * @return the zoomed coordinates of the key values along one axis
+     */
+    private float[] sampleCoordinates(int min, int count, float axisZoom) {
+        float[] result = new float[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = axisZoom * (i * sampleRate + min);
+        }
+        return result;
+    }
+
     private Rect2i determineRequiredRegion(Rect2i region) {
         int newMinX = region.minX() - IntMath.mod(region.minX(), sampleRate);
         int newMinY = region.minY() - IntMath.mod(region.minY(), sampleRate);
@@ -214,16 +246,8 @@ private float[] getKeyValues(Region3i fullRegion) {
         int yDim = fullRegion.sizeY() / sampleRate + 1;
         int zDim = fullRegion.sizeZ() / sampleRate + 1;
         float[] fullData = new float[xDim * yDim * zDim];
-        for (int z = 0; z < zDim; z++) {
-            for (int y = 0; y < yDim; y++) {
-                for (int x = 0; x < xDim; x++) {
-                    int actualX = x * sampleRate + fullRegion.minX();
-                    int actualY = y * sampleRate + fullRegion.minY();
-                    int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * actualX, zoom.y * actualY, zoom.z * actualZ);
-                }
-            }
-        }
+        source.fillGrid(fullData, sampleCoordinates(fullRegion.minX(), xDim, zoom.x), sampleCoordinates(fullRegion.minY(), yDim, zoom.y),
+                sampleCoordinates(fullRegion.minZ(), zDim, zoom.z));
         return fullData;
     }
 
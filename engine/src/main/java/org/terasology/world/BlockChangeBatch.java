@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world;
+
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+
+/**
+ * The blocks of a single chunk that got changed together, e.g. by {@link WorldProvider#setBlocks(java.util.Map)}.
+ * <br><br>
+ * The changed positions are stored as block indices within the chunk, see {@link #toBlockIndex(int, int, int)}.
+ */
+public class BlockChangeBatch {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Vector3i chunkPos;
+    private int size;
+    private int[] blockIndices = new int[INITIAL_CAPACITY];
+    private Block[] blocks = new Block[INITIAL_CAPACITY];
+    private Block[] originalBlocks = new Block[INITIAL_CAPACITY];
+
+    public BlockChangeBatch(Vector3i chunkPos) {
+        this.chunkPos = new Vector3i(chunkPos);
+    }
+
+    /**
+     * Records a changed block.
+     *
+     * @param x             the x coordinate of the block within the chunk
+     * @param y             the y coordinate of the block within the chunk
+     * @param z             the z coordinate of the block within the chunk
+     * @param block         the new block
+     * @param originalBlock the block that got replaced
+     */
+    public void add(int x, int y, int z, Block block, Block originalBlock) {
+        if (size == blockIndices.length) {
+            int capacity = size * 2;
+            blockIndices = Arrays.copyOf(blockIndices, capacity);
+            blocks = Arrays.copyOf(blocks, capacity);
+            originalBlocks = Arrays.copyOf(originalBlocks, capacity);
+        }
+        blockIndices[size] = toBlockIndex(x, y, z);
+        blocks[size] = block;
+        originalBlocks[size] = originalBlock;
+        size++;
+    }
+
+    public Vector3i getChunkPos() {
+        return new Vector3i(chunkPos);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getBlockIndex(int index) {
+        return blockIndices[index];
+    }
+
+    /**
+     * @return the world position of the changed block with the given index
+     */
+    public Vector3i getPosition(int index) {
+        return toWorldPos(chunkPos, blockIndices[index]);
+    }
+
+    public Block getBlock(int index) {
+        return blocks[index];
+    }
+
+    public Block getOriginalBlock(int index) {
+        return originalBlocks[index];
+    }
+
+    /**
+     * @return the index of a block within its chunk, unique for all positions of the chunk
+     */
+    public static int toBlockIndex(int x, int y, int z) {
+        return x + ChunkConstants.SIZE_X * (z + ChunkConstants.SIZE_Z * y);
+    }
+
+    /**
+     * @return the world position of the block with the given index within the chunk
+     */
+    public static Vector3i toWorldPos(Vector3i chunkPos, int blockIndex) {
+        int x = blockIndex % ChunkConstants.SIZE_X;
+        int z = (blockIndex / ChunkConstants.SIZE_X) % ChunkConstants.SIZE_Z;
+        int y = blockIndex / (ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z);
+        return new Vector3i(chunkPos.x * ChunkConstants.SIZE_X + x, chunkPos.y * ChunkConstants.SIZE_Y + y,
+                chunkPos.z * ChunkConstants.SIZE_Z + z);
+    }
+}
@@ -26,6 +26,18 @@ public interface WorldChangeListener {
 
     void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock);
 
+    /**
+     * Called once per chunk for blocks that got changed together. Notifies {@link #onBlockChanged} for every block
+     * by default, listeners that can handle the whole batch at once should override this.
+     *
+     * @param batch the changed blocks of a single chunk
+     */
+    default void onBlocksChanged(BlockChangeBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            onBlockChanged(batch.getPosition(i), batch.getBlock(i), batch.getOriginalBlock(i));
+        }
+    }
+
     void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome);
 
 }
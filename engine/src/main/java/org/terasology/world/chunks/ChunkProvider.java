@@ -21,6 +21,7 @@
 import org.terasology.world.internal.ChunkViewCore;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  */
@@ -85,6 +86,14 @@ public interface ChunkProvider {
      */
     void removeRelevanceEntity(EntityRef entity);
 
+    /**
+     * @return the chunk positions at the centers of all relevance regions. Empty if the provider does not maintain
+     * relevance regions.
+     */
+    default Collection<Vector3i> getRelevanceRegionCenters() {
+        return Collections.emptyList();
+    }
+
     /**
      * Finish adding any pending chunks
      */
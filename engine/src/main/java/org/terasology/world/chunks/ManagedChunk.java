@@ -37,6 +37,12 @@ public interface ManagedChunk extends CoreChunk {
 
     void prepareForReactivation();
 
+    /**
+     * @return a number that changes whenever the block, liquid or biome data returned by {@link #encode()} changes.
+     * Versions are unique across chunk instances, so a chunk that got unloaded and loaded again gets a new version.
+     */
+    long getModificationVersion();
+
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 }
@@ -23,6 +23,7 @@
 import java.io.ObjectOutput;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -143,6 +144,222 @@ public String toString() {
 
     public abstract boolean set(int x, int y, int z, int value, int expected);
 
+    /**
+     * Passes all elements of this array as runs of equal values to the given sink, in the order of increasing
+     * y, z and x coordinates (x changing fastest). Consecutive runs never have the same value.
+     * <br><br>
+     * This implementation reads every element via {@link #get(int, int, int)}, implementations should override it to
+     * work directly on their internal data.
+     */
+    public void encodeRuns(RunSink sink) {
+        RunCollector collector = new RunCollector(sink);
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    collector.add(1, get(x, y, z));
+                }
+            }
+        }
+        collector.finish();
+    }
+
+    /**
+     * Creates an array with elements of 16 bit size from runs in the order used by {@link #encodeRuns(RunSink)}.
+     * Elements not covered by the runs are 0.
+     * <br><br>
+     * Depending on how many layers of the array are covered by a single run, the result is a uniform sparse array,
+     * a sparse array or a dense array.
+     */
+    public static TeraArray fromRuns16(int sizeX, int sizeY, int sizeZ, RunSource source) {
+        final int rowSize = sizeX * sizeZ;
+        final boolean[] uniformLayers = new boolean[sizeY];
+        final int[] layerValues = new int[sizeY];
+        final int uniformCount = findUniformLayers(rowSize, sizeY, source, uniformLayers, layerValues);
+        if (uniformCount == sizeY && isSingleValue(layerValues)) {
+            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, (short) layerValues[0]);
+        }
+        // Same ratio as the minimum deflation of TeraStandardDeflator for 16 bit arrays
+        if (uniformCount > sizeY / 8) {
+            final short[][] inflated = new short[sizeY][];
+            final short[] deflated = new short[sizeY];
+            for (int y = 0; y < sizeY; y++) {
+                if (uniformLayers[y]) {
+                    deflated[y] = (short) layerValues[y];
+                } else {
+                    inflated[y] = new short[rowSize];
+                }
+            }
+            int start = 0;
+            for (int run = 0; run < source.getRunCount(); run++) {
+                final int end = start + source.getRunLength(run);
+                final short value = (short) source.getRunValue(run);
+                for (int y = start / rowSize; y < sizeY && y * rowSize < end; y++) {
+                    if (inflated[y] != null) {
+                        final int layerStart = y * rowSize;
+                        Arrays.fill(inflated[y], Math.max(start, layerStart) - layerStart,
+                                Math.min(end, layerStart + rowSize) - layerStart, value);
+                    }
+                }
+                start = end;
+            }
+            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+        }
+        final short[] data = new short[rowSize * sizeY];
+        int start = 0;
+        for (int run = 0; run < source.getRunCount(); run++) {
+            final int end = start + source.getRunLength(run);
+            Arrays.fill(data, start, end, (short) source.getRunValue(run));
+            start = end;
+        }
+        return new TeraDenseArray16Bit(sizeX, sizeY, sizeZ, data);
+    }
+
+    /**
+     * Creates an array with elements of 8 bit size from runs in the order used by {@link #encodeRuns(RunSink)}.
+     * Elements not covered by the runs are 0.
+     * <br><br>
+     * Depending on how many layers of the array are covered by a single run, the result is a uniform sparse array,
+     * a sparse array or a dense array.
+     */
+    public static TeraArray fromRuns8(int sizeX, int sizeY, int sizeZ, RunSource source) {
+        final int rowSize = sizeX * sizeZ;
+        final boolean[] uniformLayers = new boolean[sizeY];
+        final int[] layerValues = new int[sizeY];
+        final int uniformCount = findUniformLayers(rowSize, sizeY, source, uniformLayers, layerValues);
+        if (uniformCount == sizeY && isSingleValue(layerValues)) {
+            return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, (byte) layerValues[0]);
+        }
+        // Same ratio as the minimum deflation of TeraStandardDeflator for 8 bit arrays
+        if (uniformCount > sizeY / 4) {
+            final byte[][] inflated = new byte[sizeY][];
+            final byte[] deflated = new byte[sizeY];
+            for (int y = 0; y < sizeY; y++) {
+                if (uniformLayers[y]) {
+                    deflated[y] = (byte) layerValues[y];
+                } else {
+                    inflated[y] = new byte[rowSize];
+                }
+            }
+            int start = 0;
+            for (int run = 0; run < source.getRunCount(); run++) {
+                final int end = start + source.getRunLength(run);
+                final byte value = (byte) source.getRunValue(run);
+                for (int y = start / rowSize; y < sizeY && y * rowSize < end; y++) {
+                    if (inflated[y] != null) {
+                        final int layerStart = y * rowSize;
+                        Arrays.fill(inflated[y], Math.max(start, layerStart) - layerStart,
+                                Math.min(end, layerStart + rowSize) - layerStart, value);
+                    }
+                }
+                start = end;
+            }
+            return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+        }
+        final byte[] data = new byte[rowSize * sizeY];
+        int start = 0;
+        for (int run = 0; run < source.getRunCount(); run++) {
+            final int end = start + source.getRunLength(run);
+            Arrays.fill(data, start, end, (byte) source.getRunValue(run));
+            start = end;
+        }
+        return new TeraDenseArray8Bit(sizeX, sizeY, sizeZ, data);
+    }
+
+    /**
+     * Determines which layers (elements with the same y coordinate) are completely covered by a single run.
+     *
+     * @return the number of uniform layers
+     */
+    private static int findUniformLayers(int rowSize, int sizeY, RunSource source, boolean[] uniformLayers,
+                                         int[] layerValues) {
+        int count = 0;
+        int start = 0;
+        for (int run = 0; run < source.getRunCount(); run++) {
+            final int end = start + source.getRunLength(run);
+            final int firstLayer = (start + rowSize - 1) / rowSize;
+            final int lastLayer = Math.min(end / rowSize, sizeY);
+            for (int y = firstLayer; y < lastLayer; y++) {
+                uniformLayers[y] = true;
+                layerValues[y] = source.getRunValue(run);
+                count++;
+            }
+            start = end;
+        }
+        // Layers behind the last run are filled with 0
+        for (int y = (start + rowSize - 1) / rowSize; y < sizeY; y++) {
+            uniformLayers[y] = true;
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSingleValue(int[] values) {
+        for (int value : values) {
+            if (value != values[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Receives the elements of a tera array as runs of equal values.
+     *
+     * @see TeraArray#encodeRuns(RunSink)
+     */
+    @FunctionalInterface
+    public interface RunSink {
+
+        void addRun(int length, int value);
+    }
+
+    /**
+     * Provides runs of equal values from which a tera array can be created.
+     *
+     * @see TeraArray#fromRuns16(int, int, int, RunSource)
+     * @see TeraArray#fromRuns8(int, int, int, RunSource)
+     */
+    public interface RunSource {
+
+        int getRunCount();
+
+        int getRunLength(int run);
+
+        int getRunValue(int run);
+    }
+
+    /**
+     * Merges consecutive runs with the same value before passing them on to a {@link RunSink}.
+     */
+    protected static final class RunCollector {
+        private final RunSink sink;
+        private int value;
+        private int length;
+
+        public RunCollector(RunSink sink) {
+            this.sink = sink;
+        }
+
+        public void add(int runLength, int runValue) {
+            if (runValue == value) {
+                length += runLength;
+            } else {
+                if (length > 0) {
+                    sink.addRun(length, value);
+                }
+                value = runValue;
+                length = runLength;
+            }
+        }
+
+        public void finish() {
+            if (length > 0) {
+                sink.addRun(length, value);
+            }
+            length = 0;
+        }
+    }
+
     /**
      * This is the interface for tera array factories. Every tera array is required to implement a factory.
      * It should be implemented as a static subclass of the corresponding tera array class and it should be called Factory.
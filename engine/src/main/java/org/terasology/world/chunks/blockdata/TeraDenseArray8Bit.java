@@ -88,6 +88,22 @@ public boolean set(int x, int y, int z, int value, int expected) {
         return false;
     }
 
+    @Override
+    public void encodeRuns(RunSink sink) {
+        byte value = data[0];
+        int length = 0;
+        for (byte item : data) {
+            if (item == value) {
+                length++;
+            } else {
+                sink.addRun(length, value);
+                value = item;
+                length = 1;
+            }
+        }
+        sink.addRun(length, value);
+    }
+
     public static class SerializationHandler extends TeraDenseArrayByte.SerializationHandler<TeraDenseArray8Bit> {
 
         @Override
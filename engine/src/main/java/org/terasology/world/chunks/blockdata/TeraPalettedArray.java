@@ -0,0 +1,448 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.TShortIntMap;
+import gnu.trove.map.hash.TShortIntHashMap;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPalettedArray implements an array with elements of 16 bit size, which stores every distinct value only once
+ * in a palette and the elements as packed indices into that palette.
+ * <br><br>
+ * The number of bits per index grows automatically (1, 2, 4, 8 and 16 bits) as new values get added. The palette does
+ * not shrink on its own when values are no longer used, {@link #compact()} creates a copy with a minimal palette.
+ * <br><br>
+ * Like the other arrays, it supports one writing thread with concurrent readers. Growing the bits per index builds new
+ * palette and index arrays and publishes them together, so readers never combine the layout of one with the other.
+ *
+ */
+public class TeraPalettedArray extends TeraArray {
+
+    private static final int MAX_BITS_PER_ENTRY = 16;
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private volatile Layout layout;
+    private int paletteSize;
+    private TShortIntHashMap paletteIndices;
+
+    public TeraPalettedArray() {
+        super();
+    }
+
+    public TeraPalettedArray(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    public TeraPalettedArray(int sizeX, int sizeY, int sizeZ, short[] palette, int paletteSize, int bitsPerEntry,
+                             long[] data) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkArgument(isValidBitsPerEntry(bitsPerEntry), "Invalid bits per entry: " + bitsPerEntry);
+        Preconditions.checkArgument(paletteSize > 0 && paletteSize <= palette.length && paletteSize <= 1 << bitsPerEntry,
+                "Invalid palette size: " + paletteSize);
+        Preconditions.checkArgument(data.length == wordCount(bitsPerEntry),
+                "The length of parameter 'data' has to be " + wordCount(bitsPerEntry) + " but is " + data.length);
+        Layout newLayout = new Layout(Arrays.copyOf(palette, 1 << bitsPerEntry), bitsPerEntry, data);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            int index = newLayout.getIndex(i);
+            Preconditions.checkArgument(index < paletteSize,
+                    "Palette index " + index + " at position " + i + " exceeds the palette size " + paletteSize);
+        }
+        this.paletteSize = paletteSize;
+        this.layout = newLayout;
+        rebuildPaletteIndices();
+    }
+
+    public TeraPalettedArray(TeraArray in) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), true);
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    set(x, y, z, in.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a paletted copy of the given dense data, which is ordered like the data of a {@link TeraDenseArray16Bit}.
+     *
+     * @return the paletted copy or null if the data contains more than maxPaletteSize distinct values.
+     */
+    public static TeraPalettedArray createFromDense(short[] denseData, int sizeX, int sizeY, int sizeZ,
+                                                    int maxPaletteSize) {
+        TShortIntMap indices = new TShortIntHashMap();
+        short[] palette = new short[LINEAR_SEARCH_LIMIT];
+        int paletteSize = 0;
+        int[] dataIndices = new int[denseData.length];
+        for (int i = 0; i < denseData.length; i++) {
+            short value = denseData[i];
+            int index;
+            if (indices.containsKey(value)) {
+                index = indices.get(value);
+            } else {
+                if (paletteSize == maxPaletteSize) {
+                    return null;
+                }
+                if (paletteSize == palette.length) {
+                    palette = Arrays.copyOf(palette, palette.length * 2);
+                }
+                index = paletteSize++;
+                palette[index] = value;
+                indices.put(value, index);
+            }
+            dataIndices[i] = index;
+        }
+        int bits = bitsFor(paletteSize);
+        TeraPalettedArray result = new TeraPalettedArray(sizeX, sizeY, sizeZ, palette, paletteSize, bits,
+                new long[wordCountFor(denseData.length, bits)]);
+        for (int i = 0; i < dataIndices.length; i++) {
+            result.setIndex(i, dataIndices[i]);
+        }
+        return result;
+    }
+
+    @Override
+    protected void initialize() {
+        paletteSize = 1;
+        layout = new Layout(new short[2], 1, new long[wordCount(1)]);
+        paletteIndices = null;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        Layout current = layout;
+        return new TeraPalettedArray(getSizeX(), getSizeY(), getSizeZ(), current.palette.clone(), paletteSize,
+                current.bitsPerEntry, current.data.clone());
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return Preconditions.checkNotNull(deflator).deflatePalettedArray(this);
+    }
+
+    /**
+     * @return a copy of this array that only contains the palette entries that are in use and uses the smallest
+     * possible number of bits per entry, or null if this array is already compact.
+     */
+    public TeraPalettedArray compact() {
+        Layout current = layout;
+        int[] usage = new int[paletteSize];
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            usage[current.getIndex(i)]++;
+        }
+        int usedEntries = 0;
+        int[] remapping = new int[paletteSize];
+        short[] newPalette = new short[Math.max(2, paletteSize)];
+        for (int i = 0; i < paletteSize; i++) {
+            if (usage[i] > 0) {
+                remapping[i] = usedEntries;
+                newPalette[usedEntries++] = current.palette[i];
+            }
+        }
+        int newBits = bitsFor(usedEntries);
+        if (usedEntries == paletteSize && newBits == current.bitsPerEntry) {
+            return null;
+        }
+        TeraPalettedArray result = new TeraPalettedArray(getSizeX(), getSizeY(), getSizeZ(), newPalette, usedEntries,
+                newBits, new long[wordCount(newBits)]);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            result.setIndex(i, remapping[current.getIndex(i)]);
+        }
+        return result;
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        Layout current = layout;
+        int size = 40 + current.palette.length * 2 + current.data.length * 8;
+        if (paletteIndices != null) {
+            // Rough estimate for the trove map with its key, value and state arrays
+            size += paletteIndices.capacity() * 7;
+        }
+        return size;
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    public int getBitsPerEntry() {
+        return layout.bitsPerEntry;
+    }
+
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    /**
+     * @return a copy of the palette values that are currently in use.
+     */
+    public short[] getPalette() {
+        return Arrays.copyOf(layout.palette, paletteSize);
+    }
+
+    /**
+     * @return a copy of the packed palette indices, {@code 64 / getBitsPerEntry()} per long starting at the lowest bit.
+     */
+    public long[] getPackedIndices() {
+        return layout.data.clone();
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        Layout current = layout;
+        return current.palette[current.getIndex(pos(x, y, z))];
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        Layout current = layout;
+        int old = current.palette[current.getIndex(pos)];
+        if (old != (short) value) {
+            setIndex(pos, getOrAddPaletteIndex((short) value));
+        }
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        Layout current = layout;
+        int old = current.palette[current.getIndex(pos)];
+        if (old == expected) {
+            if (old != (short) value) {
+                setIndex(pos, getOrAddPaletteIndex((short) value));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void encodeRuns(RunSink sink) {
+        Layout current = layout;
+        int index = current.getIndex(0);
+        int length = 0;
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            int item = current.getIndex(i);
+            if (item == index) {
+                length++;
+            } else {
+                sink.addRun(length, current.palette[index]);
+                index = item;
+                length = 1;
+            }
+        }
+        sink.addRun(length, current.palette[index]);
+    }
+
+    private void setIndex(int pos, int index) {
+        layout.setIndex(pos, index);
+    }
+
+    private int getOrAddPaletteIndex(short value) {
+        Layout current = layout;
+        if (paletteIndices != null) {
+            if (paletteIndices.containsKey(value)) {
+                return paletteIndices.get(value);
+            }
+        } else {
+            for (int i = 0; i < paletteSize; i++) {
+                if (current.palette[i] == value) {
+                    return i;
+                }
+            }
+        }
+        if (paletteSize == current.palette.length) {
+            current = grow(current, current.bitsPerEntry * 2);
+        }
+        // The new entry is in place before any index refers to it
+        int index = paletteSize++;
+        current.palette[index] = value;
+        if (paletteIndices != null) {
+            paletteIndices.put(value, index);
+        } else if (paletteSize > LINEAR_SEARCH_LIMIT) {
+            rebuildPaletteIndices();
+        }
+        return index;
+    }
+
+    /**
+     * Copies the indices into a layout with more bits per entry and publishes it, readers still using the old layout
+     * keep seeing consistent values.
+     */
+    private Layout grow(Layout current, int newBitsPerEntry) {
+        Preconditions.checkState(newBitsPerEntry <= MAX_BITS_PER_ENTRY, "Palette can not hold more than 2^16 values");
+        Layout grown = new Layout(Arrays.copyOf(current.palette, 1 << newBitsPerEntry), newBitsPerEntry,
+                new long[wordCount(newBitsPerEntry)]);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            grown.setIndex(i, current.getIndex(i));
+        }
+        layout = grown;
+        return grown;
+    }
+
+    private void rebuildPaletteIndices() {
+        if (paletteSize > LINEAR_SEARCH_LIMIT) {
+            short[] palette = layout.palette;
+            paletteIndices = new TShortIntHashMap(paletteSize * 2);
+            for (int i = 0; i < paletteSize; i++) {
+                paletteIndices.put(palette[i], i);
+            }
+        } else {
+            paletteIndices = null;
+        }
+    }
+
+    private int wordCount(int bits) {
+        return wordCountFor(getSizeXYZ(), bits);
+    }
+
+    private static int wordCountFor(int entries, int bits) {
+        return (entries * bits + 63) / 64;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        int bits = 1;
+        while (1 << bits < paletteSize) {
+            bits *= 2;
+        }
+        return bits;
+    }
+
+    /**
+     * @return whether the palette indices can be packed with the given number of bits, which are 1, 2, 4, 8 and 16.
+     */
+    public static boolean isValidBitsPerEntry(int bits) {
+        return bits == 1 || bits == 2 || bits == 4 || bits == 8 || bits == 16;
+    }
+
+    /**
+     * @return the number of longs holding the packed indices of the given number of entries.
+     */
+    public static int getPackedIndicesLength(int entries, int bitsPerEntry) {
+        return wordCountFor(entries, bitsPerEntry);
+    }
+
+    /**
+     * The palette and packed indices with their bit width. The palette always has room for every index the bit width
+     * can express, so an index read from the data never exceeds the palette it is published with.
+     */
+    private static final class Layout {
+        private final short[] palette;
+        private final int bitsPerEntry;
+        private final int indexShift;
+        private final int indexMask;
+        private final long[] data;
+
+        Layout(short[] palette, int bitsPerEntry, long[] data) {
+            this.palette = palette;
+            this.bitsPerEntry = bitsPerEntry;
+            this.indexShift = Integer.numberOfTrailingZeros(64 / bitsPerEntry);
+            this.indexMask = (64 / bitsPerEntry) - 1;
+            this.data = data;
+        }
+
+        int getIndex(int pos) {
+            int bitOffset = (pos & indexMask) * bitsPerEntry;
+            return (int) (data[pos >>> indexShift] >>> bitOffset) & ((1 << bitsPerEntry) - 1);
+        }
+
+        void setIndex(int pos, int index) {
+            int bitOffset = (pos & indexMask) * bitsPerEntry;
+            long entryMask = ((1L << bitsPerEntry) - 1) << bitOffset;
+            int word = pos >>> indexShift;
+            data[word] = (data[word] & ~entryMask) | (((long) index << bitOffset) & entryMask);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPalettedArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPalettedArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPalettedArray array) {
+            return 12 + array.paletteSize * 2 + array.layout.data.length * 8;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPalettedArray array, ByteBuffer buffer) {
+            Layout layout = array.layout;
+            buffer.putInt(layout.bitsPerEntry);
+            buffer.putInt(array.paletteSize);
+            for (int i = 0; i < array.paletteSize; i++) {
+                buffer.putShort(layout.palette[i]);
+            }
+            buffer.putInt(layout.data.length);
+            for (long word : layout.data) {
+                buffer.putLong(word);
+            }
+        }
+
+        @Override
+        protected TeraPalettedArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int bits = buffer.getInt();
+            final int paletteSize = buffer.getInt();
+            final short[] palette = new short[Math.max(2, paletteSize)];
+            for (int i = 0; i < paletteSize; i++) {
+                palette[i] = buffer.getShort();
+            }
+            final long[] data = new long[buffer.getInt()];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = buffer.getLong();
+            }
+            return new TeraPalettedArray(sizeX, sizeY, sizeZ, palette, paletteSize, bits, data);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPalettedArray> {
+
+        @Override
+        public Class<TeraPalettedArray> getArrayClass() {
+            return TeraPalettedArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPalettedArray create() {
+            return new TeraPalettedArray();
+        }
+
+        @Override
+        public TeraPalettedArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPalettedArray(sizeX, sizeY, sizeZ);
+        }
+    }
+}
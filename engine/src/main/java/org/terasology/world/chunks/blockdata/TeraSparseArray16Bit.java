@@ -178,6 +178,26 @@ public boolean set(int x, int y, int z, int value, int expected) {
         return false;
     }
 
+    @Override
+    public void encodeRuns(RunSink sink) {
+        if (inflated == null) {
+            sink.addRun(getSizeXYZ(), fill);
+            return;
+        }
+        RunCollector collector = new RunCollector(sink);
+        for (int y = 0; y < getSizeY(); y++) {
+            short[] row = inflated[y];
+            if (row == null) {
+                collector.add(getSizeXZ(), deflated[y]);
+            } else {
+                for (short item : row) {
+                    collector.add(1, item);
+                }
+            }
+        }
+        collector.finish();
+    }
+
     public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraSparseArray16Bit> {
 
         private void putRow(final short[] row, final int length, final ByteBuffer buffer) {
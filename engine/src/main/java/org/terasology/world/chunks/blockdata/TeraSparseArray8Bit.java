@@ -148,6 +148,26 @@ public boolean set(int x, int y, int z, int value, int expected) {
         return false;
     }
 
+    @Override
+    public void encodeRuns(RunSink sink) {
+        if (inflated == null) {
+            sink.addRun(getSizeXYZ(), fill);
+            return;
+        }
+        RunCollector collector = new RunCollector(sink);
+        for (int y = 0; y < getSizeY(); y++) {
+            byte[] row = inflated[y];
+            if (row == null) {
+                collector.add(getSizeXZ(), deflated[y]);
+            } else {
+                for (byte item : row) {
+                    collector.add(1, item);
+                }
+            }
+        }
+        collector.finish();
+    }
+
     public static final class SerializationHandler extends TeraSparseArrayByte.SerializationHandler<TeraSparseArray8Bit> {
 
         @Override
@@ -17,12 +17,15 @@
 package org.terasology.world.chunks.deflate;
 
 import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraPalettedArray;
 import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
 
 /**
  * TeraStandardDeflator implements a simple deflation algorithm for 4, 8 and 16-bit dense and sparse arrays.<br>
+ * 16-bit dense arrays with few distinct values get converted into a {@link TeraPalettedArray} if that is smaller.<br>
  * <b>NOTE:</b> Currently it is optimized for chunks of size 16x256x16 blocks.<br>
  * TODO: Implement deflation for sparse arrays.
  *
@@ -63,6 +66,11 @@ public class TeraStandardDeflator extends TeraVisitingDeflator {
     protected static final int DEFLATE_MINIMUM_8BIT = 16;
     protected static final int DEFLATE_MINIMUM_4BIT = 31;
 
+    /**
+     * Palettes with more entries would need 16 bit indices, which is no improvement over a dense array.
+     */
+    protected static final int MAX_PALETTE_SIZE = 256;
+
     public TeraStandardDeflator() {
     }
 
@@ -103,10 +111,16 @@ public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, in
                 return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, first);
             }
         }
+        TeraArray sparse = null;
         if (packed > DEFLATE_MINIMUM_16BIT) {
-            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+            sparse = new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
         }
-        return null;
+        TeraArray paletted = TeraPalettedArray.createFromDense(data, sizeX, sizeY, sizeZ, MAX_PALETTE_SIZE);
+        if (paletted != null && (sparse == null
+                || paletted.getEstimatedMemoryConsumptionInBytes() < sparse.getEstimatedMemoryConsumptionInBytes())) {
+            return paletted;
+        }
+        return sparse;
     }
 
     @Override
@@ -212,4 +226,21 @@ public TeraArray deflateSparseArray4Bit(final byte[][] inflated, final byte[] de
         return null;
     }
 
+    @Override
+    public TeraArray deflatePalettedArray(TeraPalettedArray array) {
+        TeraPalettedArray compacted = array.compact();
+        TeraPalettedArray result = compacted != null ? compacted : array;
+        if (result.getPaletteSize() == 1) {
+            return new TeraSparseArray16Bit(result.getSizeX(), result.getSizeY(), result.getSizeZ(),
+                    (short) result.get(0, 0, 0));
+        }
+        if (result.getPaletteSize() > MAX_PALETTE_SIZE) {
+            // 16 bit indices plus the palette take more memory than the values themselves
+            TeraDenseArray16Bit dense = new TeraDenseArray16Bit(result);
+            TeraArray deflated = dense.deflate(this);
+            return deflated != null ? deflated : dense;
+        }
+        return compacted;
+    }
+
 }
@@ -43,6 +43,7 @@
 import org.terasology.world.liquid.LiquidData;
 
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Chunks are the basic components of the world. Each chunk contains a fixed amount of blocks
@@ -59,6 +60,13 @@ public class ChunkImpl implements Chunk {
     private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("0.##");
     private static final DecimalFormat SIZE_FORMAT = new DecimalFormat("#,###");
 
+    /**
+     * Every chunk instance counts its modifications starting at its own base, so a reloaded or regenerated chunk at
+     * the same position never reports a version that an earlier instance already used.
+     */
+    private static final AtomicLong NEXT_VERSION_BASE = new AtomicLong();
+    private static final long VERSIONS_PER_INSTANCE = 1L << 32;
+
     private final Vector3i chunkPos = new Vector3i();
 
     private BlockManager blockManager;
@@ -82,6 +90,8 @@ public class ChunkImpl implements Chunk {
     private boolean ready;
     private volatile boolean dirty;
     private boolean animated;
+    // Only incremented by the thread that currently modifies the chunk, but read by other threads
+    private volatile long modificationVersion = NEXT_VERSION_BASE.getAndAdd(VERSIONS_PER_INSTANCE);
 
     // Rendering
     private ChunkMesh activeMesh;
@@ -160,6 +170,7 @@ public Block setBlock(int x, int y, int z, Block block) {
         }
         int oldValue = blockData.set(x, y, z, block.getId());
         if (oldValue != block.getId()) {
+            modificationVersion++;
             if (!block.isLiquid()) {
                 setLiquid(x, y, z, new LiquidData());
             }
@@ -246,7 +257,9 @@ public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (extraData == extraDataSnapshot) {
             extraData = extraData.copy();
         }
-        extraData.set(x, y, z, newValue);
+        if (extraData.set(x, y, z, newValue) != newValue) {
+            modificationVersion++;
+        }
     }
 
     @Override
@@ -276,6 +289,9 @@ public Biome setBiome(int x, int y, int z, Biome biome) {
         }
         short shortId = biomeManager.getBiomeShortId(biome);
         short previousShortId = (short) biomeData.set(x, y, z, shortId);
+        if (previousShortId != shortId) {
+            modificationVersion++;
+        }
         return biomeManager.getBiomeByShortId(previousShortId);
     }
 
@@ -567,6 +583,11 @@ public ChunkBlockIterator getBlockIterator() {
         return new ChunkBlockIteratorImpl(blockManager, getChunkWorldOffset(), blockData);
     }
 
+    @Override
+    public long getModificationVersion() {
+        return modificationVersion;
+    }
+
     @Override
     public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
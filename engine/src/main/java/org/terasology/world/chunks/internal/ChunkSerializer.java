@@ -26,8 +26,10 @@
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.blockdata.TeraArray;
-import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
-import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPalettedArray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  */
@@ -39,7 +41,11 @@ private ChunkSerializer() {
     public static EntityData.ChunkStore.Builder encode(Vector3i pos, TeraArray blockData, TeraArray liquidData, TeraArray biomeData) {
         final EntityData.ChunkStore.Builder b = EntityData.ChunkStore.newBuilder()
                 .setX(pos.x).setY(pos.y).setZ(pos.z);
-        b.setBlockData(runLengthEncode16(blockData));
+        if (blockData instanceof TeraPalettedArray) {
+            b.setPalettedBlockData(encodePaletted((TeraPalettedArray) blockData));
+        } else {
+            b.setBlockData(runLengthEncode16(blockData));
+        }
         b.setLiquidData(runLengthEncode8(liquidData));
         b.setBiomeData(runLengthEncode16(biomeData));
 
@@ -52,99 +58,183 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing chunk position.");
         }
         Vector3i pos = new Vector3i(message.getX(), message.getY(), message.getZ());
-        if (!message.hasBlockData()) {
+        if (!message.hasBlockData() && !message.hasPalettedBlockData()) {
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing block data.");
         }
         if (!message.hasLiquidData()) {
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing liquid data.");
         }
 
-        final TeraArray blockData = runLengthDecode(message.getBlockData());
+        final TeraArray blockData;
+        if (message.hasPalettedBlockData()) {
+            blockData = decodePaletted(message.getPalettedBlockData());
+        } else {
+            blockData = runLengthDecode(message.getBlockData());
+        }
         final TeraArray liquidData = runLengthDecode(message.getLiquidData());
         final TeraArray biomeData = runLengthDecode(message.getBiomeData());
         return new ChunkImpl(pos, blockData, liquidData, biomeData, blockManager, biomeManager);
     }
 
-    private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
-        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
-        short lastItem = (short) array.get(0, 0, 0);
-        int counter = 0;
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    short item = (short) array.get(x, y, z);
-                    if (lastItem != item) {
-                        builder.addRunLengths(counter);
-                        builder.addValues(lastItem & 0xFFFF);
-                        lastItem = item;
-                        counter = 1;
-                    } else {
-                        counter++;
-                    }
-                }
-            }
+    private static EntityData.PalettedArray16 encodePaletted(TeraPalettedArray array) {
+        EntityData.PalettedArray16.Builder builder = EntityData.PalettedArray16.newBuilder();
+        for (short value : array.getPalette()) {
+            builder.addPalette(value & 0xFFFF);
+        }
+        builder.setBitsPerEntry(array.getBitsPerEntry());
+        long[] indices = array.getPackedIndices();
+        ByteBuffer buffer = ByteBuffer.allocate(indices.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(indices);
+        builder.setIndices(ByteString.copyFrom(buffer));
+        return builder.build();
+    }
+
+    private static TeraArray decodePaletted(EntityData.PalettedArray16 data) {
+        int bits = data.getBitsPerEntry();
+        if (!TeraPalettedArray.isValidBitsPerEntry(bits)) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Invalid bits per palette index: " + bits);
+        }
+        int paletteSize = data.getPaletteCount();
+        if (paletteSize == 0 || paletteSize > 1 << bits) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Palette size " + paletteSize
+                    + " does not fit " + bits + " bits per index.");
+        }
+        int expectedLength = TeraPalettedArray.getPackedIndicesLength(ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y
+                * ChunkConstants.SIZE_Z, bits) * 8;
+        if (data.getIndices().size() != expectedLength) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Expected " + expectedLength
+                    + " bytes of palette indices but got " + data.getIndices().size());
         }
-        if (lastItem != 0) {
-            builder.addRunLengths(counter);
-            builder.addValues(lastItem & 0xFFFF);
+        short[] palette = new short[Math.max(2, paletteSize)];
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = (short) data.getPalette(i);
         }
+        ByteBuffer buffer = data.getIndices().asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        long[] indices = new long[buffer.remaining() / 8];
+        buffer.asLongBuffer().get(indices);
+        // Rejects indices beyond the palette
+        return new TeraPalettedArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, palette,
+                paletteSize, bits, indices);
+    }
+
+    private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
+        final EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        RunLengthEncoding16Sink sink = new RunLengthEncoding16Sink(builder);
+        array.encodeRuns(sink);
+        sink.finish();
         return builder.build();
     }
 
     private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
-        EntityData.RunLengthEncoding8.Builder builder = EntityData.RunLengthEncoding8.newBuilder();
-        TByteList values = new TByteArrayList(16384);
-        byte lastItem = (byte) array.get(0, 0, 0);
-        int counter = 0;
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    byte item = (byte) array.get(x, y, z);
-                    if (lastItem != item) {
-                        builder.addRunLengths(counter);
-                        values.add(lastItem);
-                        lastItem = item;
-                        counter = 1;
-                    } else {
-                        counter++;
+        final EntityData.RunLengthEncoding8.Builder builder = EntityData.RunLengthEncoding8.newBuilder();
+        RunLengthEncoding8Sink sink = new RunLengthEncoding8Sink(builder);
+        array.encodeRuns(sink);
+        sink.finish();
+        return builder.build();
+    }
+
+    private static TeraArray runLengthDecode(final EntityData.RunLengthEncoding16 data) {
+        Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
+        return TeraArray.fromRuns16(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z,
+                new TeraArray.RunSource() {
+                    @Override
+                    public int getRunCount() {
+                        return data.getRunLengthsCount();
+                    }
+
+                    @Override
+                    public int getRunLength(int run) {
+                        return data.getRunLengths(run);
+                    }
+
+                    @Override
+                    public int getRunValue(int run) {
+                        return (short) data.getValues(run);
                     }
-                }
+                });
+    }
+
+    private static TeraArray runLengthDecode(final EntityData.RunLengthEncoding8 data) {
+        Preconditions.checkState(data.getValues().size() == data.getRunLengthsCount(), "Expected same number of values as runs");
+        final ByteString values = data.getValues();
+        return TeraArray.fromRuns8(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z,
+                new TeraArray.RunSource() {
+                    @Override
+                    public int getRunCount() {
+                        return data.getRunLengthsCount();
+                    }
+
+                    @Override
+                    public int getRunLength(int run) {
+                        return data.getRunLengths(run);
+                    }
+
+                    @Override
+                    public int getRunValue(int run) {
+                        return values.byteAt(run);
+                    }
+                });
+    }
+
+    /**
+     * Writes runs into a protobuf message. A trailing run of zeros is left out, as it gets restored implicitly.
+     */
+    private static final class RunLengthEncoding16Sink implements TeraArray.RunSink {
+        private final EntityData.RunLengthEncoding16.Builder builder;
+        private int pendingLength;
+        private int pendingValue;
+
+        private RunLengthEncoding16Sink(EntityData.RunLengthEncoding16.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void addRun(int length, int value) {
+            if (pendingLength > 0) {
+                builder.addRunLengths(pendingLength);
+                builder.addValues(pendingValue & 0xFFFF);
             }
+            pendingLength = length;
+            pendingValue = value;
         }
-        if (lastItem != 0) {
-            builder.addRunLengths(counter);
-            values.add(lastItem);
+
+        private void finish() {
+            if (pendingLength > 0 && (short) pendingValue != 0) {
+                builder.addRunLengths(pendingLength);
+                builder.addValues(pendingValue & 0xFFFF);
+            }
         }
-        builder.setValues(ByteString.copyFrom(values.toArray()));
-        return builder.build();
     }
 
-    private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
-        Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
-        short[] decodedData = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
-        int index = 0;
-        for (int pos = 0; pos < data.getValuesCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
+    /**
+     * Writes runs into a protobuf message. A trailing run of zeros is left out, as it gets restored implicitly.
+     */
+    private static final class RunLengthEncoding8Sink implements TeraArray.RunSink {
+        private final EntityData.RunLengthEncoding8.Builder builder;
+        private final TByteList values = new TByteArrayList(256);
+        private int pendingLength;
+        private byte pendingValue;
+
+        private RunLengthEncoding8Sink(EntityData.RunLengthEncoding8.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void addRun(int length, int value) {
+            if (pendingLength > 0) {
+                builder.addRunLengths(pendingLength);
+                values.add(pendingValue);
             }
+            pendingLength = length;
+            pendingValue = (byte) value;
         }
-        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
-    }
 
-    private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
-        Preconditions.checkState(data.getValues().size() == data.getRunLengthsCount(), "Expected same number of values as runs");
-        byte[] decodedData = new byte[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
-        int index = 0;
-        ByteString.ByteIterator valueSource = data.getValues().iterator();
-        for (int pos = 0; pos < data.getRunLengthsCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            byte value = valueSource.nextByte();
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
+        private void finish() {
+            if (pendingLength > 0 && pendingValue != 0) {
+                builder.addRunLengths(pendingLength);
+                values.add(pendingValue);
             }
+            builder.setValues(ByteString.copyFrom(values.toArray()));
         }
-        return new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
     }
 }
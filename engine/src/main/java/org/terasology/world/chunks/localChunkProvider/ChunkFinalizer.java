@@ -15,10 +15,11 @@
  */
 package org.terasology.world.chunks.localChunkProvider;
 
-import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.chunks.internal.ReadyChunkInfo;
 
+import java.util.List;
+
 /**
  * Post-processor for loaded or generated chunks.
  * Can be used to add extra runtime-metadata like light merging to a chunk before the chunk is stored in memory.
@@ -27,9 +28,18 @@ public interface ChunkFinalizer {
 
     void initialize(GeneratingChunkProvider generatingChunkProvider);
 
-    ReadyChunkInfo completeFinalization();
+    /**
+     * Waits till the chunks passed to the last call of {@link #beginFinalization(List)} are finalized.
+     *
+     * @return the finalized chunks, or an empty list if there are none
+     */
+    List<ReadyChunkInfo> completeFinalization();
 
-    void beginFinalization(Chunk chunk, ReadyChunkInfo readyChunkInfo);
+    /**
+     * Starts finalizing a batch of chunks, which may happen in the background till {@link #completeFinalization()}
+     * gets called.
+     */
+    void beginFinalization(List<ReadyChunkInfo> readyChunks);
 
     void restart();
 
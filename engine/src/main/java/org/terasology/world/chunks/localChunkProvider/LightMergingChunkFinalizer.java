@@ -15,28 +15,29 @@
  */
 package org.terasology.world.chunks.localChunkProvider;
 
-import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.chunks.internal.ReadyChunkInfo;
 import org.terasology.world.propagation.light.LightMerger;
 
+import java.util.List;
+
 class LightMergingChunkFinalizer implements ChunkFinalizer {
 
     private LightMerger<ReadyChunkInfo> lightMerger;
 
     @Override
     public void initialize(final GeneratingChunkProvider generatingChunkProvider) {
-        lightMerger = new LightMerger<>(generatingChunkProvider);
+        lightMerger = new LightMerger<>(generatingChunkProvider, ReadyChunkInfo::getChunk);
     }
 
     @Override
-    public ReadyChunkInfo completeFinalization() {
+    public List<ReadyChunkInfo> completeFinalization() {
         return lightMerger.completeMerge();
     }
 
     @Override
-    public void beginFinalization(final Chunk chunk, final ReadyChunkInfo readyChunkInfo) {
-        lightMerger.beginMerge(chunk, readyChunkInfo);
+    public void beginFinalization(final List<ReadyChunkInfo> readyChunks) {
+        lightMerger.beginMerge(readyChunks);
     }
 
     @Override
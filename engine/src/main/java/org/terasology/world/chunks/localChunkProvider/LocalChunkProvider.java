@@ -19,7 +19,6 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
-import com.google.common.collect.Sets;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TShortObjectMap;
@@ -77,11 +76,12 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  */
@@ -89,6 +89,10 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
+    /**
+     * The finalization of a batch blocks the next {@link #completeUpdate()}, which limits how long it may take.
+     */
+    private static final int MAX_FINALIZATIONS_PER_UPDATE = 32;
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
 
     private StorageManager storageManager;
@@ -101,8 +105,13 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
 
 
-    private final Set<Vector3i> preparingChunks = Sets.newHashSet();
+    private final Map<Vector3i, AbstractChunkTask> preparingChunks = Maps.newHashMap();
+    /**
+     * Counts chunks that got generated or loaded, but were no longer needed when they became available.
+     */
+    private final AtomicLong wastedChunks = new AtomicLong();
     private final BlockingQueue<ReadyChunkInfo> readyChunks = Queues.newLinkedBlockingQueue();
+    private final BlockingQueue<CreateOrLoadChunkTask> completedTasks = Queues.newLinkedBlockingQueue();
     private List<ReadyChunkInfo> sortedReadyChunks = Lists.newArrayList();
     private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
 
@@ -139,7 +148,7 @@ public LocalChunkProvider(StorageManager storageManager, EntityManager entityMan
         this.generator = generator;
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
-        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
         this.chunkFinalizer = chunkFinalizer;
         this.chunkCache = chunkCache;
@@ -257,14 +266,34 @@ public void removeRelevanceEntity(EntityRef entity) {
         } finally {
             regionLock.writeLock().unlock();
         }
+        cancelIrrelevantTasks();
+    }
+
+    @Override
+    public Collection<Vector3i> getRelevanceRegionCenters() {
+        List<Vector3i> centers = Lists.newArrayList();
+        regionLock.readLock().lock();
+        try {
+            for (ChunkRelevanceRegion region : regions.values()) {
+                if (region.isValid()) {
+                    centers.add(region.getCenter());
+                }
+            }
+        } finally {
+            regionLock.readLock().unlock();
+        }
+        return centers;
     }
 
     @Override
     public void completeUpdate() {
-        ReadyChunkInfo readyChunkInfo = chunkFinalizer.completeFinalization();
-        if (readyChunkInfo != null) {
+        List<ReadyChunkInfo> finalizedChunks = chunkFinalizer.completeFinalization();
+        for (ReadyChunkInfo readyChunkInfo : finalizedChunks) {
             processReadyChunk(readyChunkInfo);
         }
+        if (!finalizedChunks.isEmpty()) {
+            PerformanceMonitor.setGauge("Chunk Lighting - Chunks/s", ChunkMonitor.getLightMergeRate());
+        }
     }
 
     private void processReadyChunk(final ReadyChunkInfo readyChunkInfo) {
@@ -345,6 +374,8 @@ public void beginUpdate() {
             deactivateBlocks();
             checkForUnload();
             makeChunksAvailable();
+            pipeline.updateMetrics();
+            PerformanceMonitor.setGauge("Chunk Tasks - Wasted", wastedChunks.get());
         } finally {
             regionLock.readLock().unlock();
         }
@@ -353,9 +384,19 @@ public void beginUpdate() {
     private void makeChunksAvailable() {
         List<ReadyChunkInfo> newReadyChunks = Lists.newArrayListWithExpectedSize(readyChunks.size());
         readyChunks.drainTo(newReadyChunks);
+        List<CreateOrLoadChunkTask> newCompletedTasks = Lists.newArrayListWithExpectedSize(completedTasks.size());
+        completedTasks.drainTo(newCompletedTasks);
+        for (CreateOrLoadChunkTask task : newCompletedTasks) {
+            // Tasks are cancelled and replaced on this thread, so only the task still registered for its position
+            // may publish; a task that got cancelled after its last check is dropped here.
+            if (preparingChunks.remove(task.getPosition(), task)) {
+                newReadyChunks.add(task.result);
+            } else {
+                wastedChunks.incrementAndGet();
+            }
+        }
         for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
             chunkCache.put(readyChunkInfo.getPos(), readyChunkInfo.getChunk());
-            preparingChunks.remove(readyChunkInfo.getPos());
         }
         updateRelevanceRegionsWithNewChunks(newReadyChunks);
         if (!newReadyChunks.isEmpty()) {
@@ -363,16 +404,19 @@ private void makeChunksAvailable() {
             Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
         }
         if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
+            PerformanceMonitor.startActivity("Make Chunk Available");
+            List<ReadyChunkInfo> finalizingChunks = Lists.newArrayList();
+            for (int i = sortedReadyChunks.size() - 1; i >= 0 && finalizingChunks.size() < MAX_FINALIZATIONS_PER_UPDATE; i--) {
                 ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
-                PerformanceMonitor.startActivity("Make Chunk Available");
-                if (makeChunkAvailable(chunkInfo)) {
+                if (canMakeChunkAvailable(chunkInfo)) {
                     sortedReadyChunks.remove(i);
-                    loaded = true;
+                    finalizingChunks.add(chunkInfo);
                 }
-                PerformanceMonitor.endActivity();
             }
+            if (!finalizingChunks.isEmpty()) {
+                chunkFinalizer.beginFinalization(finalizingChunks);
+            }
+            PerformanceMonitor.endActivity();
         }
     }
 
@@ -404,14 +448,7 @@ private void checkForUnload() {
         Iterator<Vector3i> iterator = chunkCache.iterateChunkPositions();
         while (iterator.hasNext()) {
             Vector3i pos = iterator.next();
-            boolean keep = false;
-            for (ChunkRelevanceRegion region : regions.values()) {
-                if (region.getCurrentRegion().expand(UNLOAD_LEEWAY).encompasses(pos)) {
-                    keep = true;
-                    break;
-                }
-            }
-            if (!keep) {
+            if (!isWithinRelevanceRegion(pos)) {
                 // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
                 // Note: Above won't matter if all changes are on the main thread
                 if (unloadChunkInternal(pos)) {
@@ -429,6 +466,7 @@ private boolean unloadChunkInternal(Vector3i pos) {
         Chunk chunk = chunkCache.get(pos);
         if (!chunk.isReady()) {
             // Chunk hasn't been finished or changed, so just drop it.
+            wastedChunks.incrementAndGet();
             Iterator<ReadyChunkInfo> infoIterator = sortedReadyChunks.iterator();
             while (infoIterator.hasNext()) {
                 ReadyChunkInfo next = infoIterator.next();
@@ -478,9 +516,11 @@ private List<Chunk> listAdjacentChunks(Chunk chunk) {
     }
 
     private void updateRelevance() {
+        boolean regionsChanged = false;
         for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
             chunkRelevanceRegion.update();
             if (chunkRelevanceRegion.isDirty()) {
+                regionsChanged = true;
                 for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                     Chunk chunk = chunkCache.get(pos);
                     if (chunk != null) {
@@ -492,9 +532,13 @@ private void updateRelevance() {
                 chunkRelevanceRegion.setUpToDate();
             }
         }
+        if (regionsChanged) {
+            pipeline.invalidatePriorities();
+            cancelIrrelevantTasks();
+        }
     }
 
-    private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
+    private boolean canMakeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
         final Chunk chunk = chunkCache.get(readyChunkInfo.getPos());
         if (chunk == null) {
             return false;
@@ -504,7 +548,6 @@ private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
                 return false;
             }
         }
-        chunkFinalizer.beginFinalization(chunk, readyChunkInfo);
         return true;
     }
 
@@ -612,12 +655,14 @@ public void purgeWorld() {
         });
         chunkCache.clear();
         readyChunks.clear();
+        completedTasks.clear();
         sortedReadyChunks.clear();
         storageManager.deleteWorld();
+        preparingChunks.values().forEach(AbstractChunkTask::cancel);
         preparingChunks.clear();
         worldEntity.send(new PurgeWorldEvent());
 
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
         chunkFinalizer = chunkFinalizerSupplier.get();
         chunkFinalizer.initialize(this);
@@ -634,33 +679,35 @@ public void purgeWorld() {
 
     private void createOrLoadChunk(Vector3i chunkPos) {
         Chunk chunk = chunkCache.get(chunkPos);
-        if (chunk == null && !preparingChunks.contains(chunkPos)) {
-            preparingChunks.add(chunkPos);
-            pipeline.doTask(new AbstractChunkTask(chunkPos) {
-                @Override
-                public String getName() {
-                    return "Create or Load Chunk";
-                }
+        if (chunk == null && !preparingChunks.containsKey(chunkPos)) {
+            AbstractChunkTask task = new CreateOrLoadChunkTask(chunkPos);
+            preparingChunks.put(chunkPos, task);
+            pipeline.doTask(task);
+        }
+    }
 
-                @Override
-                public void run() {
-                    ChunkStore chunkStore = storageManager.loadChunkStore(getPosition());
-                    Chunk chunk;
-                    EntityBufferImpl buffer = new EntityBufferImpl();
-                    if (chunkStore == null) {
-                        chunk = new ChunkImpl(getPosition(), blockManager, biomeManager);
-                        generator.createChunk(chunk, buffer);
-                    } else {
-                        chunk = chunkStore.getChunk();
-                    }
+    /**
+     * Cancels the queued or running tasks of all chunks that are no longer within any relevance region, e.g. because
+     * the player teleported before they got generated.
+     */
+    private void cancelIrrelevantTasks() {
+        Iterator<Map.Entry<Vector3i, AbstractChunkTask>> iterator = preparingChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vector3i, AbstractChunkTask> entry = iterator.next();
+            if (!isWithinRelevanceRegion(entry.getKey())) {
+                entry.getValue().cancel();
+                iterator.remove();
+            }
+        }
+    }
 
-                    InternalLightProcessor.generateInternalLighting(chunk);
-                    chunk.deflate();
-                    TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
-                    readyChunks.offer(new ReadyChunkInfo(chunk, mappings, chunkStore, buffer.getAll()));
-                }
-            });
+    private boolean isWithinRelevanceRegion(Vector3i pos) {
+        for (ChunkRelevanceRegion region : regions.values()) {
+            if (region.getCurrentRegion().expand(UNLOAD_LEEWAY).encompasses(pos)) {
+                return true;
+            }
         }
+        return false;
     }
 
 
@@ -683,14 +730,54 @@ private boolean isChunkReady(Chunk chunk) {
         return chunk != null && chunk.isReady();
     }
 
-    private class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    /**
+     * Creates or loads a single chunk off the main thread. The result is only handed over through
+     * {@link #completedTasks}; whether it is still wanted is decided on the main thread, see
+     * {@link #makeChunksAvailable()}.
+     */
+    private class CreateOrLoadChunkTask extends AbstractChunkTask {
+        private ReadyChunkInfo result;
+
+        CreateOrLoadChunkTask(Vector3i position) {
+            super(position);
+        }
 
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1) - score(o2);
+        public String getName() {
+            return "Create or Load Chunk";
         }
 
-        private int score(ChunkTask task) {
+        @Override
+        public void run() {
+            if (isCancelled()) {
+                return;
+            }
+            ChunkStore chunkStore = storageManager.loadChunkStore(getPosition());
+            Chunk chunk;
+            EntityBufferImpl buffer = new EntityBufferImpl();
+            if (chunkStore == null) {
+                chunk = new ChunkImpl(getPosition(), blockManager, biomeManager);
+                generator.createChunk(chunk, buffer);
+            } else {
+                chunk = chunkStore.getChunk();
+            }
+
+            InternalLightProcessor.generateInternalLighting(chunk);
+            chunk.deflate();
+            if (isCancelled()) {
+                wastedChunks.incrementAndGet();
+                return;
+            }
+            TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
+            result = new ReadyChunkInfo(chunk, mappings, chunkStore, buffer.getAll());
+            completedTasks.offer(this);
+        }
+    }
+
+    private class ChunkTaskRelevance implements ToIntFunction<ChunkTask> {
+
+        @Override
+        public int applyAsInt(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
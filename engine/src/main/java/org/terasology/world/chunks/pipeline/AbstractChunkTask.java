@@ -22,6 +22,7 @@
  */
 public abstract class AbstractChunkTask implements ChunkTask {
     private final Vector3i position;
+    private volatile boolean cancelled;
 
     public AbstractChunkTask(Vector3i position) {
         this.position = new Vector3i(position);
@@ -36,4 +37,17 @@ public Vector3i getPosition() {
     public boolean isTerminateSignal() {
         return false;
     }
+
+    /**
+     * Marks the task as no longer needed. A task that has not started yet will not be run; a running task should
+     * check {@link #isCancelled()} and drop its result.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
 }
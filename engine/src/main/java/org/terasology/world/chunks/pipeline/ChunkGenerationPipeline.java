@@ -18,20 +18,37 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.utilities.concurrency.WorkStealingBlockingQueue;
 
-import java.util.Comparator;
+import java.util.function.ToIntFunction;
 
 /**
+ * Runs chunk tasks on a pool of worker threads, in the order of their relevance.
+ * <br><br>
+ * The relevance of a task is its distance bucket, usually the distance in chunks to the nearest relevance region.
+ * Tasks in lower buckets run first. When the relevance regions move, {@link #invalidatePriorities()} needs to be
+ * called, so queued tasks get sorted into their new buckets. Cancelled tasks are dropped before they run.
  */
 public class ChunkGenerationPipeline {
     private static final int NUM_TASK_THREADS = 8;
+    private static final int NUM_DISTANCE_BUCKETS = 64;
     private static final Logger logger = LoggerFactory.getLogger(ChunkGenerationPipeline.class);
 
+    private final WorkStealingBlockingQueue<ChunkTask> taskQueue;
     private TaskMaster<ChunkTask> chunkGenerator;
 
-    public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
-        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
+    private long lastTakenCount;
+    private long lastTotalWaitNanos;
+
+    /**
+     * @param taskRelevance calculates the distance bucket of a task. Gets called from the worker threads.
+     */
+    public ChunkGenerationPipeline(ToIntFunction<ChunkTask> taskRelevance) {
+        taskQueue = new WorkStealingBlockingQueue<>(NUM_TASK_THREADS, NUM_DISTANCE_BUCKETS, taskRelevance,
+                ChunkTask::isCancelled);
+        chunkGenerator = TaskMaster.createWorkStealingTaskMaster("Chunk-Generator", taskQueue);
     }
 
     public void doTask(ChunkTask task) {
@@ -42,6 +59,31 @@ public void doTask(ChunkTask task) {
         }
     }
 
+    /**
+     * Needs to be called when the relevance of queued tasks changed.
+     */
+    public void invalidatePriorities() {
+        taskQueue.invalidatePriorities();
+    }
+
+    /**
+     * Reports the queue depth and the mean time tasks waited in the queue since the last call to the
+     * {@link PerformanceMonitor}. Needs to be called on the main thread.
+     */
+    public void updateMetrics() {
+        long takenCount = taskQueue.getTakenCount();
+        long totalWaitNanos = taskQueue.getTotalWaitNanos();
+        if (takenCount > lastTakenCount) {
+            double meanWaitMs = (totalWaitNanos - lastTotalWaitNanos) / 1_000_000.0 / (takenCount - lastTakenCount);
+            PerformanceMonitor.setGauge("Chunk Tasks - Mean Wait (ms)", meanWaitMs);
+        }
+        lastTakenCount = takenCount;
+        lastTotalWaitNanos = totalWaitNanos;
+        PerformanceMonitor.setGauge("Chunk Tasks - Queued", taskQueue.size());
+        PerformanceMonitor.setGauge("Chunk Tasks - Stolen", taskQueue.getStolenCount());
+        PerformanceMonitor.setGauge("Chunk Tasks - Cancelled", taskQueue.getDiscardedCount());
+    }
+
     public void shutdown() {
         chunkGenerator.shutdown(new ShutdownChunkTask(), false);
     }
@@ -25,4 +25,13 @@ public interface ChunkTask extends Task {
 
     Vector3i getPosition();
 
+    /**
+     * Cancelled tasks get dropped by the {@link ChunkGenerationPipeline} instead of being run.
+     *
+     * @return true if the result of the task is no longer needed.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
 }
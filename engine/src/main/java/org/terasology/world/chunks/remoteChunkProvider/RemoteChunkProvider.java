@@ -52,6 +52,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.function.ToIntFunction;
 
 /**
  */
@@ -69,14 +70,15 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
 
     private ChunkGenerationPipeline pipeline;
 
-    private LightMerger<Chunk> lightMerger = new LightMerger<>(this);
+    private LightMerger<Chunk> lightMerger = new LightMerger<>(this, chunk -> chunk);
 
     private LocalPlayer localPlayer;
+    private Vector3i lastPlayerChunk;
 
     public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
         this.blockManager = blockManager;
         this.localPlayer = localPlayer;
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
 
@@ -110,6 +112,12 @@ public void invalidateChunks(Vector3i pos) {
 
     @Override
     public void beginUpdate() {
+        Vector3i playerChunk = calcPlayerChunk();
+        if (!playerChunk.equals(lastPlayerChunk)) {
+            lastPlayerChunk = playerChunk;
+            pipeline.invalidatePriorities();
+        }
+        pipeline.updateMetrics();
         if (listener != null) {
             List<Chunk> newReadyChunks = Lists.newArrayList();
             readyChunks.drainTo(newReadyChunks);
@@ -145,7 +153,7 @@ private boolean makeChunkAvailable(final Chunk chunk) {
             }
         }
 
-        lightMerger.beginMerge(chunk, chunk);
+        lightMerger.beginMerge(Collections.singletonList(chunk));
         return true;
     }
 
@@ -262,8 +270,7 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        Chunk chunk = lightMerger.completeMerge();
-        if (chunk != null) {
+        for (Chunk chunk : lightMerger.completeMerge()) {
             chunk.markReady();
             listener.onChunkReady(chunk.getPosition());
             worldEntity.send(new OnChunkLoaded(chunk.getPosition()));
@@ -285,16 +292,15 @@ public Chunk getChunkUnready(Vector3i pos) {
     }
 
 
-    private class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    private Vector3i calcPlayerChunk() {
+        return ChunkMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), RoundingMode.HALF_UP));
+    }
 
-        @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1.getPosition()) - score(o2.getPosition());
-        }
+    private class ChunkTaskRelevance implements ToIntFunction<ChunkTask> {
 
-        private int score(Vector3i chunk) {
-            Vector3i playerChunk = ChunkMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), RoundingMode.HALF_UP));
-            return playerChunk.distanceSquared(chunk);
+        @Override
+        public int applyAsInt(ChunkTask task) {
+            return calcPlayerChunk().gridDistance(task.getPosition());
         }
     }
 
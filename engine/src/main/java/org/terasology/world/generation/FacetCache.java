@@ -0,0 +1,280 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector2i;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded cache for the facets of regions, shared by all {@link RegionImpl}s of a {@link WorldImpl}.
+ * <br><br>
+ * Facets get cached in groups: all facets that share a producing or updating {@link FacetProvider} form one group,
+ * as none of them is complete before all of these providers have been processed. A group is only cached if every
+ * provider that contributes to any of its facets, including the providers of the required facets, opted in via
+ * {@link FacetProvider#isCacheable()}, and if it consists of {@link WorldFacet2D}s only. These groups are cached per
+ * column, so all chunks that are stacked on top of each other share the same entry. Groups with 3D facets are not
+ * cached, as every region needs its own.
+ * <br><br>
+ * Entries are only reused for the same column; the borders that neighbouring columns have in common get computed for
+ * each of them.
+ * <br><br>
+ * Cached facets are shared between regions and must not be modified once the region has been generated.
+ * <br><br>
+ * This class is thread-safe. The cache is bounded by the estimated size of the cached facets, the least recently used
+ * entries get evicted first.
+ */
+public class FacetCache {
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * Assumed size of a single value of a facet, enough for a float, an int or an object reference.
+     */
+    private static final int BYTES_PER_VALUE = 8;
+    private static final int BYTES_PER_FACET = 64;
+
+    private final Map<FacetProvider, FacetGroup> providerGroups = Maps.newHashMap();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private long usedBytes;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param facetProviderChains the provider chains of the world, as determined by the {@link WorldBuilder}
+     * @param maxBytes the maximum estimated size of all cached facets, in bytes
+     */
+    public FacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, long maxBytes) {
+        this.maxBytes = maxBytes;
+        determineGroups(facetProviderChains);
+    }
+
+    /**
+     * @return the group of facets the provider contributes to, or null if these facets can not be cached
+     */
+    public FacetGroup getGroup(FacetProvider provider) {
+        return providerGroups.get(provider);
+    }
+
+    /**
+     * @return the cached facets of the group for the given region, or null if they are not cached
+     */
+    public synchronized Map<Class<? extends WorldFacet>, WorldFacet> get(FacetGroup group, Region3i region) {
+        Entry entry = entries.get(new Key(group, region));
+        if (entry != null) {
+            hits++;
+            return entry.facets;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores the completely generated facets of a group. The facets must not be modified afterwards.
+     */
+    public synchronized void put(FacetGroup group, Region3i region, Map<Class<? extends WorldFacet>, WorldFacet> facets) {
+        long bytes = estimateBytes(facets);
+        if (bytes > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(new Key(group, region), new Entry(facets, bytes));
+        if (previous != null) {
+            usedBytes -= previous.bytes;
+        }
+        usedBytes += bytes;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (usedBytes > maxBytes) {
+            usedBytes -= iterator.next().bytes;
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the estimated size of all cached facets, in bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    private static long estimateBytes(Map<Class<? extends WorldFacet>, WorldFacet> facets) {
+        long bytes = 0;
+        for (WorldFacet facet : facets.values()) {
+            Vector2i size = ((WorldFacet2D) facet).getWorldRegion().size();
+            bytes += BYTES_PER_FACET + (long) size.x * size.y * BYTES_PER_VALUE;
+        }
+        return bytes;
+    }
+
+    private void determineGroups(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        Set<FacetProvider> providers = new LinkedHashSet<>(facetProviderChains.values());
+
+        // merge the facets of all providers that contribute to more than one facet
+        Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> facetGroups = Maps.newHashMap();
+        for (FacetProvider provider : providers) {
+            Set<Class<? extends WorldFacet>> group = Sets.newHashSet(contributedFacets(provider));
+            for (Class<? extends WorldFacet> facet : contributedFacets(provider)) {
+                group.addAll(facetGroups.getOrDefault(facet, Collections.emptySet()));
+            }
+            for (Class<? extends WorldFacet> facet : group) {
+                facetGroups.put(facet, group);
+            }
+        }
+
+        Map<Set<Class<? extends WorldFacet>>, FacetGroup> groups = Maps.newIdentityHashMap();
+        for (FacetProvider provider : providers) {
+            Set<Class<? extends WorldFacet>> contributed = contributedFacets(provider);
+            if (contributed.isEmpty()) {
+                continue;
+            }
+            Set<Class<? extends WorldFacet>> facets = facetGroups.get(contributed.iterator().next());
+            FacetGroup group = groups.computeIfAbsent(facets, key -> createGroup(key, facetProviderChains));
+            if (group != null) {
+                group.providers.add(provider);
+                providerGroups.put(provider, group);
+            }
+        }
+    }
+
+    private static FacetGroup createGroup(Set<Class<? extends WorldFacet>> facets,
+                                          ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        for (Class<? extends WorldFacet> facet : facets) {
+            if (!WorldFacet2D.class.isAssignableFrom(facet)) {
+                return null;
+            }
+            for (FacetProvider provider : facetProviderChains.get(facet)) {
+                if (!provider.isCacheable()) {
+                    return null;
+                }
+            }
+        }
+        return new FacetGroup(facets);
+    }
+
+    private static Set<Class<? extends WorldFacet>> contributedFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> result = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            Collections.addAll(result, produces.value());
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                result.add(facet.value());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Facets that get cached together, along with all providers that produce or update them.
+     */
+    public static final class FacetGroup {
+        private final Set<Class<? extends WorldFacet>> facets;
+        private final Set<FacetProvider> providers = Sets.newLinkedHashSet();
+
+        private FacetGroup(Set<Class<? extends WorldFacet>> facets) {
+            this.facets = Collections.unmodifiableSet(facets);
+        }
+
+        public Set<Class<? extends WorldFacet>> getFacets() {
+            return facets;
+        }
+
+        public Set<FacetProvider> getProviders() {
+            return Collections.unmodifiableSet(providers);
+        }
+    }
+
+    private static final class Entry {
+        private final Map<Class<? extends WorldFacet>, WorldFacet> facets;
+        private final long bytes;
+
+        Entry(Map<Class<? extends WorldFacet>, WorldFacet> facets, long bytes) {
+            this.facets = facets;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Identifies the column of a region, the vertical extent does not matter for 2D facets.
+     */
+    private static final class Key {
+        private final FacetGroup group;
+        private final int minX;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeZ;
+
+        Key(FacetGroup group, Region3i region) {
+            this.group = group;
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.sizeX = region.sizeX();
+            this.sizeZ = region.sizeZ();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return group == other.group && minX == other.minX && minZ == other.minZ
+                    && sizeX == other.sizeX && sizeZ == other.sizeZ;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(group);
+            result = 31 * result + minX;
+            result = 31 * result + minZ;
+            result = 31 * result + sizeX;
+            result = 31 * result + sizeZ;
+            return result;
+        }
+    }
+}
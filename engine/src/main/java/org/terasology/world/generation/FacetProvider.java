@@ -33,5 +33,18 @@ default void initialize() {
         // don't do anything
     }
 
+    /**
+     * Opts into the {@link FacetCache} of the world. The 2D facets of a cacheable provider get computed once per
+     * column and shared with all regions stacked on top of each other; 3D facets are not cached.
+     * <br><br>
+     * Only return true if the produced and updated facets depend on nothing but the seed and the horizontal extent of
+     * the region and never get modified by anything but the providers that declare them.
+     * Providers whose configuration can change at runtime should not opt in.
+     * @return true if the facets of this provider may be cached, false by default
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
     void process(GeneratingRegion region);
 }
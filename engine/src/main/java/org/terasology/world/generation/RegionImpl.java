@@ -16,10 +16,12 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,31 +32,74 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final FacetCache facetCache;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    /**
+     * @param facetCache the cache to share facets with other regions, or null to compute all facets of this region
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      FacetCache facetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.facetCache = facetCache;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                provider.process(this);
-                processedProviders.add(provider);
-            });
+            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(this::process);
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
         }
         return facet;
     }
 
+    private void process(FacetProvider provider) {
+        FacetCache.FacetGroup group = (facetCache != null) ? facetCache.getGroup(provider) : null;
+        if (group == null) {
+            provider.process(this);
+            processedProviders.add(provider);
+            return;
+        }
+
+        // only use cached facets as long as none of them got touched by this region
+        if (Collections.disjoint(processedProviders, group.getProviders())) {
+            Map<Class<? extends WorldFacet>, WorldFacet> cachedFacets = facetCache.get(group, region);
+            if (cachedFacets != null) {
+                cachedFacets.forEach(this::putCachedFacet);
+                processedProviders.addAll(group.getProviders());
+                return;
+            }
+        }
+
+        provider.process(this);
+        processedProviders.add(provider);
+        if (processedProviders.containsAll(group.getProviders())) {
+            Map<Class<? extends WorldFacet>, WorldFacet> completedFacets = Maps.newHashMap();
+            for (Class<? extends WorldFacet> facetType : group.getFacets()) {
+                WorldFacet facet = generatingFacets.get(facetType);
+                if (facet != null) {
+                    completedFacets.put(facetType, facet);
+                }
+            }
+            facetCache.put(group, region, completedFacets);
+        }
+    }
+
+    private <T extends WorldFacet> void putCachedFacet(Class<T> type, WorldFacet facet) {
+        generatingFacets.put(type, type.cast(facet));
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
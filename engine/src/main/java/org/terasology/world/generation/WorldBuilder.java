@@ -46,6 +46,7 @@ public class WorldBuilder extends ProviderStore {
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
     private int seaLevel = 32;
+    private long facetCacheMaxBytes = FacetCache.DEFAULT_MAX_BYTES;
 
     private WorldGeneratorPluginLibrary pluginLibrary;
 
@@ -91,6 +92,15 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * @param maxBytes the maximum estimated size of the cached facets in bytes, 0 disables the {@link FacetCache}
+     * @return this
+     */
+    public WorldBuilder setFacetCacheMaxBytes(long maxBytes) {
+        this.facetCacheMaxBytes = maxBytes;
+        return this;
+    }
+
     public World build() {
         // TODO: ensure the required providers are present
 
@@ -101,7 +111,8 @@ public World build() {
             provider.setSeed(seed);
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        FacetCache facetCache = (facetCacheMaxBytes > 0) ? new FacetCache(providerChains, facetCacheMaxBytes) : null;
+        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel, facetCache);
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -34,22 +34,43 @@ public class WorldImpl implements World {
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final FacetCache facetCache;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
+        this(facetProviderChains, worldRasterizers, entityProviders, borders, seaLevel, null);
+    }
+
+    /**
+     * @param facetCache the cache shared by all regions of this world, or null to disable facet caching
+     */
+    public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     List<WorldRasterizer> worldRasterizers,
+                     List<EntityProvider> entityProviders,
+                     Map<Class<? extends WorldFacet>, Border3D> borders,
+                     int seaLevel,
+                     FacetCache facetCache) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.facetCache = facetCache;
     }
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, borders, facetCache);
+    }
+
+    /**
+     * @return the facet cache of this world, or null if facet caching is disabled
+     */
+    public FacetCache getFacetCache() {
+        return facetCache;
     }
 
     @Override
@@ -80,6 +101,10 @@ public void initialize() {
 
         facetProviders.forEach(FacetProvider::initialize);
 
+        if (facetCache != null) {
+            facetCache.clear();
+        }
+
         worldRasterizers.forEach(WorldRasterizer::initialize);
 
         entityProviders.forEach(EntityProvider::initialize);
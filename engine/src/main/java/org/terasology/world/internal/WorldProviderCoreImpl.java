@@ -28,12 +28,14 @@
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.world.BlockChangeBatch;
 import org.terasology.world.WorldChangeListener;
 import org.terasology.world.WorldComponent;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -57,10 +59,12 @@
 import org.terasology.world.time.WorldTime;
 import org.terasology.world.time.WorldTimeImpl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -222,19 +226,33 @@ public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
          * Hint: This method has a benchmark available in the BenchmarkScreen, The screen can be opened ingame via the
          * command "showSCreen BenchmarkScreen".
          */
-        Set<RenderableChunk> dirtiedChunks = new HashSet<>();
-        Set<BlockChange> changedBlocks = new HashSet<>();
+        Map<Vector3i, List<Map.Entry<Vector3i, Block>>> blocksPerChunk = new LinkedHashMap<>();
+        for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
+            blocksPerChunk.computeIfAbsent(ChunkMath.calcChunkPos(entry.getKey()), pos -> new ArrayList<>()).add(entry);
+        }
+
+        Set<Vector3i> dirtiedChunkPositions = new HashSet<>();
+        List<BlockChangeBatch> batches = new ArrayList<>(blocksPerChunk.size());
         Map<Vector3i, Block> result = new HashMap<>(blocks.size());
 
-        for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
-            Vector3i worldPos = entry.getKey();
-            Vector3i chunkPos = ChunkMath.calcChunkPos(worldPos);
+        for (Map.Entry<Vector3i, List<Map.Entry<Vector3i, Block>>> chunkEntry : blocksPerChunk.entrySet()) {
+            Vector3i chunkPos = chunkEntry.getKey();
             CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+            if (chunk == null) {
+                for (Map.Entry<Vector3i, Block> entry : chunkEntry.getValue()) {
+                    result.put(entry.getKey(), null);
+                }
+                continue;
+            }
 
-            if (chunk != null) {
+            BlockChangeBatch batch = new BlockChangeBatch(chunkPos);
+            for (Map.Entry<Vector3i, Block> entry : chunkEntry.getValue()) {
+                Vector3i worldPos = entry.getKey();
                 Block type = entry.getValue();
-                Vector3i blockPos = ChunkMath.calcBlockPos(worldPos);
-                Block oldBlockType = chunk.setBlock(blockPos, type);
+                int x = ChunkMath.calcBlockPosX(worldPos.x);
+                int y = ChunkMath.calcBlockPosY(worldPos.y);
+                int z = ChunkMath.calcBlockPosZ(worldPos.z);
+                Block oldBlockType = chunk.setBlock(x, y, z, type);
                 if (oldBlockType != type) {
                     BlockChange oldChange = blockChanges.get(worldPos);
                     if (oldChange == null) {
@@ -242,30 +260,52 @@ public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
                     } else {
                         oldChange.setTo(type);
                     }
-                    for (Vector3i pos : ChunkMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
-                        RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
-                        if (dirtiedChunk != null) {
-                            dirtiedChunks.add(dirtiedChunk);
-                        }
-                    }
-                    changedBlocks.add(new BlockChange(worldPos, oldBlockType, type));
+                    addDirtiedChunks(chunkPos, x, y, z, dirtiedChunkPositions);
+                    batch.add(x, y, z, type, oldBlockType);
                 }
                 result.put(worldPos, oldBlockType);
-            } else {
-                result.put(worldPos, null);
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch);
             }
         }
 
-        for (RenderableChunk chunk : dirtiedChunks) {
-            chunk.setDirty(true);
+        for (Vector3i pos : dirtiedChunkPositions) {
+            RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
+            if (dirtiedChunk != null) {
+                dirtiedChunk.setDirty(true);
+            }
         }
-        for (BlockChange change : changedBlocks) {
-            notifyBlockChanged(change.getPosition(), change.getTo(), change.getFrom());
+        for (BlockChangeBatch batch : batches) {
+            notifyBlocksChanged(batch);
         }
 
         return result;
     }
 
+    /**
+     * Adds the position of the chunk and of all neighbouring chunks that touch the changed block.
+     */
+    private static void addDirtiedChunks(Vector3i chunkPos, int x, int y, int z, Set<Vector3i> dirtiedChunkPositions) {
+        int minX = (x == 0) ? -1 : 0;
+        int maxX = (x == ChunkConstants.SIZE_X - 1) ? 1 : 0;
+        int minY = (y == 0) ? -1 : 0;
+        int maxY = (y == ChunkConstants.SIZE_Y - 1) ? 1 : 0;
+        int minZ = (z == 0) ? -1 : 0;
+        int maxZ = (z == ChunkConstants.SIZE_Z - 1) ? 1 : 0;
+        if (minX == maxX && minY == maxY && minZ == maxZ) {
+            dirtiedChunkPositions.add(chunkPos);
+            return;
+        }
+        for (int dx = minX; dx <= maxX; dx++) {
+            for (int dy = minY; dy <= maxY; dy++) {
+                for (int dz = minZ; dz <= maxZ; dz++) {
+                    dirtiedChunkPositions.add(new Vector3i(chunkPos.x + dx, chunkPos.y + dy, chunkPos.z + dz));
+                }
+            }
+        }
+    }
+
     private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         // TODO: Could use a read/write writeLock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -276,6 +316,14 @@ private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         }
     }
 
+    private void notifyBlocksChanged(BlockChangeBatch batch) {
+        synchronized (listeners) {
+            for (WorldChangeListener listener : listeners) {
+                listener.onBlocksChanged(batch);
+            }
+        }
+    }
+
     private void notifyBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
         // TODO: Could use a read/write writeLock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -78,6 +78,11 @@ public void setValueAt(Vector3i pos, byte value) {
      */
     protected abstract void setValueAt(LitChunk chunk, Vector3i pos, byte value);
 
+    @Override
+    public LitChunk getChunkAt(Vector3i pos) {
+        return getChunk(pos);
+    }
+
     @Override
     public Block getBlockAt(Vector3i pos) {
         CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPos(pos));
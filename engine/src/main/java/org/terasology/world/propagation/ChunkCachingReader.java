@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.LitChunk;
+
+/**
+ * Reads values and blocks for a propagator. Consecutive reads mostly hit the same chunk, so the chunk of the last read
+ * is kept and read directly while the reads stay inside it. Everything else goes through the world view.
+ * <br><br>
+ * The kept chunk must be released with {@link #reset()} before chunks may get unloaded or replaced.
+ *
+ */
+final class ChunkCachingReader {
+
+    private final PropagationRules rules;
+    private final PropagatorWorldView world;
+    private final Vector3i lookupPos = new Vector3i();
+
+    private LitChunk chunk;
+    private boolean chunkValid;
+    private int chunkX;
+    private int chunkY;
+    private int chunkZ;
+
+    ChunkCachingReader(PropagationRules rules, PropagatorWorldView world) {
+        this.rules = rules;
+        this.world = world;
+    }
+
+    /**
+     * @return The value of interest at the given world position, or {@link PropagatorWorldView#UNAVAILABLE}
+     */
+    byte getValueAt(int x, int y, int z) {
+        LitChunk litChunk = getChunk(x, y, z);
+        if (litChunk != null) {
+            return rules.getValue(litChunk, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+        }
+        lookupPos.set(x, y, z);
+        return world.getValueAt(lookupPos);
+    }
+
+    /**
+     * @return The block at the given world position, or null if out of bounds
+     */
+    Block getBlockAt(int x, int y, int z) {
+        LitChunk litChunk = getChunk(x, y, z);
+        if (litChunk != null) {
+            return litChunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+        }
+        lookupPos.set(x, y, z);
+        return world.getBlockAt(lookupPos);
+    }
+
+    void reset() {
+        chunk = null;
+        chunkValid = false;
+    }
+
+    private LitChunk getChunk(int x, int y, int z) {
+        int posX = ChunkMath.calcChunkPosX(x);
+        int posY = ChunkMath.calcChunkPosY(y);
+        int posZ = ChunkMath.calcChunkPosZ(z);
+        if (!chunkValid || posX != chunkX || posY != chunkY || posZ != chunkZ) {
+            lookupPos.set(x, y, z);
+            chunk = world.getChunkAt(lookupPos);
+            chunkValid = true;
+            chunkX = posX;
+            chunkY = posY;
+            chunkZ = posZ;
+        }
+        return chunk;
+    }
+}
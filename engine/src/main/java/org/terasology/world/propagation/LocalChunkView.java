@@ -20,6 +20,7 @@
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.LitChunk;
 
 /**
  */
@@ -68,4 +69,9 @@ public Block getBlockAt(Vector3i pos) {
         }
         return null;
     }
+
+    @Override
+    public LitChunk getChunkAt(Vector3i pos) {
+        return chunks[chunkIndexOf(pos)];
+    }
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in-first-out queue of block positions for the batch propagators.
+ * <br><br>
+ * Positions get packed into a single long each, so queueing a position neither allocates a vector nor boxes anything.
+ * A position is held at most once: adding a position that is already queued does nothing. Removed positions are only
+ * dropped from the membership table and get skipped when they reach the head of the queue.
+ * <br><br>
+ * Positions are packed relative to an origin, which is the first position added while the queue is empty. Each
+ * coordinate of a queued position must lie within {@link #MAX_DISTANCE} blocks of the origin, which is far more than a
+ * propagation batch spans, so the queue works anywhere in the world.
+ *
+ */
+public class PositionQueue {
+
+    public static final int COORDINATE_BITS = 21;
+    /**
+     * The maximum distance of a queued position from the origin along each axis
+     */
+    public static final int MAX_DISTANCE = (1 << (COORDINATE_BITS - 1)) - 1;
+
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    private static final int SIGN_SHIFT = Long.SIZE - COORDINATE_BITS;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Packed positions only use the lower 63 bits, so a negative value marks a free slot of the membership table.
+     */
+    private static final long FREE = -1;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] elements;
+    private int head;
+    private int tail;
+    private int size;
+
+    private int originX;
+    private int originY;
+    private int originZ;
+
+    // Open addressing table with linear probing of the positions that are currently queued
+    private long[] members;
+    private int memberCount;
+    private int memberShift;
+
+    public PositionQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PositionQueue(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        elements = new long[capacity];
+        members = new long[capacity * 2];
+        memberShift = Long.SIZE - Integer.numberOfTrailingZeros(members.length);
+        Arrays.fill(members, FREE);
+    }
+
+    /**
+     * Packs a position relative to the origin, each coordinate has to be within {@link #MAX_DISTANCE} of zero.
+     */
+    static long pack(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS)) | ((y & COORDINATE_MASK) << COORDINATE_BITS) | (z & COORDINATE_MASK);
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed << (SIGN_SHIFT - 2 * COORDINATE_BITS) >> SIGN_SHIFT);
+    }
+
+    static int unpackY(long packed) {
+        return (int) (packed << (SIGN_SHIFT - COORDINATE_BITS) >> SIGN_SHIFT);
+    }
+
+    static int unpackZ(long packed) {
+        return (int) (packed << SIGN_SHIFT >> SIGN_SHIFT);
+    }
+
+    /**
+     * Appends the position to the end of the queue, unless it is already queued.
+     *
+     * @return true if the position got added
+     * @throws IllegalArgumentException if the position is further than {@link #MAX_DISTANCE} from the origin
+     */
+    public boolean add(int x, int y, int z) {
+        if (size == 0) {
+            originX = x;
+            originY = y;
+            originZ = z;
+        }
+        if (!isInRange(x, y, z)) {
+            throw new IllegalArgumentException("Position (" + x + ", " + y + ", " + z + ") is too far from the origin ("
+                    + originX + ", " + originY + ", " + originZ + ") of the queue");
+        }
+        long packed = packRelative(x, y, z);
+        if (!addMember(packed)) {
+            return false;
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        elements[tail] = packed;
+        tail = (tail + 1) & (elements.length - 1);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the position from the queue, if it is queued.
+     */
+    public void remove(int x, int y, int z) {
+        if (isInRange(x, y, z)) {
+            removeMember(packRelative(x, y, z));
+        }
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return isInRange(x, y, z) && members[indexOf(packRelative(x, y, z))] != FREE;
+    }
+
+    /**
+     * Removes the position at the head of the queue.
+     *
+     * @param result The vector to store the position in
+     * @return result
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public Vector3i poll(Vector3i result) {
+        while (size > 0) {
+            long packed = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            if (removeMember(packed)) {
+                result.set(originX + unpackX(packed), originY + unpackY(packed), originZ + unpackZ(packed));
+                return result;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    public boolean isEmpty() {
+        return memberCount == 0;
+    }
+
+    public int size() {
+        return memberCount;
+    }
+
+    public void clear() {
+        if (memberCount > 0) {
+            Arrays.fill(members, FREE);
+            memberCount = 0;
+        }
+        head = 0;
+        tail = 0;
+        size = 0;
+    }
+
+    private boolean isInRange(int x, int y, int z) {
+        return Math.abs((long) x - originX) <= MAX_DISTANCE
+                && Math.abs((long) y - originY) <= MAX_DISTANCE
+                && Math.abs((long) z - originZ) <= MAX_DISTANCE;
+    }
+
+    private long packRelative(int x, int y, int z) {
+        return pack(x - originX, y - originY, z - originZ);
+    }
+
+    private void grow() {
+        long[] grown = new long[elements.length * 2];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+        elements = grown;
+        head = 0;
+        tail = size;
+    }
+
+    /**
+     * @return The slot holding the packed position, or the free slot where it would get inserted
+     */
+    private int indexOf(long packed) {
+        int mask = members.length - 1;
+        int index = (int) ((packed * GOLDEN_RATIO) >>> memberShift);
+        while (members[index] != FREE && members[index] != packed) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private boolean addMember(long packed) {
+        int index = indexOf(packed);
+        if (members[index] == packed) {
+            return false;
+        }
+        members[index] = packed;
+        memberCount++;
+        if (memberCount * 2 > members.length) {
+            rehash(members.length * 2);
+        }
+        return true;
+    }
+
+    private boolean removeMember(long packed) {
+        int index = indexOf(packed);
+        if (members[index] == FREE) {
+            return false;
+        }
+        // Shift the following entries of the probe sequence back, so lookups never have to skip removed slots
+        int mask = members.length - 1;
+        int free = index;
+        int next = (free + 1) & mask;
+        while (members[next] != FREE) {
+            int home = (int) ((members[next] * GOLDEN_RATIO) >>> memberShift);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                members[free] = members[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        members[free] = FREE;
+        memberCount--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMembers = members;
+        members = new long[capacity];
+        memberShift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        Arrays.fill(members, FREE);
+        for (long packed : oldMembers) {
+            if (packed != FREE) {
+                members[indexOf(packed)] = packed;
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.LitChunk;
 
 /**
  * A view providing access to the world for batch propagation
@@ -44,4 +45,16 @@ public interface PropagatorWorldView {
      */
     Block getBlockAt(Vector3i pos);
 
+    /**
+     * Gives the propagators direct access to the chunk containing pos, so they can read values and blocks of that
+     * chunk without going through this view. The values get read with the propagation rules of the propagator, so
+     * views returning chunks here must hold the values of those rules.
+     *
+     * @param pos
+     * @return The chunk containing pos, or null if out of bounds or if this view does not give direct chunk access
+     */
+    default LitChunk getChunkAt(Vector3i pos) {
+        return null;
+    }
+
 }
@@ -52,4 +52,12 @@ public Block getBlockAt(Vector3i pos) {
         }
         return null;
     }
+
+    @Override
+    public LitChunk getChunkAt(Vector3i pos) {
+        if (ChunkConstants.CHUNK_REGION.encompasses(pos)) {
+            return chunk;
+        }
+        return null;
+    }
 }
@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
@@ -27,7 +26,6 @@
 
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -36,18 +34,25 @@
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
+    private static final Side[] SIDES = Side.values();
 
     private PropagationRules rules;
     private PropagatorWorldView world;
+    private ChunkCachingReader reader;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    // Reused for the positions that get processed and their neighbours, the world view does not keep them
+    private final Vector3i processedPos = new Vector3i();
+    private final Vector3i adjPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
     public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world) {
         this.world = world;
         this.rules = rules;
+        this.reader = new ChunkCachingReader(rules, world);
 
         for (Side side : Side.values()) {
             Vector3i delta = new Vector3i(side.getVector3i());
@@ -69,11 +74,11 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -89,6 +94,7 @@ public void process(Iterable<BlockChange> blockChanges) {
             reviewChange(blockChange);
         }
 
+        reader.reset();
         processReduction();
         processIncrease();
         cleanUp();
@@ -129,28 +135,19 @@ private void reviewChange(BlockChange blockChange) {
     }
 
     private void processReduction() {
-        int depth = 0;
-        while (depth < rules.getMaxValue()) {
+        for (int depth = 0; depth < rules.getMaxValue(); depth++) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = reduceQueues[depth];
-            if (!toProcess.isEmpty()) {
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
-                if (toProcess.isEmpty()) {
-                    depth++;
-                }
-            } else {
-                depth++;
+            PositionQueue toProcess = reduceQueues[depth];
+            while (!toProcess.isEmpty()) {
+                toProcess.poll(processedPos);
+                purge(processedPos, oldValue);
             }
         }
     }
 
     private void purge(Vector3i pos, byte oldValue) {
-        Block block = world.getBlockAt(pos);
-        increaseQueues[rules.getMaxValue() - oldValue].remove(pos);
+        Block block = reader.getBlockAt(pos.x, pos.y, pos.z);
+        increaseQueues[rules.getMaxValue() - oldValue].remove(pos.x, pos.y, pos.z);
         byte fixedValue = rules.getFixedValue(block, pos);
         if (fixedValue > 0) {
             increase(pos, fixedValue);
@@ -158,13 +155,13 @@ private void purge(Vector3i pos, byte oldValue) {
             world.setValueAt(pos, NO_VALUE);
         }
 
-        for (Side side : Side.values()) {
-            byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
+        for (Side side : SIDES) {
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                byte expectedValue = rules.propagateValue(oldValue, side, block);
+                adjPos.set(pos.x + side.getVector3i().x, pos.y + side.getVector3i().y, pos.z + side.getVector3i().z);
+                byte adjValue = reader.getValueAt(adjPos.x, adjPos.y, adjPos.z);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = reader.getBlockAt(adjPos.x, adjPos.y, adjPos.z);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
                         reduce(adjPos, expectedValue);
                     }
@@ -176,34 +173,25 @@ private void purge(Vector3i pos, byte oldValue) {
     }
 
     private void processIncrease() {
-        int depth = 0;
-        while (depth < rules.getMaxValue() - 1) {
+        for (int depth = 0; depth < rules.getMaxValue() - 1; depth++) {
             byte value = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = increaseQueues[depth];
-            if (!toProcess.isEmpty()) {
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
-                if (increaseQueues[depth].isEmpty()) {
-                    depth++;
-                }
-            } else {
-                depth++;
+            PositionQueue toProcess = increaseQueues[depth];
+            while (!toProcess.isEmpty()) {
+                toProcess.poll(processedPos);
+                push(processedPos, value);
             }
         }
     }
 
     private void push(Vector3i pos, byte value) {
-        Block block = world.getBlockAt(pos);
-        for (Side side : Side.values()) {
-            byte spreadValue = rules.propagateValue(value, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
+        Block block = reader.getBlockAt(pos.x, pos.y, pos.z);
+        for (Side side : SIDES) {
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                byte spreadValue = rules.propagateValue(value, side, block);
+                adjPos.set(pos.x + side.getVector3i().x, pos.y + side.getVector3i().y, pos.z + side.getVector3i().z);
+                byte adjValue = reader.getValueAt(adjPos.x, adjPos.y, adjPos.z);
                 if (adjValue < spreadValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = reader.getBlockAt(adjPos.x, adjPos.y, adjPos.z);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
                         increase(adjPos, spreadValue);
                     }
@@ -213,9 +201,10 @@ private void push(Vector3i pos, byte value) {
     }
 
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
+        reader.reset();
     }
 
     private void increase(Vector3i position, byte value) {
@@ -225,13 +214,13 @@ private void increase(Vector3i position, byte value) {
 
     private void queueSpreadValue(Vector3i position, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(position);
+            increaseQueues[rules.getMaxValue() - value].add(position.x, position.y, position.z);
         }
     }
 
     private void reduce(Vector3i position, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[rules.getMaxValue() - oldValue].add(position);
+            reduceQueues[rules.getMaxValue() - oldValue].add(position.x, position.y, position.z);
         }
     }
 
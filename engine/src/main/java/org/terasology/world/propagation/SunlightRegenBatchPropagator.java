@@ -15,7 +15,6 @@
  */
 package org.terasology.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
@@ -24,7 +23,6 @@
 import org.terasology.world.chunks.LitChunk;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -36,21 +34,27 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView regenWorld;
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
+    private ChunkCachingReader regenReader;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    // Reused for the positions that get processed, neither the world views nor the sunlight propagator keep them
+    private final Vector3i processedPos = new Vector3i();
+    private final Vector3i position = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
         this.regenWorld = regenWorld;
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
+        this.regenReader = new ChunkCachingReader(regenRules, regenWorld);
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -65,6 +69,7 @@ public void process(Iterable<BlockChange> blockChanges) {
             reviewChange(blockChange);
         }
 
+        regenReader.reset();
         processRegenReduction();
         processRegenIncrease();
         cleanUp();
@@ -102,27 +107,28 @@ private void reviewChangeToTop(BlockChange blockChange) {
     }
 
     private void queueSpreadRegen(Vector3i position, byte value) {
-        increaseQueues[value].add(position);
+        increaseQueues[value].add(position.x, position.y, position.z);
     }
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3i> toProcess = reduceQueues[depth];
-
-            toProcess.forEach(this::purge);
-            toProcess.clear();
+            PositionQueue toProcess = reduceQueues[depth];
+            while (!toProcess.isEmpty()) {
+                toProcess.poll(processedPos);
+                purge(processedPos);
+            }
         }
     }
 
     private void purge(Vector3i pos) {
-        int expectedValue = regenWorld.getValueAt(pos);
+        int expectedValue = regenReader.getValueAt(pos.x, pos.y, pos.z);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            position.set(pos);
             for (byte i = 0; i <= ChunkConstants.MAX_SUNLIGHT_REGEN; ++i) {
-                if (regenWorld.getValueAt(position) == expectedValue) {
+                if (regenReader.getValueAt(position.x, position.y, position.z) == expectedValue) {
                     regenWorld.setValueAt(position, i);
                     if (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(position, (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
@@ -137,34 +143,33 @@ private void purge(Vector3i pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3i> toProcess = increaseQueues[depth];
-
-            for (Vector3i pos : toProcess) {
-                push(pos, depth);
+            PositionQueue toProcess = increaseQueues[depth];
+            while (!toProcess.isEmpty()) {
+                toProcess.poll(processedPos);
+                push(processedPos, depth);
             }
-            toProcess.clear();
         }
     }
 
     private void push(Vector3i pos, byte value) {
         byte regenValue = value;
-        Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        Block block = regenReader.getBlockAt(pos.x, pos.y, pos.z);
+        position.set(pos);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block);
             position.y -= 1;
-            byte adjValue = regenWorld.getValueAt(position);
+            byte adjValue = regenReader.getValueAt(position.x, position.y, position.z);
             if (adjValue < regenValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                block = regenWorld.getBlockAt(position);
+                block = regenReader.getBlockAt(position.x, position.y, position.z);
                 if (regenRules.canSpreadInto(block, Side.TOP)) {
                     regenWorld.setValueAt(position, regenValue);
-                    reduceQueues[adjValue].remove(position);
+                    reduceQueues[adjValue].remove(position.x, position.y, position.z);
                     byte sunlightValue = (byte) (regenValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD);
                     if (sunlightValue > 0) {
                         byte prevValue = sunlightWorld.getValueAt(position);
                         if (prevValue < sunlightValue) {
                             sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightPropagator.propagateFrom(position, sunlightValue);
                         }
                     }
                 } else {
@@ -177,11 +182,12 @@ private void push(Vector3i pos, byte value) {
     }
 
     private void cleanUp() {
+        regenReader.reset();
     }
 
     private void reduce(Vector3i position, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[oldValue].add(position);
+            reduceQueues[oldValue].add(position.x, position.y, position.z);
         }
     }
 
@@ -253,7 +259,7 @@ private void propagateSweep(LitChunk fromChunk, LitChunk toChunk, int[] depth, i
         for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
             for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
                 int depthIndex = x + ChunkConstants.SIZE_X * z;
-                startingRegen[depthIndex] = regenRules.getValue(fromChunk, new Vector3i(x, 0, z));
+                startingRegen[depthIndex] = regenRules.getValue(fromChunk, x, 0, z);
                 byte expectedValue = (byte) Math.min(startingRegen[depthIndex] + 1, ChunkConstants.MAX_SUNLIGHT_REGEN);
                 Block fromBlock = fromChunk.getBlock(x, 0, z);
                 Block toBlock = toChunk.getBlock(x, ChunkConstants.SIZE_Y - 1, z);
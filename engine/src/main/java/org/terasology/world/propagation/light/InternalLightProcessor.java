@@ -46,13 +46,15 @@ public static void generateInternalLighting(LitChunk chunk) {
 
     private static void populateLight(LitChunk chunk) {
         BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk));
+        Vector3i pos = new Vector3i();
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
                     Block block = chunk.getBlock(x, y, z);
                     if (block.getLuminance() > 0) {
                         chunk.setLight(x, y, z, block.getLuminance());
-                        lightPropagator.propagateFrom(new Vector3i(x, y, z), block.getLuminance());
+                        pos.set(x, y, z);
+                        lightPropagator.propagateFrom(pos, block.getLuminance());
                     }
                 }
             }
@@ -63,11 +65,11 @@ private static void populateLight(LitChunk chunk) {
     private static void populateSunlight(LitChunk chunk) {
         PropagationRules sunlightRules = new SunlightPropagationRules(chunk);
         BatchPropagator lightPropagator = new StandardBatchPropagator(sunlightRules, new SingleChunkView(sunlightRules, chunk));
-
+        Vector3i pos = new Vector3i();
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = 0; y < ChunkConstants.MAX_SUNLIGHT; ++y) {
-                    Vector3i pos = new Vector3i(x, y, z);
+                    pos.set(x, y, z);
                     Block block = chunk.getBlock(x, y, z);
                     byte light = sunlightRules.getFixedValue(block, pos);
                     if (light > 0) {
@@ -16,10 +16,13 @@
 package org.terasology.world.propagation.light;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
@@ -30,53 +33,126 @@
 import org.terasology.world.propagation.StandardBatchPropagator;
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-
+import java.util.function.Function;
+
+/**
+ * Merges the light of newly available chunks with the light of their neighbours.
+ * <br><br>
+ * A batch of chunks gets merged in parallel. Merging a chunk reads and writes the 3x3x3 chunks around it, so the
+ * batch gets coloured by the chunk coordinates modulo 3: two chunks of the same colour are at least 3 chunks apart
+ * along one axis and never touch the same chunk. The colours get merged one after another, the chunks of a colour in
+ * parallel. Chunks merged earlier in a batch count as available for the chunks merged later, just like chunks merged
+ * in an earlier batch.
+ *
+ * @param <T> the data handed back together with each merged chunk
+ */
 public class LightMerger<T> {
     private static final int CENTER_INDEX = 13;
+    private static final int COLOUR_PERIOD = 3;
+    private static final int MAX_THREADS = 8;
 
     private static final Logger logger = LoggerFactory.getLogger(LightMerger.class);
 
     private ExecutorService executorService = Executors.newSingleThreadExecutor();
-    private Future<T> resultFuture;
+    private ForkJoinPool mergePool = createMergePool();
+    private Future<List<T>> resultFuture;
 
     private GeneratingChunkProvider chunkProvider;
+    private Function<T, Chunk> chunkAccessor;
     private LightPropagationRules lightRules = new LightPropagationRules();
     private SunlightRegenPropagationRules sunlightRegenRules = new SunlightRegenPropagationRules();
 
     private boolean running = true;
 
-    public LightMerger(GeneratingChunkProvider chunkProvider) {
+    /**
+     * @param chunkAccessor gives the chunk to merge for each element of a batch
+     */
+    public LightMerger(GeneratingChunkProvider chunkProvider, Function<T, Chunk> chunkAccessor) {
         this.chunkProvider = chunkProvider;
+        this.chunkAccessor = chunkAccessor;
     }
 
-    public void beginMerge(final Chunk chunk, final T data) {
+    /**
+     * Starts merging the chunks of the batch in the background. Every chunk needs all its 26 neighbours loaded.
+     * Must not be called again before {@link #completeMerge()} returned.
+     */
+    public void beginMerge(final Collection<T> batch) {
+        final List<T> data = Lists.newArrayList(batch);
         resultFuture = executorService.submit(() -> {
-            merge(chunk);
+            long start = System.nanoTime();
+            mergeBatch(data);
+            ChunkMonitor.fireLightMerged(data.size(), System.nanoTime() - start);
             return data;
         });
     }
 
-    public T completeMerge() {
+    /**
+     * Waits till the batch started last is merged.
+     *
+     * @return the data of the merged chunks, or an empty list if no merge was started
+     */
+    public List<T> completeMerge() {
         if (resultFuture != null) {
             try {
-                T result = resultFuture.get();
+                List<T> result = resultFuture.get();
                 resultFuture = null;
                 return result;
             } catch (InterruptedException | ExecutionException e) {
                 throw new RuntimeException("Error completing lighting merge", e);
             }
         }
-        return null;
+        return Collections.emptyList();
+    }
+
+    private void mergeBatch(List<T> batch) throws InterruptedException, ExecutionException {
+        Map<Integer, List<Chunk>> colours = Maps.newTreeMap();
+        for (T data : batch) {
+            Chunk chunk = chunkAccessor.apply(data);
+            colours.computeIfAbsent(colourOf(chunk.getPosition()), key -> Lists.newArrayList()).add(chunk);
+        }
+
+        // Only changed between the colours, while no merge is running
+        Set<Vector3i> merged = Sets.newHashSetWithExpectedSize(batch.size());
+        for (List<Chunk> chunks : colours.values()) {
+            List<Callable<Void>> merges = Lists.newArrayListWithCapacity(chunks.size());
+            for (Chunk chunk : chunks) {
+                merges.add(() -> {
+                    merge(chunk, merged);
+                    return null;
+                });
+            }
+            for (Future<Void> result : mergePool.invokeAll(merges)) {
+                result.get();
+            }
+            for (Chunk chunk : chunks) {
+                merged.add(chunk.getPosition());
+            }
+        }
     }
 
-    private void merge(Chunk chunk) {
-        Chunk[] localChunks = assembleLocalChunks(chunk);
+    /**
+     * @return the colour of the chunk, two different chunks of the same colour never share a neighbour
+     */
+    static int colourOf(Vector3i chunkPos) {
+        return Math.floorMod(chunkPos.x, COLOUR_PERIOD)
+                + COLOUR_PERIOD * (Math.floorMod(chunkPos.y, COLOUR_PERIOD)
+                + COLOUR_PERIOD * Math.floorMod(chunkPos.z, COLOUR_PERIOD));
+    }
+
+    private void merge(Chunk chunk, Set<Vector3i> merged) {
+        Chunk[] localChunks = assembleLocalChunks(chunk, merged);
         localChunks[CENTER_INDEX] = chunk;
         List<BatchPropagator> propagators = Lists.newArrayList();
         propagators.add(new StandardBatchPropagator(new LightPropagationRules(), new LocalChunkView(localChunks, lightRules)));
@@ -100,7 +176,7 @@ private void merge(Chunk chunk) {
             // Propagate Outwards
             for (Side side : Side.values()) {
                 Vector3i adjChunkPos = side.getAdjacentPos(chunk.getPosition());
-                LitChunk adjChunk = chunkProvider.getChunk(adjChunkPos);
+                LitChunk adjChunk = getMergedChunk(adjChunkPos, merged);
                 if (adjChunk != null) {
                     propagator.propagateBetween(chunk, adjChunk, side, true);
                 }
@@ -112,13 +188,14 @@ private void merge(Chunk chunk) {
         chunk.deflateSunlight();
     }
 
-    private Chunk[] assembleLocalChunks(Chunk chunk) {
+    private Chunk[] assembleLocalChunks(Chunk chunk, Set<Vector3i> merged) {
         Chunk[] localChunks = new Chunk[27];
         int index = 0;
         for (int z = -1; z < 2; ++z) {
             for (int y = -1; y < 2; ++y) {
                 for (int x = -1; x < 2; ++x) {
-                    Chunk localChunk = chunkProvider.getChunk(chunk.getPosition().x + x, chunk.getPosition().y + y, chunk.getPosition().z + z);
+                    Vector3i localChunkPos = new Vector3i(chunk.getPosition().x + x, chunk.getPosition().y + y, chunk.getPosition().z + z);
+                    Chunk localChunk = getMergedChunk(localChunkPos, merged);
                     if (localChunk != null) {
                         localChunks[index] = localChunk;
                     }
@@ -129,19 +206,37 @@ private Chunk[] assembleLocalChunks(Chunk chunk) {
         return localChunks;
     }
 
+    /**
+     * @return the chunk if it is ready or got merged earlier in the current batch, null otherwise
+     */
+    private Chunk getMergedChunk(Vector3i chunkPos, Set<Vector3i> merged) {
+        Chunk chunk = chunkProvider.getChunk(chunkPos);
+        if (chunk == null && merged.contains(chunkPos)) {
+            chunk = chunkProvider.getChunkUnready(chunkPos);
+        }
+        return chunk;
+    }
+
+    private static ForkJoinPool createMergePool() {
+        return new ForkJoinPool(Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
     public void shutdown() {
         running = false;
         executorService.shutdown();
+        mergePool.shutdown();
         try {
             executorService.awaitTermination(10, TimeUnit.SECONDS);
+            mergePool.awaitTermination(10, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
-            logger.error("Failed to shutdown light merge thread in a timely manner");
+            logger.error("Failed to shutdown light merge threads in a timely manner");
         }
     }
 
     public void restart() {
         if (!running) {
             executorService = Executors.newSingleThreadExecutor();
+            mergePool = createMergePool();
             running = true;
         }
     }